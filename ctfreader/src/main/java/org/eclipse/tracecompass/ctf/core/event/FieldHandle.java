@@ -0,0 +1,191 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EfficiOS Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.ctf.core.event;
+
+import org.eclipse.tracecompass.ctf.core.event.types.Definition;
+import org.eclipse.tracecompass.ctf.core.event.types.EnumDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.FloatDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.ICompositeDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.IntegerDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.StringDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.StructDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.StructDefinition;
+import org.jetbrains.annotations.Nullable;
+
+import com.google.common.collect.Iterables;
+
+/**
+ * A field of an event type, resolved once so its value can be read in each
+ * event of that type without looking it up by name or boxing it.
+ * <p>
+ * Resolve the handle for each event declaration with
+ * {@link #resolve(IEventDeclaration, String)} or
+ * {@link #resolveContext(IEventDeclaration, String)}, then read the field of
+ * the events with {@link IEventDefinition#getLong(FieldHandle)},
+ * {@link IEventDefinition#getDouble(FieldHandle)} or
+ * {@link IEventDefinition#getString(FieldHandle)}. These only allocate to
+ * report an error.
+ *
+ * @since 2.1
+ */
+public final class FieldHandle {
+
+    private final IEventDeclaration fDeclaration;
+    private final String fName;
+    private final boolean fContext;
+    private final int fIndex;
+
+    private FieldHandle(IEventDeclaration declaration, String name, boolean context, int index) {
+        fDeclaration = declaration;
+        fName = name;
+        fContext = context;
+        fIndex = index;
+    }
+
+    /**
+     * Resolve a field of the payload of an event type. A field name also
+     * matches the same name prefixed with an underscore, like the lookups
+     * of the definitions.
+     *
+     * @param declaration
+     *            the event type
+     * @param name
+     *            the name of the field
+     * @return the handle, or null if the payload has no such field
+     */
+    public static @Nullable FieldHandle resolve(IEventDeclaration declaration, String name) {
+        return resolve(declaration, declaration.getFields(), name, false);
+    }
+
+    /**
+     * Resolve a field of the event context of an event type, not including
+     * the stream event context
+     *
+     * @param declaration
+     *            the event type
+     * @param name
+     *            the name of the field
+     * @return the handle, or null if the event context has no such field
+     */
+    public static @Nullable FieldHandle resolveContext(IEventDeclaration declaration, String name) {
+        return resolve(declaration, declaration.getContext(), name, true);
+    }
+
+    private static @Nullable FieldHandle resolve(IEventDeclaration declaration, @Nullable StructDeclaration struct, String name, boolean context) {
+        if (struct == null) {
+            return null;
+        }
+        Iterable<String> fieldNames = struct.getFieldsList();
+        int index = Iterables.indexOf(fieldNames, name::equals);
+        if (index == -1) {
+            String underscored = '_' + name;
+            index = Iterables.indexOf(fieldNames, underscored::equals);
+        }
+        return (index == -1) ? null : new FieldHandle(declaration, name, context, index);
+    }
+
+    /**
+     * Get the event type of the field
+     *
+     * @return the event declaration
+     */
+    public IEventDeclaration getDeclaration() {
+        return fDeclaration;
+    }
+
+    /**
+     * Get the name the field was resolved with
+     *
+     * @return the name
+     */
+    public String getName() {
+        return fName;
+    }
+
+    /**
+     * Read an integer or enum field
+     *
+     * @param event
+     *            an event of the type of the handle
+     * @return the value
+     * @throws IllegalArgumentException
+     *             if the event is of another type or the field is not an
+     *             integer or an enum
+     */
+    public long getLong(IEventDefinition event) {
+        Definition definition = getDefinition(event);
+        if (definition instanceof IntegerDefinition) {
+            return ((IntegerDefinition) definition).getValue();
+        } else if (definition instanceof EnumDefinition) {
+            return ((EnumDefinition) definition).getLongValue();
+        }
+        throw wrongType(definition, "an integer"); //$NON-NLS-1$
+    }
+
+    /**
+     * Read a floating point, integer or enum field
+     *
+     * @param event
+     *            an event of the type of the handle
+     * @return the value
+     * @throws IllegalArgumentException
+     *             if the event is of another type or the field is not a
+     *             number
+     */
+    public double getDouble(IEventDefinition event) {
+        Definition definition = getDefinition(event);
+        if (definition instanceof FloatDefinition) {
+            return ((FloatDefinition) definition).getValue();
+        } else if (definition instanceof IntegerDefinition) {
+            return ((IntegerDefinition) definition).getValue();
+        } else if (definition instanceof EnumDefinition) {
+            return ((EnumDefinition) definition).getLongValue();
+        }
+        throw wrongType(definition, "a number"); //$NON-NLS-1$
+    }
+
+    /**
+     * Read a string field, or the label of an enum field
+     *
+     * @param event
+     *            an event of the type of the handle
+     * @return the value, null for an enum value without a label
+     * @throws IllegalArgumentException
+     *             if the event is of another type or the field is not a
+     *             string or an enum
+     */
+    public @Nullable String getString(IEventDefinition event) {
+        Definition definition = getDefinition(event);
+        if (definition instanceof StringDefinition) {
+            return ((StringDefinition) definition).getValue();
+        } else if (definition instanceof EnumDefinition) {
+            return ((EnumDefinition) definition).getValue();
+        }
+        throw wrongType(definition, "a string"); //$NON-NLS-1$
+    }
+
+    private @Nullable Definition getDefinition(IEventDefinition event) {
+        if (event.getDeclaration() != fDeclaration) {
+            throw new IllegalArgumentException("Field " + fName + " is not resolved for event " + event.getDeclaration().getName()); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        ICompositeDefinition struct = fContext ? event.getEventContext() : event.getFields();
+        return (struct instanceof StructDefinition) ? ((StructDefinition) struct).getDefinitionAt(fIndex) : null;
+    }
+
+    private IllegalArgumentException wrongType(@Nullable Definition definition, String expected) {
+        String actual = (definition == null) ? "missing" : definition.getClass().getSimpleName(); //$NON-NLS-1$
+        return new IllegalArgumentException("Field " + fName + " is not " + expected + ": " + actual); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+    }
+
+    @Override
+    public String toString() {
+        return fDeclaration.getName() + '.' + (fContext ? "context." : "fields.") + fName; //$NON-NLS-1$ //$NON-NLS-2$
+    }
+}
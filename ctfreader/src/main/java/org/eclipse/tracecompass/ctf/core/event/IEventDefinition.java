@@ -11,6 +11,7 @@ package org.eclipse.tracecompass.ctf.core.event;
 
 import org.eclipse.tracecompass.ctf.core.event.types.ICompositeDefinition;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Map;
 
@@ -90,4 +91,50 @@ public interface IEventDefinition {
      */
     @NotNull Map<String, Object> getPacketAttributes();
 
+    /**
+     * Read an integer or enum field of this event, without boxing it
+     *
+     * @param handle
+     *            the field, resolved for the type of this event
+     * @return the value
+     * @throws IllegalArgumentException
+     *             if the handle is for another type or the field is not an
+     *             integer or an enum
+     * @since 2.1
+     */
+    default long getLong(FieldHandle handle) {
+        return handle.getLong(this);
+    }
+
+    /**
+     * Read a floating point, integer or enum field of this event, without
+     * boxing it
+     *
+     * @param handle
+     *            the field, resolved for the type of this event
+     * @return the value
+     * @throws IllegalArgumentException
+     *             if the handle is for another type or the field is not a
+     *             number
+     * @since 2.1
+     */
+    default double getDouble(FieldHandle handle) {
+        return handle.getDouble(this);
+    }
+
+    /**
+     * Read a string field of this event, or the label of an enum field
+     *
+     * @param handle
+     *            the field, resolved for the type of this event
+     * @return the value, null for an enum value without a label
+     * @throws IllegalArgumentException
+     *             if the handle is for another type or the field is not a
+     *             string or an enum
+     * @since 2.1
+     */
+    default @Nullable String getString(FieldHandle handle) {
+        return handle.getString(this);
+    }
+
 }
\ No newline at end of file
@@ -35,19 +35,18 @@ public final class BitBuffer {
 
     /* default bit width */
     private static final int BIT_CHAR = Byte.SIZE; // yum
+    private static final int BYTE_SHIFT = 3;
     private static final int BYTE_MASK = (1 << BIT_CHAR) - 1;
     private static final int BIT_SHORT = Short.SIZE;
-    private static final int SHORT_MASK = (1 << BIT_SHORT) - 1;
     private static final int BIT_INT = Integer.SIZE;
-    private static final long INT_MASK = (1L << BIT_INT) - 1;
     private static final int BIT_LONG = Long.SIZE;
 
     // ------------------------------------------------------------------------
     // Attributes
     // ------------------------------------------------------------------------
 
-    private final @NotNull ByteBuffer fBuffer;
-    private final long fBitCapacity;
+    private @NotNull ByteBuffer fBuffer;
+    private long fBitCapacity;
 
     /**
      * Bit-buffer's position, maximum value = Integer.MAX_VALUE * 8
@@ -110,7 +109,7 @@ public final class BitBuffer {
      *             raised if the buffer tries to read out of bounds
      */
     public int getInt() throws CTFException {
-        return getInt(BIT_INT, true);
+        return (int) get(BIT_INT, true);
     }
 
     /**
@@ -149,25 +148,49 @@ public final class BitBuffer {
         if (length > BIT_LONG) {
             throw new CTFException("Cannot read a long longer than 64 bits. Rquested: " + length); //$NON-NLS-1$
         }
-        if (length > BIT_INT) {
-            final int highShift = length - BIT_INT;
-            long a = getInt();
-            long b = getInt(highShift, false);
-            long retVal;
-            /* Cast the signed-extended int into a unsigned int. */
-            a &= INT_MASK;
-            b &= (1L << highShift) - 1L;
-
-            retVal = (fByteOrder == ByteOrder.BIG_ENDIAN) ? ((a << highShift) | b) : ((b << BIT_INT) | a);
-            /* sign extend */
-            if (signed) {
+        /* Nothing to read. */
+        if (length <= 0) {
+            return 0;
+        }
+
+        /* Validate that the buffer has enough bits. */
+        if (!canRead(length)) {
+            throw new CTFException("Cannot read the integer, " + //$NON-NLS-1$
+                    "the buffer does not have enough remaining space. " + //$NON-NLS-1$
+                    "Requested:" + length + " Available:" + (fBitCapacity - fPosition)); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+
+        final int index = (int) (fPosition >>> BYTE_SHIFT);
+        final int offset = (int) (fPosition & (BIT_CHAR - 1));
+        long val;
+
+        /*
+         * Try a fast read when the position is byte-aligned by using
+         * java.nio.ByteBuffer's native methods
+         */
+        if (offset == 0 && length == BIT_CHAR) {
+            val = fBuffer.get(index);
+        } else if (offset == 0 && length == BIT_SHORT) {
+            val = fBuffer.getShort(index);
+        } else if (offset == 0 && length == BIT_INT) {
+            val = fBuffer.getInt(index);
+        } else if (offset == 0 && length == BIT_LONG) {
+            val = fBuffer.getLong(index);
+        } else {
+            /* Shift and mask the field out of one or two 64-bit words */
+            val = (fByteOrder == ByteOrder.BIG_ENDIAN) ? getBitsBE(index, offset, length) : getBitsLE(index, offset, length);
+            if (signed && length < BIT_LONG) {
+                /* Sign extend */
                 int signExtendBits = BIT_LONG - length;
-                retVal = (retVal << signExtendBits) >> signExtendBits;
+                val = (val << signExtendBits) >> signExtendBits;
             }
-            return retVal;
         }
-        long retVal = getInt(length, signed);
-        return (signed ? retVal : (retVal & INT_MASK));
+        fPosition += length;
+
+        if (!signed && length < BIT_LONG) {
+            val &= (1L << length) - 1;
+        }
+        return val;
     }
 
     /**
@@ -195,199 +218,52 @@ public final class BitBuffer {
     }
 
     /**
-     * Relative <i>get</i> method for reading integer of <i>length</i> bits.
-     *
-     * Reads <i>length</i> bits starting at the current position. The result is
-     * signed extended if <i>signed</i> is true. The current position is
-     * increased of <i>length</i> bits.
-     *
-     * @param length
-     *            The length in bits of this integer
-     * @param signed
-     *            The sign extended flag
-     * @return The int value read from the buffer
-     * @throws CTFException
-     *             An error occurred reading the data. When the buffer is read
-     *             beyond its end, this exception will be raised.
+     * Get a big-endian field of up to 64 bits, numbering the bits from the
+     * most significant bit of each byte. The bits after the field are left
+     * unmasked.
      */
-    private int getInt(int length, boolean signed) throws CTFException {
-
-        /* Nothing to read. */
-        if (length == 0) {
-            return 0;
-        }
-
-        /* Validate that the buffer has enough bits. */
-        if (!canRead(length)) {
-            throw new CTFException("Cannot read the integer, " + //$NON-NLS-1$
-                    "the buffer does not have enough remaining space. " + //$NON-NLS-1$
-                    "Requested:" + length + " Available:" + (fBitCapacity - fPosition)); //$NON-NLS-1$ //$NON-NLS-2$
+    private long getBitsBE(int index, int offset, int length) {
+        long word = getWord(index, ByteOrder.BIG_ENDIAN);
+        long val = (word << offset) >>> (BIT_LONG - length);
+        int extra = offset + length - BIT_LONG;
+        if (extra > 0) {
+            /* The last bits are in a ninth byte */
+            val |= (fBuffer.get(index + Long.BYTES) & BYTE_MASK) >>> (BIT_CHAR - extra);
         }
-
-        /* Get the value from the byte buffer. */
-        int val = 0;
-        boolean gotIt = false;
-
-        /*
-         * Try a fast read when the position is byte-aligned by using
-         * java.nio.ByteBuffer's native methods
-         */
-        /*
-         * A faster alignment detection as the compiler cannot guaranty that pos
-         * is always positive.
-         */
-        if ((fPosition & (BitBuffer.BIT_CHAR - 1)) == 0) {
-            switch (length) {
-            case BitBuffer.BIT_CHAR:
-                // Byte
-                val = fBuffer.get((int) (fPosition / BIT_CHAR));
-                if (!signed) {
-                    val = val & BYTE_MASK;
-                }
-                gotIt = true;
-                break;
-
-            case BitBuffer.BIT_SHORT:
-                // Word
-                val = fBuffer.getShort((int) (fPosition / BIT_CHAR));
-                if (!signed) {
-                    val = val & SHORT_MASK;
-                }
-                gotIt = true;
-                break;
-
-            case BitBuffer.BIT_INT:
-                // Double word
-                val = fBuffer.getInt((int) (fPosition / BIT_CHAR));
-                gotIt = true;
-                break;
-
-            default:
-                break;
-            }
-        }
-
-        /* When not byte-aligned, fall-back to a general decoder. */
-        if (!gotIt) {
-            // Nothing read yet: use longer methods
-            if (fByteOrder == ByteOrder.LITTLE_ENDIAN) {
-                val = getIntLE(fPosition, length, signed);
-            } else {
-                val = getIntBE(fPosition, length, signed);
-            }
-        }
-        fPosition += length;
-
         return val;
     }
 
-    private int getIntBE(long index, int length, boolean signed) {
-        if ((length <= 0) || (length > BIT_INT)) {
-            throw new IllegalArgumentException("Length must be between 1-32 bits"); //$NON-NLS-1$
-        }
-        long end = index + length;
-        int startByte = (int) (index / BIT_CHAR);
-        int endByte = (int) ((end + (BIT_CHAR - 1)) / BIT_CHAR);
-        int currByte, lshift, cshift, mask, cmask, cache;
-        int value = 0;
-
-        currByte = startByte;
-        cache = fBuffer.get(currByte) & BYTE_MASK;
-        boolean isNeg = (cache & (1 << (BIT_CHAR - (index % BIT_CHAR) - 1))) != 0;
-        if (signed && isNeg) {
-            value = ~0;
-        }
-        if (startByte == (endByte - 1)) {
-            cmask = cache >>> ((BIT_CHAR - (end % BIT_CHAR)) % BIT_CHAR);
-            if (((length) % BIT_CHAR) > 0) {
-                mask = ~((~0) << length);
-                cmask &= mask;
-            }
-            value <<= length;
-            value |= cmask;
-            return value;
-        }
-        cshift = (int) (index % BIT_CHAR);
-        if (cshift > 0) {
-            mask = ~((~0) << (BIT_CHAR - cshift));
-            cmask = cache & mask;
-            lshift = BIT_CHAR - cshift;
-            value <<= lshift;
-            value |= cmask;
-            currByte++;
-        }
-        for (; currByte < (endByte - 1); currByte++) {
-            value <<= BIT_CHAR;
-            value |= fBuffer.get(currByte) & BYTE_MASK;
-        }
-        lshift = (int) (end % BIT_CHAR);
-        if (lshift > 0) {
-            mask = ~((~0) << lshift);
-            cmask = fBuffer.get(currByte) & BYTE_MASK;
-            cmask >>>= BIT_CHAR - lshift;
-            cmask &= mask;
-            value <<= lshift;
-            value |= cmask;
-        } else {
-            value <<= BIT_CHAR;
-            value |= fBuffer.get(currByte) & BYTE_MASK;
+    /**
+     * Get a little-endian field of up to 64 bits, numbering the bits from the
+     * least significant bit of each byte. The bits after the field are left
+     * unmasked.
+     */
+    private long getBitsLE(int index, int offset, int length) {
+        long word = getWord(index, ByteOrder.LITTLE_ENDIAN);
+        long val = word >>> offset;
+        if (offset + length > BIT_LONG) {
+            /* The last bits are in a ninth byte */
+            val |= (long) (fBuffer.get(index + Long.BYTES) & BYTE_MASK) << (BIT_LONG - offset);
         }
-        return value;
+        return val;
     }
 
-    private int getIntLE(long index, int length, boolean signed) {
-        if ((length <= 0) || (length > BIT_INT)) {
-            throw new IllegalArgumentException("Length must be between 1-32 bits"); //$NON-NLS-1$
-        }
-        long end = index + length;
-        int startByte = (int) (index / BIT_CHAR);
-        int endByte = (int) ((end + (BIT_CHAR - 1)) / BIT_CHAR);
-        int currByte, lshift, cshift, mask, cmask, cache, mod;
-        int value = 0;
-
-        currByte = endByte - 1;
-        cache = fBuffer.get(currByte) & BYTE_MASK;
-        mod = (int) (end % BIT_CHAR);
-        lshift = (mod > 0) ? mod : BIT_CHAR;
-        boolean isNeg = (cache & (1 << (lshift - 1))) != 0;
-        if (signed && isNeg) {
-            value = ~0;
-        }
-        if (startByte == (endByte - 1)) {
-            cmask = cache >>> (index % BIT_CHAR);
-            if (((length) % BIT_CHAR) > 0) {
-                mask = ~((~0) << length);
-                cmask &= mask;
-            }
-            value <<= length;
-            value |= cmask;
-            return value;
-        }
-        cshift = (int) (end % BIT_CHAR);
-        if (cshift > 0) {
-            mask = ~((~0) << cshift);
-            cmask = cache & mask;
-            value <<= cshift;
-            value |= cmask;
-            currByte--;
-        }
-        for (; currByte >= (startByte + 1); currByte--) {
-            value <<= BIT_CHAR;
-            value |= fBuffer.get(currByte) & BYTE_MASK;
-        }
-        lshift = (int) (index % BIT_CHAR);
-        if (lshift > 0) {
-            mask = ~((~0) << (BIT_CHAR - lshift));
-            cmask = fBuffer.get(currByte) & BYTE_MASK;
-            cmask >>>= lshift;
-            cmask &= mask;
-            value <<= (BIT_CHAR - lshift);
-            value |= cmask;
-        } else {
-            value <<= BIT_CHAR;
-            value |= fBuffer.get(currByte) & BYTE_MASK;
-        }
-        return value;
+    /**
+     * Load the 64-bit word starting at a byte, padded with zeroes past the
+     * end of the buffer
+     */
+    private long getWord(int index, ByteOrder order) {
+        if (index + Long.BYTES <= fBuffer.limit()) {
+            /* The buffer has the byte order of this bit buffer */
+            return fBuffer.getLong(index);
+        }
+        long word = 0;
+        int available = fBuffer.limit() - index;
+        for (int i = 0; i < available; i++) {
+            long b = fBuffer.get(index + i) & BYTE_MASK;
+            word |= (order == ByteOrder.BIG_ENDIAN) ? (b << (BIT_LONG - BIT_CHAR * (i + 1))) : (b << (BIT_CHAR * i));
+        }
+        return word;
     }
 
     // ------------------------------------------------------------------------
@@ -632,6 +508,24 @@ public final class BitBuffer {
         fPosition = newPosition;
     }
 
+    /**
+     * Move the position forward to the next multiple of an alignment, if it
+     * is not aligned already.
+     *
+     * @param alignment
+     *            The alignment in bits, a power of 2
+     * @throws CTFException
+     *             Thrown on out of bounds exceptions
+     * @since 2.1
+     */
+    public void align(long alignment) throws CTFException {
+        long mask = alignment - 1;
+        long pos = fPosition;
+        if ((pos & mask) != 0) {
+            position((pos + mask) & ~mask);
+        }
+    }
+
     /**
      *
      * Sets the position in the buffer.
@@ -651,6 +545,21 @@ public final class BitBuffer {
         return fBuffer;
     }
 
+    /**
+     * Read another byte buffer, keeping the byte order of this bit buffer. The
+     * position is reset to the start of the new buffer.
+     *
+     * @param buf
+     *            the bytebuffer to read
+     * @since 2.1
+     */
+    public void reset(@NotNull ByteBuffer buf) {
+        fBuffer = buf;
+        fBuffer.order(fByteOrder);
+        resetPosition();
+        fBitCapacity = (long) fBuffer.capacity() * BIT_CHAR;
+    }
+
     /**
      * Resets the bitbuffer.
      */
@@ -12,7 +12,6 @@
 
 package org.eclipse.tracecompass.ctf.core.event.types;
 
-import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ImmutableList;
 import org.eclipse.tracecompass.ctf.core.CTFException;
 import org.eclipse.tracecompass.ctf.core.event.io.BitBuffer;
@@ -41,18 +40,6 @@ public final class ArrayDeclaration extends CompoundDeclaration {
     private final int fLength;
     private final IDeclaration fElemType;
 
-    /**
-     * <pre>
-     * Cache where we can pre-generate the children names
-     * Key&colon; parent name
-     * Value&colon; children names
-     * ex: field &#8594; &lbrace;field&lbrack;0&rbrack;, field&lbrack;1&rbrack;, &hellip; field&lbrack;n&rbrack;&rbrace;
-     * </pre>
-     *
-     * TODO: investigate performance
-     */
-    private final transient ArrayListMultimap<String, String> fChildrenNames = ArrayListMultimap.create();
-
     // ------------------------------------------------------------------------
     // Constructors
     // ------------------------------------------------------------------------
@@ -105,6 +92,9 @@ public final class ArrayDeclaration extends CompoundDeclaration {
 
             return new ByteArrayDefinition(this, definitionScope, fieldName, data);
         }
+        if (isIntegerArray()) {
+            return IntegerArrayDefinition.read(this, definitionScope, fieldName, input, fLength);
+        }
         @NotNull List<Definition> definitions = read(input, definitionScope, fieldName);
         return new ArrayDefinition(this, definitionScope, fieldName, definitions);
     }
@@ -117,17 +107,9 @@ public final class ArrayDeclaration extends CompoundDeclaration {
 
     private @NotNull List<Definition> read(@NotNull BitBuffer input, @Nullable IDefinitionScope definitionScope, String fieldName) throws CTFException {
         ImmutableList.Builder<Definition> definitions = new ImmutableList.Builder<>();
-        if (!fChildrenNames.containsKey(fieldName)) {
-            for (int i = 0; i < fLength; i++) {
-                fChildrenNames.put(fieldName, fieldName + '[' + i + ']');
-            }
-        }
-        List<String> elemNames = fChildrenNames.get(fieldName);
+        String[] elemNames = getElementNames(fieldName, fLength);
         for (int i = 0; i < fLength; i++) {
-            String name = elemNames.get(i);
-            if (name == null) {
-                throw new IllegalStateException("Field " + fieldName + " has a nameless field");  //$NON-NLS-1$//$NON-NLS-2$
-            }
+            String name = elemNames[i];
             definitions.add(fElemType.createDefinition(definitionScope, name, input));
         }
         return definitions.build();
@@ -12,6 +12,9 @@
 
 package org.eclipse.tracecompass.ctf.core.event.types;
 
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * Parent of sequences and arrays
  *
@@ -22,6 +25,13 @@ public abstract class CompoundDeclaration extends Declaration {
     private static final int BIT_MASK = 0x03;
     private static final int BITS_PER_BYTE = 8;
 
+    /*
+     * The names of the elements, "field[i]", per field name. The declaration
+     * is shared by the streams decoded in parallel, so a published array is
+     * never modified, a longer one replaces it.
+     */
+    private final transient ConcurrentHashMap<String, String[]> fElementNames = new ConcurrentHashMap<>();
+
     /**
      * Get the element type
      *
@@ -66,4 +76,40 @@ public abstract class CompoundDeclaration extends Declaration {
         return false;
     }
 
+    /**
+     * Are the elements integers of up to 64 bits, read in bulk into an
+     * {@link IntegerArrayDefinition}
+     */
+    boolean isIntegerArray() {
+        IDeclaration elementType = getElementType();
+        return elementType instanceof IntegerDeclaration && ((IntegerDeclaration) elementType).getLength() <= Long.SIZE;
+    }
+
+    /**
+     * Get the names of the elements of a field
+     *
+     * @param fieldName
+     *            the name of the field
+     * @param length
+     *            the number of elements
+     * @return the names, "fieldName[i]". The array may be longer than the
+     *         number of elements and must not be modified.
+     */
+    String[] getElementNames(String fieldName, int length) {
+        String[] names = fElementNames.get(fieldName);
+        if (names != null && names.length >= length) {
+            return names;
+        }
+        return fElementNames.compute(fieldName, (name, current) -> {
+            if (current != null && current.length >= length) {
+                return current;
+            }
+            int from = (current == null) ? 0 : current.length;
+            String[] grown = (current == null) ? new String[length] : Arrays.copyOf(current, length);
+            for (int i = from; i < length; i++) {
+                grown[i] = name + '[' + i + ']';
+            }
+            return grown;
+        });
+    }
 }
@@ -57,15 +57,6 @@ public abstract class Declaration implements IDeclaration {
      *             Happens when there is an out of bounds exception
      */
     protected final void alignRead(BitBuffer input) throws CTFException {
-        long mask = getAlignment() - 1;
-        /*
-         * The alignment is a power of 2
-         */
-        long pos = input.position();
-        if ((pos & mask) == 0) {
-            return;
-        }
-        pos = (pos + mask) & ~mask;
-        input.position(pos);
+        input.align(getAlignment());
     }
 }
@@ -16,6 +16,7 @@ import com.google.common.collect.ImmutableMap;
 import org.eclipse.tracecompass.ctf.core.CTFException;
 import org.eclipse.tracecompass.ctf.core.event.io.BitBuffer;
 import org.eclipse.tracecompass.ctf.core.event.scope.IDefinitionScope;
+import org.eclipse.tracecompass.internal.ctf.core.event.types.EnumIntervalTable;
 import org.jetbrains.annotations.Nullable;
 
 import java.nio.ByteOrder;
@@ -206,12 +207,15 @@ public final class EnumDeclaration extends Declaration implements ISimpleDatatyp
     }
 
     /*
-     * Maps integer range -> string. A simple list for now, but feel free to
-     * optimize it. Babeltrace suggests an interval tree.
+     * Maps integer range -> string. The ranges are kept in the order they are
+     * added, and frozen into an immutable interval table on the first query,
+     * so the queries do not lock. Adding a range after that rebuilds it.
      */
     private class EnumTable {
 
-        private final List<LabelAndRange> ranges = new LinkedList<>();
+        private final List<LabelAndRange> ranges = new ArrayList<>();
+
+        private volatile @Nullable EnumIntervalTable fFrozen;
 
         public EnumTable() {
         }
@@ -231,6 +235,7 @@ public final class EnumDeclaration extends Declaration implements ISimpleDatatyp
             }
 
             ranges.add(newRange);
+            fFrozen = null;
 
             return true;
         }
@@ -242,13 +247,31 @@ public final class EnumDeclaration extends Declaration implements ISimpleDatatyp
          *            the value to query
          * @return the label corresponding to that value
          */
-        public synchronized @Nullable String query(long value) {
-            for (LabelAndRange r : ranges) {
-                if (r.intersects(value)) {
-                    return r.getLabel();
+        public @Nullable String query(long value) {
+            EnumIntervalTable frozen = fFrozen;
+            if (frozen == null) {
+                frozen = freeze();
+            }
+            return frozen.query(value);
+        }
+
+        private synchronized EnumIntervalTable freeze() {
+            EnumIntervalTable frozen = fFrozen;
+            if (frozen == null) {
+                int size = ranges.size();
+                long[] lows = new long[size];
+                long[] highs = new long[size];
+                String[] labels = new String[size];
+                for (int i = 0; i < size; i++) {
+                    LabelAndRange range = ranges.get(i);
+                    lows[i] = range.low;
+                    highs[i] = range.high;
+                    labels[i] = range.getLabel();
                 }
+                frozen = EnumIntervalTable.create(lows, highs, labels);
+                fFrozen = frozen;
             }
-            return null;
+            return frozen;
         }
 
         @Override
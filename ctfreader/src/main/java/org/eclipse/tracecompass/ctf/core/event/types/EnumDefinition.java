@@ -89,6 +89,16 @@ public final class EnumDefinition extends SimpleDatatypeDefinition {
         return fIntegerValue;
     }
 
+    /**
+     * Gets the integer value of the enum without boxing it
+     *
+     * @return the value of the enum.
+     * @since 2.1
+     */
+    public long getLongValue() {
+        return fIntegerValue;
+    }
+
     @Override
     public EnumDeclaration getDeclaration() {
         return (EnumDeclaration) super.getDeclaration();
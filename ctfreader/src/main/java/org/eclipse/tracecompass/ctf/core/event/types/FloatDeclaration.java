@@ -119,6 +119,25 @@ public final class FloatDeclaration extends Declaration implements ISimpleDataty
         return new FloatDefinition(this, definitionScope, fieldName, value);
     }
 
+    /**
+     * Read the value of a floating point number without creating its
+     * definition
+     *
+     * @param input
+     *            the input, moved past the number
+     * @return the value
+     * @throws CTFException
+     *             if the input is too short
+     * @since 2.1
+     */
+    public double readValue(BitBuffer input) throws CTFException {
+        ByteOrder byteOrder = input.getByteOrder();
+        input.setByteOrder(fByteOrder);
+        double value = read(input);
+        input.setByteOrder(byteOrder);
+        return value;
+    }
+
     @Override
     public String toString() {
         /* Only used for debugging */
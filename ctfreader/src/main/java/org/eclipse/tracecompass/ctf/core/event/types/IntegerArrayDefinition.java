@@ -0,0 +1,224 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EfficiOS Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.ctf.core.event.types;
+
+import java.nio.ByteOrder;
+import java.util.List;
+
+import org.eclipse.tracecompass.ctf.core.CTFException;
+import org.eclipse.tracecompass.ctf.core.event.io.BitBuffer;
+import org.eclipse.tracecompass.ctf.core.event.scope.IDefinitionScope;
+import org.jetbrains.annotations.Nullable;
+
+import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * An array or sequence of integers of up to 64 bits, held in a
+ * <code>short[]</code>, <code>int[]</code> or <code>long[]</code> depending
+ * on the size of its elements. The definitions of the elements are only
+ * created when {@link #getDefinitions()} is called.
+ *
+ * @since 2.1
+ */
+public final class IntegerArrayDefinition extends AbstractArrayDefinition {
+
+    // ------------------------------------------------------------------------
+    // Attributes
+    // ------------------------------------------------------------------------
+
+    private final IntegerDeclaration fElementType;
+    private final int fLength;
+
+    /* Only one of them is set, the narrowest the elements fit in */
+    private final @Nullable short[] fShorts;
+    private final @Nullable int[] fInts;
+    private final @Nullable long[] fLongs;
+
+    private transient @Nullable List<Definition> fDefs;
+
+    // ------------------------------------------------------------------------
+    // Constructors
+    // ------------------------------------------------------------------------
+
+    /**
+     * Constructor
+     *
+     * @param declaration
+     *            the array or sequence declaration, of integer elements
+     * @param definitionScope
+     *            the parent scope
+     * @param fieldName
+     *            the field name
+     * @param values
+     *            the values of the elements
+     */
+    public IntegerArrayDefinition(CompoundDeclaration declaration,
+            @Nullable IDefinitionScope definitionScope,
+            String fieldName,
+            long[] values) {
+        this(declaration, definitionScope, fieldName, values.length, null, null, values);
+    }
+
+    private IntegerArrayDefinition(CompoundDeclaration declaration,
+            @Nullable IDefinitionScope definitionScope,
+            String fieldName,
+            int length,
+            @Nullable short[] shorts,
+            @Nullable int[] ints,
+            @Nullable long[] longs) {
+        super(declaration, definitionScope, fieldName);
+        IDeclaration elementType = declaration.getElementType();
+        if (!(elementType instanceof IntegerDeclaration)) {
+            throw new IllegalArgumentException("Not an array of integers: " + declaration); //$NON-NLS-1$
+        }
+        fElementType = (IntegerDeclaration) elementType;
+        fLength = length;
+        fShorts = shorts;
+        fInts = ints;
+        fLongs = longs;
+    }
+
+    /**
+     * Read the elements of an array or sequence of integers of up to 64 bits
+     *
+     * @param declaration
+     *            the array or sequence declaration
+     * @param definitionScope
+     *            the parent scope
+     * @param fieldName
+     *            the field name
+     * @param input
+     *            the input, positioned before the first element
+     * @param length
+     *            the number of elements
+     * @return the definition
+     * @throws CTFException
+     *             if the input is too short
+     */
+    static IntegerArrayDefinition read(CompoundDeclaration declaration, @Nullable IDefinitionScope definitionScope,
+            String fieldName, BitBuffer input, int length) throws CTFException {
+        IntegerDeclaration element = (IntegerDeclaration) declaration.getElementType();
+        int bits = element.getLength();
+        boolean signed = element.isSigned();
+        long alignment = element.getAlignment();
+        if (length > 0) {
+            input.align(alignment);
+        }
+        /* Once aligned, the elements stay aligned if they fill their alignment */
+        long elementAlignment = (bits % alignment == 0) ? 1 : alignment;
+        ByteOrder previous = input.getByteOrder();
+        input.setByteOrder(element.getByteOrder());
+        try {
+            if (bits <= Short.SIZE) {
+                short[] values = new short[length];
+                for (int i = 0; i < length; i++) {
+                    input.align(elementAlignment);
+                    values[i] = (short) input.get(bits, signed);
+                }
+                return new IntegerArrayDefinition(declaration, definitionScope, fieldName, length, values, null, null);
+            }
+            if (bits <= Integer.SIZE) {
+                int[] values = new int[length];
+                for (int i = 0; i < length; i++) {
+                    input.align(elementAlignment);
+                    values[i] = (int) input.get(bits, signed);
+                }
+                return new IntegerArrayDefinition(declaration, definitionScope, fieldName, length, null, values, null);
+            }
+            long[] values = new long[length];
+            for (int i = 0; i < length; i++) {
+                input.align(elementAlignment);
+                values[i] = input.get(bits, signed);
+            }
+            return new IntegerArrayDefinition(declaration, definitionScope, fieldName, length, null, null, values);
+        } finally {
+            input.setByteOrder(previous);
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // Getters/Setters/Predicates
+    // ------------------------------------------------------------------------
+
+    @Override
+    public int getLength() {
+        return fLength;
+    }
+
+    /**
+     * Get the value of an element
+     *
+     * @param index
+     *            the index of the element
+     * @return the value, sign extended if the elements are signed
+     */
+    public long getValue(int index) {
+        short[] shorts = fShorts;
+        if (shorts != null) {
+            return fElementType.isSigned() ? shorts[index] : shorts[index] & 0xFFFFL;
+        }
+        int[] ints = fInts;
+        if (ints != null) {
+            return fElementType.isSigned() ? ints[index] : ints[index] & 0xFFFFFFFFL;
+        }
+        return requireLongs()[index];
+    }
+
+    /**
+     * Get the values of the elements
+     *
+     * @return a new array of the values, sign extended if the elements are
+     *         signed
+     */
+    public long[] getValues() {
+        long[] values = new long[fLength];
+        for (int i = 0; i < fLength; i++) {
+            values[i] = getValue(i);
+        }
+        return values;
+    }
+
+    private long[] requireLongs() {
+        long[] longs = fLongs;
+        if (longs == null) {
+            throw new IllegalStateException("No values"); //$NON-NLS-1$
+        }
+        return longs;
+    }
+
+    @Override
+    public synchronized List<Definition> getDefinitions() {
+        List<Definition> defs = fDefs;
+        if (defs == null) {
+            ImmutableList.Builder<Definition> builder = new ImmutableList.Builder<>();
+            for (int i = 0; i < fLength; i++) {
+                String fieldName = getFieldName() + '[' + i + ']';
+                builder.add(new IntegerDefinition(fElementType, getDefinitionScope(), fieldName, getValue(i)));
+            }
+            defs = builder.build();
+            fDefs = defs;
+        }
+        return defs;
+    }
+
+    // ------------------------------------------------------------------------
+    // Operations
+    // ------------------------------------------------------------------------
+
+    @Override
+    public String toString() {
+        StringBuilder b = new StringBuilder();
+        b.append('[');
+        Joiner.on(", ").appendTo(b, getDefinitions()); //$NON-NLS-1$
+        b.append(']');
+        return b.toString();
+    }
+}
@@ -357,6 +357,20 @@ public final class IntegerDeclaration extends Declaration implements ISimpleData
         return new IntegerDefinition(this, definitionScope, fieldName, value);
     }
 
+    /**
+     * Read the value of an integer without creating its definition
+     *
+     * @param input
+     *            the input, moved past the integer
+     * @return the value, sign extended if the integer is signed
+     * @throws CTFException
+     *             if the input is too short or the integer is over 64 bits
+     * @since 2.1
+     */
+    public long readValue(BitBuffer input) throws CTFException {
+        return read(input);
+    }
+
     @Override
     public String toString() {
         return "[declaration] integer[length:" + fLength + (fSigned ? " " : " un") + "signed" + " base:" + fBase + " byteOrder:" + fByteOrder + " encoding:" + fEncoding + " alignment:" + fAlignment + "  clock:" + fClock + "]"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$ //$NON-NLS-10$
@@ -11,20 +11,15 @@
 
 package org.eclipse.tracecompass.ctf.core.event.types;
 
-import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableList.Builder;
-import com.google.common.collect.Multimap;
 import org.eclipse.tracecompass.ctf.core.CTFException;
 import org.eclipse.tracecompass.ctf.core.event.io.BitBuffer;
 import org.eclipse.tracecompass.ctf.core.event.scope.IDefinitionScope;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Collection;
 import java.util.List;
 
-import static java.util.Objects.requireNonNull;
-
 /**
  * A CTF sequence declaration.
  *
@@ -41,7 +36,6 @@ public class SequenceDeclaration extends CompoundDeclaration {
 
     private final IDeclaration fElemType;
     private final String fLengthName;
-    private final transient Multimap<String, String> fPaths = ArrayListMultimap.create();
 
     // ------------------------------------------------------------------------
     // Constructors
@@ -90,7 +84,29 @@ public class SequenceDeclaration extends CompoundDeclaration {
         if (definitionScope != null) {
             lenDef = definitionScope.lookupDefinition(getLengthName());
         }
+        return createDefinition(definitionScope, fieldName, input, lenDef);
+    }
 
+    /**
+     * Create a definition from this declaration, with the definition of its
+     * length already looked up
+     *
+     * @param definitionScope
+     *            the definition scope, the parent where the definition will be
+     *            placed
+     * @param fieldName
+     *            the field name
+     * @param input
+     *            a bitbuffer to read from
+     * @param lenDef
+     *            the definition of the length field, null if not found
+     * @return a reference to the definition
+     * @throws CTFException
+     *             error in reading
+     * @since 2.1
+     */
+    public AbstractArrayDefinition createDefinition(@Nullable IDefinitionScope definitionScope,
+            String fieldName, BitBuffer input, @Nullable IDefinition lenDef) throws CTFException {
         if (lenDef == null) {
             throw new CTFException("Sequence length field not found"); //$NON-NLS-1$
         }
@@ -116,16 +132,13 @@ public class SequenceDeclaration extends CompoundDeclaration {
             input.get(data);
             return new ByteArrayDefinition(this, definitionScope, fieldName, data);
         }
-        Collection<String> collection = fPaths.get(fieldName);
-        while (collection.size() < length) {
-            fPaths.put(fieldName, fieldName + '[' + collection.size() + ']');
+        if (isIntegerArray()) {
+            return IntegerArrayDefinition.read(this, definitionScope, fieldName, input, (int) length);
         }
-        List<String> paths = (List<String>) fPaths.get(fieldName);
+        String[] paths = getElementNames(fieldName, (int) length);
         Builder<Definition> definitions = new ImmutableList.Builder<>();
         for (int i = 0; i < length; i++) {
-            /* We should not have inserted any null values */
-            String elemName = requireNonNull(paths.get(i));
-            definitions.add(fElemType.createDefinition(definitionScope, elemName, input));
+            definitions.add(fElemType.createDefinition(definitionScope, paths[i], input));
         }
         List<Definition> list = definitions.build();
         return new ArrayDefinition(this, definitionScope, fieldName, list);
@@ -12,9 +12,12 @@
 
 package org.eclipse.tracecompass.ctf.core.event.types;
 
+import java.nio.charset.Charset;
+
 import org.eclipse.tracecompass.ctf.core.CTFException;
 import org.eclipse.tracecompass.ctf.core.event.io.BitBuffer;
 import org.eclipse.tracecompass.ctf.core.event.scope.IDefinitionScope;
+import org.eclipse.tracecompass.internal.ctf.core.event.types.StringReader;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -41,6 +44,7 @@ public class StringDeclaration extends Declaration {
 
     private static final int BITS_PER_BYTE = Byte.SIZE;
     private final Encoding fEncoding;
+    private final Charset fCharset;
 
     // ------------------------------------------------------------------------
     // Constructors
@@ -54,6 +58,7 @@ public class StringDeclaration extends Declaration {
      */
     private StringDeclaration(Encoding encoding) {
         fEncoding = encoding;
+        fCharset = StringReader.getCharset(encoding);
     }
 
     /**
@@ -131,13 +136,7 @@ public class StringDeclaration extends Declaration {
         /* Offset the buffer position wrt the current alignment */
         alignRead(input);
 
-        StringBuilder sb = new StringBuilder();
-        char c = (char) input.get(BITS_PER_BYTE, false);
-        while (c != 0) {
-            sb.append(c);
-            c = (char) input.get(BITS_PER_BYTE, false);
-        }
-        return sb.toString();
+        return StringReader.read(input, fCharset);
     }
 
     @Override
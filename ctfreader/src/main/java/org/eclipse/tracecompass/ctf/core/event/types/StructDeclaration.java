@@ -16,6 +16,8 @@ import org.eclipse.tracecompass.ctf.core.CTFException;
 import org.eclipse.tracecompass.ctf.core.event.io.BitBuffer;
 import org.eclipse.tracecompass.ctf.core.event.scope.IDefinitionScope;
 import org.eclipse.tracecompass.ctf.core.event.scope.ILexicalScope;
+import org.eclipse.tracecompass.internal.ctf.core.event.types.EventScope;
+import org.eclipse.tracecompass.internal.ctf.core.event.types.StructDecoder;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -58,6 +60,9 @@ public class StructDeclaration extends Declaration {
     /** maximum bit alignment */
     private long fMaxAlign;
 
+    /** Specialized decoder of the fields, compiled on first use */
+    private volatile @Nullable StructDecoder fDecoder = null;
+
     // ------------------------------------------------------------------------
     // Constructors
     // ------------------------------------------------------------------------
@@ -182,6 +187,9 @@ public class StructDeclaration extends Declaration {
 
         StructDefinition structDefinition = new StructDefinition(this, definitionScope,
                 fieldScope, fieldScope.getName(), Arrays.asList(fFieldNames), myFields);
+        if (definitionScope instanceof EventScope) {
+            ((EventScope) definitionScope).setDefinition(fieldScope, structDefinition);
+        }
         fillStruct(input, myFields, structDefinition);
         return structDefinition;
     }
@@ -208,16 +216,26 @@ public class StructDeclaration extends Declaration {
         fields[length] = declaration;
         fFieldNames = names;
         fFields = fields;
+        fDecoder = null;
         fMaxAlign = Math.max(fMaxAlign, declaration.getAlignment());
     }
 
-    private void fillStruct(@NotNull BitBuffer input, final IDefinition[] myFields, StructDefinition structDefinition) throws CTFException {
-        final @NotNull String[] fieldNames = fFieldNames;
-        final @NotNull IDeclaration[] fields = fFields;
-        for (int i = 0; i < fields.length; i++) {
-            /* We should not have inserted null keys... */
-            myFields[i] = fields[i].createDefinition(structDefinition, fieldNames[i], input);
+    private void fillStruct(@NotNull BitBuffer input, final Definition[] myFields, StructDefinition structDefinition) throws CTFException {
+        StructDecoder decoder = fDecoder;
+        if (decoder == null) {
+            decoder = StructDecoder.create(this);
+            fDecoder = decoder;
+        }
+        EventScope eventScope = decoder.hasAbsoluteReferences() ? findEventScope(structDefinition) : null;
+        decoder.fill(input, myFields, structDefinition, eventScope);
+    }
+
+    private static @Nullable EventScope findEventScope(IDefinitionScope scope) {
+        IDefinitionScope current = scope;
+        while (current instanceof Definition) {
+            current = ((Definition) current).getDefinitionScope();
         }
+        return (current instanceof EventScope) ? (EventScope) current : null;
     }
 
     /**
@@ -240,12 +258,14 @@ public class StructDeclaration extends Declaration {
         alignRead(input);
         final Definition[] myFields = new Definition[fFields.length];
         IDefinitionScope merged = definitionScope;
-        if (eventHeaderDef != null) {
+        if (eventHeaderDef != null && !(definitionScope instanceof EventScope)) {
             merged = new InternalDef(definitionScope, eventHeaderDef);
         }
         StructDefinition structDefinition = new StructDefinition(this, merged,
                 fields, fields.getName(), Arrays.asList(fFieldNames), myFields);
-        if (merged instanceof InternalDef) {
+        if (merged instanceof EventScope) {
+            ((EventScope) merged).setDefinition(fields, structDefinition);
+        } else if (merged instanceof InternalDef) {
             InternalDef internalDef = (InternalDef) merged;
             internalDef.setDefinition(structDefinition);
         }
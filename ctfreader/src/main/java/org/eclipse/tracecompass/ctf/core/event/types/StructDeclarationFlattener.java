@@ -43,6 +43,20 @@ public final class StructDeclarationFlattener {
         return sd;
     }
 
+    /**
+     * Check if a struct is of fixed size, which means it only contains
+     * integers, enums, floats, and arrays and structs of them. The fields of
+     * such a struct are always at the same offsets from its start.
+     *
+     * @param sd
+     *            the struct
+     * @return if the struct is of fixed size
+     * @since 2.1
+     */
+    public static boolean isFixedSize(@NotNull StructDeclaration sd) {
+        return canBeFlattened(sd);
+    }
+
     /**
      * Check if this struct is fixed size
      *
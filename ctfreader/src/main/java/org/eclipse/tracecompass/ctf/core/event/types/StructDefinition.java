@@ -129,6 +129,19 @@ public final class StructDefinition extends ScopedDefinition implements IComposi
         return fDefinitionsMap.get(fieldName);
     }
 
+    /**
+     * Get the definition of a field by its position in the struct, without
+     * building the map of the fields
+     *
+     * @param index
+     *            the position of the field in the declaration of the struct
+     * @return the definition of the field, null if it has none
+     * @since 2.1
+     */
+    public Definition getDefinitionAt(int index) {
+        return fDefinitions[index];
+    }
+
     @Override
     public @NotNull List<String> getFieldNames() {
         return fFieldNames;
@@ -22,6 +22,7 @@ import java.util.Objects;
 import org.eclipse.tracecompass.ctf.core.CTFException;
 import org.eclipse.tracecompass.ctf.core.event.io.BitBuffer;
 import org.eclipse.tracecompass.ctf.core.event.scope.IDefinitionScope;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * A CTF C variant declaration.
@@ -43,7 +44,6 @@ public class VariantDeclaration extends Declaration {
     private String fTag = null;
     private static final long ALIGNMENT = 1;
     private final Map<String, IDeclaration> fFields = Collections.synchronizedMap(new HashMap<String, IDeclaration>());
-    private IDeclaration fDeclarationToPopulate;
 
     // ------------------------------------------------------------------------
     // Constructors
@@ -117,8 +117,30 @@ public class VariantDeclaration extends Declaration {
     @Override
     public VariantDefinition createDefinition(IDefinitionScope definitionScope,
             String fieldName, BitBuffer input) throws CTFException {
+        return createDefinition(definitionScope, fieldName, input, definitionScope.lookupDefinition(fTag));
+    }
+
+    /**
+     * Create a definition from this declaration, with the definition of its
+     * tag already looked up
+     *
+     * @param definitionScope
+     *            the definition scope, the parent where the definition will be
+     *            placed
+     * @param fieldName
+     *            the field name
+     * @param input
+     *            a bitbuffer to read from
+     * @param def
+     *            the definition of the tag, null if not found
+     * @return a reference to the definition
+     * @throws CTFException
+     *             error in reading
+     * @since 2.1
+     */
+    public VariantDefinition createDefinition(IDefinitionScope definitionScope,
+            String fieldName, BitBuffer input, @Nullable IDefinition def) throws CTFException {
         alignRead(input);
-        IDefinition def = definitionScope.lookupDefinition(fTag);
         EnumDefinition tagDef = (EnumDefinition) ((def instanceof EnumDefinition) ? def : null);
         if (tagDef == null) {
             throw new CTFException("Tag is not defined " + fTag); //$NON-NLS-1$
@@ -128,12 +150,12 @@ public class VariantDeclaration extends Declaration {
             throw new CTFException("Undefined enum selector for variant " + //$NON-NLS-1$
                     definitionScope.getScopePath().getPath());
         }
-        fDeclarationToPopulate = fFields.get(varFieldName);
-        if (fDeclarationToPopulate == null) {
+        IDeclaration declarationToPopulate = fFields.get(varFieldName);
+        if (declarationToPopulate == null) {
             throw new CTFException("Unknown enum selector for variant " + //$NON-NLS-1$
                     definitionScope.getScopePath().getPath());
         }
-        Definition fieldValue = fDeclarationToPopulate.createDefinition(definitionScope, fieldName, input);
+        Definition fieldValue = declarationToPopulate.createDefinition(definitionScope, fieldName, input);
         return new VariantDefinition(this, definitionScope, varFieldName, fieldName, fieldValue);
     }
 
@@ -175,7 +197,6 @@ public class VariantDeclaration extends Declaration {
     public int hashCode() {
         final int prime = 31;
         int result = 1;
-        result = prime * result + ((fDeclarationToPopulate == null) ? 0 : fDeclarationToPopulate.hashCode());
         if (fFields == null) {
             result = prime * result;
         } else {
@@ -200,9 +221,6 @@ public class VariantDeclaration extends Declaration {
         }
         VariantDeclaration other = (VariantDeclaration) obj;
 
-        if (!Objects.equals(fDeclarationToPopulate, other.fDeclarationToPopulate)) {
-            return false;
-        }
         // do not check the order of the fields
         if (!Objects.equals(fFields, other.fFields)) {
             return false;
@@ -18,8 +18,15 @@ import org.eclipse.tracecompass.ctf.core.event.scope.IDefinitionScope;
 import org.eclipse.tracecompass.ctf.core.event.scope.ILexicalScope;
 import org.eclipse.tracecompass.ctf.core.event.scope.LexicalScope;
 import org.eclipse.tracecompass.ctf.core.event.types.*;
+import org.eclipse.tracecompass.internal.ctf.core.BufferCleaner;
 import org.eclipse.tracecompass.internal.ctf.core.SafeMappedByteBuffer;
+import org.eclipse.tracecompass.internal.ctf.core.trace.EventCheckpointIndex;
+import org.eclipse.tracecompass.internal.ctf.core.trace.LttngPacketIndexFile;
+import org.eclipse.tracecompass.internal.ctf.core.trace.PacketHeaderDecoder;
+import org.eclipse.tracecompass.internal.ctf.core.trace.PacketHeaderIndexer;
+import org.eclipse.tracecompass.internal.ctf.core.trace.PacketBufferPool;
 import org.eclipse.tracecompass.internal.ctf.core.trace.StreamInputPacketIndex;
+import org.eclipse.tracecompass.internal.ctf.core.trace.StreamInputPacketIndexCache;
 import org.eclipse.tracecompass.internal.ctf.core.trace.StreamInputPacketIndexEntry;
 import org.eclipse.tracecompass.internal.ctf.core.trace.Utils;
 import org.jetbrains.annotations.Nullable;
@@ -29,7 +36,8 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.channels.FileChannel.MapMode;
-import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -82,6 +90,23 @@ public class CTFStreamInput implements IDefinitionScope {
      */
     private long fLostSoFar = 0;
 
+    /**
+     * Number of index entries in the packet index cache
+     */
+    private int fCachedEntries = 0;
+
+    /**
+     * Compiled decoder of the packet header and context, null if they are
+     * read with definitions
+     */
+    private @Nullable PacketHeaderDecoder fHeaderDecoder;
+    private boolean fHeaderDecoderCompiled = false;
+
+    /**
+     * Event checkpoints of this input, null if disabled
+     */
+    private volatile @Nullable EventCheckpointIndex fCheckpoints = null;
+
     // ------------------------------------------------------------------------
     // Constructors
     // ------------------------------------------------------------------------
@@ -141,6 +166,42 @@ public class CTFStreamInput implements IDefinitionScope {
         return fIndex;
     }
 
+    /**
+     * Get the event checkpoints of this input
+     *
+     * @return the checkpoints, null if disabled
+     */
+    @Nullable EventCheckpointIndex getCheckpoints() {
+        return fCheckpoints;
+    }
+
+    /**
+     * Enable or disable the event checkpoints of this input. Changing the
+     * interval drops the checkpoints taken so far.
+     *
+     * @param interval
+     *            the number of events between two checkpoints of a packet, 0
+     *            to disable them
+     */
+    synchronized void setCheckpointInterval(int interval) {
+        EventCheckpointIndex checkpoints = fCheckpoints;
+        if (interval <= 0) {
+            fCheckpoints = null;
+        } else if (checkpoints == null || checkpoints.getInterval() != interval) {
+            fCheckpoints = new EventCheckpointIndex(interval);
+        }
+    }
+
+    /**
+     * Get the estimated heap size of the packet index of this trace file
+     *
+     * @return the estimated size, in bytes
+     * @since 2.1
+     */
+    public long getIndexMemoryFootprint() {
+        return fIndex.getMemoryFootprint();
+    }
+
     /**
      * Gets the filename of the streamInput file.
      *
@@ -193,13 +254,106 @@ public class CTFStreamInput implements IDefinitionScope {
      * Create the index for this trace file.
      */
     public void setupIndex() {
+        if (!fIndex.isEmpty()) {
+            return;
+        }
+        if (!loadIndexCache()) {
+            loadLttngIndex();
+        }
+    }
 
-        /*
-         * The BitBuffer to extract data from the StreamInput
-         */
-        BitBuffer bitBuffer = new BitBuffer();
-        bitBuffer.setByteOrder(getStream().getTrace().getByteOrder());
+    /**
+     * Bulk load the index saved by a previous session, the packets that are
+     * not in it are indexed as usual.
+     *
+     * @return true if the index was loaded
+     */
+    private boolean loadIndexCache() {
+        if (!StreamInputPacketIndexCache.isEnabled()) {
+            return false;
+        }
+        List<ICTFPacketDescriptor> entries = StreamInputPacketIndexCache.load(StreamInputPacketIndexCache.getCacheFile(fFile),
+                fFile, getStream().getTrace().getUUID(), getStream().getId());
+        if (entries == null || entries.isEmpty()) {
+            return false;
+        }
+        ICTFPacketDescriptor last = entries.get(entries.size() - 1);
+        long lostSoFar = 0;
+        for (ICTFPacketDescriptor entry : entries) {
+            lostSoFar += entry.getLostEvents();
+        }
+        if (last.getOffsetBits() + last.getPacketSizeBits() < getStreamSizeBits()) {
+            /*
+             * The file has grown, check that the last cached packet was
+             * complete and is still the same.
+             */
+            fLostSoFar = lostSoFar - last.getLostEvents();
+            try (PacketHeaderIndexer indexer = openIndexer()) {
+                ICTFPacketDescriptor current = createPacketIndexEntry(indexer, last.getOffsetBits());
+                if (current.getPacketSizeBits() != last.getPacketSizeBits()
+                        || current.getContentSizeBits() != last.getContentSizeBits()
+                        || current.getTimestampBegin() != last.getTimestampBegin()
+                        || current.getTimestampEnd() != last.getTimestampEnd()) {
+                    fLostSoFar = 0;
+                    return false;
+                }
+            } catch (CTFException | IOException e) {
+                fLostSoFar = 0;
+                return false;
+            }
+        }
+        fIndex.appendAll(entries);
+        fLostSoFar = lostSoFar;
+        setTimestampEnd(last.getTimestampEnd());
+        fCachedEntries = fIndex.size();
+        return true;
+    }
+
+    /**
+     * Bulk load the index written by LTTng next to the trace file. Only the
+     * first and last packet headers are read, to check that the index
+     * matches the trace file.
+     */
+    private void loadLttngIndex() {
+        File indexFile = LttngPacketIndexFile.getIndexFile(fFile);
+        if (!indexFile.isFile()) {
+            return;
+        }
+        try (PacketHeaderIndexer indexer = openIndexer()) {
+            long size = indexer.size();
+            ICTFPacketDescriptor first = indexer.read(0, size, 0);
+            if (first == null) {
+                /* The packet headers are not of fixed size */
+                return;
+            }
+            List<ICTFPacketDescriptor> entries = LttngPacketIndexFile.load(indexFile, size, getStream().getId(), fStreamPacketContextDecl, first);
+            if (entries == null || entries.isEmpty() || !isSamePacket(first, entries.get(0))) {
+                return;
+            }
+            ICTFPacketDescriptor last = entries.get(entries.size() - 1);
+            long lostSoFar = 0;
+            for (ICTFPacketDescriptor entry : entries) {
+                lostSoFar += entry.getLostEvents();
+            }
+            ICTFPacketDescriptor current = indexer.read(last.getOffsetBits(), size, lostSoFar - last.getLostEvents());
+            if (current == null || !isSamePacket(current, last)) {
+                return;
+            }
+            fIndex.appendAll(entries);
+            fLostSoFar = lostSoFar;
+            setTimestampEnd(last.getTimestampEnd());
+        } catch (CTFException | IOException e) {
+            /* Index the packets as usual */
+        }
+    }
 
+    private static boolean isSamePacket(ICTFPacketDescriptor read, ICTFPacketDescriptor indexed) {
+        return read.getOffsetBits() == indexed.getOffsetBits()
+                && read.getPacketSizeBits() == indexed.getPacketSizeBits()
+                && read.getContentSizeBits() == indexed.getContentSizeBits()
+                && read.getPayloadStartBits() == indexed.getPayloadStartBits()
+                && read.getLostEvents() == indexed.getLostEvents()
+                && read.getAttributes().equals(indexed.getAttributes());
     }
 
     /**
@@ -213,6 +367,51 @@ public class CTFStreamInput implements IDefinitionScope {
      *             If there was a problem reading the packed header
      */
     public boolean addPacketHeaderIndex() throws CTFException {
+        try (PacketHeaderIndexer indexer = openIndexer()) {
+            return addPacketHeaderIndex(indexer);
+        } catch (IOException e) {
+            throw new CTFException("Failed to create packet index entry", e); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * Adds the next packet header index entries to the index of a stream
+     * input, until the last one ends at or after a timestamp. The trace file
+     * is opened once for all the packets, and fixed-layout packet headers
+     * are decoded without creating definitions.
+     *
+     * @param timestamp
+     *            the timestamp to index up to, {@link Long#MAX_VALUE} to index
+     *            the whole file
+     * @return true if there are more packets to add
+     * @throws CTFException
+     *             If there was a problem reading the packed header
+     * @since 2.1
+     */
+    public boolean addPacketHeaderIndexes(long timestamp) throws CTFException {
+        try (PacketHeaderIndexer indexer = openIndexer()) {
+            while (timestamp == Long.MAX_VALUE || fIndex.isEmpty() || fIndex.lastElement().getTimestampEnd() < timestamp) {
+                if (!addPacketHeaderIndex(indexer)) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            throw new CTFException("Failed to create packet index entry", e); //$NON-NLS-1$
+        }
+    }
+
+    private PacketHeaderIndexer openIndexer() throws IOException {
+        if (!fHeaderDecoderCompiled) {
+            ICTFStream stream = getStream();
+            fHeaderDecoder = PacketHeaderDecoder.create(fTracePacketHeaderDecl, fStreamPacketContextDecl,
+                    stream.getTrace().getByteOrder(), stream.getTrace().getUUID(), stream.getId());
+            fHeaderDecoderCompiled = true;
+        }
+        return new PacketHeaderIndexer(fFile, fHeaderDecoder);
+    }
+
+    private boolean addPacketHeaderIndex(PacketHeaderIndexer indexer) throws CTFException {
         long currentPosBits = 0L;
         if (!fIndex.isEmpty()) {
             ICTFPacketDescriptor pos = fIndex.lastElement();
@@ -221,10 +420,22 @@ public class CTFStreamInput implements IDefinitionScope {
             }
             currentPosBits = pos.getOffsetBits() + pos.getPacketSizeBits();
         }
-        if (currentPosBits < getStreamSizeBits()) {
-            fIndex.append(createPacketIndexEntry(currentPosBits));
+        long sizeBytes = fFile.length();
+        long lastModified = fFile.lastModified();
+        if (currentPosBits < sizeBytes * Byte.SIZE) {
+            fIndex.append(createPacketIndexEntry(indexer, currentPosBits));
             return true;
         }
+        if (fIndex.size() != fCachedEntries && StreamInputPacketIndexCache.isEnabled()) {
+            /* The index is complete, save it for the next time */
+            List<ICTFPacketDescriptor> entries = new ArrayList<>(fIndex.size());
+            for (int i = 0; i < fIndex.size(); i++) {
+                entries.add(fIndex.getElement(i));
+            }
+            StreamInputPacketIndexCache.save(StreamInputPacketIndexCache.getCacheFile(fFile), fFile, sizeBytes, lastModified,
+                    getStream().getTrace().getUUID(), getStream().getId(), entries);
+            fCachedEntries = entries.size();
+        }
         return false;
     }
 
@@ -232,24 +443,32 @@ public class CTFStreamInput implements IDefinitionScope {
         return fFile.length() * Byte.SIZE;
     }
 
-    private ICTFPacketDescriptor createPacketIndexEntry(long dataOffsetbits)
+    private ICTFPacketDescriptor createPacketIndexEntry(PacketHeaderIndexer indexer, long dataOffsetbits)
             throws CTFException {
 
-        try (FileChannel fc = FileChannel.open(fFile.toPath(), StandardOpenOption.READ)) {
-            if (fc == null) {
-                throw new IOException("Failed to create FileChannel"); //$NON-NLS-1$
+        try {
+            long size = indexer.size();
+            ICTFPacketDescriptor packetIndex = indexer.read(dataOffsetbits, size, fLostSoFar);
+            if (packetIndex != null) {
+                fLostSoFar = packetIndex.getLostEvents() + fLostSoFar;
+                setTimestampEnd(packetIndex.getTimestampEnd());
+            } else {
+                BitBuffer bitBuffer = createBitBufferForPacketHeader(indexer.getChannel(), dataOffsetbits);
+                try {
+                    /*
+                     * Read the trace packet header if it exists.
+                     */
+                    parseTracePacketHeader(bitBuffer);
+
+                    /*
+                     * Read the stream packet context if it exists.
+                     */
+                    packetIndex = parsePacketContext(dataOffsetbits, size, bitBuffer);
+                } finally {
+                    /* The definitions hold copies of the values */
+                    BufferCleaner.clean(bitBuffer.getByteBuffer());
+                }
             }
-            BitBuffer bitBuffer = createBitBufferForPacketHeader(fc, dataOffsetbits);
-            /*
-             * Read the trace packet header if it exists.
-             */
-            parseTracePacketHeader(bitBuffer);
-
-            /*
-             * Read the stream packet context if it exists.
-             */
-            long size = fc.size();
-            ICTFPacketDescriptor packetIndex = parsePacketContext(dataOffsetbits, size, bitBuffer);
 
             /* Basic validation */
             if (packetIndex.getContentSizeBits() > packetIndex.getPacketSizeBits()) {
@@ -275,7 +494,14 @@ public class CTFStreamInput implements IDefinitionScope {
         return bitBuffer;
     }
 
-    private static ByteBuffer getByteBufferAt(FileChannel fc, long position, long size) throws CTFException, IOException {
+    private ByteBuffer getByteBufferAt(FileChannel fc, long position, long size) throws CTFException, IOException {
+        CTFTrace trace = getStream().getTrace();
+        if (trace != null && trace.getIOStrategy() == CTFTrace.IOStrategy.POSITIONAL_READ) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            PacketBufferPool.readFully(fc, buffer, position);
+            buffer.flip();
+            return buffer;
+        }
         ByteBuffer map = SafeMappedByteBuffer.map(fc, MapMode.READ_ONLY, position, size);
         if (map == null) {
             throw new CTFException("Failed to allocate mapped byte buffer"); //$NON-NLS-1$
@@ -283,7 +509,7 @@ public class CTFStreamInput implements IDefinitionScope {
         return map;
     }
 
-    private static ByteBuffer createPacketBitBuffer(FileChannel fc,
+    private ByteBuffer createPacketBitBuffer(FileChannel fc,
             long packetOffsetBytes, long maxSize) throws CTFException, IOException {
         /*
          * If there is less data remaining than what we want to map, reduce the
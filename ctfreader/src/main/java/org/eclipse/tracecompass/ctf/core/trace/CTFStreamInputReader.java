@@ -18,18 +18,34 @@ import org.eclipse.tracecompass.ctf.core.event.IEventDefinition;
 import org.eclipse.tracecompass.ctf.core.event.io.BitBuffer;
 import org.eclipse.tracecompass.ctf.core.event.types.IDeclaration;
 import org.eclipse.tracecompass.ctf.core.event.types.StructDeclaration;
+import org.eclipse.tracecompass.internal.ctf.core.BufferCleaner;
 import org.eclipse.tracecompass.internal.ctf.core.SafeMappedByteBuffer;
 import org.eclipse.tracecompass.internal.ctf.core.trace.CTFPacketReader;
+import org.eclipse.tracecompass.internal.ctf.core.trace.EventBatch;
+import org.eclipse.tracecompass.internal.ctf.core.trace.EventCheckpointIndex;
+import org.eclipse.tracecompass.internal.ctf.core.trace.EventCheckpointIndex.Checkpoint;
+import org.eclipse.tracecompass.internal.ctf.core.trace.EventFilter;
+import org.eclipse.tracecompass.internal.ctf.core.trace.EventPrefetcher;
+import org.eclipse.tracecompass.internal.ctf.core.trace.MappedFile;
+import org.eclipse.tracecompass.internal.ctf.core.trace.MappedRegionCache;
+import org.eclipse.tracecompass.internal.ctf.core.trace.MappedRegionCache.Region;
+import org.eclipse.tracecompass.internal.ctf.core.trace.PacketBufferPool;
+import org.eclipse.tracecompass.internal.ctf.core.trace.PacketReadAhead;
 import org.eclipse.tracecompass.internal.ctf.core.trace.NullPacketReader;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
 import java.nio.channels.FileChannel;
 import java.nio.channels.FileChannel.MapMode;
 import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executor;
 import java.util.logging.Logger;
 
 /**
@@ -45,6 +61,11 @@ public class CTFStreamInputReader implements AutoCloseable {
 
     private static final int BITS_PER_BYTE = Byte.SIZE;
 
+    /**
+     * Stride of the touches bringing the mapped pages of a packet in memory
+     */
+    private static final int PAGE_SIZE = 4096;
+
     // ------------------------------------------------------------------------
     // Attributes
     // ------------------------------------------------------------------------
@@ -58,11 +79,61 @@ public class CTFStreamInputReader implements AutoCloseable {
 
     private final @Nullable FileChannel fFileChannel;
 
+    /**
+     * Mapped windows of the trace files, shared by the readers of the trace
+     */
+    private final @Nullable MappedRegionCache fMappedRegions;
+
+    /**
+     * Pooled buffer the current packet was read into, null if it is mapped
+     */
+    private @Nullable ByteBuffer fPacketBuffer = null;
+
+    /**
+     * Mapped region of the current packet, null if it is read
+     */
+    private @Nullable Region fPacketRegion = null;
+
+    /**
+     * The whole trace file, mapped while the reader is open with the
+     * {@link CTFTrace.IOStrategy#MAPPED_FILE} strategy
+     */
+    private @Nullable MappedFile fMappedFile = null;
+
+    /**
+     * Set once the reader is closed, so a packet still being loaded ahead
+     * does not map the file again
+     */
+    private boolean fClosed = false;
+
+    /**
+     * Loads the next packets ahead of the decoder, null when disabled
+     */
+    private @Nullable PacketReadAhead fReadAhead = null;
+
+    /**
+     * Sink of the bytes touched to bring mapped packets in memory
+     */
+    private volatile int fTouched;
+
     /**
      * The packet reader used to read packets from this trace file.
      */
     private IPacketReader fPacketReader;
 
+    /**
+     * Packet reader moved from packet to packet, null until the first packet
+     * or once it may be held by decoded events ahead of the consumer
+     */
+    private @Nullable CTFPacketReader fReusablePacketReader = null;
+
+    /**
+     * Declarations of the stream, resolved once for all the packets
+     */
+    private final List<IEventDeclaration> fEventDeclarations;
+    private final @Nullable IDeclaration fEventHeaderDecl;
+    private final @Nullable StructDeclaration fStreamEventContextDecl;
+
     /**
      * Iterator on the packet index
      */
@@ -79,7 +150,73 @@ public class CTFStreamInputReader implements AutoCloseable {
     /**
      * Live trace reading
      */
-    private boolean fLive = false;
+    private volatile boolean fLive = false;
+
+    /**
+     * Events after this timestamp, in cycles, are not read
+     */
+    private long fWindowEnd = Long.MAX_VALUE;
+
+    /**
+     * The reader went past the end of the time window
+     */
+    private boolean fPastWindowEnd = false;
+
+    /**
+     * The events to return, null for all of them
+     */
+    private @Nullable EventFilter fEventFilter = null;
+
+    /**
+     * Decode the contexts and payload of the events on first access
+     */
+    private boolean fLazyDecoding = false;
+
+    /**
+     * Decodes the events ahead on a worker thread, null when reading on the
+     * caller thread
+     */
+    private @Nullable EventPrefetcher fPrefetcher = null;
+
+    /**
+     * Events decoded ahead and not consumed yet when the prefetcher was
+     * stopped
+     */
+    private final Deque<EventPrefetcher.Item> fPending = new ArrayDeque<>();
+
+    /**
+     * The last event decoded by fPacketReader, ahead of the current event when
+     * decoding ahead
+     */
+    private @Nullable IEventDefinition fDecodedEvent = null;
+
+    /**
+     * The packet reader of the current event when the decoder is ahead of it,
+     * null when fPacketReader is the packet reader of the current event
+     */
+    private @Nullable IPacketReader fAheadPacketReader = null;
+
+    /**
+     * Rank in the trace file of the next event decoded by fPacketReader, -1
+     * if unknown
+     */
+    private long fDecodeRank = -1;
+
+    /**
+     * Rank of the first event decoded since the decoder last moved, the
+     * checkpoints are only taken if it is covered by the previous ones
+     */
+    private long fReadFrom = -1;
+
+    /**
+     * Rank of the last event decoded by fPacketReader, -1 if unknown
+     */
+    private long fDecodedRank = -1;
+
+    /**
+     * Rank of the current event, -1 if unknown
+     */
+    private long fCurrentRank = -1;
 
     // ------------------------------------------------------------------------
     // Constructors
@@ -95,11 +232,20 @@ public class CTFStreamInputReader implements AutoCloseable {
     public CTFStreamInputReader(CTFStreamInput streamInput) throws CTFException {
         fStreamInput = streamInput;
         fFile = fStreamInput.getFile();
+        ICTFStream stream = fStreamInput.getStream();
+        fEventDeclarations = stream.getEventDeclarations();
+        fEventHeaderDecl = stream.getEventHeaderDeclaration();
+        fStreamEventContextDecl = stream.getEventContextDecl();
         try {
             fFileChannel = FileChannel.open(fFile.toPath(), StandardOpenOption.READ);
         } catch (IOException e) {
             throw new CTFIOException(e);
         }
+        CTFTrace trace = fStreamInput.getStream().getTrace();
+        fMappedRegions = (trace == null) ? null : trace.getMappedRegionCache();
+        if (fMappedRegions != null) {
+            fMappedRegions.acquire(fFile);
+        }
         try {
             /*
              * Get the iterator on the packet index.
@@ -117,7 +263,7 @@ public class CTFStreamInputReader implements AutoCloseable {
                 }
             }
             ICTFPacketDescriptor packet = getPacket();
-            fPacketReader = getCurrentPacketReader(packet);
+            setPacket(packet);
         } catch (Exception e) {
             try {
                 close();
@@ -128,6 +274,40 @@ public class CTFStreamInputReader implements AutoCloseable {
         }
     }
 
+    /**
+     * Make a packet the current one of the decoder, releasing the buffer of
+     * the previous one
+     *
+     * @param packet
+     *            the packet, null for none
+     */
+    private void setPacket(@Nullable ICTFPacketDescriptor packet) throws CTFException {
+        releasePacketBuffer();
+        fPacketReader = NullPacketReader.INSTANCE;
+        PacketReadAhead readAhead = fReadAhead;
+        if (packet != null && readAhead != null) {
+            fPacketBuffer = readAhead.moveTo(fPacketIndex, fStreamInput.getIndex());
+        }
+        fPacketReader = getCurrentPacketReader(packet);
+    }
+
+    private void releasePacketBuffer() {
+        if (fPacketReader instanceof CTFPacketReader) {
+            /* The buffer may be unmapped or reused */
+            ((CTFPacketReader) fPacketReader).detach();
+        }
+        Region region = fPacketRegion;
+        if (region != null) {
+            fPacketRegion = null;
+            region.release();
+        }
+        ByteBuffer buffer = fPacketBuffer;
+        if (buffer != null) {
+            fPacketBuffer = null;
+            fStreamInput.getStream().getTrace().getPacketBufferPool().release(buffer);
+        }
+    }
+
     private IPacketReader getCurrentPacketReader(@Nullable ICTFPacketDescriptor packet) throws CTFException {
         IPacketReader ctfPacketReader = NullPacketReader.INSTANCE;
         if (packet != null) {
@@ -135,11 +315,22 @@ public class CTFStreamInputReader implements AutoCloseable {
             if (size < 0) {
                 throw new CTFIOException("Cannot have negative sized buffers."); //$NON-NLS-1$
             }
-            BitBuffer bitBuffer = new BitBuffer(getByteBufferAt(packet.getOffsetBits(), size));
+            ByteBuffer buffer = getPacketBuffer(packet.getOffsetBits(), size);
+            CTFPacketReader reusable = fReusablePacketReader;
+            if (reusable != null && fPrefetcher == null && fPending.isEmpty()) {
+                /* No decoded event ahead holds it */
+                reusable.reset(buffer, packet);
+                return reusable;
+            }
+            BitBuffer bitBuffer = new BitBuffer(buffer);
             bitBuffer.position(packet.getPayloadStartBits());
-            IDeclaration eventHeaderDeclaration = getStreamInput().getStream().getEventHeaderDeclaration();
             CTFTrace trace = getStreamInput().getStream().getTrace();
-            ctfPacketReader = new CTFPacketReader(bitBuffer, packet, getEventDeclarations(), eventHeaderDeclaration, getStreamEventContextDecl(), trace.getPacketHeaderDef(), trace);
+            CTFPacketReader packetReader = new CTFPacketReader(bitBuffer, packet, fEventDeclarations, fEventHeaderDecl, fStreamEventContextDecl, trace.getPacketHeaderDef(), trace, fEventFilter);
+            packetReader.setLazyDecoding(fLazyDecoding);
+            if (fPrefetcher == null) {
+                fReusablePacketReader = packetReader;
+            }
+            ctfPacketReader = packetReader;
         }
         return ctfPacketReader;
     }
@@ -160,7 +351,16 @@ public class CTFStreamInputReader implements AutoCloseable {
     public ByteBuffer getByteBufferAt(long position, long size) throws CTFException {
         ByteBuffer map;
         try {
-            map = SafeMappedByteBuffer.map(fFileChannel, MapMode.READ_ONLY, position / BITS_PER_BYTE, (size + BITS_PER_BYTE - 1) / BITS_PER_BYTE);
+            long offset = position / BITS_PER_BYTE;
+            long length = (size + BITS_PER_BYTE - 1) / BITS_PER_BYTE;
+            CTFTrace trace = fStreamInput.getStream().getTrace();
+            if (trace != null && trace.getIOStrategy() == CTFTrace.IOStrategy.POSITIONAL_READ) {
+                map = ByteBuffer.allocate((int) length);
+                PacketBufferPool.readFully(fFileChannel, map, offset);
+                map.flip();
+                return map;
+            }
+            map = SafeMappedByteBuffer.map(fFileChannel, MapMode.READ_ONLY, offset, length);
         } catch (IOException e) {
             throw new CTFIOException(e.getMessage(), e);
         }
@@ -170,6 +370,95 @@ public class CTFStreamInputReader implements AutoCloseable {
         return map;
     }
 
+    /**
+     * Decode the events of a packet into the columns of a batch, without
+     * building their definitions. The reader is not moved, but its event
+     * filter applies.
+     *
+     * @param packet
+     *            a packet of the trace file
+     * @param batch
+     *            the batch to add the events to
+     * @return the number of events read
+     * @throws CTFException
+     *             if the packet cannot be read or an event is malformed
+     * @since 2.1
+     */
+    public int readBatch(ICTFPacketDescriptor packet, EventBatch batch) throws CTFException {
+        ByteBuffer buffer = getByteBufferAt(packet.getOffsetBits(), packet.getContentSizeBits());
+        try {
+            BitBuffer bitBuffer = new BitBuffer(buffer);
+            bitBuffer.position(packet.getPayloadStartBits());
+            CTFTrace trace = getStreamInput().getStream().getTrace();
+            CTFPacketReader packetReader = new CTFPacketReader(bitBuffer, packet, fEventDeclarations, fEventHeaderDecl, fStreamEventContextDecl, trace.getPacketHeaderDef(), trace, fEventFilter);
+            return packetReader.readBatch(batch, Integer.MAX_VALUE);
+        } finally {
+            /* The batch holds copies of the values */
+            BufferCleaner.clean(buffer);
+        }
+    }
+
+    /**
+     * Get the buffer of a packet to decode, read into a pooled buffer or
+     * mapped depending on the I/O strategy of the trace
+     */
+    private ByteBuffer getPacketBuffer(long position, long size) throws CTFException {
+        ByteBuffer loaded = fPacketBuffer;
+        if (loaded != null) {
+            /* Read ahead */
+            return loaded.slice();
+        }
+        CTFTrace trace = fStreamInput.getStream().getTrace();
+        MappedRegionCache mappedRegions = fMappedRegions;
+        if (trace == null || mappedRegions == null) {
+            return getByteBufferAt(position, size);
+        }
+        long length = (size + BITS_PER_BYTE - 1) / BITS_PER_BYTE;
+        if (trace.getIOStrategy() == CTFTrace.IOStrategy.MAPPED_FILE) {
+            try {
+                /* Valid until the reader is closed, nothing to release */
+                return getMappedFile().slice(position / BITS_PER_BYTE, length);
+            } catch (IOException e) {
+                throw new CTFIOException(e.getMessage(), e);
+            }
+        }
+        if (trace.getIOStrategy() == CTFTrace.IOStrategy.MAPPED) {
+            try {
+                Region region = mappedRegions.getRegion(fFile, fFileChannel, position / BITS_PER_BYTE, length);
+                fPacketRegion = region;
+                return region.getBuffer();
+            } catch (IOException e) {
+                throw new CTFIOException(e.getMessage(), e);
+            }
+        }
+        if (length > Integer.MAX_VALUE) {
+            throw new CTFIOException("Packet too large to be read: " + length + " bytes"); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        ByteBuffer buffer = trace.getPacketBufferPool().acquire((int) length);
+        fPacketBuffer = buffer;
+        buffer.limit((int) length);
+        try {
+            PacketBufferPool.readFully(fFileChannel, buffer, position / BITS_PER_BYTE);
+        } catch (IOException e) {
+            throw new CTFIOException(e.getMessage(), e);
+        }
+        buffer.flip();
+        /* The bit buffer reads up to the capacity */
+        return buffer.slice();
+    }
+
+    private synchronized MappedFile getMappedFile() throws ClosedChannelException {
+        if (fClosed) {
+            throw new ClosedChannelException();
+        }
+        MappedFile mappedFile = fMappedFile;
+        if (mappedFile == null) {
+            mappedFile = new MappedFile(Objects.requireNonNull(fFileChannel), MappedFile.DEFAULT_CHUNK_SIZE);
+            fMappedFile = mappedFile;
+        }
+        return mappedFile;
+    }
+
     /**
      * Dispose the StreamInputReader, closes the file channel and its packet
      * reader
@@ -179,10 +468,30 @@ public class CTFStreamInputReader implements AutoCloseable {
      */
     @Override
     public void close() throws IOException {
+        markClosed();
+        setPrefetch(null, 0);
+        setReadAhead(null, 0);
         if (fFileChannel != null) {
+            if (fFileChannel.isOpen() && fMappedRegions != null) {
+                fMappedRegions.release(fFile);
+            }
             fFileChannel.close();
         }
+        releasePacketBuffer();
         fPacketReader = NullPacketReader.INSTANCE;
+        closeMappedFile();
+    }
+
+    private synchronized void markClosed() {
+        fClosed = true;
+    }
+
+    private synchronized void closeMappedFile() {
+        MappedFile mappedFile = fMappedFile;
+        if (mappedFile != null) {
+            fMappedFile = null;
+            mappedFile.close();
+        }
     }
 
     // ------------------------------------------------------------------------
@@ -226,7 +535,7 @@ public class CTFStreamInputReader implements AutoCloseable {
      * @return The CPU id (a number)
      */
     public int getCPU() {
-        return fPacketReader.getCPU();
+        return getCurrentPacketReader().getCPU();
     }
 
     /**
@@ -252,7 +561,7 @@ public class CTFStreamInputReader implements AutoCloseable {
      * @since 2.0
      */
     public List<IEventDeclaration> getEventDeclarations() {
-        return fStreamInput.getStream().getEventDeclarations();
+        return fEventDeclarations;
     }
 
     /**
@@ -280,7 +589,198 @@ public class CTFStreamInputReader implements AutoCloseable {
      * @return the event context declaration of the stream
      */
     public @Nullable StructDeclaration getStreamEventContextDecl() {
-        return getStreamInput().getStream().getEventContextDecl();
+        return fStreamEventContextDecl;
+    }
+
+    /**
+     * Decode the events ahead of the consumer on the given executor, or go
+     * back to decoding on the caller thread. The events are returned in the
+     * same order either way.
+     *
+     * @param executor
+     *            the executor running the decoding, null to decode on the
+     *            caller thread
+     * @param depth
+     *            the maximum number of events decoded ahead
+     */
+    void setPrefetch(@Nullable Executor executor, int depth) {
+        stopPrefetch();
+        if (executor == null) {
+            fPrefetcher = null;
+            return;
+        }
+        fAheadPacketReader = getCurrentPacketReader();
+        /* The events decoded ahead keep their packet readers */
+        fReusablePacketReader = null;
+        fPrefetcher = new EventPrefetcher(new EventPrefetcher.IEventSource() {
+            @Override
+            public CTFResponse read() throws CTFException {
+                return decodeNextEvent();
+            }
+
+            @Override
+            public @Nullable IEventDefinition getCurrentEvent() {
+                return fDecodedEvent;
+            }
+
+            @Override
+            public IPacketReader getPacketReader() {
+                return fPacketReader;
+            }
+        }, executor, depth);
+    }
+
+    /**
+     * Load the next packets ahead of the decoder on the given executor, so
+     * their data is in memory when the decoder gets to them.
+     *
+     * @param executor
+     *            the executor running the loads, null to disable the
+     *            read-ahead
+     * @param maxDepth
+     *            the maximum number of packets loaded ahead
+     */
+    void setReadAhead(@Nullable Executor executor, int maxDepth) {
+        stopPrefetch();
+        PacketReadAhead previous = fReadAhead;
+        if (previous != null) {
+            previous.clear();
+        }
+        fReadAhead = (executor == null) ? null : new PacketReadAhead(executor, new PacketLoader(), maxDepth);
+    }
+
+    /**
+     * Loads the packets of the trace file ahead of the decoder, with the I/O
+     * strategy of the trace: the packets are read into pooled buffers, or
+     * their mapped pages are touched.
+     */
+    private final class PacketLoader implements PacketReadAhead.IPacketLoader {
+        @Override
+        public @Nullable ByteBuffer load(ICTFPacketDescriptor packet) throws IOException {
+            long offset = packet.getOffsetBytes();
+            long length = (packet.getContentSizeBits() + BITS_PER_BYTE - 1) / BITS_PER_BYTE;
+            CTFTrace trace = fStreamInput.getStream().getTrace();
+            if (trace != null && trace.getIOStrategy() == CTFTrace.IOStrategy.POSITIONAL_READ) {
+                if (length > Integer.MAX_VALUE) {
+                    return null;
+                }
+                PacketBufferPool pool = trace.getPacketBufferPool();
+                ByteBuffer buffer = pool.acquire((int) length);
+                try {
+                    buffer.limit((int) length);
+                    PacketBufferPool.readFully(fFileChannel, buffer, offset);
+                } catch (IOException | RuntimeException e) {
+                    pool.release(buffer);
+                    throw e;
+                }
+                buffer.flip();
+                return buffer;
+            }
+            if (trace != null && trace.getIOStrategy() == CTFTrace.IOStrategy.MAPPED_FILE) {
+                fTouched = getMappedFile().touch(offset, length, PAGE_SIZE);
+                return null;
+            }
+            MappedRegionCache mappedRegions = fMappedRegions;
+            if (mappedRegions == null) {
+                return null;
+            }
+            Region region = mappedRegions.getRegion(fFile, fFileChannel, offset, length);
+            try {
+                ByteBuffer buffer = region.getBuffer();
+                int touched = 0;
+                for (int i = 0; i < buffer.limit(); i += PAGE_SIZE) {
+                    touched += buffer.get(i);
+                }
+                fTouched = touched;
+            } finally {
+                region.release();
+            }
+            return null;
+        }
+
+        @Override
+        public void release(ByteBuffer buffer) {
+            fStreamInput.getStream().getTrace().getPacketBufferPool().release(buffer);
+        }
+    }
+
+    /**
+     * Set the end of the time window of this reader. Events after the end are
+     * not read, and packets that begin after it are not mapped. The reader
+     * must be seeked after changing the window.
+     *
+     * @param windowEnd
+     *            the end of the window, in cycles, {@link Long#MAX_VALUE} for
+     *            no end
+     */
+    void setWindowEnd(long windowEnd) {
+        resetPrefetch();
+        fWindowEnd = windowEnd;
+        fPastWindowEnd = false;
+    }
+
+    /**
+     * Set the event type filter of this reader. The events it rejects are
+     * skipped by the packet readers. The reader must be seeked after changing
+     * the filter.
+     *
+     * @param filter
+     *            the filter, null to read all the events
+     */
+    void setEventFilter(@Nullable EventFilter filter) {
+        resetPrefetch();
+        fEventFilter = filter;
+        fReusablePacketReader = null;
+        fDecodeRank = -1;
+    }
+
+    /**
+     * Set whether the contexts and payload of the events are decoded when the
+     * events are read, or the first time they are looked at. The events
+     * already decoded ahead are kept as they are.
+     *
+     * @param lazy
+     *            true to decode them on first access
+     */
+    void setLazyDecoding(boolean lazy) {
+        stopPrefetch();
+        fLazyDecoding = lazy;
+        if (fPacketReader instanceof CTFPacketReader) {
+            ((CTFPacketReader) fPacketReader).setLazyDecoding(lazy);
+        }
+    }
+
+    /**
+     * Get the rank of the current event in the trace file. It is known when
+     * the events were read directly since the first event of the file, a
+     * seek that resumed from a checkpoint, or a packet start covered by the
+     * checkpoints.
+     *
+     * @return the rank, -1 if unknown
+     */
+    long getCurrentRank() {
+        return fCurrentRank;
+    }
+
+    /**
+     * Stop the decoding ahead so the decoder can be used directly. The events
+     * already decoded are kept and returned first by the next reads.
+     */
+    private void stopPrefetch() {
+        EventPrefetcher prefetcher = fPrefetcher;
+        if (prefetcher != null) {
+            fPending.addAll(prefetcher.stop());
+        }
+    }
+
+    /**
+     * Stop the decoding ahead and drop the events already decoded, before
+     * moving the decoder elsewhere.
+     */
+    private void resetPrefetch() {
+        stopPrefetch();
+        fPending.clear();
+        fAheadPacketReader = null;
     }
 
     // ------------------------------------------------------------------------
@@ -294,6 +794,48 @@ public class CTFStreamInputReader implements AutoCloseable {
      *             if an error occurs
      */
     public CTFResponse readNextEvent() throws CTFException {
+        EventPrefetcher.Item item = fPending.poll();
+        EventPrefetcher prefetcher = fPrefetcher;
+        if (item == null && prefetcher != null) {
+            if (fAheadPacketReader == null) {
+                /* Resuming after a seek, the decoder is not running */
+                fAheadPacketReader = fPacketReader;
+            }
+            item = prefetcher.next();
+        }
+        if (item == null) {
+            fAheadPacketReader = null;
+            return readNextEventDirect();
+        }
+        CTFException error = item.getError();
+        if (error != null) {
+            setCurrentEvent(null);
+            throw error;
+        }
+        setCurrentEvent(item.getEvent());
+        IPacketReader packetReader = item.getPacketReader();
+        if (packetReader != null) {
+            fAheadPacketReader = packetReader;
+        }
+        return item.getResponse();
+    }
+
+    /**
+     * Reads the next event on the caller thread, the decoder must not be
+     * running ahead.
+     */
+    private CTFResponse readNextEventDirect() throws CTFException {
+        CTFResponse response = decodeNextEvent();
+        setCurrentEvent(fDecodedEvent);
+        fCurrentRank = fDecodedRank;
+        return response;
+    }
+
+    private CTFResponse decodeNextEvent() throws CTFException {
+        if (fPastWindowEnd) {
+            fDecodedEvent = null;
+            return CTFResponse.FINISH;
+        }
 
         /*
          * Change packet if needed
@@ -309,14 +851,96 @@ public class CTFStreamInputReader implements AutoCloseable {
         /*
          * If an event is available, read it.
          */
+        fDecodedRank = -1;
         if (fPacketReader.hasMoreEvents()) {
-            setCurrentEvent(fPacketReader.readNextEvent());
+            /* The position of the event, for the checkpoints */
+            CTFPacketReader packetReader = (fEventFilter == null && fPacketReader instanceof CTFPacketReader) ? (CTFPacketReader) fPacketReader : null;
+            long position = 0;
+            long previousTimestamp = 0;
+            boolean packetStart = false;
+            if (packetReader != null) {
+                position = packetReader.getPosition();
+                previousTimestamp = packetReader.getLastTimestamp();
+                packetStart = (position == packetReader.getCurrentPacket().getPayloadStartBits());
+                if (fDecodeRank < 0 && packetStart) {
+                    findPacketStartRank(position);
+                }
+            }
+            IEventDefinition event;
+            try {
+                event = fPacketReader.readNextEvent();
+            } catch (CTFException e) {
+                fDecodeRank = -1;
+                throw e;
+            }
+            if (event != null && event.getTimestamp() > fWindowEnd) {
+                endWindow();
+                fDecodedEvent = null;
+                return CTFResponse.FINISH;
+            }
+            if (event != null && packetReader != null && fDecodeRank >= 0) {
+                EventCheckpointIndex checkpoints = fStreamInput.getCheckpoints();
+                if (checkpoints != null && checkpoints.isCheckpoint(fDecodeRank, packetStart)) {
+                    checkpoints.add(fReadFrom, fDecodeRank, fPacketIndex, position, previousTimestamp, event.getTimestamp());
+                }
+                fDecodedRank = fDecodeRank++;
+            } else {
+                fDecodeRank = -1;
+            }
+            fDecodedEvent = event;
             return CTFResponse.OK;
         }
-        this.setCurrentEvent(null);
+        fDecodedEvent = null;
+        if (!fLive && fDecodeRank >= 0 && fPacketReader.getCurrentPacket() == null) {
+            /* Reached the end of the file */
+            EventCheckpointIndex checkpoints = fStreamInput.getCheckpoints();
+            if (checkpoints != null) {
+                checkpoints.setEventCount(fDecodeRank);
+            }
+        }
         return fLive ? CTFResponse.WAIT : CTFResponse.FINISH;
     }
 
+    /**
+     * Find the rank of the first event of the current packet, the decoder
+     * being at its start
+     */
+    private void findPacketStartRank(long position) {
+        if (fPacketIndex == 0) {
+            fDecodeRank = 0;
+        } else {
+            EventCheckpointIndex checkpoints = fStreamInput.getCheckpoints();
+            if (checkpoints == null) {
+                return;
+            }
+            Checkpoint checkpoint = checkpoints.find(fPacketIndex, Long.MIN_VALUE);
+            if (checkpoint == null || checkpoint.getPosition() != position) {
+                return;
+            }
+            fDecodeRank = checkpoint.getRank();
+        }
+        fReadFrom = fDecodeRank;
+    }
+
+    /**
+     * Move the decoder of the current packet to its last checkpoint before a
+     * timestamp, instead of decoding the events before it
+     */
+    private void resumeFromCheckpoint(long timestamp) throws CTFException {
+        EventCheckpointIndex checkpoints = fStreamInput.getCheckpoints();
+        if (checkpoints == null || fEventFilter != null || !(fPacketReader instanceof CTFPacketReader)) {
+            return;
+        }
+        CTFPacketReader packetReader = (CTFPacketReader) fPacketReader;
+        Checkpoint checkpoint = checkpoints.find(fPacketIndex, timestamp);
+        if (checkpoint == null || checkpoint.getPosition() < packetReader.getPosition()) {
+            return;
+        }
+        packetReader.resume(checkpoint.getPosition(), checkpoint.getPreviousTimestamp());
+        fDecodeRank = checkpoint.getRank();
+        fReadFrom = fDecodeRank;
+    }
+
     /**
      * Change the current packet of the packet reader to the next one.
      *
@@ -331,14 +955,29 @@ public class CTFStreamInputReader implements AutoCloseable {
             if (fStreamInput.addPacketHeaderIndex()) {
                 fPacketIndex = getPacketSize() - 1;
             } else {
-                fPacketReader = NullPacketReader.INSTANCE;
+                setPacket(null);
                 return;
             }
 
         }
         ICTFPacketDescriptor packet = getPacket();
-        fPacketReader = getCurrentPacketReader(packet);
+        if (packet != null && packet.getTimestampBegin() > fWindowEnd) {
+            /* Do not map packets past the window */
+            endWindow();
+            return;
+        }
+        setPacket(packet);
+
+    }
 
+    /**
+     * The reader went past the end of the time window, this stream is
+     * finished until the next seek.
+     */
+    private void endWindow() {
+        fPastWindowEnd = true;
+        releasePacketBuffer();
+        fPacketReader = NullPacketReader.INSTANCE;
     }
 
     /**
@@ -361,6 +1000,20 @@ public class CTFStreamInputReader implements AutoCloseable {
     public long seek(long timestamp) throws CTFException {
         long offset = 0;
 
+        resetPrefetch();
+        fPastWindowEnd = false;
+        fDecodeRank = -1;
+
+        /*
+         * Index up to the desired timestamp before switching packet, so the
+         * packets before it are not mapped.
+         */
+        try {
+            fStreamInput.addPacketHeaderIndexes(timestamp);
+        } catch (CTFException e) {
+            LOGGER.severe(() -> e.getMessage());
+        }
+
         gotoPacket(timestamp);
 
         /*
@@ -380,6 +1033,12 @@ public class CTFStreamInputReader implements AutoCloseable {
             gotoPacket(timestamp);
         }
 
+        /*
+         * Skip the events of the packet before the timestamp that were
+         * already read once.
+         */
+        resumeFromCheckpoint(timestamp);
+
         /*
          * Advance until either of these conditions are met:
          *
@@ -389,10 +1048,10 @@ public class CTFStreamInputReader implements AutoCloseable {
          * - found the first event with a timestamp greater or equal the given
          * timestamp.
          */
-        readNextEvent();
+        readNextEventDirect();
         IEventDefinition currentEvent = getCurrentEvent();
         while (currentEvent != null && (currentEvent.getTimestamp() < timestamp)) {
-            readNextEvent();
+            readNextEventDirect();
             currentEvent = getCurrentEvent();
             offset++;
         }
@@ -420,11 +1079,14 @@ public class CTFStreamInputReader implements AutoCloseable {
      *             if an error occurs
      */
     public void goToLastEvent() throws CTFException {
+        resetPrefetch();
+        fPastWindowEnd = false;
 
         /*
          * Go to the beginning of the trace
          */
         seek(0);
+        fDecodeRank = -1;
 
         /*
          * Check that there is at least one event
@@ -440,7 +1102,7 @@ public class CTFStreamInputReader implements AutoCloseable {
         /*
          * Go to last indexed packet
          */
-        fPacketReader = getCurrentPacketReader(getPacket());
+        setPacket(getPacket());
 
         /*
          * Keep going until you cannot
@@ -455,7 +1117,7 @@ public class CTFStreamInputReader implements AutoCloseable {
          */
         for (int pos = lastPacketIndex; pos > 0; pos--) {
             fPacketIndex = pos;
-            fPacketReader = getCurrentPacketReader(getPacket());
+            setPacket(getPacket());
 
             if (fPacketReader.hasMoreEvents()) {
                 break;
@@ -468,7 +1130,7 @@ public class CTFStreamInputReader implements AutoCloseable {
         IEventDefinition prevEvent = null;
         while (fCurrentEvent != null) {
             prevEvent = fCurrentEvent;
-            readNextEvent();
+            readNextEventDirect();
         }
         /*
          * Go back to the previous event
@@ -508,7 +1170,8 @@ public class CTFStreamInputReader implements AutoCloseable {
      * @since 2.0
      */
     public IPacketReader getCurrentPacketReader() {
-        return fPacketReader;
+        IPacketReader packetReader = fAheadPacketReader;
+        return (packetReader != null) ? packetReader : fPacketReader;
     }
 
     @Override
@@ -28,8 +28,11 @@ import org.eclipse.tracecompass.ctf.core.event.types.*;
 import org.eclipse.tracecompass.internal.ctf.core.SafeMappedByteBuffer;
 import org.eclipse.tracecompass.internal.ctf.core.event.metadata.MetadataStrings;
 import org.eclipse.tracecompass.internal.ctf.core.trace.CTFStream;
+import org.eclipse.tracecompass.internal.ctf.core.trace.MappedRegionCache;
+import org.eclipse.tracecompass.internal.ctf.core.trace.PacketBufferPool;
 import org.eclipse.tracecompass.internal.ctf.core.trace.Utils;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
 import java.io.FileFilter;
@@ -41,6 +44,11 @@ import java.nio.channels.FileChannel;
 import java.nio.channels.FileChannel.MapMode;
 import java.nio.file.StandardOpenOption;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.logging.Logger;
 
 /**
  * A CTF trace on the file system.
@@ -57,6 +65,41 @@ import java.util.*;
  */
 public class CTFTrace implements IDefinitionScope {
 
+    private static final Logger LOGGER = Logger.getLogger(CTFTrace.class.getName());
+
+    /**
+     * System property to set the default I/O strategy, the name of an
+     * {@link IOStrategy}, for instance {@link IOStrategy#POSITIONAL_READ} to
+     * read the trace files instead of mapping them
+     *
+     * @since 2.1
+     */
+    public static final String IO_STRATEGY_PROPERTY = "org.eclipse.tracecompass.ctf.core.iostrategy"; //$NON-NLS-1$
+
+    /**
+     * How the packets of the trace files are brought in memory
+     *
+     * @since 2.1
+     */
+    public enum IOStrategy {
+        /**
+         * Map the packets. Best when the trace is on a local disk or in the
+         * page cache.
+         */
+        MAPPED,
+        /**
+         * Read the packets into pooled direct buffers. Avoids the page fault
+         * stalls of mapped files on slow or network-backed storage.
+         */
+        POSITIONAL_READ,
+        /**
+         * Map each trace file whole, in chunks of up to 1 GiB, for as long
+         * as its reader is open. Maps the least often on files of any size,
+         * but keeps the address space of the whole file mapped.
+         */
+        MAPPED_FILE
+    }
+
     @Override
     public String toString() {
         /* Only for debugging, shouldn't be externalized */
@@ -128,6 +171,21 @@ public class CTFTrace implements IDefinitionScope {
 
     private final DeclarationScope fScope = new DeclarationScope(null, MetadataStrings.TRACE);
 
+    /**
+     * How the packets of the trace files are brought in memory
+     */
+    private volatile IOStrategy fIOStrategy = getDefaultIOStrategy();
+
+    /**
+     * Buffers the packets are read into, shared by the readers
+     */
+    private final PacketBufferPool fPacketBuffers = new PacketBufferPool(PacketBufferPool.DEFAULT_MAX_IDLE);
+
+    /**
+     * Mapped windows of the trace files, shared by their readers
+     */
+    private final MappedRegionCache fMappedRegions = new MappedRegionCache(MappedRegionCache.DEFAULT_CHUNK_SIZE, MappedRegionCache.getDefaultBudget());
+
     // ------------------------------------------------------------------------
     // Constructors
     // ------------------------------------------------------------------------
@@ -153,6 +211,31 @@ public class CTFTrace implements IDefinitionScope {
      *             If no CTF trace was found at the path
      */
     public CTFTrace(File path) throws CTFException {
+        this(path, null);
+    }
+
+    /**
+     * Trace constructor that opens and indexes the trace files concurrently.
+     * <p>
+     * Each trace file is opened and its packet index completely built by a
+     * task on the executor, for instance a {@link java.util.concurrent.ForkJoinPool}.
+     * The trace files are then added to their streams in the same order as
+     * the sequential constructor, so the resulting trace does not depend on
+     * the scheduling. If a trace file cannot be opened, the other tasks are
+     * waited for and the error of the first failing file, in file order, is
+     * thrown. Errors while indexing are logged and left for the readers to
+     * report, as when indexing lazily.
+     *
+     * @param path
+     *            Filesystem path of the trace directory.
+     * @param indexExecutor
+     *            the executor to index the trace files on, null to open them
+     *            sequentially and index them while reading
+     * @throws CTFException
+     *             If no CTF trace was found at the path
+     * @since 2.1
+     */
+    public CTFTrace(File path, @Nullable Executor indexExecutor) throws CTFException {
         fPath = path;
         final Metadata metadata = new Metadata(this);
 
@@ -168,7 +251,7 @@ public class CTFTrace implements IDefinitionScope {
         /* Open and parse the metadata file */
         metadata.parseFile();
 
-        init(path);
+        init(path, indexExecutor);
     }
 
     /**
@@ -178,7 +261,7 @@ public class CTFTrace implements IDefinitionScope {
         fPath = null;
     }
 
-    private void init(File path) throws CTFException {
+    private void init(File path, @Nullable Executor indexExecutor) throws CTFException {
 
         /* Open all the trace files */
 
@@ -186,9 +269,13 @@ public class CTFTrace implements IDefinitionScope {
         File[] files = path.listFiles(METADATA_FILE_FILTER);
         Arrays.sort(files, METADATA_COMPARATOR);
 
-        /* Try to open each file */
-        for (File streamFile : files) {
-            openStreamInput(streamFile);
+        if (indexExecutor != null) {
+            openStreamInputs(files, indexExecutor);
+        } else {
+            /* Try to open each file */
+            for (File streamFile : files) {
+                openStreamInput(streamFile);
+            }
         }
 
         /* Create their index */
@@ -411,6 +498,79 @@ public class CTFTrace implements IDefinitionScope {
         return (fPath != null) ? fPath.getPath() : ""; //$NON-NLS-1$
     }
 
+    /**
+     * Get the maximum address space used by the mapped windows of the trace
+     * files
+     *
+     * @return the budget, in bytes
+     * @since 2.1
+     */
+    public long getMappedRegionBudget() {
+        return fMappedRegions.getBudget();
+    }
+
+    /**
+     * Set the maximum address space used by the mapped windows of the trace
+     * files. The readers of the trace slice their packets out of large
+     * windows shared between them, and the least recently used windows are
+     * dropped to stay under the budget. The default budget can be set with
+     * the {@value MappedRegionCache#BUDGET_PROPERTY} system property.
+     *
+     * @param budget
+     *            the budget, in bytes, 0 to map each packet on its own
+     * @since 2.1
+     */
+    public void setMappedRegionBudget(long budget) {
+        fMappedRegions.setBudget(budget);
+    }
+
+    /*
+     * for internal use only
+     */
+    MappedRegionCache getMappedRegionCache() {
+        return fMappedRegions;
+    }
+
+    /**
+     * Get how the packets of the trace files are brought in memory
+     *
+     * @return the I/O strategy
+     * @since 2.1
+     */
+    public IOStrategy getIOStrategy() {
+        return fIOStrategy;
+    }
+
+    /**
+     * Set how the packets of the trace files are brought in memory. The
+     * readers use it from their next packet on. The default can be set with
+     * the {@value #IO_STRATEGY_PROPERTY} system property.
+     *
+     * @param strategy
+     *            the I/O strategy
+     * @since 2.1
+     */
+    public void setIOStrategy(IOStrategy strategy) {
+        fIOStrategy = strategy;
+    }
+
+    /*
+     * for internal use only
+     */
+    PacketBufferPool getPacketBufferPool() {
+        return fPacketBuffers;
+    }
+
+    private static IOStrategy getDefaultIOStrategy() {
+        String strategy = System.getProperty(IO_STRATEGY_PROPERTY);
+        for (IOStrategy value : IOStrategy.values()) {
+            if (value.name().equalsIgnoreCase(strategy)) {
+                return value;
+            }
+        }
+        return IOStrategy.MAPPED;
+    }
+
     // ------------------------------------------------------------------------
     // Operations
     // ------------------------------------------------------------------------
@@ -440,9 +600,130 @@ public class CTFTrace implements IDefinitionScope {
      *             if there is a file error
      */
     private ICTFStream openStreamInput(File streamFile) throws CTFException {
+        OpenedStreamInput opened = readStreamInput(streamFile);
+        if (opened == null) {
+            return null;
+        }
+        return addStreamInput(opened);
+    }
+
+    /**
+     * A trace file whose first packet header was read, not added to its stream
+     * yet
+     */
+    private static final class OpenedStreamInput {
+        private final CTFStreamInput fInput;
+        private final @Nullable StructDefinition fPacketHeaderDef;
+
+        OpenedStreamInput(CTFStreamInput input, @Nullable StructDefinition packetHeaderDef) {
+            fInput = input;
+            fPacketHeaderDef = packetHeaderDef;
+        }
+    }
+
+    /**
+     * Open the trace files and build their index on an executor, then add them
+     * to their streams in file order.
+     */
+    private void openStreamInputs(File[] files, Executor executor) throws CTFException {
+        List<FutureTask<OpenedStreamInput>> tasks = new ArrayList<>(files.length);
+        for (File streamFile : files) {
+            FutureTask<OpenedStreamInput> task = new FutureTask<>(() -> {
+                OpenedStreamInput opened = readStreamInput(streamFile);
+                if (opened != null) {
+                    buildIndex(opened.fInput);
+                }
+                return opened;
+            });
+            tasks.add(task);
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                task.run();
+            }
+        }
+
+        /* Wait for all the tasks, so no file is left open on failure */
+        CTFException error = null;
+        List<OpenedStreamInput> opened = new ArrayList<>(files.length);
+        for (FutureTask<OpenedStreamInput> task : tasks) {
+            try {
+                opened.add(getUninterruptibly(task));
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                CTFException taskError = (cause instanceof CTFException) ? (CTFException) cause : new CTFException((Exception) cause);
+                if (error == null) {
+                    error = taskError;
+                } else {
+                    error.addSuppressed(taskError);
+                }
+            }
+        }
+        if (error != null) {
+            throw error;
+        }
+        for (OpenedStreamInput streamInput : opened) {
+            if (streamInput != null) {
+                addStreamInput(streamInput);
+            }
+        }
+    }
+
+    private static <T> T getUninterruptibly(FutureTask<T> task) throws ExecutionException {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return task.get();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Index all the packets of a trace file. An error stops the indexing, the
+     * readers will meet it again when indexing the rest of the file.
+     */
+    private static void buildIndex(CTFStreamInput streamInput) {
+        streamInput.setupIndex();
+        try {
+            streamInput.addPacketHeaderIndexes(Long.MAX_VALUE);
+        } catch (CTFException e) {
+            LOGGER.warning(() -> "Could not index " + streamInput.getFile() + ": " + e.getMessage()); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+    }
+
+    /**
+     * Add an opened trace file to its stream
+     */
+    private ICTFStream addStreamInput(OpenedStreamInput opened) {
+        if (fPacketHeaderDecl != null) {
+            fPacketHeaderDef = opened.fPacketHeaderDef;
+        }
+        CTFStream ctfStream = (CTFStream) opened.fInput.getStream();
+        ctfStream.addInput(opened.fInput);
+        return ctfStream;
+    }
+
+    /**
+     * Read and validate the first packet header of a trace file, and create
+     * its stream input. This does not modify the trace, so trace files can be
+     * read concurrently.
+     */
+    private @Nullable OpenedStreamInput readStreamInput(File streamFile) throws CTFException {
         ByteBuffer byteBuffer;
         BitBuffer streamBitBuffer;
         ICTFStream stream;
+        StructDefinition packetHeaderDef = null;
 
         if (!streamFile.canRead()) {
             throw new CTFException("Unreadable file : " //$NON-NLS-1$
@@ -461,13 +742,12 @@ public class CTFTrace implements IDefinitionScope {
             streamBitBuffer = new BitBuffer(byteBuffer, this.getByteOrder());
             if (fPacketHeaderDecl != null) {
                 /* Read the packet header */
-                fPacketHeaderDef = fPacketHeaderDecl.createDefinition(this, ILexicalScope.PACKET_HEADER, streamBitBuffer);
+                packetHeaderDef = fPacketHeaderDecl.createDefinition(this, ILexicalScope.PACKET_HEADER, streamBitBuffer);
             }
         } catch (IOException e) {
             /* Shouldn't happen at this stage if every other check passed */
             throw new CTFException(e);
         }
-        final StructDefinition packetHeaderDef = getPacketHeaderDef();
         if (packetHeaderDef != null) {
             validateMagicNumber(packetHeaderDef);
 
@@ -497,13 +777,11 @@ public class CTFTrace implements IDefinitionScope {
         if (!(stream instanceof CTFStream)) {
             throw new CTFException("Stream is not a CTFStream, but rather a " + stream.getClass().getCanonicalName()); //$NON-NLS-1$
         }
-        CTFStream ctfStream = (CTFStream) stream;
         /*
-         * Create the stream input and add a reference to the streamInput in the
-         * stream.
+         * Create the stream input, the reference to the streamInput is added
+         * to the stream by addStreamInput.
          */
-        ctfStream.addInput(new CTFStreamInput(ctfStream, streamFile));
-        return ctfStream;
+        return new OpenedStreamInput(new CTFStreamInput(stream, streamFile), packetHeaderDef);
     }
 
     private void validateUUID(StructDefinition packetHeaderDef) throws CTFException {
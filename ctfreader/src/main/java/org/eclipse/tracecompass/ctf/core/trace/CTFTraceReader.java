@@ -17,13 +17,23 @@ import static java.util.Objects.requireNonNull;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
 import org.eclipse.tracecompass.ctf.core.CTFException;
 import org.eclipse.tracecompass.ctf.core.event.IEventDeclaration;
 import org.eclipse.tracecompass.ctf.core.event.IEventDefinition;
+import org.eclipse.tracecompass.internal.ctf.core.trace.EventCheckpointIndex;
+import org.eclipse.tracecompass.internal.ctf.core.trace.EventFilter;
+import org.eclipse.tracecompass.internal.ctf.core.trace.IStreamInputReaderQueue;
+import org.eclipse.tracecompass.internal.ctf.core.trace.StreamInputReaderHeap;
+import org.eclipse.tracecompass.internal.ctf.core.trace.StreamInputReaderLoserTree;
 import org.eclipse.tracecompass.internal.ctf.core.trace.StreamInputReaderTimestampComparator;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * A CTF trace reader. Reads the events of a trace.
@@ -40,6 +50,43 @@ public class CTFTraceReader implements AutoCloseable {
 
     private static final int MIN_PRIO_SIZE = 16;
 
+    /**
+     * Default number of events decoded ahead per trace file in pipelined
+     * decoding
+     */
+    public static final int DEFAULT_DECODE_QUEUE_DEPTH = 256;
+
+    /**
+     * Default maximum number of packets read ahead per trace file
+     *
+     * @since 2.1
+     */
+    public static final int DEFAULT_READ_AHEAD_DEPTH = 8;
+
+    /**
+     * Number of threads reading the packets ahead
+     */
+    private static final int READ_AHEAD_THREADS = 4;
+
+    /**
+     * The structure used to merge the events of the stream input readers by
+     * timestamp.
+     *
+     * @since 2.1
+     */
+    public enum MergeStrategy {
+        /**
+         * Binary heap, each event costs a poll and an add. Best for traces with
+         * few streams.
+         */
+        HEAP,
+        /**
+         * Loser tree, each event costs a single leaf-to-root replay. Best for
+         * traces with a large number of streams.
+         */
+        LOSER_TREE
+    }
+
     // ------------------------------------------------------------------------
     // Attributes
     // ------------------------------------------------------------------------
@@ -54,10 +101,15 @@ public class CTFTraceReader implements AutoCloseable {
      */
     private final List<CTFStreamInputReader> fStreamInputReaders = Collections.synchronizedList(new ArrayList<CTFStreamInputReader>());
 
+    /**
+     * The merge strategy used to order the trace file readers.
+     */
+    private final MergeStrategy fMergeStrategy;
+
     /**
      * Priority queue to order the trace file readers by timestamp.
      */
-    private PriorityQueue<CTFStreamInputReader> fPrio;
+    private IStreamInputReaderQueue fPrio;
 
     /**
      * Array to count the number of event per trace file.
@@ -79,6 +131,63 @@ public class CTFTraceReader implements AutoCloseable {
      */
     private boolean fClosed = false;
 
+    /**
+     * Start of the time window, in cycles
+     */
+    private long fWindowStart = Long.MIN_VALUE;
+
+    /**
+     * End of the time window, in cycles
+     */
+    private long fWindowEnd = Long.MAX_VALUE;
+
+    /**
+     * Names of the events to read, null for no filtering by name
+     */
+    private @Nullable Set<String> fFilterNames = null;
+
+    /**
+     * Ids of the events to read, null for no filtering by id
+     */
+    private @Nullable Set<Long> fFilterIds = null;
+
+    /**
+     * Workers decoding the trace files ahead, null when decoding on the
+     * caller thread
+     */
+    private @Nullable ExecutorService fDecodeExecutor = null;
+
+    /**
+     * Number of decoding workers, 0 when decoding on the caller thread
+     */
+    private int fDecodeWorkerCount = 0;
+
+    /**
+     * Number of events decoded ahead per trace file
+     */
+    private int fDecodeQueueDepth = DEFAULT_DECODE_QUEUE_DEPTH;
+
+    /**
+     * Number of events between two checkpoints of the trace files, 0 when
+     * disabled
+     */
+    private int fCheckpointInterval = 0;
+
+    /**
+     * Threads reading the packets ahead, null when disabled
+     */
+    private @Nullable ExecutorService fReadAheadExecutor = null;
+
+    /**
+     * Maximum number of packets read ahead per trace file, 0 when disabled
+     */
+    private int fReadAheadDepth = 0;
+
+    /**
+     * Decode the contexts and payload of the events on first access
+     */
+    private boolean fLazyDecoding = false;
+
     // ------------------------------------------------------------------------
     // Constructors
     // ------------------------------------------------------------------------
@@ -92,7 +201,24 @@ public class CTFTraceReader implements AutoCloseable {
      *             if an error occurs
      */
     public CTFTraceReader(CTFTrace trace) throws CTFException {
+        this(trace, MergeStrategy.HEAP);
+    }
+
+    /**
+     * Constructs a TraceReader to read a trace, using the given merge strategy
+     * to order the events of the trace files.
+     *
+     * @param trace
+     *            The trace to read from.
+     * @param mergeStrategy
+     *            The structure used to merge the trace files
+     * @throws CTFException
+     *             if an error occurs
+     * @since 2.1
+     */
+    public CTFTraceReader(CTFTrace trace, MergeStrategy mergeStrategy) throws CTFException {
         fTrace = trace;
+        fMergeStrategy = mergeStrategy;
         fStreamInputReaders.clear();
 
         /**
@@ -126,9 +252,25 @@ public class CTFTraceReader implements AutoCloseable {
     public CTFTraceReader copyFrom() throws CTFException {
         CTFTraceReader newReader = null;
 
-        newReader = new CTFTraceReader(fTrace);
+        newReader = new CTFTraceReader(fTrace, fMergeStrategy);
         newReader.fStartTime = fStartTime;
         newReader.setEndTime(fEndTime);
+        newReader.setPipelinedDecoding(fDecodeWorkerCount, fDecodeQueueDepth);
+        if (fCheckpointInterval > 0) {
+            newReader.setCheckpointInterval(fCheckpointInterval);
+        }
+        if (fReadAheadDepth > 0) {
+            newReader.setReadAhead(fReadAheadDepth);
+        }
+        if (fLazyDecoding) {
+            newReader.setLazyDecoding(true);
+        }
+        if (fWindowStart != Long.MIN_VALUE || fWindowEnd != Long.MAX_VALUE) {
+            newReader.setTimeWindow(fWindowStart, fWindowEnd);
+        }
+        if (fFilterNames != null || fFilterIds != null) {
+            newReader.setEventFilter(fFilterNames, fFilterIds);
+        }
         return newReader;
     }
 
@@ -150,6 +292,12 @@ public class CTFTraceReader implements AutoCloseable {
             fStreamInputReaders.clear();
         }
         fPrio.clear();
+        shutdownDecodeExecutor();
+        ExecutorService readAheadExecutor = fReadAheadExecutor;
+        if (readAheadExecutor != null) {
+            readAheadExecutor.shutdown();
+            fReadAheadExecutor = null;
+        }
         fClosed = true;
     }
 
@@ -177,12 +325,362 @@ public class CTFTraceReader implements AutoCloseable {
     }
 
     /**
-     * Get the priority queue of this trace reader.
+     * Get the merge strategy of this trace reader.
+     *
+     * @return The merge strategy
+     * @since 2.1
+     */
+    public MergeStrategy getMergeStrategy() {
+        return fMergeStrategy;
+    }
+
+    /**
+     * Get the priority queue of this trace reader. With the
+     * {@link MergeStrategy#LOSER_TREE} strategy, this is a copy of the current
+     * readers, changes to it are not reflected in the reader.
      *
      * @return The priority queue of input readers
      */
     protected PriorityQueue<CTFStreamInputReader> getPrio() {
-        return fPrio;
+        if (fPrio instanceof StreamInputReaderHeap) {
+            return ((StreamInputReaderHeap) fPrio).getPriorityQueue();
+        }
+        PriorityQueue<CTFStreamInputReader> copy = new PriorityQueue<>(
+                Math.max(fPrio.size(), MIN_PRIO_SIZE),
+                new StreamInputReaderTimestampComparator());
+        for (CTFStreamInputReader reader : fPrio) {
+            copy.add(reader);
+        }
+        return copy;
+    }
+
+    /**
+     * Decode the events of each trace file ahead, on a pool of worker threads,
+     * while this reader merges them. Each trace file gets a bounded queue of
+     * decoded events. The events are returned in the same order as when
+     * decoding on the caller thread.
+     *
+     * @param workerCount
+     *            the number of decoding threads, 0 or less to decode on the
+     *            caller thread
+     * @param queueDepth
+     *            the maximum number of events decoded ahead per trace file
+     * @since 2.1
+     */
+    public void setPipelinedDecoding(int workerCount, int queueDepth) {
+        if (workerCount > 0 && queueDepth <= 0) {
+            throw new IllegalArgumentException("Queue depth must be positive: " + queueDepth); //$NON-NLS-1$
+        }
+        ExecutorService previous = fDecodeExecutor;
+        ExecutorService executor = (workerCount > 0) ? Executors.newFixedThreadPool(workerCount, new DaemonThreadFactory("CTF decoder")) : null; //$NON-NLS-1$
+        synchronized (fStreamInputReaders) {
+            for (CTFStreamInputReader reader : fStreamInputReaders) {
+                reader.setPrefetch(executor, queueDepth);
+            }
+        }
+        fDecodeExecutor = executor;
+        fDecodeWorkerCount = Math.max(workerCount, 0);
+        fDecodeQueueDepth = queueDepth;
+        if (previous != null) {
+            previous.shutdown();
+        }
+    }
+
+    /**
+     * Restrict the reader to the events in the time window [start, end] and
+     * seek to the start of the window. The reader stops at the last event
+     * before the end of the window: a trace file is dropped from the merge as
+     * soon as it reaches an event after the end, or a packet that begins
+     * after it, so the packets outside the window are never mapped.
+     * <p>
+     * Seeking before the start of the window is allowed, the start is only
+     * used to position the reader.
+     *
+     * @param start
+     *            the start of the window, in cycles
+     * @param end
+     *            the end of the window, in cycles, {@link Long#MAX_VALUE} for
+     *            no end
+     * @return true if there are events in the window
+     * @throws CTFException
+     *             if an error occurs
+     * @since 2.1
+     */
+    public boolean setTimeWindow(long start, long end) throws CTFException {
+        if (start > end) {
+            throw new IllegalArgumentException("Window start " + start + " is after its end " + end); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        fWindowStart = start;
+        fWindowEnd = end;
+        synchronized (fStreamInputReaders) {
+            for (CTFStreamInputReader reader : fStreamInputReaders) {
+                reader.setWindowEnd(end);
+            }
+        }
+        return seek(start);
+    }
+
+    /**
+     * Get the start of the time window
+     *
+     * @return the start of the window, in cycles, {@link Long#MIN_VALUE} if
+     *         there is none
+     * @since 2.1
+     */
+    public long getWindowStart() {
+        return fWindowStart;
+    }
+
+    /**
+     * Get the end of the time window
+     *
+     * @return the end of the window, in cycles, {@link Long#MAX_VALUE} if
+     *         there is none
+     * @since 2.1
+     */
+    public long getWindowEnd() {
+        return fWindowEnd;
+    }
+
+    /**
+     * Only read the events of the given types. The other events are skipped
+     * by the packet readers, without decoding their context and payload
+     * whenever their layout allows it. Lost events are always read.
+     * <p>
+     * An event is read if its name is in the names or its id is in the ids.
+     * Passing null for both removes the filter. The reader is seeked back to
+     * the timestamp of the current event, so it ends up on the first event
+     * that passes the filter at or after it.
+     *
+     * @param names
+     *            the names of the events to read, null to not filter by name
+     * @param ids
+     *            the ids of the events to read, null to not filter by id
+     * @return true if there are events to read
+     * @throws CTFException
+     *             if an error occurs
+     * @since 2.1
+     */
+    public boolean setEventFilter(@Nullable Set<String> names, @Nullable Set<Long> ids) throws CTFException {
+        IEventDefinition current = getCurrentEventDef();
+        fFilterNames = (names == null) ? null : new HashSet<>(names);
+        fFilterIds = (ids == null) ? null : new HashSet<>(ids);
+        Map<ICTFStream, EventFilter> filters = new IdentityHashMap<>();
+        synchronized (fStreamInputReaders) {
+            for (CTFStreamInputReader reader : fStreamInputReaders) {
+                reader.setEventFilter(getEventFilter(reader, filters));
+            }
+        }
+        if (current == null) {
+            /* The filter cannot bring back events, stay at the end */
+            return false;
+        }
+        return seek(current.getTimestamp());
+    }
+
+    /**
+     * Get the names of the events read
+     *
+     * @return the names, null if the events are not filtered by name
+     * @since 2.1
+     */
+    public @Nullable Set<String> getEventFilterNames() {
+        Set<String> names = fFilterNames;
+        return (names == null) ? null : Collections.unmodifiableSet(names);
+    }
+
+    /**
+     * Get the ids of the events read
+     *
+     * @return the ids, null if the events are not filtered by id
+     * @since 2.1
+     */
+    public @Nullable Set<Long> getEventFilterIds() {
+        Set<Long> ids = fFilterIds;
+        return (ids == null) ? null : Collections.unmodifiableSet(ids);
+    }
+
+    /**
+     * Get the filter of the stream of a reader, the readers of a stream
+     * sharing the same one
+     */
+    private @Nullable EventFilter getEventFilter(CTFStreamInputReader reader, Map<ICTFStream, EventFilter> filters) {
+        final Set<String> names = fFilterNames;
+        final Set<Long> ids = fFilterIds;
+        if (names == null && ids == null) {
+            return null;
+        }
+        return filters.computeIfAbsent(reader.getStreamInput().getStream(),
+                stream -> new EventFilter(reader.getEventDeclarations(), reader.getStreamEventContextDecl(),
+                        declaration -> (names != null && names.contains(declaration.getName())) ||
+                                (ids != null && declaration.getId() != null && ids.contains(declaration.getId()))));
+    }
+
+    /**
+     * Get the number of threads decoding the trace files ahead
+     *
+     * @return the number of decoding threads, 0 when decoding on the caller
+     *         thread
+     * @since 2.1
+     */
+    public int getDecodeWorkerCount() {
+        return fDecodeWorkerCount;
+    }
+
+    /**
+     * Get the maximum number of events decoded ahead per trace file
+     *
+     * @return the queue depth
+     * @since 2.1
+     */
+    public int getDecodeQueueDepth() {
+        return fDecodeQueueDepth;
+    }
+
+    /**
+     * Take event checkpoints while reading the trace files, so seeking to a
+     * timestamp resumes decoding at the closest checkpoint before it instead
+     * of the start of its packet, and {@link #seekRank(long)} only reads the
+     * events after the closest checkpoint. A checkpoint is taken at the
+     * first event of each packet and then every given number of events,
+     * as the trace files are read from their start.
+     * <p>
+     * The checkpoints are kept by the trace files and shared by all their
+     * readers. Changing the interval drops the checkpoints taken so far.
+     * They are not taken or used while an event filter is set.
+     *
+     * @param interval
+     *            the number of events between two checkpoints, 0 to disable
+     *            the checkpoints
+     * @since 2.1
+     */
+    public void setCheckpointInterval(int interval) {
+        if (interval < 0) {
+            throw new IllegalArgumentException("Checkpoint interval must not be negative"); //$NON-NLS-1$
+        }
+        fCheckpointInterval = interval;
+        synchronized (fStreamInputReaders) {
+            for (CTFStreamInputReader reader : fStreamInputReaders) {
+                reader.getStreamInput().setCheckpointInterval(interval);
+            }
+        }
+    }
+
+    /**
+     * Get the number of events between two checkpoints of the trace files
+     *
+     * @return the interval, 0 when the checkpoints are disabled
+     * @since 2.1
+     */
+    public int getCheckpointInterval() {
+        return fCheckpointInterval;
+    }
+
+    /**
+     * Read the next packets of each trace file ahead, on a pool of I/O
+     * threads, so their data is in memory when the reader gets to them. The
+     * number of packets read ahead adapts to the consumption rate of each
+     * trace file, up to the given depth. Depending on the I/O strategy of the
+     * trace, the packets are read into pooled buffers or their mapped pages
+     * are touched.
+     *
+     * @param maxDepth
+     *            the maximum number of packets read ahead per trace file, 0
+     *            to disable the read-ahead
+     * @since 2.1
+     */
+    public void setReadAhead(int maxDepth) {
+        if (maxDepth < 0) {
+            throw new IllegalArgumentException("Read-ahead depth must not be negative: " + maxDepth); //$NON-NLS-1$
+        }
+        ExecutorService previous = fReadAheadExecutor;
+        ExecutorService executor = (maxDepth > 0) ? Executors.newFixedThreadPool(READ_AHEAD_THREADS, new DaemonThreadFactory("CTF read-ahead")) : null; //$NON-NLS-1$
+        synchronized (fStreamInputReaders) {
+            for (CTFStreamInputReader reader : fStreamInputReaders) {
+                reader.setReadAhead(executor, maxDepth);
+            }
+        }
+        fReadAheadExecutor = executor;
+        fReadAheadDepth = maxDepth;
+        if (previous != null) {
+            previous.shutdown();
+        }
+    }
+
+    /**
+     * Get the maximum number of packets read ahead per trace file
+     *
+     * @return the depth, 0 when the read-ahead is disabled
+     * @since 2.1
+     */
+    public int getReadAheadDepth() {
+        return fReadAheadDepth;
+    }
+
+    /**
+     * Decode the stream event context, event context and payload of the
+     * events the first time they are looked at, instead of when the events
+     * are read. The sections are skipped and their bytes kept with the event,
+     * which helps consumers that only look at the timestamp, type or a few
+     * events.
+     * <p>
+     * The events of a type whose sections cannot be skipped, or whose
+     * timestamp may be in its context or payload, are still decoded when
+     * read. An error in a section of a lazy event is raised as an
+     * {@link IllegalStateException} by the accessor of the section.
+     *
+     * @param lazy
+     *            true to decode the sections on first access
+     * @since 2.1
+     */
+    public void setLazyDecoding(boolean lazy) {
+        fLazyDecoding = lazy;
+        synchronized (fStreamInputReaders) {
+            for (CTFStreamInputReader reader : fStreamInputReaders) {
+                reader.setLazyDecoding(lazy);
+            }
+        }
+    }
+
+    /**
+     * Are the contexts and payload of the events decoded on first access
+     *
+     * @return true if the events are decoded lazily
+     * @since 2.1
+     */
+    public boolean isLazyDecoding() {
+        return fLazyDecoding;
+    }
+
+    private void shutdownDecodeExecutor() {
+        ExecutorService executor = fDecodeExecutor;
+        if (executor != null) {
+            executor.shutdown();
+        }
+        fDecodeExecutor = null;
+        fDecodeWorkerCount = 0;
+    }
+
+    /**
+     * Names the decoding and read-ahead threads and keeps them from holding
+     * up the exit of the application.
+     */
+    private static final class DaemonThreadFactory implements ThreadFactory {
+        private static final AtomicInteger POOL_COUNT = new AtomicInteger();
+        private final int fPool = POOL_COUNT.incrementAndGet();
+        private final AtomicInteger fCount = new AtomicInteger();
+        private final String fName;
+
+        DaemonThreadFactory(String name) {
+            fName = name;
+        }
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, fName + ' ' + fPool + '-' + fCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
     }
 
     // ------------------------------------------------------------------------
@@ -247,6 +745,12 @@ public class CTFTraceReader implements AutoCloseable {
                 try (CTFStreamInputReader streamInputReader = new CTFStreamInputReader(requireNonNull(streamInput))) {
                     if (!fStreamInputReaders.contains(streamInputReader)) {
                         CTFStreamInputReader streamInputReaderToAdd = new CTFStreamInputReader(requireNonNull(streamInput));
+                        streamInputReaderToAdd.setWindowEnd(fWindowEnd);
+                        if (fCheckpointInterval > 0) {
+                            streamInput.setCheckpointInterval(fCheckpointInterval);
+                        }
+                        streamInputReaderToAdd.setEventFilter(getEventFilter(streamInputReaderToAdd, new IdentityHashMap<>()));
+                        streamInputReaderToAdd.setLazyDecoding(fLazyDecoding);
                         streamInputReaderToAdd.readNextEvent();
                         fStreamInputReaders.add(streamInputReaderToAdd);
                         readers.add(streamInputReaderToAdd);
@@ -259,6 +763,12 @@ public class CTFTraceReader implements AutoCloseable {
         long[] temp = fEventCountPerTraceFile;
         fEventCountPerTraceFile = new long[readers.size() + temp.length];
         for (CTFStreamInputReader reader : readers) {
+            if (fDecodeExecutor != null) {
+                reader.setPrefetch(fDecodeExecutor, fDecodeQueueDepth);
+            }
+            if (fReadAheadExecutor != null) {
+                reader.setReadAhead(fReadAheadExecutor, fReadAheadDepth);
+            }
             fPrio.add(reader);
         }
         System.arraycopy(temp, 0, fEventCountPerTraceFile, 0, temp.length);
@@ -287,8 +797,7 @@ public class CTFTraceReader implements AutoCloseable {
      */
     private void populateStreamInputReaderHeap() throws CTFException {
         if (fStreamInputReaders.isEmpty()) {
-            fPrio = new PriorityQueue<>(MIN_PRIO_SIZE,
-                    new StreamInputReaderTimestampComparator());
+            fPrio = createQueue(MIN_PRIO_SIZE);
             return;
         }
 
@@ -296,9 +805,7 @@ public class CTFTraceReader implements AutoCloseable {
          * Create the priority queue with a size twice as bigger as the number
          * of reader in order to avoid constant resizing.
          */
-        fPrio = new PriorityQueue<>(
-                Math.max(fStreamInputReaders.size() * 2, MIN_PRIO_SIZE),
-                new StreamInputReaderTimestampComparator());
+        fPrio = createQueue(Math.max(fStreamInputReaders.size() * 2, MIN_PRIO_SIZE));
 
         int pos = 0;
 
@@ -319,6 +826,16 @@ public class CTFTraceReader implements AutoCloseable {
         }
     }
 
+    private IStreamInputReaderQueue createQueue(int capacity) {
+        switch (fMergeStrategy) {
+        case LOSER_TREE:
+            return new StreamInputReaderLoserTree(capacity);
+        case HEAP:
+        default:
+            return new StreamInputReaderHeap(capacity);
+        }
+    }
+
     /**
      * Get the current event, which is the current event of the trace file
      * reader with the lowest timestamp.
@@ -341,9 +858,9 @@ public class CTFTraceReader implements AutoCloseable {
      */
     public boolean advance() throws CTFException {
         /*
-         * Remove the reader from the top of the priority queue.
+         * Get the reader at the top of the priority queue.
          */
-        CTFStreamInputReader top = fPrio.poll();
+        CTFStreamInputReader top = fPrio.peek();
 
         /*
          * If the queue was empty.
@@ -352,14 +869,22 @@ public class CTFTraceReader implements AutoCloseable {
             return false;
         }
         /*
-         * Read the next event of this reader.
+         * Read the next event of this reader. A reader that fails is dropped
+         * from the queue.
          */
-        switch (top.readNextEvent()) {
+        CTFResponse response;
+        try {
+            response = top.readNextEvent();
+        } catch (CTFException e) {
+            fPrio.removeTop();
+            throw e;
+        }
+        switch (response) {
         case OK: {
             /*
-             * Add it back in the queue.
+             * Put it back in order in the queue.
              */
-            fPrio.add(top);
+            fPrio.topUpdated();
             /*
              * We're in OK, there's a guaranteed top#getCurrentEvent() unless another
              * thread does something bad.
@@ -372,14 +897,16 @@ public class CTFTraceReader implements AutoCloseable {
             break;
         }
         case WAIT: {
-            fPrio.add(top);
+            fPrio.topUpdated();
             break;
         }
         case FINISH:
+            fPrio.removeTop();
             break;
         case ERROR:
         default:
             // something bad happend
+            fPrio.removeTop();
         }
         /*
          * If there is no reader in the queue, it means the trace reader reached
@@ -436,6 +963,126 @@ public class CTFTraceReader implements AutoCloseable {
         return hasMoreEvents();
     }
 
+    /**
+     * Seeks to the event of a given rank, the number of events read before it
+     * from the start of the trace. Without checkpoints this reads all the
+     * events before it. With checkpoints (see
+     * {@link #setCheckpointInterval(int)}), the reader seeks to the latest
+     * checkpoint timestamp with at most that many events before it and only
+     * reads the remaining events. When an event filter or a time window end
+     * is set, the rank counts the events that are read and the checkpoints
+     * are not used.
+     *
+     * @param rank
+     *            the rank of the event, 0 for the first event
+     * @return true if there is an event at this rank, false if the trace has
+     *         fewer events
+     * @throws CTFException
+     *             if an error occurs
+     * @since 2.1
+     */
+    public boolean seekRank(long rank) throws CTFException {
+        if (rank < 0) {
+            throw new IllegalArgumentException("Rank must not be negative"); //$NON-NLS-1$
+        }
+        long remaining = -1;
+        if (fFilterNames == null && fFilterIds == null && fWindowEnd == Long.MAX_VALUE) {
+            long timestamp = findCheckpointTimestamp(rank);
+            if (timestamp != Long.MIN_VALUE) {
+                seek(timestamp);
+                long current = getRankAfterSeek();
+                if (current >= 0 && current <= rank) {
+                    remaining = rank - current;
+                }
+            }
+        }
+        if (remaining < 0) {
+            seek(Long.MIN_VALUE);
+            remaining = rank;
+        }
+        for (; remaining > 0 && hasMoreEvents(); remaining--) {
+            advance();
+        }
+        return hasMoreEvents();
+    }
+
+    /**
+     * Find the latest checkpoint timestamp with at most a given number of
+     * events before it in the trace
+     *
+     * @return the timestamp, or {@link Long#MIN_VALUE} if there is none
+     */
+    private long findCheckpointTimestamp(long rank) {
+        List<EventCheckpointIndex> indexes = new ArrayList<>();
+        int count = 0;
+        synchronized (fStreamInputReaders) {
+            for (CTFStreamInputReader reader : fStreamInputReaders) {
+                EventCheckpointIndex checkpoints = reader.getStreamInput().getCheckpoints();
+                if (checkpoints == null) {
+                    return Long.MIN_VALUE;
+                }
+                indexes.add(checkpoints);
+                count += checkpoints.size();
+            }
+        }
+        long[] timestamps = new long[count];
+        int size = 0;
+        for (EventCheckpointIndex checkpoints : indexes) {
+            /* Checkpoints may have been added since they were counted */
+            int checkpointCount = Math.min(checkpoints.size(), count - size);
+            for (int i = 0; i < checkpointCount; i++) {
+                timestamps[size++] = checkpoints.getTimestamp(i);
+            }
+        }
+        Arrays.sort(timestamps, 0, size);
+        long found = Long.MIN_VALUE;
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long maxRank = 0;
+            for (EventCheckpointIndex checkpoints : indexes) {
+                maxRank += checkpoints.getMaxRankBefore(timestamps[mid]);
+                if (maxRank < 0 || maxRank > rank) {
+                    break;
+                }
+            }
+            if (maxRank >= 0 && maxRank <= rank) {
+                found = timestamps[mid];
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Get the number of events before the current event, after a seek
+     *
+     * @return the number of events, -1 if a trace file does not know the rank
+     *         of its current event
+     */
+    private long getRankAfterSeek() {
+        long rank = 0;
+        synchronized (fStreamInputReaders) {
+            for (CTFStreamInputReader reader : fStreamInputReaders) {
+                long readerRank;
+                if (reader.getCurrentEvent() != null) {
+                    readerRank = reader.getCurrentRank();
+                } else {
+                    EventCheckpointIndex checkpoints = reader.getStreamInput().getCheckpoints();
+                    readerRank = (checkpoints == null) ? -1 : checkpoints.getEventCount();
+                }
+                if (readerRank < 0) {
+                    return -1;
+                }
+                rank += readerRank;
+            }
+        }
+        return rank;
+    }
+
     /**
      * Gets the stream with the oldest event
      *
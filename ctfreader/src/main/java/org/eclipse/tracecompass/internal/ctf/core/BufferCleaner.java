@@ -0,0 +1,113 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EfficiOS Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.ctf.core;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.util.logging.Logger;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Releases the memory of a direct or mapped buffer right away, instead of
+ * when the garbage collector gets to it. Mapped buffers otherwise keep their
+ * address space and map count until a GC runs, which long scans of large
+ * traces can exhaust first.
+ * <p>
+ * The buffer must not be used, through itself or any slice or duplicate of
+ * it, once it is cleaned: the memory is gone and accessing it crashes the
+ * virtual machine. Callers must track the users of the buffer.
+ * <p>
+ * This relies on JDK internals, through <code>sun.misc.Unsafe</code> on Java
+ * 9 and later and the buffer cleaner on Java 8. If they are not available,
+ * or cleaning is disabled by setting the {@value #ENABLED_PROPERTY} system
+ * property to false, the buffers are left to the garbage collector.
+ */
+public final class BufferCleaner {
+
+    private static final Logger LOGGER = Logger.getLogger(BufferCleaner.class.getName());
+
+    /**
+     * System property to disable the cleaning
+     */
+    public static final String ENABLED_PROPERTY = "org.eclipse.tracecompass.ctf.core.unmap"; //$NON-NLS-1$
+
+    private interface ICleaner {
+        void clean(ByteBuffer buffer) throws ReflectiveOperationException;
+    }
+
+    private static final @Nullable ICleaner CLEANER = createCleaner();
+
+    private BufferCleaner() {
+    }
+
+    private static @Nullable ICleaner createCleaner() {
+        if (Boolean.FALSE.toString().equalsIgnoreCase(System.getProperty(ENABLED_PROPERTY))) {
+            return null;
+        }
+        try {
+            /* Java 9 and later */
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe"); //$NON-NLS-1$
+            Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class); //$NON-NLS-1$
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe"); //$NON-NLS-1$
+            theUnsafe.setAccessible(true);
+            Object unsafe = theUnsafe.get(null);
+            return buffer -> invokeCleaner.invoke(unsafe, buffer);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Try the Java 8 way
+        }
+        try {
+            Method cleanerMethod = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner"); //$NON-NLS-1$ //$NON-NLS-2$
+            Method cleanMethod = Class.forName("sun.misc.Cleaner").getMethod("clean"); //$NON-NLS-1$ //$NON-NLS-2$
+            return buffer -> {
+                Object cleaner = cleanerMethod.invoke(buffer);
+                if (cleaner != null) {
+                    cleanMethod.invoke(cleaner);
+                }
+            };
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            LOGGER.fine(() -> "Buffers cannot be cleaned: " + e); //$NON-NLS-1$
+            return null;
+        }
+    }
+
+    /**
+     * Can the buffers be cleaned
+     *
+     * @return true if {@link #clean(ByteBuffer)} releases the memory
+     */
+    public static boolean isSupported() {
+        return CLEANER != null;
+    }
+
+    /**
+     * Release the memory of a buffer
+     *
+     * @param buffer
+     *            the buffer, as returned by the allocation or mapping, not a
+     *            slice or duplicate of it
+     * @return true if the memory was released, false if it is left to the
+     *         garbage collector
+     */
+    public static boolean clean(ByteBuffer buffer) {
+        ICleaner cleaner = CLEANER;
+        if (cleaner == null || !buffer.isDirect()) {
+            return false;
+        }
+        try {
+            cleaner.clean(buffer);
+            return true;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            LOGGER.fine(() -> "Could not clean buffer: " + e); //$NON-NLS-1$
+            return false;
+        }
+    }
+}
@@ -30,6 +30,15 @@ public final class SafeMappedByteBuffer {
 
     private SafeMappedByteBuffer(){}
 
+    /**
+     * Does {@link #map} map the file, or read it
+     *
+     * @return true if the file is mapped
+     */
+    public static boolean isMappingSupported() {
+        return !IS_WIN32;
+    }
+
     /**
      * Maps a region of this channel's file directly into memory. On Windows,
      * this will allocate a new ByteBuffer and read the file.
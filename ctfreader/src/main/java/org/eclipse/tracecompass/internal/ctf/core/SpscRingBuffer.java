@@ -0,0 +1,113 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EfficiOS Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.ctf.core;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Bounded lock-free queue for exactly one producer thread and one consumer
+ * thread. The capacity is rounded up to a power of two.
+ *
+ * @param <T>
+ *            the element type
+ */
+public final class SpscRingBuffer<T> {
+
+    private final AtomicReferenceArray<T> fSlots;
+    private final int fMask;
+
+    /** Next slot to read, only written by the consumer */
+    private final AtomicLong fHead = new AtomicLong();
+    /** Next slot to write, only written by the producer */
+    private final AtomicLong fTail = new AtomicLong();
+
+    /**
+     * Constructor
+     *
+     * @param capacity
+     *            the minimum capacity of the queue, must be positive
+     */
+    public SpscRingBuffer(int capacity) {
+        if (capacity <= 0 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("Invalid capacity " + capacity); //$NON-NLS-1$
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        fSlots = new AtomicReferenceArray<>(size);
+        fMask = size - 1;
+    }
+
+    /**
+     * Add an element, producer side.
+     *
+     * @param element
+     *            the element to add
+     * @return false if the queue is full
+     */
+    public boolean offer(T element) {
+        long tail = fTail.get();
+        if (tail - fHead.get() > fMask) {
+            return false;
+        }
+        fSlots.lazySet((int) tail & fMask, element);
+        fTail.set(tail + 1);
+        return true;
+    }
+
+    /**
+     * Remove the oldest element, consumer side.
+     *
+     * @return the element, or null if the queue is empty
+     */
+    public @Nullable T poll() {
+        long head = fHead.get();
+        if (head == fTail.get()) {
+            return null;
+        }
+        int slot = (int) head & fMask;
+        T element = fSlots.get(slot);
+        fSlots.lazySet(slot, null);
+        fHead.set(head + 1);
+        return element;
+    }
+
+    /**
+     * Get the number of elements in the queue. Only exact when neither side
+     * is running.
+     *
+     * @return the number of elements
+     */
+    public int size() {
+        return (int) (fTail.get() - fHead.get());
+    }
+
+    /**
+     * Get the capacity of the queue
+     *
+     * @return the capacity
+     */
+    public int capacity() {
+        return fMask + 1;
+    }
+
+    /**
+     * Remove all the elements. The producer must not be running.
+     */
+    public void clear() {
+        while (poll() != null) {
+            // drain
+        }
+    }
+}
@@ -22,6 +22,7 @@ import org.eclipse.tracecompass.ctf.core.trace.CTFIOException;
 import org.eclipse.tracecompass.ctf.core.trace.CTFStreamInputReader;
 import org.eclipse.tracecompass.ctf.core.trace.CTFTrace;
 import org.eclipse.tracecompass.ctf.core.trace.ICTFPacketDescriptor;
+import org.eclipse.tracecompass.internal.ctf.core.event.types.EventScope;
 import org.eclipse.tracecompass.internal.ctf.core.event.types.composite.EventHeaderDefinition;
 import org.eclipse.tracecompass.internal.ctf.core.trace.CTFStream;
 import org.jetbrains.annotations.NotNull;
@@ -72,6 +73,17 @@ public class EventDeclaration implements IEventDeclaration {
 
     private int fId = (int) UNSET_EVENT_ID;
 
+    /**
+     * How to skip the context and payload of the lazily decoded events, built
+     * on first use
+     */
+    private volatile @Nullable LazyEventBody.Layout fLazyLayout = null;
+
+    /**
+     * The context or payload cannot be skipped, the events are always decoded
+     */
+    private volatile boolean fLazyUnsupported = false;
+
     // ------------------------------------------------------------------------
     // Constructors
     // ------------------------------------------------------------------------
@@ -105,11 +117,59 @@ public class EventDeclaration implements IEventDeclaration {
      */
     public EventDefinition createDefinition(StructDeclaration streamEventContextDecl, ICTFPacketDescriptor packetDescriptor, ICompositeDefinition packetContext, ICompositeDefinition eventHeaderDef, @NotNull BitBuffer input, long prevTimestamp)
             throws CTFException {
+        return createDefinition(streamEventContextDecl, packetDescriptor, packetContext, eventHeaderDef, input, prevTimestamp, false);
+    }
+
+    /**
+     * Creates an instance of EventDefinition corresponding to this
+     * declaration, optionally without decoding its contexts and payload.
+     * <p>
+     * A lazy event skips the stream event context, event context and payload
+     * and keeps a copy of their bytes, each of them being decoded when it is
+     * first looked at. The event is decoded right away if a section cannot be
+     * skipped, or if its timestamp may be in the context or payload.
+     *
+     * @param streamEventContextDecl
+     *            event context
+     * @param packetDescriptor
+     *            current packet
+     * @param packetContext
+     *            packet context
+     * @param eventHeaderDef
+     *            The event header definition
+     * @param input
+     *            the bitbuffer input source
+     * @param prevTimestamp
+     *            The timestamp when the event was taken
+     * @param lazy
+     *            whether to decode the sections on first access
+     * @return A new EventDefinition.
+     * @throws CTFException
+     *             As a bitbuffer is used to read, it could have wrapped
+     *             IOExceptions.
+     */
+    public EventDefinition createDefinition(StructDeclaration streamEventContextDecl, ICTFPacketDescriptor packetDescriptor, ICompositeDefinition packetContext, ICompositeDefinition eventHeaderDef, @NotNull BitBuffer input, long prevTimestamp,
+            boolean lazy) throws CTFException {
         final CTFStream stream = fStream;
         final CTFTrace trace = stream == null ? null : stream.getTrace();
-        StructDefinition streamEventContext = streamEventContextDecl != null ? streamEventContextDecl.createDefinition(trace, ILexicalScope.STREAM_EVENT_CONTEXT, input) : null;
-        StructDefinition eventContext = fContext != null ? fContext.createFieldDefinition(eventHeaderDef, trace, ILexicalScope.CONTEXT, input) : null;
-        StructDefinition eventPayload = fFields != null ? fFields.createFieldDefinition(eventHeaderDef, trace, ILexicalScope.FIELDS, input) : null;
+        EventScope scope = new EventScope(trace, packetContext, eventHeaderDef);
+        if (lazy) {
+            LazyEventBody.Layout layout = getLazyLayout(streamEventContextDecl);
+            if (layout != null && (!layout.hasPayloadTimestamp() || hasHeaderTimestamp(eventHeaderDef))) {
+                LazyEventBody body = LazyEventBody.read(layout, this, eventHeaderDef, scope, input);
+                return new EventDefinition(
+                        this,
+                        (int) packetDescriptor.getTargetId(),
+                        calculateTimestamp(eventHeaderDef, prevTimestamp),
+                        eventHeaderDef,
+                        packetContext,
+                        body,
+                        packetDescriptor);
+            }
+        }
+        StructDefinition streamEventContext = streamEventContextDecl != null ? streamEventContextDecl.createDefinition(scope, ILexicalScope.STREAM_EVENT_CONTEXT, input) : null;
+        StructDefinition eventContext = fContext != null ? fContext.createFieldDefinition(eventHeaderDef, scope, ILexicalScope.CONTEXT, input) : null;
+        StructDefinition eventPayload = fFields != null ? fFields.createFieldDefinition(eventHeaderDef, scope, ILexicalScope.FIELDS, input) : null;
         long timestamp = calculateTimestamp(eventHeaderDef, prevTimestamp, eventPayload, eventContext);
 
         int cpu = (int) packetDescriptor.getTargetId();
@@ -125,6 +185,83 @@ public class EventDeclaration implements IEventDeclaration {
                 packetDescriptor);
     }
 
+    private @Nullable LazyEventBody.Layout getLazyLayout(@Nullable StructDeclaration streamEventContextDecl) {
+        if (fLazyUnsupported) {
+            return null;
+        }
+        LazyEventBody.Layout layout = fLazyLayout;
+        if (layout == null || !layout.isFor(streamEventContextDecl)) {
+            layout = LazyEventBody.Layout.create(streamEventContextDecl, fContext, fFields);
+            if (layout == null) {
+                fLazyUnsupported = true;
+                return null;
+            }
+            fLazyLayout = layout;
+        }
+        return layout;
+    }
+
+    /**
+     * Check whether a lookup of the timestamp in a definition of a
+     * declaration can find something
+     *
+     * @param declaration
+     *            the declaration, of the context or payload of an event
+     * @return true if it has a timestamp field, at any depth
+     */
+    public static boolean hasTimestampField(@Nullable IDeclaration declaration) {
+        if (declaration instanceof StructDeclaration) {
+            StructDeclaration struct = (StructDeclaration) declaration;
+            for (String name : struct.getFieldsList()) {
+                if (CTFStrings.TIMESTAMP.equals(name) || ('_' + CTFStrings.TIMESTAMP).equals(name) || hasTimestampField(struct.getField(name))) {
+                    return true;
+                }
+            }
+        } else if (declaration instanceof VariantDeclaration) {
+            for (IDeclaration option : ((VariantDeclaration) declaration).getFields().values()) {
+                if (hasTimestampField(option)) {
+                    return true;
+                }
+            }
+        } else if (declaration instanceof ArrayDeclaration) {
+            return hasTimestampField(((ArrayDeclaration) declaration).getElementType());
+        } else if (declaration instanceof SequenceDeclaration) {
+            return hasTimestampField(((SequenceDeclaration) declaration).getElementType());
+        }
+        return false;
+    }
+
+    /**
+     * Calculate the timestamp of an event from its header only, for events
+     * whose context and payload are skipped.
+     *
+     * @param eventHeaderDef
+     *            the event header
+     * @param prevTimestamp
+     *            the timestamp of the previous event of the packet
+     * @return the timestamp, 0 if the header does not have one
+     * @throws CTFIOException
+     *             if the header is not a struct or an event header
+     */
+    public static long calculateTimestamp(@Nullable ICompositeDefinition eventHeaderDef, long prevTimestamp) throws CTFIOException {
+        return calculateTimestamp(eventHeaderDef, prevTimestamp, null, null);
+    }
+
+    /**
+     * Check whether an event header holds the timestamp of its event, in
+     * which case the context and payload are not looked at.
+     *
+     * @param eventHeaderDef
+     *            the event header
+     * @return true if the timestamp comes from the header
+     */
+    public static boolean hasHeaderTimestamp(@Nullable ICompositeDefinition eventHeaderDef) {
+        if (eventHeaderDef instanceof EventHeaderDefinition) {
+            return true;
+        }
+        return (eventHeaderDef instanceof StructDefinition) && ((StructDefinition) eventHeaderDef).lookupDefinition(CTFStrings.TIMESTAMP) != null;
+    }
+
     private static long calculateTimestamp(@Nullable ICompositeDefinition eventHeaderDef, long prevTimestamp, StructDefinition eventPayload, StructDefinition eventContext) throws CTFIOException {
         long timestamp = 0;
         Definition def = null;
@@ -156,10 +293,11 @@ public class EventDeclaration implements IEventDeclaration {
         StructDeclaration streamEventContextDecl = streamInputReader.getStreamEventContextDecl();
         final @Nullable CTFStream stream = fStream;
         final CTFTrace trace = stream == null ? null : stream.getTrace();
-        StructDefinition streamEventContext = streamEventContextDecl != null ? streamEventContextDecl.createDefinition(trace, ILexicalScope.STREAM_EVENT_CONTEXT, input) : null;
         ICompositeDefinition packetContext = streamInputReader.getCurrentPacketReader().getCurrentPacketEventHeader();
-        StructDefinition eventContext = fContext != null ? fContext.createDefinition(trace, ILexicalScope.CONTEXT, input) : null;
-        StructDefinition eventPayload = fFields != null ? fFields.createDefinition(trace, ILexicalScope.FIELDS, input) : null;
+        EventScope scope = new EventScope(trace, null, packetContext);
+        StructDefinition streamEventContext = streamEventContextDecl != null ? streamEventContextDecl.createDefinition(scope, ILexicalScope.STREAM_EVENT_CONTEXT, input) : null;
+        StructDefinition eventContext = fContext != null ? fContext.createDefinition(scope, ILexicalScope.CONTEXT, input) : null;
+        StructDefinition eventPayload = fFields != null ? fFields.createDefinition(scope, ILexicalScope.FIELDS, input) : null;
 
         // a bit lttng specific
         // CTF doesn't require a timestamp,
@@ -203,6 +341,7 @@ public class EventDeclaration implements IEventDeclaration {
      */
     public void setContext(StructDeclaration context) {
         fContext = context;
+        resetLazyLayout();
     }
 
     /**
@@ -213,6 +352,12 @@ public class EventDeclaration implements IEventDeclaration {
      */
     public void setFields(StructDeclaration fields) {
         fFields = fields;
+        resetLazyLayout();
+    }
+
+    private void resetLazyLayout() {
+        fLazyLayout = null;
+        fLazyUnsupported = false;
     }
 
     @Override
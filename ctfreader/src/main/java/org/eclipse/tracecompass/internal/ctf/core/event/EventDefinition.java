@@ -12,6 +12,7 @@
 
 package org.eclipse.tracecompass.internal.ctf.core.event;
 
+import org.eclipse.tracecompass.ctf.core.CTFException;
 import org.eclipse.tracecompass.ctf.core.event.IEventDeclaration;
 import org.eclipse.tracecompass.ctf.core.event.IEventDefinition;
 import org.eclipse.tracecompass.ctf.core.event.scope.IDefinitionScope;
@@ -29,6 +30,9 @@ import java.util.Map;
 
 /**
  * Representation of a particular instance of an event.
+ * <p>
+ * The contexts and payload of a lazy event are decoded the first time they
+ * are looked at.
  */
 public final class EventDefinition implements IDefinitionScope, IEventDefinition {
 
@@ -51,16 +55,31 @@ public final class EventDefinition implements IDefinitionScope, IEventDefinition
     /**
      * The event context structure definition.
      */
-    private final ICompositeDefinition fEventContext;
+    private ICompositeDefinition fEventContext;
 
-    private final ICompositeDefinition fStreamContext;
+    private ICompositeDefinition fStreamContext;
 
     private final ICompositeDefinition fPacketContext;
 
     /**
      * The event fields structure definition.
      */
-    private final ICompositeDefinition fFields;
+    private ICompositeDefinition fFields;
+
+    /**
+     * The undecoded sections of a lazy event, null if it was decoded when it
+     * was read
+     */
+    private final @Nullable LazyEventBody fLazyBody;
+
+    /**
+     * Sections of a lazy event not decoded yet
+     */
+    private int fUndecoded;
+
+    private static final int STREAM_CONTEXT = 1;
+    private static final int EVENT_CONTEXT = 2;
+    private static final int FIELDS = 4;
 
     /**
      * The current cpu, could be IPacketHeader#UNKNOWN_CPU
@@ -117,6 +136,80 @@ public final class EventDefinition implements IDefinitionScope, IEventDefinition
         fPacketContext = packetContext;
         fStreamContext = streamContext;
         fPacketAttributes = packetDescriptor != null ? packetDescriptor.getAttributes() : Collections.EMPTY_MAP;
+        fLazyBody = null;
+    }
+
+    /**
+     * Constructs a lazy event definition, whose sections are decoded on first
+     * access.
+     */
+    EventDefinition(IEventDeclaration declaration,
+            int cpu,
+            long timestamp,
+            ICompositeDefinition eventHeaderDefinition,
+            ICompositeDefinition packetContext,
+            LazyEventBody body,
+            @Nullable ICTFPacketDescriptor packetDescriptor) {
+        fDeclaration = declaration;
+        fEventHeaderDefinition = eventHeaderDefinition;
+        fCpu = cpu;
+        fTimestamp = timestamp;
+        fPacketContext = packetContext;
+        fPacketAttributes = packetDescriptor != null ? packetDescriptor.getAttributes() : Collections.emptyMap();
+        fLazyBody = body;
+        fUndecoded = STREAM_CONTEXT | EVENT_CONTEXT | FIELDS;
+    }
+
+    /**
+     * Get a section of a lazy event, decoding it if it was not yet. The
+     * sections before it are decoded first, so they are in its scope as when
+     * the event is decoded when read.
+     */
+    private synchronized ICompositeDefinition decode(LazyEventBody body, int section) {
+        try {
+            for (int next = STREAM_CONTEXT; (fUndecoded & section) != 0; next <<= 1) {
+                if ((fUndecoded & next) == 0) {
+                    continue;
+                }
+                switch (next) {
+                case STREAM_CONTEXT:
+                    fStreamContext = body.decodeStreamContext();
+                    break;
+                case EVENT_CONTEXT:
+                    fEventContext = body.decodeContext();
+                    break;
+                default:
+                    fFields = body.decodeFields();
+                    break;
+                }
+                fUndecoded &= ~next;
+            }
+        } catch (CTFException e) {
+            throw new IllegalStateException("Cannot decode event " + fDeclaration.getName() + ": " + e.getMessage(), e); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        switch (section) {
+        case STREAM_CONTEXT:
+            return fStreamContext;
+        case EVENT_CONTEXT:
+            return fEventContext;
+        default:
+            return fFields;
+        }
+    }
+
+    private ICompositeDefinition streamContext() {
+        LazyEventBody body = fLazyBody;
+        return (body == null) ? fStreamContext : decode(body, STREAM_CONTEXT);
+    }
+
+    private ICompositeDefinition eventContext() {
+        LazyEventBody body = fLazyBody;
+        return (body == null) ? fEventContext : decode(body, EVENT_CONTEXT);
+    }
+
+    private ICompositeDefinition fields() {
+        LazyEventBody body = fLazyBody;
+        return (body == null) ? fFields : decode(body, FIELDS);
     }
 
     // ------------------------------------------------------------------------
@@ -148,25 +241,27 @@ public final class EventDefinition implements IDefinitionScope, IEventDefinition
 
     @Override
     public ICompositeDefinition getFields() {
-        return fFields;
+        return fields();
     }
 
     @Override
     public ICompositeDefinition getEventContext() {
-        return fEventContext;
+        return eventContext();
     }
 
     @Override
     public ICompositeDefinition getContext() {
+        ICompositeDefinition streamContext = streamContext();
+        ICompositeDefinition eventContext = eventContext();
 
         /* Most common case so far */
-        if (fStreamContext == null) {
-            return fEventContext;
+        if (streamContext == null) {
+            return eventContext;
         }
 
         /* streamContext is not null, but the context of the event is null */
-        if (fEventContext == null) {
-            return fStreamContext;
+        if (eventContext == null) {
+            return streamContext;
         }
 
         // TODO: cache if this is a performance issue
@@ -177,9 +272,9 @@ public final class EventDefinition implements IDefinitionScope, IEventDefinition
         List<Definition> fieldValues = new ArrayList<>();
 
         /* Add fields from the stream */
-        List<String> fieldNames = fStreamContext.getFieldNames();
+        List<String> fieldNames = streamContext.getFieldNames();
         for (String fieldName : fieldNames) {
-            Definition definition = fStreamContext.getDefinition(fieldName);
+            Definition definition = streamContext.getDefinition(fieldName);
             mergedDeclaration.addField(fieldName, definition.getDeclaration());
             fieldValues.add(definition);
         }
@@ -188,8 +283,8 @@ public final class EventDefinition implements IDefinitionScope, IEventDefinition
          * Add fields from the event context, overwrite the stream ones if
          * needed.
          */
-        for (String fieldName : fEventContext.getFieldNames()) {
-            Definition definition = fEventContext.getDefinition(fieldName);
+        for (String fieldName : eventContext.getFieldNames()) {
+            Definition definition = eventContext.getDefinition(fieldName);
             mergedDeclaration.addField(fieldName, definition.getDeclaration());
             if (fieldNames.contains(fieldName)) {
                 fieldValues.set((fieldNames.indexOf(fieldName)), definition);
@@ -228,9 +323,9 @@ public final class EventDefinition implements IDefinitionScope, IEventDefinition
     @Override
     public IDefinition lookupDefinition(String lookupPath) {
         if (lookupPath.equals("context")) { //$NON-NLS-1$
-            return fEventContext;
+            return eventContext();
         } else if (lookupPath.equals("fields")) { //$NON-NLS-1$
-            return fFields;
+            return fields();
         } else {
             return null;
         }
@@ -245,19 +340,21 @@ public final class EventDefinition implements IDefinitionScope, IEventDefinition
         retString.append("Event type: ").append(fDeclaration.getName()).append(cr); //$NON-NLS-1$
         retString.append("Timestamp: ").append(Long.toString(fTimestamp)).append(cr); //$NON-NLS-1$
 
-        if (fEventContext != null) {
-            list = fEventContext.getFieldNames();
+        ICompositeDefinition eventContext = eventContext();
+        if (eventContext != null) {
+            list = eventContext.getFieldNames();
 
             for (String field : list) {
-                retString.append(field).append(" : ").append(fEventContext.getDefinition(field).toString()).append(cr); //$NON-NLS-1$
+                retString.append(field).append(" : ").append(eventContext.getDefinition(field).toString()).append(cr); //$NON-NLS-1$
             }
         }
 
-        if (fFields != null) {
-            list = fFields.getFieldNames();
+        ICompositeDefinition fields = fields();
+        if (fields != null) {
+            list = fields.getFieldNames();
 
             for (String field : list) {
-                retString.append(field).append(" : ").append(fFields.getDefinition(field).toString()).append(cr); //$NON-NLS-1$
+                retString.append(field).append(" : ").append(fields.getDefinition(field).toString()).append(cr); //$NON-NLS-1$
             }
         }
 
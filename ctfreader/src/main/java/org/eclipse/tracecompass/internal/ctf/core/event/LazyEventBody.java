@@ -0,0 +1,223 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EfficiOS Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.ctf.core.event;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.eclipse.tracecompass.ctf.core.CTFException;
+import org.eclipse.tracecompass.ctf.core.event.io.BitBuffer;
+import org.eclipse.tracecompass.ctf.core.event.scope.ILexicalScope;
+import org.eclipse.tracecompass.ctf.core.event.types.ICompositeDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.StructDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.StructDefinition;
+import org.eclipse.tracecompass.internal.ctf.core.event.types.DeclarationSkipper;
+import org.eclipse.tracecompass.internal.ctf.core.event.types.EventScope;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Undecoded stream event context, event context and payload of an event. The
+ * sections are skipped when the event is read and their bytes are copied, so
+ * each section is decoded the first time it is looked at, even after the
+ * buffer of the packet was released or reused.
+ */
+final class LazyEventBody {
+
+    private static final int BITS_PER_BYTE = Byte.SIZE;
+
+    /**
+     * How to skip the sections of one event type
+     */
+    static final class Layout {
+        private final @Nullable StructDeclaration fStreamContextDecl;
+        private final @Nullable DeclarationSkipper fStreamContext;
+        private final @Nullable DeclarationSkipper fContext;
+        private final @Nullable DeclarationSkipper fFields;
+        private final long fAlignment;
+        private final boolean fPayloadTimestamp;
+
+        private Layout(@Nullable StructDeclaration streamContextDecl, @Nullable DeclarationSkipper streamContext,
+                @Nullable DeclarationSkipper context, @Nullable DeclarationSkipper fields, boolean payloadTimestamp) {
+            fStreamContextDecl = streamContextDecl;
+            fStreamContext = streamContext;
+            fContext = context;
+            fFields = fields;
+            fPayloadTimestamp = payloadTimestamp;
+            long alignment = BITS_PER_BYTE;
+            for (DeclarationSkipper skipper : new DeclarationSkipper[] { streamContext, context, fields }) {
+                if (skipper != null) {
+                    alignment = Math.max(alignment, skipper.getMaximumAlignment());
+                }
+            }
+            fAlignment = alignment;
+        }
+
+        /**
+         * Build the layout of an event type
+         *
+         * @return the layout, or null if a section cannot be skipped
+         */
+        static @Nullable Layout create(@Nullable StructDeclaration streamContextDecl, @Nullable StructDeclaration context, @Nullable StructDeclaration fields) {
+            DeclarationSkipper streamContextSkipper = null;
+            DeclarationSkipper contextSkipper = null;
+            DeclarationSkipper fieldsSkipper = null;
+            if (streamContextDecl != null) {
+                streamContextSkipper = DeclarationSkipper.create(streamContextDecl);
+                if (streamContextSkipper == null) {
+                    return null;
+                }
+            }
+            if (context != null) {
+                contextSkipper = DeclarationSkipper.create(context);
+                if (contextSkipper == null) {
+                    return null;
+                }
+            }
+            if (fields != null) {
+                fieldsSkipper = DeclarationSkipper.create(fields);
+                if (fieldsSkipper == null) {
+                    return null;
+                }
+            }
+            boolean payloadTimestamp = EventDeclaration.hasTimestampField(context) || EventDeclaration.hasTimestampField(fields);
+            return new Layout(streamContextDecl, streamContextSkipper, contextSkipper, fieldsSkipper, payloadTimestamp);
+        }
+
+        /**
+         * Is this the layout for the given stream event context
+         */
+        boolean isFor(@Nullable StructDeclaration streamContextDecl) {
+            return fStreamContextDecl == streamContextDecl;
+        }
+
+        /**
+         * Can the timestamp of the event be looked up in the context or
+         * payload, which then have to be decoded
+         */
+        boolean hasPayloadTimestamp() {
+            return fPayloadTimestamp;
+        }
+    }
+
+    private final @Nullable StructDeclaration fStreamContextDecl;
+    private final @Nullable StructDeclaration fContextDecl;
+    private final @Nullable StructDeclaration fFieldsDecl;
+    private final @Nullable ICompositeDefinition fEventHeader;
+    private final EventScope fScope;
+    private final byte[] fData;
+    private final ByteOrder fByteOrder;
+    private final long fStreamContextStart;
+    private final long fContextStart;
+    private final long fFieldsStart;
+
+    private LazyEventBody(EventDeclaration declaration, @Nullable StructDeclaration streamContextDecl, @Nullable ICompositeDefinition eventHeader,
+            EventScope scope, byte[] data, ByteOrder byteOrder, long streamContextStart, long contextStart, long fieldsStart) {
+        fStreamContextDecl = streamContextDecl;
+        fContextDecl = declaration.getContext();
+        fFieldsDecl = declaration.getFields();
+        fEventHeader = eventHeader;
+        fScope = scope;
+        fData = data;
+        fByteOrder = byteOrder;
+        fStreamContextStart = streamContextStart;
+        fContextStart = contextStart;
+        fFieldsStart = fieldsStart;
+    }
+
+    /**
+     * Skip the sections of an event and copy their bytes
+     *
+     * @param layout
+     *            the layout of the event type
+     * @param declaration
+     *            the event type
+     * @param eventHeader
+     *            the event header, looked up by the context and payload
+     * @param scope
+     *            the scopes of the event, as when it is decoded when read. The
+     *            sections are added to it as they are decoded.
+     * @param input
+     *            the input, positioned after the event header. It is moved
+     *            after the payload.
+     * @return the undecoded sections
+     * @throws CTFException
+     *             if the input is too short or malformed
+     */
+    static LazyEventBody read(Layout layout, EventDeclaration declaration, @Nullable ICompositeDefinition eventHeader,
+            EventScope scope, BitBuffer input) throws CTFException {
+        long streamContextStart = input.position();
+        if (layout.fStreamContext != null) {
+            layout.fStreamContext.skip(input);
+        }
+        long contextStart = input.position();
+        if (layout.fContext != null) {
+            layout.fContext.skip(input);
+        }
+        long fieldsStart = input.position();
+        if (layout.fFields != null) {
+            layout.fFields.skip(input);
+        }
+        long end = input.position();
+        /* Keep the alignment of the sections relative to the copy */
+        long alignmentBytes = layout.fAlignment / BITS_PER_BYTE;
+        long first = (streamContextStart / BITS_PER_BYTE / alignmentBytes) * alignmentBytes;
+        long last = (end + BITS_PER_BYTE - 1) / BITS_PER_BYTE;
+        byte[] data = new byte[(int) (last - first)];
+        ByteBuffer source = input.getByteBuffer().duplicate();
+        source.clear();
+        source.position((int) first);
+        source.get(data);
+        long offset = first * BITS_PER_BYTE;
+        return new LazyEventBody(declaration, layout.fStreamContextDecl, eventHeader, scope, data, input.getByteOrder(),
+                streamContextStart - offset, contextStart - offset, fieldsStart - offset);
+    }
+
+    private BitBuffer input(long position) throws CTFException {
+        BitBuffer input = new BitBuffer(ByteBuffer.wrap(fData), fByteOrder);
+        input.position(position);
+        return input;
+    }
+
+    /**
+     * Decode the stream event context
+     *
+     * @return the definition, null if the stream has none
+     * @throws CTFException
+     *             if the data is malformed
+     */
+    @Nullable StructDefinition decodeStreamContext() throws CTFException {
+        StructDeclaration declaration = fStreamContextDecl;
+        return (declaration == null) ? null : declaration.createDefinition(fScope, ILexicalScope.STREAM_EVENT_CONTEXT, input(fStreamContextStart));
+    }
+
+    /**
+     * Decode the event context
+     *
+     * @return the definition, null if the event has none
+     * @throws CTFException
+     *             if the data is malformed
+     */
+    @Nullable StructDefinition decodeContext() throws CTFException {
+        StructDeclaration declaration = fContextDecl;
+        return (declaration == null) ? null : declaration.createFieldDefinition(fEventHeader, fScope, ILexicalScope.CONTEXT, input(fContextStart));
+    }
+
+    /**
+     * Decode the payload
+     *
+     * @return the definition, null if the event has none
+     * @throws CTFException
+     *             if the data is malformed
+     */
+    @Nullable StructDefinition decodeFields() throws CTFException {
+        StructDeclaration declaration = fFieldsDecl;
+        return (declaration == null) ? null : declaration.createFieldDefinition(fEventHeader, fScope, ILexicalScope.FIELDS, input(fFieldsStart));
+    }
+}
@@ -0,0 +1,427 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EfficiOS Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.ctf.core.event.types;
+
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.eclipse.tracecompass.ctf.core.CTFException;
+import org.eclipse.tracecompass.ctf.core.event.io.BitBuffer;
+import org.eclipse.tracecompass.ctf.core.event.types.ArrayDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.EnumDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.FloatDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.IDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.IntegerDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.SequenceDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.StringDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.StructDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.VariantDeclaration;
+import org.jetbrains.annotations.Nullable;
+
+import com.google.common.collect.Iterables;
+
+/**
+ * Moves a {@link BitBuffer} past the data of a struct without creating any
+ * definition. The declaration is compiled once into a tree of skip steps.
+ * Integers and enums are only read when a sequence length or a variant tag of
+ * the same struct refers to them, everything else is skipped by moving the
+ * position.
+ * <p>
+ * Only the length and tag references to earlier fields of the same struct can
+ * be resolved, which covers what tracers generate. Other declarations cannot
+ * be skipped and {@link #create(StructDeclaration)} returns null for them.
+ */
+public final class DeclarationSkipper {
+
+    private static final int BITS_PER_BYTE = Byte.SIZE;
+    private static final long[] NO_VALUES = new long[0];
+
+    private final StructStep fRoot;
+
+    private DeclarationSkipper(StructStep root) {
+        fRoot = root;
+    }
+
+    /**
+     * Compile the skipper of a struct declaration
+     *
+     * @param declaration
+     *            the struct to skip
+     * @return the skipper, or null if the struct cannot be skipped without
+     *         decoding it
+     */
+    public static @Nullable DeclarationSkipper create(StructDeclaration declaration) {
+        StructStep root = compileStruct(declaration);
+        return (root == null) ? null : new DeclarationSkipper(root);
+    }
+
+    /**
+     * Move the input past the struct, as if its definition was created
+     *
+     * @param input
+     *            the input, positioned at the start of the struct
+     * @throws CTFException
+     *             if the input is too short or a variant tag is invalid
+     */
+    public void skip(BitBuffer input) throws CTFException {
+        fRoot.skip(input, NO_VALUES);
+    }
+
+    /**
+     * Get the largest alignment of the struct and of everything in it, a copy
+     * of the data starting at a multiple of it is decoded the same way
+     *
+     * @return the alignment, in bits
+     */
+    public long getMaximumAlignment() {
+        return fRoot.getMaximumAlignment();
+    }
+
+    // ------------------------------------------------------------------------
+    // Compilation
+    // ------------------------------------------------------------------------
+
+    private static @Nullable StructStep compileStruct(StructDeclaration declaration) {
+        Set<String> references = new HashSet<>();
+        for (String name : declaration.getFieldsList()) {
+            IDeclaration field = declaration.getField(name);
+            if (field != null) {
+                collectReferences(field, references);
+            }
+        }
+        Map<String, Integer> slots = new HashMap<>();
+        List<IDeclaration> slotTypes = new ArrayList<>();
+        Step[] steps = new Step[Iterables.size(declaration.getFieldsList())];
+        int i = 0;
+        for (String name : declaration.getFieldsList()) {
+            IDeclaration field = declaration.getField(name);
+            if (field == null) {
+                return null;
+            }
+            boolean referenced = references.contains(name) || (name.startsWith("_") && references.contains(name.substring(1))); //$NON-NLS-1$
+            Step step;
+            if (referenced && (field instanceof IntegerDeclaration || field instanceof EnumDeclaration)) {
+                int slot = slotTypes.size();
+                step = new ValueStep(field, slot);
+                slots.put(name, slot);
+                slotTypes.add(field);
+            } else {
+                step = compile(field, slots, slotTypes);
+            }
+            if (step == null) {
+                return null;
+            }
+            steps[i++] = step;
+        }
+        return new StructStep(declaration.getAlignment(), steps, slotTypes.size());
+    }
+
+    /**
+     * Collect the names looked up by the sequences and variants that are
+     * resolved in the enclosing struct
+     */
+    private static void collectReferences(IDeclaration declaration, Set<String> references) {
+        if (declaration instanceof SequenceDeclaration) {
+            SequenceDeclaration sequence = (SequenceDeclaration) declaration;
+            references.add(sequence.getLengthName());
+            collectReferences(sequence.getElementType(), references);
+        } else if (declaration instanceof ArrayDeclaration) {
+            collectReferences(((ArrayDeclaration) declaration).getElementType(), references);
+        } else if (declaration instanceof VariantDeclaration) {
+            VariantDeclaration variant = (VariantDeclaration) declaration;
+            references.add(variant.getTag());
+            for (IDeclaration option : variant.getFields().values()) {
+                collectReferences(option, references);
+            }
+        }
+    }
+
+    /**
+     * Find the slot of an earlier field, the same way
+     * StructDefinition.lookupDefinition does
+     */
+    private static @Nullable Integer findSlot(@Nullable String name, Map<String, Integer> slots) {
+        if (name == null) {
+            return null;
+        }
+        Integer slot = slots.get(name);
+        return (slot != null) ? slot : slots.get('_' + name);
+    }
+
+    private static @Nullable Step compile(IDeclaration declaration, Map<String, Integer> slots, List<IDeclaration> slotTypes) {
+        if (declaration instanceof IntegerDeclaration) {
+            IntegerDeclaration integer = (IntegerDeclaration) declaration;
+            return new FixedStep(integer.getAlignment(), integer.getLength());
+        } else if (declaration instanceof EnumDeclaration) {
+            IntegerDeclaration container = ((EnumDeclaration) declaration).getContainerType();
+            return new FixedStep(declaration.getAlignment(), container.getLength());
+        } else if (declaration instanceof FloatDeclaration) {
+            FloatDeclaration floatDeclaration = (FloatDeclaration) declaration;
+            int size = floatDeclaration.getExponent() + floatDeclaration.getMantissa();
+            return new FixedStep(floatDeclaration.getAlignment(), (size == Integer.SIZE || size == Long.SIZE) ? size : 0);
+        } else if (declaration instanceof StringDeclaration) {
+            return new StringStep(declaration.getAlignment());
+        } else if (declaration instanceof StructDeclaration) {
+            return compileStruct((StructDeclaration) declaration);
+        } else if (declaration instanceof ArrayDeclaration) {
+            ArrayDeclaration array = (ArrayDeclaration) declaration;
+            if (array.isAlignedBytes()) {
+                return new FixedStep(array.getAlignment(), (long) array.getLength() * BITS_PER_BYTE);
+            }
+            Step element = compile(array.getElementType(), slots, slotTypes);
+            if (element == null) {
+                return null;
+            }
+            if (element instanceof FixedStep && ((FixedStep) element).isPacked()) {
+                /* No padding between the elements, skip them all at once */
+                return new FixedStep(array.getAlignment(), array.getLength() * ((FixedStep) element).fBits);
+            }
+            return new ArrayStep(array.getAlignment(), array.getLength(), element);
+        } else if (declaration instanceof SequenceDeclaration) {
+            SequenceDeclaration sequence = (SequenceDeclaration) declaration;
+            Integer slot = findSlot(sequence.getLengthName(), slots);
+            if (slot == null) {
+                return null;
+            }
+            IDeclaration lengthType = slotTypes.get(slot);
+            if (!(lengthType instanceof IntegerDeclaration) || ((IntegerDeclaration) lengthType).isSigned()) {
+                return null;
+            }
+            Step element = compile(sequence.getElementType(), slots, slotTypes);
+            if (element == null) {
+                return null;
+            }
+            return new SequenceStep(slot, sequence.isAlignedBytes(), element, sequence.getElementType().getMaximumSize());
+        } else if (declaration instanceof VariantDeclaration) {
+            VariantDeclaration variant = (VariantDeclaration) declaration;
+            Integer slot = findSlot(variant.getTag(), slots);
+            if (slot == null) {
+                return null;
+            }
+            IDeclaration tagType = slotTypes.get(slot);
+            if (!(tagType instanceof EnumDeclaration)) {
+                return null;
+            }
+            Map<String, Step> options = new HashMap<>();
+            for (Entry<String, IDeclaration> option : variant.getFields().entrySet()) {
+                Step step = compile(option.getValue(), slots, slotTypes);
+                if (step == null) {
+                    return null;
+                }
+                options.put(option.getKey(), step);
+            }
+            return new VariantStep(slot, (EnumDeclaration) tagType, options);
+        }
+        return null;
+    }
+
+    // ------------------------------------------------------------------------
+    // Steps
+    // ------------------------------------------------------------------------
+
+    private abstract static class Step {
+        protected final long fAlignment;
+
+        protected Step(long alignment) {
+            fAlignment = alignment;
+        }
+
+        abstract void skip(BitBuffer input, long[] values) throws CTFException;
+
+        long getMaximumAlignment() {
+            return fAlignment;
+        }
+    }
+
+    /** Aligned data of a known size */
+    private static final class FixedStep extends Step {
+        private final long fBits;
+
+        FixedStep(long alignment, long bits) {
+            super(alignment);
+            fBits = bits;
+        }
+
+        /** Consecutive elements do not need padding */
+        boolean isPacked() {
+            return fAlignment <= 1 || (fBits % fAlignment) == 0;
+        }
+
+        @Override
+        void skip(BitBuffer input, long[] values) throws CTFException {
+            input.align(fAlignment);
+            input.position(input.position() + fBits);
+        }
+    }
+
+    /** Integer or enum read because a sequence or a variant refers to it */
+    private static final class ValueStep extends Step {
+        private final IntegerDeclaration fInteger;
+        private final int fSlot;
+
+        ValueStep(IDeclaration declaration, int slot) {
+            super(declaration.getAlignment());
+            fInteger = (declaration instanceof EnumDeclaration) ? ((EnumDeclaration) declaration).getContainerType() : (IntegerDeclaration) declaration;
+            fSlot = slot;
+        }
+
+        @Override
+        void skip(BitBuffer input, long[] values) throws CTFException {
+            input.align(fAlignment);
+            ByteOrder previousByteOrder = input.getByteOrder();
+            input.setByteOrder(fInteger.getByteOrder());
+            values[fSlot] = input.get(fInteger.getLength(), fInteger.isSigned());
+            input.setByteOrder(previousByteOrder);
+        }
+    }
+
+    /** Null terminated string */
+    private static final class StringStep extends Step {
+
+        StringStep(long alignment) {
+            super(alignment);
+        }
+
+        @Override
+        void skip(BitBuffer input, long[] values) throws CTFException {
+            input.align(fAlignment);
+            StringReader.skip(input);
+        }
+    }
+
+    private static final class StructStep extends Step {
+        private final Step[] fFields;
+        private final int fValueCount;
+
+        StructStep(long alignment, Step[] fields, int valueCount) {
+            super(alignment);
+            fFields = fields;
+            fValueCount = valueCount;
+        }
+
+        @Override
+        void skip(BitBuffer input, long[] values) throws CTFException {
+            input.align(fAlignment);
+            long[] myValues = (fValueCount == 0) ? NO_VALUES : new long[fValueCount];
+            for (Step field : fFields) {
+                field.skip(input, myValues);
+            }
+        }
+
+        @Override
+        long getMaximumAlignment() {
+            long alignment = fAlignment;
+            for (Step field : fFields) {
+                alignment = Math.max(alignment, field.getMaximumAlignment());
+            }
+            return alignment;
+        }
+    }
+
+    private static final class ArrayStep extends Step {
+        private final int fLength;
+        private final Step fElement;
+
+        ArrayStep(long alignment, int length, Step element) {
+            super(alignment);
+            fLength = length;
+            fElement = element;
+        }
+
+        @Override
+        void skip(BitBuffer input, long[] values) throws CTFException {
+            input.align(fAlignment);
+            for (int i = 0; i < fLength; i++) {
+                fElement.skip(input, values);
+            }
+        }
+
+        @Override
+        long getMaximumAlignment() {
+            return Math.max(fAlignment, fElement.getMaximumAlignment());
+        }
+    }
+
+    private static final class SequenceStep extends Step {
+        private final int fSlot;
+        private final boolean fAlignedBytes;
+        private final Step fElement;
+        private final int fElementMaxSize;
+
+        SequenceStep(int slot, boolean alignedBytes, Step element, int elementMaxSize) {
+            super(1);
+            fSlot = slot;
+            fAlignedBytes = alignedBytes;
+            fElement = element;
+            fElementMaxSize = elementMaxSize;
+        }
+
+        @Override
+        void skip(BitBuffer input, long[] values) throws CTFException {
+            long length = values[fSlot];
+            if ((length > Integer.MAX_VALUE) || (!input.canRead((int) length * fElementMaxSize))) {
+                throw new CTFException("Sequence length too long " + length); //$NON-NLS-1$
+            }
+            if (fAlignedBytes) {
+                input.position(input.position() + length * BITS_PER_BYTE);
+                return;
+            }
+            for (long i = 0; i < length; i++) {
+                fElement.skip(input, values);
+            }
+        }
+
+        @Override
+        long getMaximumAlignment() {
+            return Math.max(fAlignment, fElement.getMaximumAlignment());
+        }
+    }
+
+    private static final class VariantStep extends Step {
+        private final int fSlot;
+        private final EnumDeclaration fTag;
+        private final Map<String, Step> fOptions;
+
+        VariantStep(int slot, EnumDeclaration tag, Map<String, Step> options) {
+            super(1);
+            fSlot = slot;
+            fTag = tag;
+            fOptions = options;
+        }
+
+        @Override
+        void skip(BitBuffer input, long[] values) throws CTFException {
+            String label = fTag.query(values[fSlot]);
+            if (label == null) {
+                throw new CTFException("Undefined enum selector for variant"); //$NON-NLS-1$
+            }
+            Step option = fOptions.get(label);
+            if (option == null) {
+                throw new CTFException("Unknown enum selector for variant"); //$NON-NLS-1$
+            }
+            option.skip(input, values);
+        }
+
+        @Override
+        long getMaximumAlignment() {
+            long alignment = fAlignment;
+            for (Step option : fOptions.values()) {
+                alignment = Math.max(alignment, option.getMaximumAlignment());
+            }
+            return alignment;
+        }
+    }
+}
@@ -0,0 +1,215 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EfficiOS Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.ctf.core.event.types;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Immutable lookup table of the labels of an enum, built once its ranges are
+ * all added. The ranges are split into sorted, disjoint intervals, searched
+ * by binary search, and an enum whose values span at most
+ * {@value #MAX_DIRECT_SIZE} integers, like most of them, gets a table
+ * indexed by the value instead. Being immutable, the table is read by any
+ * number of threads without locking.
+ */
+public final class EnumIntervalTable {
+
+    /**
+     * Largest span of values indexed directly
+     */
+    public static final int MAX_DIRECT_SIZE = 1024;
+
+    private static final EnumIntervalTable EMPTY = new EnumIntervalTable(new long[0], new long[0], new String[0], 0, null);
+
+    // ------------------------------------------------------------------------
+    // Attributes
+    // ------------------------------------------------------------------------
+
+    private final long[] fLows;
+    private final long[] fHighs;
+    private final String[] fLabels;
+
+    /* Labels indexed by value - fDirectBase, null if too sparse */
+    private final long fDirectBase;
+    private final @Nullable String[] fDirect;
+
+    // ------------------------------------------------------------------------
+    // Constructors
+    // ------------------------------------------------------------------------
+
+    private EnumIntervalTable(long[] lows, long[] highs, String[] labels, long directBase, @Nullable String[] direct) {
+        fLows = lows;
+        fHighs = highs;
+        fLabels = labels;
+        fDirectBase = directBase;
+        fDirect = direct;
+    }
+
+    /**
+     * Build the table of the ranges of an enum. Where two ranges overlap, the
+     * first one added wins, as it did when the ranges were searched in order.
+     *
+     * @param lows
+     *            the lowest value of each range, in the order they were added
+     * @param highs
+     *            the highest value of each range
+     * @param labels
+     *            the label of each range
+     * @return the table
+     */
+    public static EnumIntervalTable create(long[] lows, long[] highs, @Nullable String[] labels) {
+        List<Interval> intervals = new ArrayList<>();
+        for (int i = 0; i < lows.length; i++) {
+            if (lows[i] <= highs[i]) {
+                intervals.add(new Interval(lows[i], highs[i], labels[i]));
+            }
+        }
+        intervals.sort(Comparator.comparingLong(interval -> interval.fLow));
+        if (overlaps(intervals)) {
+            /* Only possible if a range contains one added before it */
+            List<Interval> ranges = new ArrayList<>();
+            for (int i = 0; i < lows.length; i++) {
+                if (lows[i] <= highs[i]) {
+                    insert(ranges, lows[i], highs[i], labels[i]);
+                }
+            }
+            intervals = ranges;
+        }
+        int size = intervals.size();
+        if (size == 0) {
+            return EMPTY;
+        }
+        long[] sortedLows = new long[size];
+        long[] sortedHighs = new long[size];
+        String[] sortedLabels = new String[size];
+        for (int i = 0; i < size; i++) {
+            Interval interval = intervals.get(i);
+            sortedLows[i] = interval.fLow;
+            sortedHighs[i] = interval.fHigh;
+            sortedLabels[i] = interval.fLabel;
+        }
+        long base = sortedLows[0];
+        long span = sortedHighs[size - 1] - base;
+        /* Negative if it overflows */
+        if (span < 0 || span >= MAX_DIRECT_SIZE) {
+            return new EnumIntervalTable(sortedLows, sortedHighs, sortedLabels, 0, null);
+        }
+        String[] direct = new String[(int) span + 1];
+        for (int i = 0; i < size; i++) {
+            int last = (int) (sortedHighs[i] - base);
+            for (int index = (int) (sortedLows[i] - base); index <= last; index++) {
+                direct[index] = sortedLabels[i];
+            }
+        }
+        return new EnumIntervalTable(sortedLows, sortedHighs, sortedLabels, base, direct);
+    }
+
+    private static final class Interval {
+        private final long fLow;
+        private final long fHigh;
+        private final @Nullable String fLabel;
+
+        Interval(long low, long high, @Nullable String label) {
+            fLow = low;
+            fHigh = high;
+            fLabel = label;
+        }
+    }
+
+    private static boolean overlaps(List<Interval> sorted) {
+        for (int i = 1; i < sorted.size(); i++) {
+            if (sorted.get(i).fLow <= sorted.get(i - 1).fHigh) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Add the parts of a range not covered yet to a sorted list of disjoint
+     * intervals
+     */
+    private static void insert(List<Interval> intervals, long low, long high, @Nullable String label) {
+        List<Interval> result = new ArrayList<>(intervals.size() + 2);
+        long next = low;
+        boolean done = false;
+        for (Interval interval : intervals) {
+            if (!done && interval.fHigh >= next && interval.fLow <= high) {
+                if (interval.fLow > next) {
+                    result.add(new Interval(next, interval.fLow - 1, label));
+                }
+                if (interval.fHigh >= high) {
+                    done = true;
+                } else {
+                    next = interval.fHigh + 1;
+                }
+            } else if (!done && interval.fLow > high) {
+                result.add(new Interval(next, high, label));
+                done = true;
+            }
+            result.add(interval);
+        }
+        if (!done) {
+            result.add(new Interval(next, high, label));
+        }
+        intervals.clear();
+        intervals.addAll(result);
+    }
+
+    // ------------------------------------------------------------------------
+    // Operations
+    // ------------------------------------------------------------------------
+
+    /**
+     * Get the label of a value
+     *
+     * @param value
+     *            the value
+     * @return the label of the range the value is in, null if there is none
+     */
+    public @Nullable String query(long value) {
+        String[] direct = fDirect;
+        if (direct != null) {
+            long index = value - fDirectBase;
+            /* Also out of range if the subtraction overflows */
+            if (index < 0 || index >= direct.length) {
+                return null;
+            }
+            return direct[(int) index];
+        }
+        long[] lows = fLows;
+        int low = 0;
+        int high = lows.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (lows[mid] > value) {
+                high = mid - 1;
+            } else if (fHighs[mid] < value) {
+                low = mid + 1;
+            } else {
+                return fLabels[mid];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the number of disjoint intervals of the table
+     *
+     * @return the number of intervals
+     */
+    public int size() {
+        return fLows.length;
+    }
+}
@@ -0,0 +1,125 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EfficiOS Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.ctf.core.event.types;
+
+import org.eclipse.tracecompass.ctf.core.event.scope.IDefinitionScope;
+import org.eclipse.tracecompass.ctf.core.event.scope.ILexicalScope;
+import org.eclipse.tracecompass.ctf.core.event.types.ICompositeDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.IDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.StructDefinition;
+import org.eclipse.tracecompass.internal.ctf.core.event.types.FieldReference.Root;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The scopes of an event being read: the trace packet header and the event
+ * header, read before it, then its stream event context, context and fields
+ * as they are read. It is the parent scope of these structs, so the variants
+ * and sequences in them find the fields of the other scopes they refer to.
+ */
+public final class EventScope implements IDefinitionScope {
+
+    // ------------------------------------------------------------------------
+    // Attributes
+    // ------------------------------------------------------------------------
+
+    private final @Nullable IDefinitionScope fParent;
+    private final @Nullable ICompositeDefinition fPacketHeader;
+    private final @Nullable ICompositeDefinition fEventHeader;
+    private @Nullable StructDefinition fStreamEventContext;
+    private @Nullable StructDefinition fEventContext;
+    private @Nullable StructDefinition fFields;
+
+    // ------------------------------------------------------------------------
+    // Constructors
+    // ------------------------------------------------------------------------
+
+    /**
+     * Constructor
+     *
+     * @param parent
+     *            the parent scope, the trace
+     * @param packetHeader
+     *            the trace packet header of the current packet, if any
+     * @param eventHeader
+     *            the header of the event, if any
+     */
+    public EventScope(@Nullable IDefinitionScope parent, @Nullable ICompositeDefinition packetHeader, @Nullable ICompositeDefinition eventHeader) {
+        fParent = parent;
+        fPacketHeader = packetHeader;
+        fEventHeader = eventHeader;
+    }
+
+    // ------------------------------------------------------------------------
+    // Getters/Setters/Predicates
+    // ------------------------------------------------------------------------
+
+    /**
+     * Set the definition of a scope of the event, once it is created and
+     * before its fields are read
+     *
+     * @param scope
+     *            the scope, the stream event context, the event context or the
+     *            event fields. The other scopes are ignored.
+     * @param definition
+     *            the definition of the scope
+     */
+    public void setDefinition(ILexicalScope scope, StructDefinition definition) {
+        if (scope == ILexicalScope.STREAM_EVENT_CONTEXT) {
+            fStreamEventContext = definition;
+        } else if (scope == ILexicalScope.CONTEXT) {
+            fEventContext = definition;
+        } else if (scope == ILexicalScope.FIELDS) {
+            fFields = definition;
+        }
+    }
+
+    @Nullable ICompositeDefinition getRoot(Root root) {
+        switch (root) {
+        case TRACE_PACKET_HEADER:
+            return fPacketHeader;
+        case STREAM_EVENT_HEADER:
+        case EVENT_HEADER:
+            return fEventHeader;
+        case STREAM_EVENT_CONTEXT:
+            return fStreamEventContext;
+        case EVENT_CONTEXT:
+            return fEventContext;
+        case EVENT_FIELDS:
+            return fFields;
+        default:
+            return null;
+        }
+    }
+
+    @Override
+    public ILexicalScope getScopePath() {
+        return ILexicalScope.EVENT;
+    }
+
+    // ------------------------------------------------------------------------
+    // Operations
+    // ------------------------------------------------------------------------
+
+    @Override
+    public @Nullable IDefinition lookupDefinition(String lookupPath) {
+        IDefinitionScope parent = fParent;
+        if (parent != null) {
+            IDefinition definition = parent.lookupDefinition(lookupPath);
+            if (definition != null) {
+                return definition;
+            }
+        }
+        FieldReference reference = FieldReference.parse(lookupPath);
+        if (reference != null) {
+            return reference.lookup(this);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,209 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EfficiOS Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.ctf.core.event.types;
+
+import org.eclipse.tracecompass.ctf.core.event.types.Definition;
+import org.eclipse.tracecompass.ctf.core.event.types.ICompositeDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.IDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.StructDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.StructDefinition;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The field a variant tag or a sequence length refers to, resolved once when
+ * the declaration of its struct is compiled instead of looking its path up by
+ * name for every event. A reference is either to a field read before it in
+ * the same struct, fetched by its index, or to a field of one of the scopes
+ * of the event: the trace packet header, the event header, the stream event
+ * context, the event context or the event fields.
+ */
+public final class FieldReference {
+
+    /**
+     * The scopes of an event an absolute reference starts from
+     */
+    enum Root {
+        TRACE_PACKET_HEADER("trace.packet.header."), //$NON-NLS-1$
+        STREAM_EVENT_HEADER("stream.event.header."), //$NON-NLS-1$
+        STREAM_EVENT_CONTEXT("stream.event.context."), //$NON-NLS-1$
+        EVENT_HEADER("event.header."), //$NON-NLS-1$
+        EVENT_CONTEXT("event.context."), //$NON-NLS-1$
+        EVENT_FIELDS("event.fields."); //$NON-NLS-1$
+
+        private final String fPrefix;
+
+        private Root(String prefix) {
+            fPrefix = prefix;
+        }
+    }
+
+    /**
+     * The index of a field in the struct it was last found in. The structs of
+     * a scope usually all have the same declaration, so the index is kept for
+     * the next lookup.
+     */
+    private static final class Slot {
+        private final StructDeclaration fDeclaration;
+        private final int fIndex;
+
+        Slot(StructDeclaration declaration, int index) {
+            fDeclaration = declaration;
+            fIndex = index;
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // Attributes
+    // ------------------------------------------------------------------------
+
+    private final @Nullable Root fRoot;
+    private final int fIndex;
+    private final String[] fNames;
+    private final Slot[] fSlots;
+
+    // ------------------------------------------------------------------------
+    // Constructors
+    // ------------------------------------------------------------------------
+
+    private FieldReference(@Nullable Root root, int index, String[] names) {
+        fRoot = root;
+        fIndex = index;
+        fNames = names;
+        fSlots = new Slot[names.length];
+    }
+
+    /**
+     * Resolve the path of a variant tag or a sequence length
+     *
+     * @param path
+     *            the path, as written in the metadata
+     * @param struct
+     *            the struct the variant or sequence is a field of
+     * @param fieldIndex
+     *            the index of the variant or sequence in the struct
+     * @return the reference, or null if the path cannot be resolved ahead of
+     *         time and must be looked up by name
+     */
+    public static @Nullable FieldReference resolve(String path, StructDeclaration struct, int fieldIndex) {
+        if (path.indexOf('.') == -1) {
+            /* The fields are read in order, only the previous ones are there */
+            int index = indexOf(struct, path);
+            if (index == -1) {
+                index = indexOf(struct, '_' + path);
+            }
+            if (index == -1 || index >= fieldIndex) {
+                return null;
+            }
+            return new FieldReference(null, index, new String[0]);
+        }
+        return parse(path);
+    }
+
+    private static int indexOf(StructDeclaration struct, String name) {
+        int index = 0;
+        for (String field : struct.getFieldsList()) {
+            if (field.equals(name)) {
+                return index;
+            }
+            index++;
+        }
+        return -1;
+    }
+
+    /**
+     * Parse an absolute path, starting from one of the scopes of an event
+     *
+     * @param path
+     *            the path
+     * @return the reference, or null if the path does not start from a scope
+     *         of the event
+     */
+    public static @Nullable FieldReference parse(String path) {
+        for (Root root : Root.values()) {
+            if (path.startsWith(root.fPrefix) && path.length() > root.fPrefix.length()) {
+                return new FieldReference(root, -1, path.substring(root.fPrefix.length()).split("\\.")); //$NON-NLS-1$
+            }
+        }
+        return null;
+    }
+
+    // ------------------------------------------------------------------------
+    // Operations
+    // ------------------------------------------------------------------------
+
+    /**
+     * Get whether the reference is to a scope of the event, rather than to a
+     * field of the same struct
+     *
+     * @return true if the event scope is needed to look the reference up
+     */
+    public boolean isAbsolute() {
+        return fRoot != null;
+    }
+
+    /**
+     * Look the referenced definition up
+     *
+     * @param fields
+     *            the definitions of the fields read so far in the struct
+     * @param scope
+     *            the scopes of the event being read, null if unknown
+     * @return the definition, or null if it is not there
+     */
+    public @Nullable IDefinition lookup(Definition[] fields, @Nullable EventScope scope) {
+        Root root = fRoot;
+        if (root == null) {
+            return fields[fIndex];
+        }
+        if (scope == null) {
+            return null;
+        }
+        return lookup(scope);
+    }
+
+    /**
+     * Look an absolute reference up
+     *
+     * @param scope
+     *            the scopes of the event being read
+     * @return the definition, or null if it is not there
+     */
+    @Nullable IDefinition lookup(EventScope scope) {
+        Root root = fRoot;
+        if (root == null) {
+            return null;
+        }
+        IDefinition current = scope.getRoot(root);
+        for (int i = 0; i < fNames.length; i++) {
+            if (current instanceof StructDefinition) {
+                current = child((StructDefinition) current, i);
+            } else if (current instanceof ICompositeDefinition) {
+                current = ((ICompositeDefinition) current).getDefinition(fNames[i]);
+            } else {
+                return null;
+            }
+        }
+        return current;
+    }
+
+    private @Nullable Definition child(StructDefinition struct, int i) {
+        StructDeclaration declaration = struct.getDeclaration();
+        Slot slot = fSlots[i];
+        if (slot == null || slot.fDeclaration != declaration) {
+            int index = struct.getFieldNames().indexOf(fNames[i]);
+            if (index == -1) {
+                return null;
+            }
+            slot = new Slot(declaration, index);
+            fSlots[i] = slot;
+        }
+        return struct.getDefinitionAt(slot.fIndex);
+    }
+}
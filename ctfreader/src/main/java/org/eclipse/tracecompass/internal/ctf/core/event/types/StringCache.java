@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EfficiOS Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.ctf.core.event.types;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+/**
+ * Bounded cache of the decoded strings, keyed by their bytes, so a string
+ * read again returns the same {@link String} without decoding or allocating.
+ * <p>
+ * The cache is direct mapped: each slot holds the last string whose bytes
+ * hash to it. Its entries are immutable, so it is shared by the threads
+ * without locking, a race only costing a miss. Only the strings of up to
+ * {@value #MAX_CACHED_LENGTH} bytes are cached.
+ */
+public final class StringCache {
+
+    /**
+     * Default number of entries
+     */
+    public static final int DEFAULT_SIZE = 4096;
+
+    /**
+     * Length of the longest strings cached, in bytes
+     */
+    public static final int MAX_CACHED_LENGTH = 64;
+
+    /**
+     * System property to set the number of entries of the shared cache, 0 to
+     * disable it
+     */
+    public static final String SIZE_PROPERTY = "org.eclipse.tracecompass.ctf.core.stringcache"; //$NON-NLS-1$
+
+    private static final StringCache DEFAULT = new StringCache(Math.max(0, Integer.getInteger(SIZE_PROPERTY, DEFAULT_SIZE)));
+
+    private static final class Entry {
+        private final byte[] fKey;
+        private final Charset fCharset;
+        private final String fValue;
+
+        Entry(byte[] key, Charset charset, String value) {
+            fKey = key;
+            fCharset = charset;
+            fValue = value;
+        }
+    }
+
+    private final Entry[] fEntries;
+    private final int fMask;
+
+    /**
+     * Constructor
+     *
+     * @param size
+     *            the number of entries, rounded up to a power of two, 0 to
+     *            decode every string
+     */
+    public StringCache(int size) {
+        if (size < 0 || size > (1 << 30)) {
+            throw new IllegalArgumentException("Invalid cache size " + size); //$NON-NLS-1$
+        }
+        int capacity = (size <= 1) ? size : Integer.highestOneBit(size - 1) << 1;
+        fEntries = new Entry[capacity];
+        fMask = capacity - 1;
+    }
+
+    /**
+     * Get the cache shared by the string declarations
+     *
+     * @return the cache, with {@value #DEFAULT_SIZE} entries unless set with
+     *         the {@value #SIZE_PROPERTY} system property
+     */
+    public static StringCache getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Get the string of bytes of a buffer, from the cache or decoded
+     *
+     * @param buffer
+     *            the buffer
+     * @param start
+     *            the index of the first byte of the string
+     * @param length
+     *            the number of bytes of the string
+     * @param charset
+     *            the charset to decode the bytes with
+     * @return the string
+     */
+    public String get(ByteBuffer buffer, int start, int length, Charset charset) {
+        Entry[] entries = fEntries;
+        if (length > MAX_CACHED_LENGTH || entries.length == 0) {
+            return decode(buffer, start, length, charset);
+        }
+        int hash = 1;
+        for (int i = start; i < start + length; i++) {
+            hash = 31 * hash + buffer.get(i);
+        }
+        int slot = (hash ^ (hash >>> 16)) & fMask;
+        Entry entry = entries[slot];
+        if (entry != null && entry.fCharset == charset && matches(entry.fKey, buffer, start, length)) {
+            return entry.fValue;
+        }
+        byte[] key = new byte[length];
+        ByteBuffer source = buffer.duplicate();
+        source.position(start);
+        source.get(key);
+        String value = new String(key, charset);
+        entries[slot] = new Entry(key, charset, value);
+        return value;
+    }
+
+    private static String decode(ByteBuffer buffer, int start, int length, Charset charset) {
+        if (buffer.hasArray()) {
+            return new String(buffer.array(), buffer.arrayOffset() + start, length, charset);
+        }
+        byte[] bytes = new byte[length];
+        ByteBuffer source = buffer.duplicate();
+        source.position(start);
+        source.get(bytes);
+        return new String(bytes, charset);
+    }
+
+    private static boolean matches(byte[] key, ByteBuffer buffer, int start, int length) {
+        if (key.length != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (key[i] != buffer.get(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,142 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EfficiOS Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.ctf.core.event.types;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import org.eclipse.tracecompass.ctf.core.CTFException;
+import org.eclipse.tracecompass.ctf.core.event.io.BitBuffer;
+import org.eclipse.tracecompass.ctf.core.event.types.Encoding;
+
+/**
+ * Reads the null terminated strings of a {@link BitBuffer} in bulk: the
+ * terminator is searched eight bytes at a time in the backing buffer, and the
+ * bytes before it are decoded in one call. The short strings go through the
+ * shared {@link StringCache}, so the values that repeat, like process names,
+ * are decoded once.
+ */
+public final class StringReader {
+
+    private static final int BITS_PER_BYTE = Byte.SIZE;
+
+    private static final long LOW_SEVEN_BITS = 0x7F7F7F7F7F7F7F7FL;
+
+    private StringReader() {
+    }
+
+    /**
+     * Get the charset the strings of an encoding are decoded with. UTF-8
+     * strings are decoded as such, the others with a char per byte.
+     *
+     * @param encoding
+     *            the encoding of a string declaration
+     * @return the charset
+     */
+    public static Charset getCharset(Encoding encoding) {
+        return (encoding == Encoding.UTF8) ? StandardCharsets.UTF_8 : StandardCharsets.ISO_8859_1;
+    }
+
+    /**
+     * Read a null terminated string
+     *
+     * @param input
+     *            the input, positioned at the first byte of the string
+     * @param charset
+     *            the charset of the string
+     * @return the string, without its terminator. The input is positioned
+     *         after the terminator.
+     * @throws CTFException
+     *             if the input is not byte aligned or the string is not
+     *             terminated
+     */
+    public static String read(BitBuffer input, Charset charset) throws CTFException {
+        ByteBuffer buffer = input.getByteBuffer();
+        int start = start(input);
+        int length = length(buffer, start);
+        String value = StringCache.getDefault().get(buffer, start, length, charset);
+        input.position((long) (start + length + 1) * BITS_PER_BYTE);
+        return value;
+    }
+
+    /**
+     * Skip a null terminated string
+     *
+     * @param input
+     *            the input, positioned at the first byte of the string
+     * @throws CTFException
+     *             if the input is not byte aligned or the string is not
+     *             terminated
+     */
+    public static void skip(BitBuffer input) throws CTFException {
+        int start = start(input);
+        int length = length(input.getByteBuffer(), start);
+        input.position((long) (start + length + 1) * BITS_PER_BYTE);
+    }
+
+    /**
+     * Get the length of a null terminated string
+     *
+     * @param input
+     *            the input, positioned at the first byte of the string. It is
+     *            not moved.
+     * @return the number of bytes before the terminator
+     * @throws CTFException
+     *             if the input is not byte aligned or the string is not
+     *             terminated
+     */
+    public static int length(BitBuffer input) throws CTFException {
+        return length(input.getByteBuffer(), start(input));
+    }
+
+    private static int start(BitBuffer input) throws CTFException {
+        long position = input.position();
+        if ((position & (BITS_PER_BYTE - 1)) != 0) {
+            throw new CTFException("Strings must be byte aligned, position: " + position); //$NON-NLS-1$
+        }
+        return (int) (position / BITS_PER_BYTE);
+    }
+
+    private static int length(ByteBuffer buffer, int start) throws CTFException {
+        int end = buffer.limit();
+        int index = start;
+        if (buffer.hasArray()) {
+            byte[] array = buffer.array();
+            int offset = buffer.arrayOffset();
+            while (index < end) {
+                if (array[offset + index] == 0) {
+                    return index - start;
+                }
+                index++;
+            }
+        } else {
+            boolean littleEndian = buffer.order() == ByteOrder.LITTLE_ENDIAN;
+            while (index + Long.BYTES <= end) {
+                long word = buffer.getLong(index);
+                /* The high bit of each byte of the word that is 0 */
+                long zeros = ~(((word & LOW_SEVEN_BITS) + LOW_SEVEN_BITS) | word | LOW_SEVEN_BITS);
+                if (zeros != 0) {
+                    int bit = littleEndian ? Long.numberOfTrailingZeros(zeros) : Long.numberOfLeadingZeros(zeros);
+                    return index + bit / BITS_PER_BYTE - start;
+                }
+                index += Long.BYTES;
+            }
+            while (index < end) {
+                if (buffer.get(index) == 0) {
+                    return index - start;
+                }
+                index++;
+            }
+        }
+        throw new CTFException("Unterminated string at byte " + start); //$NON-NLS-1$
+    }
+}
@@ -0,0 +1,317 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EfficiOS Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.ctf.core.event.types;
+
+import static java.util.Objects.requireNonNull;
+
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.tracecompass.ctf.core.CTFException;
+import org.eclipse.tracecompass.ctf.core.event.io.BitBuffer;
+import org.eclipse.tracecompass.ctf.core.event.scope.IDefinitionScope;
+import org.eclipse.tracecompass.ctf.core.event.types.Definition;
+import org.eclipse.tracecompass.ctf.core.event.types.EnumDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.EnumDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.FloatDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.FloatDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.IDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.IDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.IntegerDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.IntegerDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.SequenceDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.StringDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.StructDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.VariantDeclaration;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Creates the definitions of the fields of a struct. The declaration is
+ * compiled once into one specialized step per field, with the alignment,
+ * length, signedness and byte order of the integers, enums and floating point
+ * numbers kept in final fields, so reading a field is a direct call instead of
+ * a virtual {@link IDeclaration#createDefinition} call on every declaration
+ * type. The length of a sequence and the tag of a variant are resolved to a
+ * {@link FieldReference} at the same time, instead of looking their path up
+ * by name for every event. The other fields are read by their declarations,
+ * as before.
+ */
+public final class StructDecoder {
+
+    private static final int BITS_PER_BYTE = Byte.SIZE;
+
+    private final FieldStep[] fSteps;
+    private final boolean fAbsoluteReferences;
+
+    private StructDecoder(FieldStep[] steps, boolean absoluteReferences) {
+        fSteps = steps;
+        fAbsoluteReferences = absoluteReferences;
+    }
+
+    /**
+     * Compile the decoder of the fields of a struct declaration
+     *
+     * @param declaration
+     *            the struct
+     * @return the decoder
+     */
+    public static StructDecoder create(StructDeclaration declaration) {
+        List<FieldStep> steps = new ArrayList<>();
+        boolean absoluteReferences = false;
+        for (String name : declaration.getFieldsList()) {
+            IDeclaration field = requireNonNull(declaration.getField(name));
+            FieldReference reference = null;
+            if (field instanceof SequenceDeclaration) {
+                reference = FieldReference.resolve(((SequenceDeclaration) field).getLengthName(), declaration, steps.size());
+            } else if (field instanceof VariantDeclaration) {
+                reference = FieldReference.resolve(((VariantDeclaration) field).getTag(), declaration, steps.size());
+            }
+            if (reference != null) {
+                absoluteReferences |= reference.isAbsolute();
+                steps.add(new ReferenceStep(name, field, reference));
+            } else {
+                steps.add(compile(name, field));
+            }
+        }
+        return new StructDecoder(steps.toArray(new FieldStep[steps.size()]), absoluteReferences);
+    }
+
+    private static FieldStep compile(String name, IDeclaration field) {
+        if (field instanceof IntegerDeclaration) {
+            IntegerDeclaration integer = (IntegerDeclaration) field;
+            if (integer.getLength() <= Long.SIZE) {
+                if (integer.getLength() == BITS_PER_BYTE && integer.getAlignment() == BITS_PER_BYTE) {
+                    return new ByteStep(name, integer);
+                }
+                return new IntegerStep(name, integer);
+            }
+        } else if (field instanceof EnumDeclaration) {
+            EnumDeclaration enumDecl = (EnumDeclaration) field;
+            if (enumDecl.getContainerType().getLength() <= Long.SIZE) {
+                return new EnumStep(name, enumDecl);
+            }
+        } else if (field instanceof FloatDeclaration) {
+            return new FloatStep(name, (FloatDeclaration) field);
+        } else if (field instanceof StringDeclaration) {
+            return new StringStep(name, (StringDeclaration) field);
+        }
+        return new DeclarationStep(name, field);
+    }
+
+    /**
+     * Get whether the struct has sequences or variants referring to the
+     * scopes of the event rather than to its own fields
+     *
+     * @return true if the event scope is needed to read the struct
+     */
+    public boolean hasAbsoluteReferences() {
+        return fAbsoluteReferences;
+    }
+
+    /**
+     * Read the fields of a struct
+     *
+     * @param input
+     *            the input, positioned at the first field
+     * @param fields
+     *            the array to put the definitions of the fields in
+     * @param scope
+     *            the struct definition, the scope of the fields
+     * @param eventScope
+     *            the scopes of the event the struct is in, null if unknown
+     * @throws CTFException
+     *             if the input is too short or malformed
+     */
+    public void fill(BitBuffer input, Definition[] fields, IDefinitionScope scope, @Nullable EventScope eventScope) throws CTFException {
+        final FieldStep[] steps = fSteps;
+        for (int i = 0; i < steps.length; i++) {
+            FieldStep step = steps[i];
+            if (step instanceof ReferenceStep) {
+                fields[i] = ((ReferenceStep) step).read(input, scope, fields, eventScope);
+            } else {
+                fields[i] = step.read(input, scope);
+            }
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // Steps
+    // ------------------------------------------------------------------------
+
+    private abstract static class FieldStep {
+        protected final String fName;
+
+        protected FieldStep(String name) {
+            fName = name;
+        }
+
+        abstract Definition read(BitBuffer input, IDefinitionScope scope) throws CTFException;
+    }
+
+    /**
+     * A byte, whose byte order does not matter
+     */
+    private static final class ByteStep extends FieldStep {
+        private final IntegerDeclaration fDeclaration;
+        private final boolean fSigned;
+
+        ByteStep(String name, IntegerDeclaration declaration) {
+            super(name);
+            fDeclaration = declaration;
+            fSigned = declaration.isSigned();
+        }
+
+        @Override
+        Definition read(BitBuffer input, IDefinitionScope scope) throws CTFException {
+            input.align(BITS_PER_BYTE);
+            return new IntegerDefinition(fDeclaration, scope, fName, input.get(BITS_PER_BYTE, fSigned));
+        }
+    }
+
+    private static final class IntegerStep extends FieldStep {
+        private final IntegerDeclaration fDeclaration;
+        private final long fAlignment;
+        private final int fLength;
+        private final boolean fSigned;
+        private final ByteOrder fByteOrder;
+
+        IntegerStep(String name, IntegerDeclaration declaration) {
+            super(name);
+            fDeclaration = declaration;
+            fAlignment = declaration.getAlignment();
+            fLength = declaration.getLength();
+            fSigned = declaration.isSigned();
+            fByteOrder = declaration.getByteOrder();
+        }
+
+        @Override
+        Definition read(BitBuffer input, IDefinitionScope scope) throws CTFException {
+            return new IntegerDefinition(fDeclaration, scope, fName, readInteger(input, fAlignment, fLength, fSigned, fByteOrder));
+        }
+    }
+
+    private static final class EnumStep extends FieldStep {
+        private final EnumDeclaration fDeclaration;
+        private final IntegerDeclaration fContainer;
+        private final long fAlignment;
+        private final int fLength;
+        private final boolean fSigned;
+        private final ByteOrder fByteOrder;
+
+        EnumStep(String name, EnumDeclaration declaration) {
+            super(name);
+            fDeclaration = declaration;
+            fContainer = declaration.getContainerType();
+            /* The enum is aligned like its container */
+            fAlignment = fContainer.getAlignment();
+            fLength = fContainer.getLength();
+            fSigned = fContainer.isSigned();
+            fByteOrder = fContainer.getByteOrder();
+        }
+
+        @Override
+        Definition read(BitBuffer input, IDefinitionScope scope) throws CTFException {
+            long value = readInteger(input, fAlignment, fLength, fSigned, fByteOrder);
+            return new EnumDefinition(fDeclaration, scope, fName, new IntegerDefinition(fContainer, scope, fName, value));
+        }
+    }
+
+    private static long readInteger(BitBuffer input, long alignment, int length, boolean signed, ByteOrder byteOrder) throws CTFException {
+        input.align(alignment);
+        ByteOrder previous = input.getByteOrder();
+        if (previous == byteOrder) {
+            return input.get(length, signed);
+        }
+        input.setByteOrder(byteOrder);
+        try {
+            return input.get(length, signed);
+        } finally {
+            input.setByteOrder(previous);
+        }
+    }
+
+    private static final class FloatStep extends FieldStep {
+        private final FloatDeclaration fDeclaration;
+
+        FloatStep(String name, FloatDeclaration declaration) {
+            super(name);
+            fDeclaration = declaration;
+        }
+
+        @Override
+        Definition read(BitBuffer input, IDefinitionScope scope) throws CTFException {
+            return new FloatDefinition(fDeclaration, scope, fName, fDeclaration.readValue(input));
+        }
+    }
+
+    private static final class StringStep extends FieldStep {
+        private final StringDeclaration fDeclaration;
+
+        StringStep(String name, StringDeclaration declaration) {
+            super(name);
+            fDeclaration = declaration;
+        }
+
+        @Override
+        Definition read(BitBuffer input, IDefinitionScope scope) throws CTFException {
+            return fDeclaration.createDefinition(scope, fName, input);
+        }
+    }
+
+    /**
+     * A composite field or an integer over 64 bits, read by its declaration
+     */
+    private static final class DeclarationStep extends FieldStep {
+        private final IDeclaration fDeclaration;
+
+        DeclarationStep(String name, IDeclaration declaration) {
+            super(name);
+            fDeclaration = declaration;
+        }
+
+        @Override
+        Definition read(BitBuffer input, IDefinitionScope scope) throws CTFException {
+            return fDeclaration.createDefinition(scope, fName, input);
+        }
+    }
+
+    /**
+     * A sequence or a variant, whose length or tag is fetched by its
+     * reference. It falls back to looking the path up by name if the
+     * reference is not there.
+     */
+    private static final class ReferenceStep extends FieldStep {
+        private final IDeclaration fDeclaration;
+        private final FieldReference fReference;
+
+        ReferenceStep(String name, IDeclaration declaration, FieldReference reference) {
+            super(name);
+            fDeclaration = declaration;
+            fReference = reference;
+        }
+
+        Definition read(BitBuffer input, IDefinitionScope scope, Definition[] fields, @Nullable EventScope eventScope) throws CTFException {
+            IDefinition referenced = fReference.lookup(fields, eventScope);
+            if (referenced == null) {
+                return read(input, scope);
+            }
+            if (fDeclaration instanceof SequenceDeclaration) {
+                return ((SequenceDeclaration) fDeclaration).createDefinition(scope, fName, input, referenced);
+            }
+            return ((VariantDeclaration) fDeclaration).createDefinition(scope, fName, input, referenced);
+        }
+
+        @Override
+        Definition read(BitBuffer input, IDefinitionScope scope) throws CTFException {
+            return fDeclaration.createDefinition(scope, fName, input);
+        }
+    }
+}
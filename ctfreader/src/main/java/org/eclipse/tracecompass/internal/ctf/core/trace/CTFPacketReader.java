@@ -28,11 +28,16 @@ import org.eclipse.tracecompass.internal.ctf.core.event.LostEventDeclaration;
 import org.eclipse.tracecompass.internal.ctf.core.event.types.composite.EventHeaderDefinition;
 import org.jetbrains.annotations.Nullable;
 
+import java.nio.ByteBuffer;
 import java.util.List;
 
 /**
  * Packet reader with a fixed bit buffer, should be the fast and easily
  * parallelizable one.
+ * <p>
+ * The declarations are those of the stream, so a reader can be
+ * {@link #reset(ByteBuffer, ICTFPacketDescriptor) reset} onto the next packet
+ * of the same trace file instead of building a new one for each packet.
  */
 public final class CTFPacketReader implements IPacketReader, IDefinitionScope {
 
@@ -50,7 +55,7 @@ public final class CTFPacketReader implements IPacketReader, IDefinitionScope {
     };
 
     private final BitBuffer fInput;
-    private final ICTFPacketDescriptor fPacketContext;
+    private ICTFPacketDescriptor fPacketContext;
     private final List<IEventDeclaration> fDeclarations;
     private boolean fHasLost;
     private long fLastTimestamp;
@@ -64,6 +69,31 @@ public final class CTFPacketReader implements IPacketReader, IDefinitionScope {
 
     private @Nullable ICompositeDefinition fEventHeader;
 
+    private @Nullable final EventFilter fFilter;
+
+    /**
+     * The rejected events up to the next accepted one were skipped
+     */
+    private boolean fFiltered = false;
+
+    /**
+     * The header of the next accepted event was read while skipping
+     */
+    private boolean fHasPending = false;
+    private int fPendingEventId;
+    private long fPendingPosStart;
+    private @Nullable CTFException fPendingError = null;
+
+    /**
+     * The buffer of the packet was released, it cannot be read anymore
+     */
+    private boolean fDetached = false;
+
+    /**
+     * Decode the contexts and payload of the events on first access
+     */
+    private boolean fLazyDecoding = false;
+
     /**
      * Constructor
      *
@@ -86,6 +116,35 @@ public final class CTFPacketReader implements IPacketReader, IDefinitionScope {
     public CTFPacketReader(BitBuffer input, ICTFPacketDescriptor packetContext, List<IEventDeclaration> declarations,
                            @Nullable IDeclaration eventHeaderDeclaration, @Nullable StructDeclaration streamContext, @Nullable ICompositeDefinition packetHeader,
             IDefinitionScope packetScope) {
+        this(input, packetContext, declarations, eventHeaderDeclaration, streamContext, packetHeader, packetScope, null);
+    }
+
+    /**
+     * Constructor with an event filter. The events rejected by the filter are
+     * skipped, without decoding their context and payload when possible. Lost
+     * events are always returned.
+     *
+     * @param input
+     *            input {@link BitBuffer}
+     * @param packetContext
+     *            packet_context where we get info like lost events and cpu_id
+     * @param declarations
+     *            event declarations for this packet reader
+     * @param eventHeaderDeclaration
+     *            event header declaration, what to read before any given event,
+     *            to find it's id
+     * @param streamContext
+     *            the context declaration
+     * @param packetHeader
+     *            the header with the magic numbers and such
+     * @param packetScope
+     *            the scope of the packetHeader
+     * @param filter
+     *            the events to return, null for all of them
+     */
+    public CTFPacketReader(BitBuffer input, ICTFPacketDescriptor packetContext, List<IEventDeclaration> declarations,
+                           @Nullable IDeclaration eventHeaderDeclaration, @Nullable StructDeclaration streamContext, @Nullable ICompositeDefinition packetHeader,
+            IDefinitionScope packetScope, @Nullable EventFilter filter) {
         fInput = input;
         fPacketContext = packetContext;
         fDeclarations = declarations;
@@ -95,6 +154,7 @@ public final class CTFPacketReader implements IPacketReader, IDefinitionScope {
         fStreamEventHeaderDecl = eventHeaderDeclaration;
         fStreamContext = streamContext;
         fTracePacketHeader = packetHeader;
+        fFilter = filter;
     }
 
     @Override
@@ -104,12 +164,42 @@ public final class CTFPacketReader implements IPacketReader, IDefinitionScope {
 
     @Override
     public boolean hasMoreEvents() {
+        if (fDetached) {
+            return false;
+        }
+        if (fFilter != null) {
+            if (!fFiltered) {
+                skipRejectedEvents(fFilter);
+            }
+            if (fHasPending || fPendingError != null) {
+                return true;
+            }
+        }
         return fHasLost || (fInput.position() < fPacketContext.getContentSizeBits());
     }
 
     @Override
     public EventDefinition readNextEvent() throws CTFException {
-        int eventID = (int) IEventDeclaration.UNSET_EVENT_ID;
+        if (fDetached) {
+            throw new CTFIOException("The buffer of the packet was released"); //$NON-NLS-1$
+        }
+        final EventFilter filter = fFilter;
+        if (filter != null) {
+            if (!fFiltered) {
+                skipRejectedEvents(filter);
+            }
+            /* The next lookahead starts after this event */
+            fFiltered = false;
+            CTFException error = fPendingError;
+            if (error != null) {
+                fPendingError = null;
+                throw error;
+            }
+            if (fHasPending) {
+                fHasPending = false;
+                return readEventBody(fPendingEventId, fPendingPosStart);
+            }
+        }
         final long posStart = fInput.position();
         /*
          * Return the Lost Event after all other events in this packet. We need
@@ -120,6 +210,54 @@ public final class CTFPacketReader implements IPacketReader, IDefinitionScope {
             return createLostEvent(fPacketContext);
         }
 
+        int eventID = readEventHeader();
+        return readEventBody(eventID, posStart);
+    }
+
+    /**
+     * Skip the events rejected by the filter, up to the header of the next
+     * accepted event or the end of the packet. Errors are kept for the next
+     * read.
+     */
+    private void skipRejectedEvents(EventFilter filter) {
+        fFiltered = true;
+        if (fHasPending || fPendingError != null) {
+            return;
+        }
+        try {
+            while (fInput.position() < fPacketContext.getContentSizeBits()) {
+                final long posStart = fInput.position();
+                int eventID = readEventHeader();
+                if (filter.accept(eventID)) {
+                    fHasPending = true;
+                    fPendingEventId = eventID;
+                    fPendingPosStart = posStart;
+                    return;
+                }
+                ICompositeDefinition eventHeader = fEventHeader;
+                if (filter.canSkip(eventID, EventDeclaration.hasHeaderTimestamp(eventHeader))) {
+                    filter.skip(eventID, fInput);
+                    fLastTimestamp = EventDeclaration.calculateTimestamp(eventHeader, fLastTimestamp);
+                    if (posStart == fInput.position()) {
+                        throw new CTFIOException("Empty event not allowed, event id: " + eventID); //$NON-NLS-1$
+                    }
+                } else {
+                    /* Cannot be skipped blindly, decode it and drop it */
+                    readEventBody(eventID, posStart);
+                }
+            }
+        } catch (CTFException e) {
+            fPendingError = e;
+        }
+    }
+
+    /**
+     * Read the stream event header
+     *
+     * @return the event id
+     */
+    private int readEventHeader() throws CTFException {
+        int eventID = (int) IEventDeclaration.UNSET_EVENT_ID;
         fEventHeader = null;
         /* Read the stream event header. */
         final IDeclaration streamEventHeaderDecl = fStreamEventHeaderDecl;
@@ -164,13 +302,21 @@ public final class CTFPacketReader implements IPacketReader, IDefinitionScope {
         if (eventID == IEventDeclaration.UNSET_EVENT_ID && fDeclarations.size() == 1) {
             eventID = 0;
         }
+        return eventID;
+    }
+
+    /**
+     * Read the stream event context, event context and payload of an event
+     * whose header was just read
+     */
+    private EventDefinition readEventBody(int eventID, long posStart) throws CTFException {
         /* Get the right event definition using the event id. */
         IEventDeclaration eventDeclaration = fDeclarations.get(eventID);
         if (!(eventDeclaration instanceof EventDeclaration)) {
             throw new CTFIOException("Incorrect event id : " + eventID); //$NON-NLS-1$
         }
         EventDeclaration declaration = (EventDeclaration) eventDeclaration;
-        EventDefinition eventDef = declaration.createDefinition(fStreamContext, fPacketContext, fTracePacketHeader, fEventHeader, fInput, fLastTimestamp);
+        EventDefinition eventDef = declaration.createDefinition(fStreamContext, fPacketContext, fTracePacketHeader, fEventHeader, fInput, fLastTimestamp, fLazyDecoding);
         fLastTimestamp = eventDef.getTimestamp();
         /*
          * Set the event timestamp using the timestamp calculated by
@@ -184,6 +330,71 @@ public final class CTFPacketReader implements IPacketReader, IDefinitionScope {
         return eventDef;
     }
 
+    /**
+     * Decode the next events of the packet into the columns of a batch,
+     * without building their definitions. The lost events of the packet are
+     * counted in the batch once its last event is read.
+     *
+     * @param batch
+     *            the batch to add the events to
+     * @param maxEvents
+     *            the maximum number of events to read
+     * @return the number of events read, 0 at the end of the packet
+     * @throws CTFException
+     *             if an event is malformed
+     */
+    public int readBatch(EventBatch batch, int maxEvents) throws CTFException {
+        if (fDetached) {
+            throw new CTFIOException("The buffer of the packet was released"); //$NON-NLS-1$
+        }
+        final EventFilter filter = fFilter;
+        int count = 0;
+        while (count < maxEvents) {
+            if (filter != null) {
+                if (!fFiltered) {
+                    skipRejectedEvents(filter);
+                }
+                fFiltered = false;
+                CTFException error = fPendingError;
+                if (error != null) {
+                    fPendingError = null;
+                    throw error;
+                }
+                if (fHasPending) {
+                    fHasPending = false;
+                    readBatchEvent(batch, fPendingEventId, fPendingPosStart);
+                    count++;
+                    continue;
+                }
+            }
+            final long posStart = fInput.position();
+            if (posStart >= fPacketContext.getContentSizeBits()) {
+                if (fHasLost) {
+                    fHasLost = false;
+                    batch.addLostEvents(fPacketContext.getLostEvents());
+                }
+                break;
+            }
+            int eventID = readEventHeader();
+            readBatchEvent(batch, eventID, posStart);
+            count++;
+        }
+        return count;
+    }
+
+    private void readBatchEvent(EventBatch batch, int eventID, long posStart) throws CTFException {
+        IEventDeclaration eventDeclaration = fDeclarations.get(eventID);
+        if (!(eventDeclaration instanceof EventDeclaration)) {
+            throw new CTFIOException("Incorrect event id : " + eventID); //$NON-NLS-1$
+        }
+        EventTable table = batch.getTable(eventID, (EventDeclaration) eventDeclaration, fStreamContext);
+        fLastTimestamp = table.read(fInput, fPacketContext, fTracePacketHeader, fEventHeader, fLastTimestamp);
+        if (posStart == fInput.position()) {
+            throw new CTFIOException("Empty event not allowed, event: " + eventDeclaration.getName()); //$NON-NLS-1$
+        }
+        batch.addEvent(eventID);
+    }
+
     private EventDefinition createLostEvent(final ICTFPacketDescriptor currentPacket) {
         IEventDeclaration lostEventDeclaration = LostEventDeclaration.INSTANCE;
         StructDeclaration lostFields = lostEventDeclaration.getFields();
@@ -217,6 +428,92 @@ public final class CTFPacketReader implements IPacketReader, IDefinitionScope {
                 fPacketContext);
     }
 
+    /**
+     * Get the position of the next event header, in bits from the start of
+     * the packet. Only meaningful without an event filter, which reads ahead.
+     *
+     * @return the position
+     */
+    public long getPosition() {
+        return fInput.position();
+    }
+
+    /**
+     * Get the timestamp of the last event read, used to decode the compact
+     * timestamp of the next one
+     *
+     * @return the timestamp, the begin timestamp of the packet before the
+     *         first event
+     */
+    public long getLastTimestamp() {
+        return fLastTimestamp;
+    }
+
+    /**
+     * Resume reading at an event header of the packet, found by a previous
+     * read
+     *
+     * @param position
+     *            the position of the event header, in bits from the start of
+     *            the packet
+     * @param lastTimestamp
+     *            the timestamp of the event before it
+     * @throws CTFException
+     *             if the position is outside the packet
+     */
+    public void resume(long position, long lastTimestamp) throws CTFException {
+        fInput.position(position);
+        fLastTimestamp = lastTimestamp;
+        fFiltered = false;
+        fHasPending = false;
+        fPendingError = null;
+    }
+
+    /**
+     * Set whether the contexts and payload of the events are decoded when the
+     * events are read, or the first time they are looked at. Events of types
+     * that cannot be skipped are always decoded when read.
+     *
+     * @param lazy
+     *            true to decode them on first access
+     */
+    public void setLazyDecoding(boolean lazy) {
+        fLazyDecoding = lazy;
+    }
+
+    /**
+     * Move the reader to another packet of the same trace file, as if it was
+     * built for it. The declarations, packet header and filter are kept.
+     *
+     * @param buffer
+     *            the buffer of the packet, starting at the packet start
+     * @param packetContext
+     *            the descriptor of the packet
+     * @throws CTFException
+     *             if the payload starts outside the buffer
+     */
+    public void reset(ByteBuffer buffer, ICTFPacketDescriptor packetContext) throws CTFException {
+        fInput.reset(buffer);
+        fInput.position(packetContext.getPayloadStartBits());
+        fPacketContext = packetContext;
+        fHasLost = packetContext.getLostEvents() != 0;
+        fLastTimestamp = packetContext.getTimestampBegin();
+        fEventHeader = null;
+        fFiltered = false;
+        fHasPending = false;
+        fPendingError = null;
+        fDetached = false;
+    }
+
+    /**
+     * Detach the reader from the buffer of its packet, which is about to be
+     * unmapped or reused. The packet descriptor and the last event header
+     * stay available, but no more events can be read.
+     */
+    public void detach() {
+        fDetached = true;
+    }
+
     @Override
     public ILexicalScope getScopePath() {
         return ILexicalScope.PACKET;
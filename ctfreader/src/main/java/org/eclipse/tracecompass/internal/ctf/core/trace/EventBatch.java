@@ -0,0 +1,138 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EfficiOS Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.ctf.core.trace;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.tracecompass.ctf.core.event.types.StructDeclaration;
+import org.eclipse.tracecompass.internal.ctf.core.event.EventDeclaration;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Events of a stream decoded into columns of primitive values, one
+ * {@link EventTable} per event type, instead of an
+ * {@link org.eclipse.tracecompass.internal.ctf.core.event.EventDefinition} per
+ * event.
+ * <p>
+ * A batch is filled by {@link CTFPacketReader#readBatch(EventBatch, int)} and
+ * can be {@link #clear() cleared} and filled again, reusing its arrays and the
+ * dictionaries of its string columns.
+ */
+public final class EventBatch {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private EventTable[] fTables = new EventTable[0];
+    private int[] fEventIds = new int[INITIAL_CAPACITY];
+    private int fEventCount = 0;
+    private long fLostEvents = 0;
+
+    /**
+     * Remove the events of the batch, keeping its tables
+     */
+    public void clear() {
+        fEventCount = 0;
+        fLostEvents = 0;
+        for (EventTable table : fTables) {
+            if (table != null) {
+                table.clear();
+            }
+        }
+    }
+
+    /**
+     * Get the number of events in the batch, lost events not included
+     *
+     * @return the number of events
+     */
+    public int getEventCount() {
+        return fEventCount;
+    }
+
+    /**
+     * Get the event ids of the events, in the order they were read, valid up
+     * to the number of events. The n-th event with a given id is the n-th row
+     * of the table of that id.
+     *
+     * @return the event ids
+     */
+    public int[] getEventIds() {
+        return fEventIds;
+    }
+
+    /**
+     * Get the number of events lost by the tracer in the packets that were
+     * read
+     *
+     * @return the number of lost events
+     */
+    public long getLostEvents() {
+        return fLostEvents;
+    }
+
+    /**
+     * Get the table of an event type
+     *
+     * @param id
+     *            the event id
+     * @return the table, null if no event of that type was read
+     */
+    public @Nullable EventTable getTable(int id) {
+        return (id >= 0 && id < fTables.length) ? fTables[id] : null;
+    }
+
+    /**
+     * Get the tables of the event types that were read
+     *
+     * @return the tables, by event id
+     */
+    public List<EventTable> getTables() {
+        List<EventTable> tables = new ArrayList<>();
+        for (EventTable table : fTables) {
+            if (table != null) {
+                tables.add(table);
+            }
+        }
+        return tables;
+    }
+
+    /**
+     * Get the table of an event type, creating it on first use
+     *
+     * @throws IllegalArgumentException
+     *             if the batch already holds events of another stream
+     */
+    EventTable getTable(int id, EventDeclaration declaration, @Nullable StructDeclaration streamContextDecl) {
+        if (id >= fTables.length) {
+            fTables = Arrays.copyOf(fTables, Math.max(id + 1, fTables.length * 2));
+        }
+        EventTable table = fTables[id];
+        if (table == null) {
+            table = new EventTable(declaration, streamContextDecl);
+            fTables[id] = table;
+        } else if (!table.isFor(declaration, streamContextDecl)) {
+            throw new IllegalArgumentException("The batch holds events of another stream, event id: " + id); //$NON-NLS-1$
+        }
+        return table;
+    }
+
+    void addEvent(int id) {
+        if (fEventCount == fEventIds.length) {
+            fEventIds = Arrays.copyOf(fEventIds, fEventCount * 2);
+        }
+        fEventIds[fEventCount++] = id;
+    }
+
+    void addLostEvents(long lostEvents) {
+        fLostEvents += lostEvents;
+    }
+}
@@ -0,0 +1,289 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EfficiOS Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.ctf.core.trace;
+
+import java.util.Arrays;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Event checkpoints of a trace file, to resume decoding in the middle of a
+ * packet instead of decoding it from its start.
+ * <p>
+ * A checkpoint is taken at the first event of each packet and then every
+ * {@link #getInterval()} events. It holds the rank of the event in the trace
+ * file, its packet, its position in the packet, the timestamp of the previous
+ * event (to decode compact timestamps) and its own timestamp. The
+ * checkpoints are added by the readers as they read the file from its start,
+ * so they always cover the beginning of the file without gaps.
+ * <p>
+ * Like {@link StreamInputPacketIndex}, the checkpoints are stored in
+ * primitive columns. The index is shared by the readers of the file, so all
+ * the methods are synchronized.
+ */
+public class EventCheckpointIndex {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * A checkpoint, copied out of the index
+     */
+    public static final class Checkpoint {
+        private final long fRank;
+        private final int fPacket;
+        private final long fPosition;
+        private final long fPreviousTimestamp;
+        private final long fTimestamp;
+
+        private Checkpoint(long rank, int packet, long position, long previousTimestamp, long timestamp) {
+            fRank = rank;
+            fPacket = packet;
+            fPosition = position;
+            fPreviousTimestamp = previousTimestamp;
+            fTimestamp = timestamp;
+        }
+
+        /**
+         * @return the rank of the event in the trace file
+         */
+        public long getRank() {
+            return fRank;
+        }
+
+        /**
+         * @return the index of the packet of the event
+         */
+        public int getPacket() {
+            return fPacket;
+        }
+
+        /**
+         * @return the position of the event header in the packet, in bits
+         */
+        public long getPosition() {
+            return fPosition;
+        }
+
+        /**
+         * @return the timestamp of the previous event of the packet, or the
+         *         begin timestamp of the packet
+         */
+        public long getPreviousTimestamp() {
+            return fPreviousTimestamp;
+        }
+
+        /**
+         * @return the timestamp of the event
+         */
+        public long getTimestamp() {
+            return fTimestamp;
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // Attributes
+    // ------------------------------------------------------------------------
+
+    private final int fInterval;
+
+    private int fSize = 0;
+    private long[] fRanks = new long[INITIAL_CAPACITY];
+    private int[] fPackets = new int[INITIAL_CAPACITY];
+    private long[] fPositions = new long[INITIAL_CAPACITY];
+    private long[] fPreviousTimestamps = new long[INITIAL_CAPACITY];
+    private long[] fTimestamps = new long[INITIAL_CAPACITY];
+
+    /**
+     * Number of events of the trace file, -1 until a reader reached its end
+     */
+    private long fEventCount = -1;
+
+    // ------------------------------------------------------------------------
+    // Constructors
+    // ------------------------------------------------------------------------
+
+    /**
+     * Constructor
+     *
+     * @param interval
+     *            the number of events between two checkpoints of a packet
+     */
+    public EventCheckpointIndex(int interval) {
+        if (interval <= 0) {
+            throw new IllegalArgumentException("Checkpoint interval must be positive"); //$NON-NLS-1$
+        }
+        fInterval = interval;
+    }
+
+    // ------------------------------------------------------------------------
+    // Operations
+    // ------------------------------------------------------------------------
+
+    /**
+     * Get the number of events between two checkpoints
+     *
+     * @return the interval
+     */
+    public int getInterval() {
+        return fInterval;
+    }
+
+    /**
+     * Get the number of checkpoints
+     *
+     * @return the number of checkpoints
+     */
+    public synchronized int size() {
+        return fSize;
+    }
+
+    /**
+     * Should a checkpoint be taken at an event
+     *
+     * @param rank
+     *            the rank of the event in the trace file
+     * @param packetStart
+     *            whether the event is the first of its packet
+     * @return true if the event is a checkpoint
+     */
+    public boolean isCheckpoint(long rank, boolean packetStart) {
+        return packetStart || rank % fInterval == 0;
+    }
+
+    /**
+     * Add a checkpoint. It is only added if the reader read all the events
+     * since the last checkpoint, so the checkpoints have no gaps.
+     *
+     * @param readFrom
+     *            the rank of the first event read by the reader since it
+     *            last moved
+     * @param rank
+     *            the rank of the event
+     * @param packet
+     *            the index of the packet of the event
+     * @param position
+     *            the position of the event header in the packet, in bits
+     * @param previousTimestamp
+     *            the timestamp of the previous event
+     * @param timestamp
+     *            the timestamp of the event
+     * @return true if the checkpoint was added
+     */
+    public synchronized boolean add(long readFrom, long rank, int packet, long position, long previousTimestamp, long timestamp) {
+        long lastRank = (fSize == 0) ? -1 : fRanks[fSize - 1];
+        if (rank <= lastRank || readFrom > Math.max(lastRank, 0)) {
+            return false;
+        }
+        if (fSize == fRanks.length) {
+            int capacity = fSize * 2;
+            fRanks = Arrays.copyOf(fRanks, capacity);
+            fPackets = Arrays.copyOf(fPackets, capacity);
+            fPositions = Arrays.copyOf(fPositions, capacity);
+            fPreviousTimestamps = Arrays.copyOf(fPreviousTimestamps, capacity);
+            fTimestamps = Arrays.copyOf(fTimestamps, capacity);
+        }
+        fRanks[fSize] = rank;
+        fPackets[fSize] = packet;
+        fPositions[fSize] = position;
+        fPreviousTimestamps[fSize] = previousTimestamp;
+        fTimestamps[fSize] = timestamp;
+        fSize++;
+        return true;
+    }
+
+    /**
+     * Get the checkpoint to resume from to find the first event at or after
+     * a timestamp in a packet: the last checkpoint of the packet before the
+     * timestamp, or the first checkpoint of the packet if there is none.
+     *
+     * @param packet
+     *            the index of the packet
+     * @param timestamp
+     *            the timestamp, {@link Long#MIN_VALUE} for the first
+     *            checkpoint of the packet
+     * @return the checkpoint, or null if the packet is not covered
+     */
+    public synchronized @Nullable Checkpoint find(int packet, long timestamp) {
+        int first = Arrays.binarySearch(fPackets, 0, fSize, packet);
+        if (first < 0) {
+            return null;
+        }
+        while (first > 0 && fPackets[first - 1] == packet) {
+            first--;
+        }
+        int found = first;
+        for (int i = first + 1; i < fSize && fPackets[i] == packet && fTimestamps[i] < timestamp; i++) {
+            found = i;
+        }
+        return get(found);
+    }
+
+    /**
+     * Get the upper bound of the number of events before a timestamp in the
+     * trace file
+     *
+     * @param timestamp
+     *            the timestamp
+     * @return the rank of the first checkpoint at or after the timestamp, the
+     *         number of events of the file if there is none and it is known,
+     *         or {@link Long#MAX_VALUE}
+     */
+    public synchronized long getMaxRankBefore(long timestamp) {
+        int low = 0;
+        int high = fSize;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (fTimestamps[mid] < timestamp) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        if (low < fSize) {
+            return fRanks[low];
+        }
+        return (fEventCount >= 0) ? fEventCount : Long.MAX_VALUE;
+    }
+
+    /**
+     * Get the timestamp of a checkpoint
+     *
+     * @param index
+     *            the index of the checkpoint
+     * @return its timestamp
+     */
+    public synchronized long getTimestamp(int index) {
+        return fTimestamps[index];
+    }
+
+    /**
+     * Get the number of events of the trace file
+     *
+     * @return the number of events, -1 if unknown
+     */
+    public synchronized long getEventCount() {
+        return fEventCount;
+    }
+
+    /**
+     * Set the number of events of the trace file, when a reader that knows
+     * the rank of its events reaches its end
+     *
+     * @param eventCount
+     *            the number of events
+     */
+    public synchronized void setEventCount(long eventCount) {
+        fEventCount = eventCount;
+    }
+
+    private Checkpoint get(int index) {
+        return new Checkpoint(fRanks[index], fPackets[index], fPositions[index], fPreviousTimestamps[index], fTimestamps[index]);
+    }
+}
@@ -0,0 +1,166 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EfficiOS Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.ctf.core.trace;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+import org.eclipse.tracecompass.ctf.core.CTFException;
+import org.eclipse.tracecompass.ctf.core.event.IEventDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.io.BitBuffer;
+import org.eclipse.tracecompass.ctf.core.event.types.StructDeclaration;
+import org.eclipse.tracecompass.internal.ctf.core.event.EventDeclaration;
+import org.eclipse.tracecompass.internal.ctf.core.event.types.DeclarationSkipper;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Event type filter of a stream. Tells the packet reader which events to
+ * return, and how to skip the context and payload of the others without
+ * decoding them.
+ * <p>
+ * The filter is built for the event declarations of one stream, indexed by
+ * event id, and is immutable so it can be shared by the readers of the
+ * stream. Events with ids that are not in the declarations at build time are
+ * accepted.
+ */
+public final class EventFilter {
+
+    private final boolean[] fAccepted;
+
+    /**
+     * Skippers of the event context and payload, by event id. Null if the
+     * event is accepted or cannot be skipped.
+     */
+    private final @Nullable BodySkipper[] fSkippers;
+
+    /**
+     * The event context and payload of a rejected event
+     */
+    private static final class BodySkipper {
+        private final @Nullable DeclarationSkipper fStreamContext;
+        private final @Nullable DeclarationSkipper fContext;
+        private final @Nullable DeclarationSkipper fFields;
+        private final boolean fPayloadTimestamp;
+
+        BodySkipper(@Nullable DeclarationSkipper streamContext, @Nullable DeclarationSkipper context, @Nullable DeclarationSkipper fields, boolean payloadTimestamp) {
+            fStreamContext = streamContext;
+            fContext = context;
+            fFields = fields;
+            fPayloadTimestamp = payloadTimestamp;
+        }
+    }
+
+    /**
+     * Constructor
+     *
+     * @param declarations
+     *            the event declarations of the stream, indexed by id
+     * @param streamContext
+     *            the event context declaration of the stream, if any
+     * @param accept
+     *            which events to return
+     */
+    public EventFilter(List<IEventDeclaration> declarations, @Nullable StructDeclaration streamContext, Predicate<IEventDeclaration> accept) {
+        int size = declarations.size();
+        fAccepted = new boolean[size];
+        fSkippers = new BodySkipper[size];
+
+        boolean streamContextSkippable = true;
+        DeclarationSkipper streamContextSkipper = null;
+        if (streamContext != null) {
+            streamContextSkipper = DeclarationSkipper.create(streamContext);
+            streamContextSkippable = streamContextSkipper != null;
+        }
+        for (int id = 0; id < size; id++) {
+            IEventDeclaration declaration = declarations.get(id);
+            if (declaration == null || accept.test(declaration)) {
+                fAccepted[id] = true;
+            } else if (streamContextSkippable && declaration instanceof EventDeclaration) {
+                fSkippers[id] = createBodySkipper((EventDeclaration) declaration, streamContextSkipper);
+            }
+        }
+    }
+
+    private static @Nullable BodySkipper createBodySkipper(EventDeclaration declaration, @Nullable DeclarationSkipper streamContextSkipper) {
+        StructDeclaration context = declaration.getContext();
+        StructDeclaration fields = declaration.getFields();
+        DeclarationSkipper contextSkipper = null;
+        DeclarationSkipper fieldsSkipper = null;
+        if (context != null) {
+            contextSkipper = DeclarationSkipper.create(context);
+            if (contextSkipper == null) {
+                return null;
+            }
+        }
+        if (fields != null) {
+            fieldsSkipper = DeclarationSkipper.create(fields);
+            if (fieldsSkipper == null) {
+                return null;
+            }
+        }
+        boolean payloadTimestamp = EventDeclaration.hasTimestampField(context) || EventDeclaration.hasTimestampField(fields);
+        return new BodySkipper(streamContextSkipper, contextSkipper, fieldsSkipper, payloadTimestamp);
+    }
+
+    /**
+     * Should an event be returned
+     *
+     * @param id
+     *            the event id
+     * @return true if the event is accepted
+     */
+    public boolean accept(int id) {
+        return id < 0 || id >= fAccepted.length || fAccepted[id];
+    }
+
+    /**
+     * Can the body of a rejected event be skipped without decoding it
+     *
+     * @param id
+     *            the event id
+     * @param headerTimestamp
+     *            whether the event header holds the timestamp
+     * @return true if {@link #skip(int, BitBuffer)} can be used
+     */
+    public boolean canSkip(int id, boolean headerTimestamp) {
+        if (id < 0 || id >= fSkippers.length) {
+            return false;
+        }
+        BodySkipper skipper = fSkippers[id];
+        return skipper != null && (headerTimestamp || !skipper.fPayloadTimestamp);
+    }
+
+    /**
+     * Move the input past the stream event context, event context and payload
+     * of a rejected event
+     *
+     * @param id
+     *            the event id, {@link #canSkip(int, boolean)} must be true
+     * @param input
+     *            the input, positioned after the event header
+     * @throws CTFException
+     *             if the input is too short or malformed
+     */
+    public void skip(int id, BitBuffer input) throws CTFException {
+        BodySkipper skipper = fSkippers[id];
+        if (skipper == null) {
+            throw new IllegalStateException("Event " + id + " cannot be skipped"); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        if (skipper.fStreamContext != null) {
+            skipper.fStreamContext.skip(input);
+        }
+        if (skipper.fContext != null) {
+            skipper.fContext.skip(input);
+        }
+        if (skipper.fFields != null) {
+            skipper.fFields.skip(input);
+        }
+    }
+}
@@ -0,0 +1,307 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EfficiOS Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.ctf.core.trace;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+import org.eclipse.tracecompass.ctf.core.CTFException;
+import org.eclipse.tracecompass.ctf.core.event.IEventDefinition;
+import org.eclipse.tracecompass.ctf.core.trace.CTFResponse;
+import org.eclipse.tracecompass.ctf.core.trace.IPacketReader;
+import org.eclipse.tracecompass.internal.ctf.core.SpscRingBuffer;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Decodes the events of one stream ahead of the consumer, on a worker of a
+ * shared executor, into a bounded single-producer single-consumer queue.
+ * <p>
+ * The decoding task never blocks: it stops when the queue is full and is
+ * scheduled again by the consumer once the queue is half drained. This way a
+ * small number of workers can serve any number of streams without deadlock.
+ * <p>
+ * While the prefetcher is running, the event source belongs to the worker. The
+ * consumer must call {@link #stop()} before touching the source directly, for
+ * example to seek.
+ */
+public final class EventPrefetcher {
+
+    /**
+     * The decoder side of a stream
+     */
+    public interface IEventSource {
+
+        /**
+         * Decode the next event
+         *
+         * @return the response of the read
+         * @throws CTFException
+         *             if the event cannot be decoded
+         */
+        CTFResponse read() throws CTFException;
+
+        /**
+         * Get the event decoded by the last {@link #read()}
+         *
+         * @return the event
+         */
+        @Nullable IEventDefinition getCurrentEvent();
+
+        /**
+         * Get the packet reader that decoded the last event
+         *
+         * @return the packet reader
+         */
+        IPacketReader getPacketReader();
+    }
+
+    /**
+     * A decoded event, or the response that ended a decoding run
+     */
+    public static final class Item {
+        private final CTFResponse fResponse;
+        private final @Nullable IEventDefinition fEvent;
+        private final @Nullable IPacketReader fPacketReader;
+        private final @Nullable CTFException fError;
+
+        private Item(CTFResponse response, @Nullable IEventDefinition event, @Nullable IPacketReader packetReader, @Nullable CTFException error) {
+            fResponse = response;
+            fEvent = event;
+            fPacketReader = packetReader;
+            fError = error;
+        }
+
+        /**
+         * Get the response of the read
+         *
+         * @return the response
+         */
+        public CTFResponse getResponse() {
+            return fResponse;
+        }
+
+        /**
+         * Get the decoded event
+         *
+         * @return the event, null unless the response is OK
+         */
+        public @Nullable IEventDefinition getEvent() {
+            return fEvent;
+        }
+
+        /**
+         * Get the packet reader that decoded the event
+         *
+         * @return the packet reader, null unless the response is OK
+         */
+        public @Nullable IPacketReader getPacketReader() {
+            return fPacketReader;
+        }
+
+        /**
+         * Get the error that stopped the decoding
+         *
+         * @return the error, null unless the response is ERROR
+         */
+        public @Nullable CTFException getError() {
+            return fError;
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // Attributes
+    // ------------------------------------------------------------------------
+
+    private final IEventSource fSource;
+    private final Executor fExecutor;
+    private final SpscRingBuffer<Item> fQueue;
+    private final int fLowWaterMark;
+    private final Runnable fTask = this::decode;
+
+    /** A decoding task is submitted or running */
+    private final AtomicBoolean fScheduled = new AtomicBoolean();
+    /** The last decoding run ended with a FINISH, WAIT or ERROR item */
+    private volatile boolean fEnded = false;
+    private volatile boolean fStopped = false;
+    private volatile @Nullable Thread fWaiter = null;
+
+    // ------------------------------------------------------------------------
+    // Constructors
+    // ------------------------------------------------------------------------
+
+    /**
+     * Constructor
+     *
+     * @param source
+     *            the stream to decode
+     * @param executor
+     *            the executor running the decoding tasks
+     * @param depth
+     *            the maximum number of events decoded ahead
+     */
+    public EventPrefetcher(IEventSource source, Executor executor, int depth) {
+        fSource = source;
+        fExecutor = executor;
+        fQueue = new SpscRingBuffer<>(depth);
+        fLowWaterMark = fQueue.capacity() / 2;
+    }
+
+    // ------------------------------------------------------------------------
+    // Operations
+    // ------------------------------------------------------------------------
+
+    /**
+     * Get the next decoded item, waiting for the worker if needed. Consumer
+     * side.
+     *
+     * @return the next item
+     */
+    public Item next() {
+        Item item = fQueue.poll();
+        while (item == null) {
+            schedule();
+            fWaiter = Thread.currentThread();
+            item = fQueue.poll();
+            if (item == null) {
+                LockSupport.park(this);
+                item = fQueue.poll();
+            }
+            fWaiter = null;
+        }
+        if (item.getResponse() != CTFResponse.OK) {
+            /* Allow a new run, there may be more data in live mode */
+            fEnded = false;
+        } else if (fQueue.size() <= fLowWaterMark) {
+            schedule();
+        }
+        return item;
+    }
+
+    /**
+     * Stop the worker and hand back the items decoded ahead. When this
+     * returns, the source is back in the hands of the caller, positioned after
+     * the last returned item. The next call to {@link #next()} resumes
+     * decoding.
+     *
+     * @return the items that were decoded but not consumed, in order
+     */
+    public List<Item> stop() {
+        synchronized (this) {
+            fStopped = true;
+            boolean interrupted = false;
+            while (fScheduled.get()) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            List<Item> items = new ArrayList<>(fQueue.size());
+            Item item = fQueue.poll();
+            while (item != null) {
+                items.add(item);
+                item = fQueue.poll();
+            }
+            fEnded = false;
+            fStopped = false;
+            return items;
+        }
+    }
+
+    /**
+     * Get the number of events decoded ahead
+     *
+     * @return the number of queued events
+     */
+    public int size() {
+        return fQueue.size();
+    }
+
+    // ------------------------------------------------------------------------
+    // Helpers
+    // ------------------------------------------------------------------------
+
+    private void schedule() {
+        if (fEnded || fStopped || !fScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        submit();
+    }
+
+    private void submit() {
+        try {
+            fExecutor.execute(fTask);
+        } catch (RejectedExecutionException e) {
+            /* The executor is shut down, decode on the caller thread */
+            fTask.run();
+        }
+    }
+
+    private void decode() {
+        try {
+            while (!fStopped && fQueue.size() < fQueue.capacity()) {
+                Item item;
+                try {
+                    CTFResponse response = fSource.read();
+                    if (response == CTFResponse.OK) {
+                        item = new Item(response, fSource.getCurrentEvent(), fSource.getPacketReader(), null);
+                    } else {
+                        item = new Item(response, null, null, null);
+                    }
+                } catch (CTFException e) {
+                    item = new Item(CTFResponse.ERROR, null, null, e);
+                } catch (RuntimeException e) {
+                    item = new Item(CTFResponse.ERROR, null, null, new CTFException(e));
+                }
+                boolean last = item.getResponse() != CTFResponse.OK;
+                if (last) {
+                    /* Set before publishing, the consumer resets it */
+                    fEnded = true;
+                }
+                fQueue.offer(item);
+                Thread waiter = fWaiter;
+                if (waiter != null) {
+                    LockSupport.unpark(waiter);
+                }
+                if (last) {
+                    break;
+                }
+            }
+        } finally {
+            boolean again;
+            synchronized (this) {
+                /*
+                 * The consumer may have drained the queue while this run was
+                 * ending. The next run is decided under the lock, so stop()
+                 * either waits for it or prevents it.
+                 */
+                again = !fStopped && !fEnded && fQueue.size() <= fLowWaterMark;
+                if (!again) {
+                    fScheduled.set(false);
+                    notifyAll();
+                }
+            }
+            if (again) {
+                submit();
+            }
+        }
+        Thread waiter = fWaiter;
+        if (waiter != null) {
+            LockSupport.unpark(waiter);
+        }
+    }
+}
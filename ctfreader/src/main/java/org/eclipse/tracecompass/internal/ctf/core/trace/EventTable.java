@@ -0,0 +1,315 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EfficiOS Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.ctf.core.trace;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.tracecompass.ctf.core.CTFException;
+import org.eclipse.tracecompass.ctf.core.event.IEventDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.io.BitBuffer;
+import org.eclipse.tracecompass.ctf.core.event.types.Definition;
+import org.eclipse.tracecompass.ctf.core.event.types.EnumDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.EnumDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.FloatDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.FloatDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.ICompositeDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.IDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.IntegerDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.IntegerDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.StringDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.StringDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.StructDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.StructDefinition;
+import org.eclipse.tracecompass.ctf.core.trace.ICTFPacketDescriptor;
+import org.eclipse.tracecompass.internal.ctf.core.event.EventDeclaration;
+import org.eclipse.tracecompass.internal.ctf.core.event.EventDefinition;
+import org.eclipse.tracecompass.internal.ctf.core.event.types.DeclarationSkipper;
+import org.eclipse.tracecompass.internal.ctf.core.event.types.StringReader;
+import org.jetbrains.annotations.Nullable;
+
+import com.google.common.collect.Iterables;
+
+/**
+ * Columns of the events of one type in an {@link EventBatch}: the timestamps,
+ * and a column for each integer, enum, floating point or string field at the
+ * top level of the payload. Other fields have no column.
+ * <p>
+ * When the contexts can be skipped and the payload only holds such fields,
+ * the values are read straight from the packet into the columns. Otherwise
+ * the events are decoded and their values copied.
+ */
+public final class EventTable {
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private static final int NONE = 0;
+    private static final int LONG = 1;
+    private static final int DOUBLE = 2;
+    private static final int STRING = 3;
+
+    // ------------------------------------------------------------------------
+    // Attributes
+    // ------------------------------------------------------------------------
+
+    private final EventDeclaration fDeclaration;
+    private final @Nullable StructDeclaration fStreamContextDecl;
+    private final List<String> fNames;
+
+    /* The kind and declaration of the column of each payload field */
+    private final int[] fKinds;
+    private final IntegerDeclaration[] fIntegers;
+    private final FloatDeclaration[] fFloats;
+
+    private final @Nullable DeclarationSkipper fStreamContext;
+    private final @Nullable DeclarationSkipper fContext;
+    private final long fPayloadAlignment;
+    private final boolean fDirect;
+    private final boolean fPayloadTimestamp;
+
+    private int fCount = 0;
+    private long[] fTimestamps;
+    private final long[][] fLongs;
+    private final double[][] fDoubles;
+    private final StringColumn[] fStrings;
+
+    // ------------------------------------------------------------------------
+    // Constructors
+    // ------------------------------------------------------------------------
+
+    EventTable(EventDeclaration declaration, @Nullable StructDeclaration streamContextDecl) {
+        fDeclaration = declaration;
+        fStreamContextDecl = streamContextDecl;
+        StructDeclaration fields = declaration.getFields();
+        String[] names = (fields == null) ? new String[0] : Iterables.toArray(fields.getFieldsList(), String.class);
+        fNames = Collections.unmodifiableList(Arrays.asList(names));
+        int nbFields = names.length;
+        fKinds = new int[nbFields];
+        fIntegers = new IntegerDeclaration[nbFields];
+        fFloats = new FloatDeclaration[nbFields];
+        fTimestamps = new long[INITIAL_CAPACITY];
+        fLongs = new long[nbFields][];
+        fDoubles = new double[nbFields][];
+        fStrings = new StringColumn[nbFields];
+        boolean scalars = true;
+        for (int i = 0; i < nbFields; i++) {
+            IDeclaration field = fields.getField(names[i]);
+            if (field instanceof IntegerDeclaration && ((IntegerDeclaration) field).getLength() <= Long.SIZE) {
+                fKinds[i] = LONG;
+                fIntegers[i] = (IntegerDeclaration) field;
+            } else if (field instanceof EnumDeclaration && ((EnumDeclaration) field).getContainerType().getLength() <= Long.SIZE) {
+                /* An enum is aligned like its container */
+                fKinds[i] = LONG;
+                fIntegers[i] = ((EnumDeclaration) field).getContainerType();
+            } else if (field instanceof FloatDeclaration) {
+                fKinds[i] = DOUBLE;
+                fFloats[i] = (FloatDeclaration) field;
+            } else if (field instanceof StringDeclaration) {
+                fKinds[i] = STRING;
+                fStrings[i] = new StringColumn(INITIAL_CAPACITY, StringReader.getCharset(((StringDeclaration) field).getEncoding()));
+            } else {
+                fKinds[i] = NONE;
+                scalars = false;
+            }
+            switch (fKinds[i]) {
+            case LONG:
+                fLongs[i] = new long[INITIAL_CAPACITY];
+                break;
+            case DOUBLE:
+                fDoubles[i] = new double[INITIAL_CAPACITY];
+                break;
+            default:
+                break;
+            }
+        }
+        StructDeclaration context = declaration.getContext();
+        fStreamContext = (streamContextDecl == null) ? null : DeclarationSkipper.create(streamContextDecl);
+        fContext = (context == null) ? null : DeclarationSkipper.create(context);
+        fPayloadAlignment = (fields == null) ? 1 : fields.getAlignment();
+        fDirect = scalars && (streamContextDecl == null || fStreamContext != null) && (context == null || fContext != null);
+        fPayloadTimestamp = EventDeclaration.hasTimestampField(context) || EventDeclaration.hasTimestampField(fields);
+    }
+
+    // ------------------------------------------------------------------------
+    // Operations
+    // ------------------------------------------------------------------------
+
+    /**
+     * Get the event type of the table
+     *
+     * @return the event declaration
+     */
+    public IEventDeclaration getDeclaration() {
+        return fDeclaration;
+    }
+
+    /**
+     * Get the number of events in the table
+     *
+     * @return the number of rows
+     */
+    public int getEventCount() {
+        return fCount;
+    }
+
+    /**
+     * Get the names of the fields of the payload, in order
+     *
+     * @return the names
+     */
+    public List<String> getFieldNames() {
+        return fNames;
+    }
+
+    /**
+     * Get the timestamps of the events, valid up to the number of events
+     *
+     * @return the timestamps
+     */
+    public long[] getTimestamps() {
+        return fTimestamps;
+    }
+
+    /**
+     * Get the column of an integer or enum field, valid up to the number of
+     * events
+     *
+     * @param name
+     *            the name of the field
+     * @return the values, null if there is no such field
+     */
+    public @Nullable long[] getLongColumn(String name) {
+        int index = fNames.indexOf(name);
+        return (index == -1) ? null : fLongs[index];
+    }
+
+    /**
+     * Get the column of a floating point field, valid up to the number of
+     * events
+     *
+     * @param name
+     *            the name of the field
+     * @return the values, null if there is no such field
+     */
+    public @Nullable double[] getDoubleColumn(String name) {
+        int index = fNames.indexOf(name);
+        return (index == -1) ? null : fDoubles[index];
+    }
+
+    /**
+     * Get the column of a string field
+     *
+     * @param name
+     *            the name of the field
+     * @return the column, null if there is no such field
+     */
+    public @Nullable StringColumn getStringColumn(String name) {
+        int index = fNames.indexOf(name);
+        return (index == -1) ? null : fStrings[index];
+    }
+
+    /**
+     * Can the table be filled for the events of a stream
+     */
+    boolean isFor(EventDeclaration declaration, @Nullable StructDeclaration streamContextDecl) {
+        return fDeclaration == declaration && fStreamContextDecl == streamContextDecl;
+    }
+
+    void clear() {
+        fCount = 0;
+    }
+
+    /**
+     * Read the stream event context, event context and payload of an event
+     * whose header was just read into a new row
+     *
+     * @return the timestamp of the event
+     */
+    long read(BitBuffer input, ICTFPacketDescriptor packet, @Nullable ICompositeDefinition packetHeader,
+            @Nullable ICompositeDefinition eventHeader, long prevTimestamp) throws CTFException {
+        if (!fDirect || (fPayloadTimestamp && !EventDeclaration.hasHeaderTimestamp(eventHeader))) {
+            EventDefinition event = fDeclaration.createDefinition(fStreamContextDecl, packet, packetHeader, eventHeader, input, prevTimestamp);
+            copy(newRow(event.getTimestamp()), event.getFields());
+            return event.getTimestamp();
+        }
+        long timestamp = EventDeclaration.calculateTimestamp(eventHeader, prevTimestamp);
+        if (fStreamContext != null) {
+            fStreamContext.skip(input);
+        }
+        if (fContext != null) {
+            fContext.skip(input);
+        }
+        int row = newRow(timestamp);
+        input.align(fPayloadAlignment);
+        final int[] kinds = fKinds;
+        for (int i = 0; i < kinds.length; i++) {
+            switch (kinds[i]) {
+            case LONG:
+                fLongs[i][row] = fIntegers[i].readValue(input);
+                break;
+            case DOUBLE:
+                fDoubles[i][row] = fFloats[i].readValue(input);
+                break;
+            case STRING:
+                fStrings[i].read(row, input);
+                break;
+            default:
+                throw new IllegalStateException("Field " + fNames.get(i) + " cannot be read directly"); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+        }
+        return timestamp;
+    }
+
+    private void copy(int row, @Nullable ICompositeDefinition fields) {
+        if (!(fields instanceof StructDefinition)) {
+            return;
+        }
+        StructDefinition struct = (StructDefinition) fields;
+        for (int i = 0; i < fKinds.length; i++) {
+            Definition definition = struct.getDefinitionAt(i);
+            if (definition instanceof IntegerDefinition) {
+                fLongs[i][row] = ((IntegerDefinition) definition).getValue();
+            } else if (definition instanceof EnumDefinition) {
+                fLongs[i][row] = ((EnumDefinition) definition).getLongValue();
+            } else if (definition instanceof FloatDefinition) {
+                fDoubles[i][row] = ((FloatDefinition) definition).getValue();
+            } else if (definition instanceof StringDefinition) {
+                fStrings[i].set(row, ((StringDefinition) definition).getValue());
+            }
+        }
+    }
+
+    private int newRow(long timestamp) {
+        int row = fCount;
+        if (row == fTimestamps.length) {
+            int capacity = row * 2;
+            fTimestamps = Arrays.copyOf(fTimestamps, capacity);
+            for (int i = 0; i < fKinds.length; i++) {
+                switch (fKinds[i]) {
+                case LONG:
+                    fLongs[i] = Arrays.copyOf(fLongs[i], capacity);
+                    break;
+                case DOUBLE:
+                    fDoubles[i] = Arrays.copyOf(fDoubles[i], capacity);
+                    break;
+                case STRING:
+                    fStrings[i].grow(capacity);
+                    break;
+                default:
+                    break;
+                }
+            }
+        }
+        fTimestamps[row] = timestamp;
+        fCount = row + 1;
+        return row;
+    }
+}
@@ -0,0 +1,65 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EfficiOS Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.ctf.core.trace;
+
+import org.eclipse.tracecompass.ctf.core.trace.CTFStreamInputReader;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Ordering structure used by the trace reader to merge the events of all the
+ * stream input readers by timestamp. The reader at the top is the one with the
+ * smallest current event timestamp.
+ * <p>
+ * The usual cycle is {@link #peek()}, read the next event of the returned
+ * reader, then either {@link #topUpdated()} if it still has events or
+ * {@link #removeTop()} if it is finished.
+ */
+public interface IStreamInputReaderQueue extends Iterable<CTFStreamInputReader> {
+
+    /**
+     * Add a reader to the queue. Its current event must already be read.
+     *
+     * @param reader
+     *            the reader to add
+     */
+    void add(CTFStreamInputReader reader);
+
+    /**
+     * Get the reader with the smallest current timestamp, without removing it.
+     *
+     * @return the top reader, or null if the queue is empty
+     */
+    @Nullable CTFStreamInputReader peek();
+
+    /**
+     * Notify the queue that the current event of the top reader changed and
+     * that it must be re-ordered.
+     */
+    void topUpdated();
+
+    /**
+     * Remove the top reader from the queue.
+     *
+     * @return the removed reader, or null if the queue was empty
+     */
+    @Nullable CTFStreamInputReader removeTop();
+
+    /**
+     * Remove all the readers from the queue.
+     */
+    void clear();
+
+    /**
+     * Get the number of readers in the queue.
+     *
+     * @return the number of readers
+     */
+    int size();
+}
@@ -0,0 +1,228 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EfficiOS Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.ctf.core.trace;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import org.eclipse.tracecompass.ctf.core.CTFStrings;
+import org.eclipse.tracecompass.ctf.core.event.types.IDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.ISimpleDatatypeDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.IntegerDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.StringDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.StructDeclaration;
+import org.eclipse.tracecompass.ctf.core.trace.ICTFPacketDescriptor;
+import org.jetbrains.annotations.Nullable;
+
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Reader of the packet index files written by LTTng next to the trace files,
+ * in the {@value #INDEX_DIRECTORY} directory of the trace.
+ * <p>
+ * An index file starts with a header (magic, major and minor version, size of
+ * an entry) followed by one entry per packet: offset in bytes, packet size and
+ * content size in bits, begin and end timestamps, events discarded and stream
+ * id, then from version 1.1 the stream instance id and packet sequence number.
+ * Everything is big-endian.
+ * <p>
+ * The entries only hold some of the packet context fields. The others must be
+ * constant in the trace file (only {@value CTFStrings#CPU_ID} is assumed to
+ * be), they are taken from the first packet.
+ */
+public final class LttngPacketIndexFile {
+
+    private static final Logger LOGGER = Logger.getLogger(LttngPacketIndexFile.class.getName());
+
+    /**
+     * Name of the index directory, in the trace directory
+     */
+    public static final String INDEX_DIRECTORY = "index"; //$NON-NLS-1$
+
+    /**
+     * Suffix of the index files
+     */
+    public static final String INDEX_SUFFIX = ".idx"; //$NON-NLS-1$
+
+    private static final String PACKET_SEQ_NUM = "packet_seq_num"; //$NON-NLS-1$
+
+    private static final int MAGIC = 0xC1F1DCC1;
+    private static final int MAJOR = 1;
+    private static final int ENTRY_SIZE_1_0 = 7 * Long.BYTES;
+    private static final int ENTRY_SIZE_1_1 = 9 * Long.BYTES;
+
+    private LttngPacketIndexFile() {
+    }
+
+    /**
+     * Get the index file of a trace file
+     *
+     * @param streamFile
+     *            the trace file
+     * @return the index file, which may not exist
+     */
+    public static File getIndexFile(File streamFile) {
+        return new File(new File(streamFile.getAbsoluteFile().getParentFile(), INDEX_DIRECTORY), streamFile.getName() + INDEX_SUFFIX);
+    }
+
+    /**
+     * Load the packet index of a trace file from its LTTng index file
+     *
+     * @param indexFile
+     *            the index file
+     * @param fileSizeBytes
+     *            the size of the trace file
+     * @param streamId
+     *            the id of the stream of the trace file
+     * @param packetContext
+     *            the stream packet context declaration
+     * @param firstPacket
+     *            the index entry of the first packet, read from the trace
+     *            file. The packet header and context must be of fixed size,
+     *            so the payload of every packet starts at the same offset.
+     * @return the index entries, or null if the index file is invalid, does
+     *         not match the trace file, or does not hold all the packet
+     *         context fields
+     */
+    public static @Nullable List<ICTFPacketDescriptor> load(File indexFile, long fileSizeBytes, long streamId,
+            StructDeclaration packetContext, ICTFPacketDescriptor firstPacket) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile.toPath())))) {
+            if (in.readInt() != MAGIC || in.readInt() != MAJOR) {
+                return invalid(indexFile, "unsupported version"); //$NON-NLS-1$
+            }
+            in.readInt();
+            int entrySize = in.readInt();
+            if (entrySize < ENTRY_SIZE_1_0) {
+                return invalid(indexFile, "entries too short"); //$NON-NLS-1$
+            }
+            boolean hasSeqNum = entrySize >= ENTRY_SIZE_1_1;
+            if (!isSupported(packetContext, hasSeqNum)) {
+                return invalid(indexFile, "packet context fields missing"); //$NON-NLS-1$
+            }
+            Map<String, Object> firstAttributes = firstPacket.getAttributes();
+            long payloadStartBits = firstPacket.getPayloadStartBits();
+
+            List<ICTFPacketDescriptor> entries = new ArrayList<>();
+            long lostSoFar = 0;
+            long expectedOffset = 0;
+            while (true) {
+                long offsetBytes;
+                try {
+                    offsetBytes = in.readLong();
+                } catch (EOFException e) {
+                    break;
+                }
+                long packetSizeBits = in.readLong();
+                long contentSizeBits = in.readLong();
+                long timestampBegin = in.readLong();
+                long timestampEnd = in.readLong();
+                long eventsDiscarded = in.readLong();
+                long entryStreamId = in.readLong();
+                long seqNum = 0;
+                if (hasSeqNum) {
+                    in.readLong();
+                    seqNum = in.readLong();
+                }
+                in.skipBytes(entrySize - (hasSeqNum ? ENTRY_SIZE_1_1 : ENTRY_SIZE_1_0));
+
+                if (offsetBytes != expectedOffset || entryStreamId != streamId || packetSizeBits <= 0
+                        || packetSizeBits % Byte.SIZE != 0 || contentSizeBits > packetSizeBits
+                        || offsetBytes + packetSizeBits / Byte.SIZE > fileSizeBytes) {
+                    return invalid(indexFile, "inconsistent entry " + entries.size()); //$NON-NLS-1$
+                }
+                expectedOffset = offsetBytes + packetSizeBits / Byte.SIZE;
+
+                ImmutableMap.Builder<String, Object> attributes = ImmutableMap.builder();
+                for (String field : packetContext.getFieldsList()) {
+                    switch (field) {
+                    case CTFStrings.TIMESTAMP_BEGIN:
+                        attributes.put(field, timestampBegin);
+                        break;
+                    case CTFStrings.TIMESTAMP_END:
+                        attributes.put(field, timestampEnd);
+                        break;
+                    case CTFStrings.CONTENT_SIZE:
+                        attributes.put(field, contentSizeBits);
+                        break;
+                    case CTFStrings.PACKET_SIZE:
+                        attributes.put(field, packetSizeBits);
+                        break;
+                    case CTFStrings.EVENTS_DISCARDED:
+                        attributes.put(field, eventsDiscarded);
+                        break;
+                    case PACKET_SEQ_NUM:
+                        attributes.put(field, seqNum);
+                        break;
+                    default:
+                        Object value = firstAttributes.get(field);
+                        if (value != null) {
+                            attributes.put(field, value);
+                        }
+                        break;
+                    }
+                }
+                ICTFPacketDescriptor entry = new StreamInputPacketIndexEntry(offsetBytes * Byte.SIZE, attributes.build(),
+                        fileSizeBytes, lostSoFar, payloadStartBits);
+                lostSoFar += entry.getLostEvents();
+                entries.add(entry);
+            }
+            return entries;
+        } catch (IOException | RuntimeException e) {
+            return invalid(indexFile, String.valueOf(e.getMessage()));
+        }
+    }
+
+    /**
+     * Are all the fields of the packet context in the index entries, or
+     * constant in the trace file
+     */
+    private static boolean isSupported(StructDeclaration packetContext, boolean hasSeqNum) {
+        for (String field : packetContext.getFieldsList()) {
+            IDeclaration declaration = packetContext.getField(field);
+            switch (field) {
+            case PACKET_SEQ_NUM:
+                if (!hasSeqNum || !(declaration instanceof IntegerDeclaration)) {
+                    return false;
+                }
+                break;
+            case CTFStrings.TIMESTAMP_BEGIN:
+            case CTFStrings.TIMESTAMP_END:
+            case CTFStrings.CONTENT_SIZE:
+            case CTFStrings.PACKET_SIZE:
+            case CTFStrings.EVENTS_DISCARDED:
+            case CTFStrings.CPU_ID:
+                if (!(declaration instanceof IntegerDeclaration)) {
+                    return false;
+                }
+                break;
+            default:
+                /* Structs and arrays are not attributes, other fields may change */
+                if (declaration instanceof ISimpleDatatypeDeclaration || declaration instanceof StringDeclaration) {
+                    return false;
+                }
+                break;
+            }
+        }
+        return true;
+    }
+
+    private static @Nullable List<ICTFPacketDescriptor> invalid(File indexFile, String reason) {
+        LOGGER.fine(() -> "Ignoring LTTng index " + indexFile + ": " + reason); //$NON-NLS-1$ //$NON-NLS-2$
+        return null;
+    }
+}
@@ -0,0 +1,208 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EfficiOS Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.ctf.core.trace;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.tracecompass.internal.ctf.core.BufferCleaner;
+import org.eclipse.tracecompass.internal.ctf.core.SafeMappedByteBuffer;
+
+/**
+ * A whole trace file mapped for the lifetime of one reader. A mapped buffer
+ * is indexed with an int, so the file is mapped in chunks of up to 1 GiB,
+ * addressed with long file offsets, each extended a quarter chunk further so
+ * the packets that start near the end of a chunk still fit in it. Packets
+ * that do not fit in the chunk they start in are mapped on their own.
+ * <p>
+ * A chunk is mapped the first time one of its packets is read, and all the
+ * mappings live until the file is {@link #close() closed}, where they are
+ * unmapped right away with {@link BufferCleaner}. The buffers handed out
+ * must not be used after that.
+ */
+public final class MappedFile implements AutoCloseable {
+
+    /**
+     * Default size of the chunks, 1 GiB
+     */
+    public static final long DEFAULT_CHUNK_SIZE = 1024L * 1024 * 1024;
+
+    // ------------------------------------------------------------------------
+    // Attributes
+    // ------------------------------------------------------------------------
+
+    private final FileChannel fChannel;
+    private final long fChunkSize;
+
+    /**
+     * The mapping of each chunk read so far
+     */
+    private final Map<Long, ByteBuffer> fChunks = new HashMap<>();
+
+    /**
+     * The mapping of each packet mapped on its own, by offset
+     */
+    private final Map<Long, ByteBuffer> fPackets = new HashMap<>();
+
+    /**
+     * All the live mappings: the chunks, the older mappings of the chunks
+     * that were mapped again as the file grew, and the packets mapped on
+     * their own
+     */
+    private final List<ByteBuffer> fMappings = new ArrayList<>();
+
+    private long fMappedBytes = 0;
+    private boolean fClosed = false;
+
+    // ------------------------------------------------------------------------
+    // Constructors
+    // ------------------------------------------------------------------------
+
+    /**
+     * Constructor
+     *
+     * @param channel
+     *            an open channel of the file, closed by its owner after this
+     *            file
+     * @param chunkSize
+     *            the size of the chunks, in bytes
+     */
+    public MappedFile(FileChannel channel, long chunkSize) {
+        if (chunkSize <= 0 || chunkSize + chunkSize / 4 > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid chunk size " + chunkSize); //$NON-NLS-1$
+        }
+        fChannel = channel;
+        fChunkSize = chunkSize;
+    }
+
+    // ------------------------------------------------------------------------
+    // Operations
+    // ------------------------------------------------------------------------
+
+    /**
+     * Get a region of the file
+     *
+     * @param offset
+     *            the offset of the region, in bytes
+     * @param size
+     *            the size of the region, in bytes
+     * @return the content of the region, positioned at 0, with the size of
+     *         the region as capacity, valid until the file is closed
+     * @throws IOException
+     *             if the file is closed or cannot be mapped
+     */
+    public synchronized ByteBuffer slice(long offset, long size) throws IOException {
+        if (fClosed) {
+            throw new ClosedChannelException();
+        }
+        if (offset < 0 || size < 0 || size > Integer.MAX_VALUE) {
+            throw new IOException("Invalid region of " + size + " bytes at " + offset); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        long chunk = offset / fChunkSize;
+        long chunkStart = chunk * fChunkSize;
+        long chunkEnd = chunkStart + fChunkSize + fChunkSize / 4;
+        if (offset + size > chunkEnd) {
+            /* Straddles the end of the chunk */
+            ByteBuffer mapping = fPackets.get(offset);
+            if (mapping == null || mapping.capacity() < size) {
+                mapping = map(offset, size);
+                fPackets.put(offset, mapping);
+            }
+            ByteBuffer buffer = mapping.duplicate();
+            buffer.limit((int) size);
+            return buffer.slice();
+        }
+        ByteBuffer mapping = fChunks.get(chunk);
+        if (mapping == null || chunkStart + mapping.capacity() < offset + size) {
+            /* Not mapped yet, or mapped before the file grew */
+            mapping = map(chunkStart, Math.min(chunkEnd, Math.max(fChannel.size(), offset + size)) - chunkStart);
+            fChunks.put(chunk, mapping);
+        }
+        ByteBuffer buffer = mapping.duplicate();
+        int start = (int) (offset - chunkStart);
+        buffer.limit(start + (int) size);
+        buffer.position(start);
+        return buffer.slice();
+    }
+
+    /**
+     * Bring the pages of a region of the file in memory, mapping it if
+     * needed, so reading it later does not stall on page faults. The file
+     * is not unmapped while its pages are touched.
+     *
+     * @param offset
+     *            the offset of the region, in bytes
+     * @param size
+     *            the size of the region, in bytes
+     * @param pageSize
+     *            the size of the pages, in bytes
+     * @return the sum of the first byte of each page, to keep the reads
+     * @throws IOException
+     *             if the file is closed or cannot be mapped
+     */
+    public synchronized int touch(long offset, long size, int pageSize) throws IOException {
+        ByteBuffer buffer = slice(offset, size);
+        int touched = 0;
+        for (int i = 0; i < buffer.limit(); i += pageSize) {
+            touched += buffer.get(i);
+        }
+        return touched;
+    }
+
+    /**
+     * Get the total size of the live mappings
+     *
+     * @return the size, in bytes
+     */
+    public synchronized long getMappedBytes() {
+        return fMappedBytes;
+    }
+
+    /**
+     * Get the number of live mappings
+     *
+     * @return the number of mappings
+     */
+    public synchronized int getMappingCount() {
+        return fMappings.size();
+    }
+
+    /**
+     * Unmap the file. The buffers handed out must not be used anymore.
+     */
+    @Override
+    public synchronized void close() {
+        if (fClosed) {
+            return;
+        }
+        fClosed = true;
+        for (ByteBuffer mapping : fMappings) {
+            BufferCleaner.clean(mapping);
+        }
+        fMappings.clear();
+        fChunks.clear();
+        fPackets.clear();
+        fMappedBytes = 0;
+    }
+
+    private ByteBuffer map(long offset, long size) throws IOException {
+        ByteBuffer mapping = SafeMappedByteBuffer.map(fChannel, MapMode.READ_ONLY, offset, size);
+        fMappings.add(mapping);
+        fMappedBytes += size;
+        return mapping;
+    }
+}
@@ -0,0 +1,409 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EfficiOS Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.ctf.core.trace;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.eclipse.tracecompass.internal.ctf.core.BufferCleaner;
+import org.eclipse.tracecompass.internal.ctf.core.SafeMappedByteBuffer;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Cache of large mapped windows of the trace files, shared by all the readers
+ * of a trace, so reading a packet slices an existing mapping instead of
+ * mapping the packet again.
+ * <p>
+ * The windows start at multiples of the chunk size and extend a quarter
+ * chunk further, so the packets that start near the end of a chunk still fit
+ * in its window. Packets that do not fit in the window of the chunk they
+ * start in are mapped on their own.
+ * <p>
+ * The regions handed out are leases on the mappings: a window is only
+ * unmapped once all the regions sliced out of it are released, and the
+ * mapping of a packet mapped on its own is unmapped when its region is
+ * released. The mappings are unmapped right away with {@link BufferCleaner}
+ * when it is supported, instead of when the garbage collector finds them.
+ * <p>
+ * The readers of a file acquire it while they are open, and its windows are
+ * dropped when the last one releases it. The total size of the live
+ * mappings is kept under a budget by dropping the least recently used
+ * windows that are not in use.
+ */
+public final class MappedRegionCache {
+
+    /**
+     * Default size of the chunks of the files, 64 MiB
+     */
+    public static final long DEFAULT_CHUNK_SIZE = 64L * 1024 * 1024;
+
+    /**
+     * Default budget of mapped address space, 1 GiB
+     */
+    public static final long DEFAULT_BUDGET = 1024L * 1024 * 1024;
+
+    /**
+     * System property to set the default budget, in bytes
+     */
+    public static final String BUDGET_PROPERTY = "org.eclipse.tracecompass.ctf.core.mapbudget"; //$NON-NLS-1$
+
+    /**
+     * Key of a window: a chunk of a file
+     */
+    private static final class WindowKey {
+        private final File fFile;
+        private final long fChunk;
+
+        WindowKey(File file, long chunk) {
+            fFile = file;
+            fChunk = chunk;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(fFile, fChunk);
+        }
+
+        @Override
+        public boolean equals(@Nullable Object obj) {
+            if (!(obj instanceof WindowKey)) {
+                return false;
+            }
+            WindowKey other = (WindowKey) obj;
+            return fChunk == other.fChunk && fFile.equals(other.fFile);
+        }
+    }
+
+    /**
+     * A mapped window of a file
+     */
+    private static final class Window {
+        private final ByteBuffer fMapping;
+        private int fLeases = 0;
+        private boolean fDropped = false;
+
+        Window(ByteBuffer mapping) {
+            fMapping = mapping;
+        }
+    }
+
+    /**
+     * A region of a file, valid until it is released
+     */
+    public final class Region {
+        private final ByteBuffer fBuffer;
+        private final @Nullable Window fWindow;
+        private final @Nullable ByteBuffer fMapping;
+        private boolean fReleased = false;
+
+        private Region(ByteBuffer buffer, @Nullable Window window, @Nullable ByteBuffer mapping) {
+            fBuffer = buffer;
+            fWindow = window;
+            fMapping = mapping;
+        }
+
+        /**
+         * Get the content of the region. It must not be used after the region
+         * is released.
+         *
+         * @return the buffer, positioned at 0, with the size of the region as
+         *         capacity
+         */
+        public ByteBuffer getBuffer() {
+            return fBuffer;
+        }
+
+        /**
+         * Release the region, its mapping may be unmapped
+         */
+        public void release() {
+            releaseRegion(this);
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // Attributes
+    // ------------------------------------------------------------------------
+
+    private final long fChunkSize;
+
+    private long fBudget;
+
+    /**
+     * The cached windows, least recently used first
+     */
+    private final LinkedHashMap<WindowKey, Window> fWindows = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Number of open readers of each file
+     */
+    private final Map<File, Integer> fReferences = new HashMap<>();
+
+    /**
+     * Size of the live mappings: the cached windows, the dropped windows
+     * still in use, and the packets mapped on their own
+     */
+    private long fMappedBytes = 0;
+
+    /**
+     * Number of live mappings
+     */
+    private int fMappingCount = 0;
+
+    // ------------------------------------------------------------------------
+    // Constructors
+    // ------------------------------------------------------------------------
+
+    /**
+     * Constructor
+     *
+     * @param chunkSize
+     *            the size of the chunks of the files, in bytes
+     * @param budget
+     *            the maximum total size of the mappings, in bytes, 0 to map
+     *            each packet on its own
+     */
+    public MappedRegionCache(long chunkSize, long budget) {
+        if (chunkSize <= 0 || chunkSize > Integer.MAX_VALUE / 2) {
+            throw new IllegalArgumentException("Invalid chunk size " + chunkSize); //$NON-NLS-1$
+        }
+        fChunkSize = chunkSize;
+        setBudget(budget);
+    }
+
+    // ------------------------------------------------------------------------
+    // Operations
+    // ------------------------------------------------------------------------
+
+    /**
+     * Get the default budget of mapped address space
+     *
+     * @return the {@value #BUDGET_PROPERTY} system property if set, else
+     *         {@link #DEFAULT_BUDGET}
+     */
+    public static long getDefaultBudget() {
+        return Math.max(0, Long.getLong(BUDGET_PROPERTY, DEFAULT_BUDGET));
+    }
+
+    /**
+     * Get the maximum total size of the mappings
+     *
+     * @return the budget, in bytes
+     */
+    public synchronized long getBudget() {
+        return fBudget;
+    }
+
+    /**
+     * Set the maximum total size of the mappings, dropping the least recently
+     * used windows that do not fit anymore
+     *
+     * @param budget
+     *            the budget, in bytes, 0 to map each packet on its own
+     */
+    public synchronized void setBudget(long budget) {
+        if (budget < 0) {
+            throw new IllegalArgumentException("Invalid budget " + budget); //$NON-NLS-1$
+        }
+        fBudget = budget;
+        evict(null);
+    }
+
+    /**
+     * Get the total size of the live mappings
+     *
+     * @return the size, in bytes
+     */
+    public synchronized long getMappedBytes() {
+        return fMappedBytes;
+    }
+
+    /**
+     * Get the number of live mappings
+     *
+     * @return the number of mappings
+     */
+    public synchronized int getMappingCount() {
+        return fMappingCount;
+    }
+
+    /**
+     * Register a reader of a file
+     *
+     * @param file
+     *            the file
+     */
+    public synchronized void acquire(File file) {
+        fReferences.merge(file, 1, Integer::sum);
+    }
+
+    /**
+     * Unregister a reader of a file, dropping the windows of the file if it
+     * was the last one
+     *
+     * @param file
+     *            the file
+     */
+    public synchronized void release(File file) {
+        Integer count = fReferences.get(file);
+        if (count == null) {
+            return;
+        }
+        if (count > 1) {
+            fReferences.put(file, count - 1);
+            return;
+        }
+        fReferences.remove(file);
+        Iterator<Map.Entry<WindowKey, Window>> iterator = fWindows.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<WindowKey, Window> window = iterator.next();
+            if (window.getKey().fFile.equals(file)) {
+                iterator.remove();
+                drop(window.getValue());
+            }
+        }
+    }
+
+    /**
+     * Get a region of a file
+     *
+     * @param file
+     *            the file
+     * @param channel
+     *            an open channel of the file, to map it if needed
+     * @param offset
+     *            the offset of the region, in bytes
+     * @param size
+     *            the size of the region, in bytes
+     * @return the region, to release once its buffer is not used anymore
+     * @throws IOException
+     *             if the file cannot be mapped
+     */
+    public Region getRegion(File file, FileChannel channel, long offset, long size) throws IOException {
+        long chunk = offset / fChunkSize;
+        long windowStart = chunk * fChunkSize;
+        long windowEnd = windowStart + fChunkSize + fChunkSize / 4;
+        if (offset + size > windowEnd || !SafeMappedByteBuffer.isMappingSupported()) {
+            return mapRegion(channel, offset, size);
+        }
+        Window window;
+        synchronized (this) {
+            if (fBudget < windowEnd - windowStart) {
+                window = null;
+            } else {
+                WindowKey key = new WindowKey(file, chunk);
+                window = fWindows.get(key);
+                if (window == null || window.fMapping.capacity() < offset + size - windowStart) {
+                    /* Not mapped yet, or mapped before the file grew */
+                    long length = Math.min(windowEnd, channel.size()) - windowStart;
+                    if (length < offset + size - windowStart) {
+                        window = null;
+                    } else {
+                        Window previous = fWindows.remove(key);
+                        if (previous != null) {
+                            drop(previous);
+                        }
+                        window = new Window(SafeMappedByteBuffer.map(channel, MapMode.READ_ONLY, windowStart, length));
+                        fWindows.put(key, window);
+                        fMappedBytes += length;
+                        fMappingCount++;
+                        evict(key);
+                    }
+                }
+                if (window != null) {
+                    window.fLeases++;
+                }
+            }
+        }
+        if (window == null) {
+            return mapRegion(channel, offset, size);
+        }
+        ByteBuffer buffer = window.fMapping.duplicate();
+        int start = (int) (offset - windowStart);
+        buffer.limit(start + (int) size);
+        buffer.position(start);
+        return new Region(buffer.slice(), window, null);
+    }
+
+    /**
+     * Map a region on its own
+     */
+    private Region mapRegion(FileChannel channel, long offset, long size) throws IOException {
+        ByteBuffer mapping = SafeMappedByteBuffer.map(channel, MapMode.READ_ONLY, offset, size);
+        if (!mapping.isDirect()) {
+            /* Read, nothing to unmap */
+            return new Region(mapping, null, null);
+        }
+        synchronized (this) {
+            fMappedBytes += mapping.capacity();
+            fMappingCount++;
+            evict(null);
+        }
+        return new Region(mapping, null, mapping);
+    }
+
+    private synchronized void releaseRegion(Region region) {
+        if (region.fReleased) {
+            return;
+        }
+        region.fReleased = true;
+        Window window = region.fWindow;
+        if (window != null) {
+            window.fLeases--;
+            if (window.fDropped && window.fLeases == 0) {
+                unmap(window.fMapping);
+            }
+        }
+        ByteBuffer mapping = region.fMapping;
+        if (mapping != null) {
+            unmap(mapping);
+        }
+    }
+
+    /**
+     * Drop a window removed from the cache, it is unmapped once it is not
+     * used anymore
+     */
+    private void drop(Window window) {
+        window.fDropped = true;
+        if (window.fLeases == 0) {
+            unmap(window.fMapping);
+        }
+    }
+
+    private void unmap(ByteBuffer mapping) {
+        fMappedBytes -= mapping.capacity();
+        fMappingCount--;
+        BufferCleaner.clean(mapping);
+    }
+
+    /**
+     * Drop the least recently used windows that are not in use until the
+     * budget is met, except the one just mapped
+     */
+    private void evict(@Nullable WindowKey kept) {
+        Iterator<Map.Entry<WindowKey, Window>> iterator = fWindows.entrySet().iterator();
+        while (fMappedBytes > fBudget && iterator.hasNext()) {
+            Map.Entry<WindowKey, Window> window = iterator.next();
+            if (window.getValue().fLeases == 0 && !window.getKey().equals(kept)) {
+                iterator.remove();
+                drop(window.getValue());
+            }
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EfficiOS Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.ctf.core.trace;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Pool of direct buffers the packets are read into, when the trace files are
+ * read instead of mapped. It is shared by the readers of a trace.
+ * <p>
+ * The buffers are all sized to the largest packet read so far, so any of
+ * them can hold any packet. When a larger packet comes, the smaller buffers
+ * are dropped as they are released and new ones are allocated. At most
+ * {@link #getMaxIdle()} buffers are kept while no reader uses them.
+ */
+public final class PacketBufferPool {
+
+    /**
+     * Default number of idle buffers kept
+     */
+    public static final int DEFAULT_MAX_IDLE = 16;
+
+    /**
+     * Minimum size of the buffers, so the small packets of a trace do not
+     * cause a buffer growth each
+     */
+    private static final int MIN_BUFFER_SIZE = 64 * 1024;
+
+    // ------------------------------------------------------------------------
+    // Attributes
+    // ------------------------------------------------------------------------
+
+    private final int fMaxIdle;
+
+    private final Deque<ByteBuffer> fIdle = new ArrayDeque<>();
+
+    private int fBufferSize = MIN_BUFFER_SIZE;
+
+    // ------------------------------------------------------------------------
+    // Constructors
+    // ------------------------------------------------------------------------
+
+    /**
+     * Constructor
+     *
+     * @param maxIdle
+     *            the maximum number of idle buffers kept
+     */
+    public PacketBufferPool(int maxIdle) {
+        if (maxIdle < 0) {
+            throw new IllegalArgumentException("Invalid idle buffer count " + maxIdle); //$NON-NLS-1$
+        }
+        fMaxIdle = maxIdle;
+    }
+
+    // ------------------------------------------------------------------------
+    // Operations
+    // ------------------------------------------------------------------------
+
+    /**
+     * Get the maximum number of idle buffers kept
+     *
+     * @return the number of buffers
+     */
+    public int getMaxIdle() {
+        return fMaxIdle;
+    }
+
+    /**
+     * Get the size of the buffers handed out
+     *
+     * @return the size, in bytes
+     */
+    public synchronized int getBufferSize() {
+        return fBufferSize;
+    }
+
+    /**
+     * Get the number of idle buffers
+     *
+     * @return the number of buffers
+     */
+    public synchronized int getIdleCount() {
+        return fIdle.size();
+    }
+
+    /**
+     * Get a buffer that can hold a packet
+     *
+     * @param size
+     *            the size of the packet, in bytes
+     * @return a cleared buffer of at least this size, to give back with
+     *         {@link #release(ByteBuffer)}
+     */
+    public ByteBuffer acquire(int size) {
+        int bufferSize;
+        synchronized (this) {
+            if (size > fBufferSize) {
+                fBufferSize = size;
+                fIdle.clear();
+            }
+            ByteBuffer buffer = fIdle.poll();
+            if (buffer != null) {
+                buffer.clear();
+                return buffer;
+            }
+            bufferSize = fBufferSize;
+        }
+        return ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    /**
+     * Give back a buffer. It must not be used afterwards.
+     *
+     * @param buffer
+     *            a buffer from {@link #acquire(int)}
+     */
+    public synchronized void release(ByteBuffer buffer) {
+        if (buffer.capacity() >= fBufferSize && fIdle.size() < fMaxIdle) {
+            fIdle.push(buffer);
+        }
+    }
+
+    /**
+     * Read a region of a file into a buffer
+     *
+     * @param channel
+     *            the file
+     * @param buffer
+     *            the buffer, filled from its position to its limit
+     * @param position
+     *            the position of the region in the file, in bytes
+     * @throws IOException
+     *             if the read failed, or the file ends before the region
+     */
+    public static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long filePosition = position;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, filePosition);
+            if (read < 0) {
+                throw new EOFException("End of file at " + filePosition); //$NON-NLS-1$
+            }
+            filePosition += read;
+        }
+    }
+}
@@ -0,0 +1,379 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EfficiOS Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.ctf.core.trace;
+
+import java.nio.ByteOrder;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.eclipse.tracecompass.ctf.core.CTFException;
+import org.eclipse.tracecompass.ctf.core.CTFStrings;
+import org.eclipse.tracecompass.ctf.core.event.io.BitBuffer;
+import org.eclipse.tracecompass.ctf.core.event.types.ArrayDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.EnumDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.FloatDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.IDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.IntegerDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.StructDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.StructDeclarationFlattener;
+import org.eclipse.tracecompass.ctf.core.trace.ICTFPacketDescriptor;
+import org.jetbrains.annotations.Nullable;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Compiled decoder of the trace packet header and stream packet context of a
+ * trace file.
+ * <p>
+ * When both structs are of fixed size (see
+ * {@link StructDeclarationFlattener#isFixedSize(StructDeclaration)}), every
+ * field is at the same offset from the start of each packet. The offsets are
+ * computed once, and the index entry of a packet is built by reading the
+ * fields it needs at those offsets, without creating the {@code Definition}
+ * of the header and context. The result is the same as
+ * {@link StreamInputPacketIndexEntry#StreamInputPacketIndexEntry(long, org.eclipse.tracecompass.ctf.core.event.types.StructDefinition, long, long, long)}.
+ * <p>
+ * The decoder is immutable and can be shared by threads.
+ */
+public final class PacketHeaderDecoder {
+
+    private static final String UUID_FIELD = "uuid"; //$NON-NLS-1$
+    private static final String STREAM_ID_FIELD = "stream_id"; //$NON-NLS-1$
+
+    private static final int KIND_INTEGER = 0;
+    private static final int KIND_ENUM = 1;
+    private static final int KIND_FLOAT = 2;
+
+    // ------------------------------------------------------------------------
+    // Attributes
+    // ------------------------------------------------------------------------
+
+    /**
+     * A field read at a fixed offset from the start of the packet
+     */
+    private static final class Field {
+        private final String fName;
+        private final int fKind;
+        private final IDeclaration fDeclaration;
+        private final long fOffsetBits;
+        private final int fLength;
+        private final boolean fSigned;
+        private final ByteOrder fByteOrder;
+
+        Field(String name, IDeclaration declaration, long offsetBits) {
+            fName = name;
+            fDeclaration = declaration;
+            fOffsetBits = offsetBits;
+            IntegerDeclaration integer = null;
+            if (declaration instanceof EnumDeclaration) {
+                fKind = KIND_ENUM;
+                integer = ((EnumDeclaration) declaration).getContainerType();
+            } else if (declaration instanceof IntegerDeclaration) {
+                fKind = KIND_INTEGER;
+                integer = (IntegerDeclaration) declaration;
+            } else {
+                fKind = KIND_FLOAT;
+            }
+            if (integer != null) {
+                fLength = integer.getLength();
+                fSigned = integer.isSigned();
+                fByteOrder = integer.getByteOrder();
+            } else {
+                fLength = 0;
+                fSigned = false;
+                fByteOrder = ((FloatDeclaration) declaration).getByteOrder();
+            }
+        }
+
+        long readLong(BitBuffer input) throws CTFException {
+            input.position(fOffsetBits);
+            input.setByteOrder(fByteOrder);
+            return input.get(fLength, fSigned);
+        }
+
+        double readDouble(BitBuffer input) throws CTFException {
+            input.position(fOffsetBits);
+            return ((FloatDeclaration) fDeclaration).createDefinition(null, fName, input).getValue();
+        }
+    }
+
+    private final @Nullable Field fMagic;
+    private final long fUuidOffsetBits;
+    private final @Nullable UUID fUuid;
+    private final @Nullable Field fStreamId;
+    private final long fStreamIdValue;
+    private final Field[] fAttributes;
+    private final long fEndBits;
+    private final ByteOrder fByteOrder;
+
+    // ------------------------------------------------------------------------
+    // Constructors
+    // ------------------------------------------------------------------------
+
+    private PacketHeaderDecoder(@Nullable Field magic, long uuidOffsetBits, @Nullable UUID uuid, @Nullable Field streamId,
+            long streamIdValue, List<Field> attributes, long endBits, ByteOrder byteOrder) {
+        fMagic = magic;
+        fUuidOffsetBits = uuidOffsetBits;
+        fUuid = uuid;
+        fStreamId = streamId;
+        fStreamIdValue = streamIdValue;
+        fAttributes = attributes.toArray(new Field[attributes.size()]);
+        fEndBits = endBits;
+        fByteOrder = byteOrder;
+    }
+
+    /**
+     * Compile the decoder of the packet header and context of a trace file
+     *
+     * @param tracePacketHeader
+     *            the trace packet header declaration
+     * @param streamPacketContext
+     *            the stream packet context declaration
+     * @param byteOrder
+     *            the byte order of the trace
+     * @param uuid
+     *            the UUID of the trace, if any
+     * @param streamId
+     *            the id of the stream of the trace file
+     * @return the decoder, or null if the packets must be read with
+     *         definitions
+     */
+    public static @Nullable PacketHeaderDecoder create(StructDeclaration tracePacketHeader, StructDeclaration streamPacketContext,
+            ByteOrder byteOrder, @Nullable UUID uuid, long streamId) {
+        if (!StructDeclarationFlattener.isFixedSize(tracePacketHeader) || !StructDeclarationFlattener.isFixedSize(streamPacketContext)) {
+            return null;
+        }
+        /*
+         * The target of a device field is formatted by its definition, leave
+         * those to the definitions.
+         */
+        if (findField(streamPacketContext, CTFStrings.DEVICE) != null) {
+            return null;
+        }
+
+        List<String> headerFields = ImmutableList.copyOf(tracePacketHeader.getFieldsList());
+        long[] offsets = new long[headerFields.size()];
+        long headerEnd = layout(tracePacketHeader, 0, offsets);
+        if (headerEnd < 0) {
+            return null;
+        }
+        Field magic = null;
+        String magicName = findField(tracePacketHeader, CTFStrings.MAGIC);
+        if (magicName != null) {
+            magic = createIntegerField(tracePacketHeader, magicName, offsets);
+            if (magic == null) {
+                return null;
+            }
+        }
+        long uuidOffset = -1;
+        String uuidName = findField(tracePacketHeader, UUID_FIELD);
+        if (uuidName != null) {
+            IDeclaration declaration = tracePacketHeader.getField(uuidName);
+            if (!(declaration instanceof ArrayDeclaration) || !((ArrayDeclaration) declaration).isAlignedBytes()
+                    || ((ArrayDeclaration) declaration).getLength() < Utils.UUID_LEN
+                    || !((IntegerDeclaration) ((ArrayDeclaration) declaration).getElementType()).isUnsignedByte()) {
+                return null;
+            }
+            uuidOffset = offsets[headerFields.indexOf(uuidName)];
+        }
+        Field streamIdField = null;
+        String streamIdName = findField(tracePacketHeader, STREAM_ID_FIELD);
+        if (streamIdName != null) {
+            streamIdField = createIntegerField(tracePacketHeader, streamIdName, offsets);
+            if (streamIdField == null) {
+                return null;
+            }
+        }
+
+        List<String> contextFields = ImmutableList.copyOf(streamPacketContext.getFieldsList());
+        offsets = new long[contextFields.size()];
+        long end = layout(streamPacketContext, headerEnd, offsets);
+        if (end < 0) {
+            return null;
+        }
+        List<Field> attributes = new ArrayList<>();
+        for (int i = 0; i < contextFields.size(); i++) {
+            String name = contextFields.get(i);
+            IDeclaration declaration = streamPacketContext.getField(name);
+            if (declaration instanceof IntegerDeclaration || declaration instanceof EnumDeclaration || declaration instanceof FloatDeclaration) {
+                attributes.add(new Field(name, declaration, offsets[i]));
+            }
+        }
+        return new PacketHeaderDecoder(magic, uuidOffset, uuid, streamIdField, streamId, attributes, end, byteOrder);
+    }
+
+    /**
+     * Find a field the way {@code StructDefinition#lookupDefinition} does
+     */
+    private static @Nullable String findField(StructDeclaration struct, String name) {
+        if (struct.hasField(name)) {
+            return name;
+        }
+        String underscored = '_' + name;
+        if (struct.hasField(underscored)) {
+            return underscored;
+        }
+        return null;
+    }
+
+    private static @Nullable Field createIntegerField(StructDeclaration struct, String name, long[] offsets) {
+        IDeclaration declaration = struct.getField(name);
+        if (!(declaration instanceof IntegerDeclaration)) {
+            return null;
+        }
+        return new Field(name, declaration, offsets[ImmutableList.copyOf(struct.getFieldsList()).indexOf(name)]);
+    }
+
+    /**
+     * Compute the offsets of the fields of a fixed size struct, reading it
+     * like the declarations do
+     *
+     * @param struct
+     *            the struct
+     * @param position
+     *            the position of the struct, in bits
+     * @param offsets
+     *            the offsets of the top-level fields, filled if not null
+     * @return the position after the struct, or -1 if a field cannot be read
+     */
+    private static long layout(StructDeclaration struct, long position, @Nullable long[] offsets) {
+        long pos = align(position, struct.getAlignment());
+        int i = 0;
+        for (String name : struct.getFieldsList()) {
+            IDeclaration declaration = struct.getField(name);
+            if (declaration == null) {
+                return -1;
+            }
+            if (offsets != null) {
+                offsets[i++] = align(pos, declaration.getAlignment());
+            }
+            pos = layout(declaration, pos);
+            if (pos < 0) {
+                return -1;
+            }
+        }
+        return pos;
+    }
+
+    private static long layout(IDeclaration declaration, long position) {
+        if (declaration instanceof StructDeclaration) {
+            return layout((StructDeclaration) declaration, position, null);
+        }
+        long pos = align(position, declaration.getAlignment());
+        if (declaration instanceof EnumDeclaration) {
+            return layout(((EnumDeclaration) declaration).getContainerType(), pos);
+        }
+        if (declaration instanceof IntegerDeclaration) {
+            int length = ((IntegerDeclaration) declaration).getLength();
+            return length > Long.SIZE ? -1 : pos + length;
+        }
+        if (declaration instanceof FloatDeclaration) {
+            FloatDeclaration floatDeclaration = (FloatDeclaration) declaration;
+            int length = floatDeclaration.getExponent() + floatDeclaration.getMantissa();
+            return (length == Integer.SIZE || length == Long.SIZE) ? pos + length : -1;
+        }
+        if (declaration instanceof ArrayDeclaration) {
+            ArrayDeclaration array = (ArrayDeclaration) declaration;
+            if (array.isAlignedBytes()) {
+                return pos + (long) array.getLength() * Byte.SIZE;
+            }
+            for (int i = 0; i < array.getLength() && pos >= 0; i++) {
+                pos = layout(array.getElementType(), pos);
+            }
+            return pos;
+        }
+        return -1;
+    }
+
+    private static long align(long position, long alignment) {
+        long mask = alignment - 1;
+        return (position + mask) & ~mask;
+    }
+
+    // ------------------------------------------------------------------------
+    // Operations
+    // ------------------------------------------------------------------------
+
+    /**
+     * Get the size of the packet header and context
+     *
+     * @return the number of bytes to read at the start of a packet
+     */
+    public int getSizeBytes() {
+        return (int) ((fEndBits + Byte.SIZE - 1) / Byte.SIZE);
+    }
+
+    /**
+     * Decode the packet header and context of a packet
+     *
+     * @param input
+     *            the start of the packet, at least {@link #getSizeBytes()}
+     *            long
+     * @param dataOffsetBits
+     *            the offset of the packet in the file, in bits
+     * @param fileSizeBytes
+     *            the size of the file
+     * @param lostSoFar
+     *            the number of events lost in the previous packets
+     * @return the index entry of the packet, or null if it must be read with
+     *         definitions
+     * @throws CTFException
+     *             if the packet header does not belong to this trace file
+     */
+    public @Nullable ICTFPacketDescriptor decode(BitBuffer input, long dataOffsetBits, long fileSizeBytes, long lostSoFar) throws CTFException {
+        Field magicField = fMagic;
+        if (magicField != null) {
+            int magic = (int) magicField.readLong(input);
+            if (magic != Utils.CTF_MAGIC) {
+                throw new CTFException(
+                        "CTF magic mismatch " + Integer.toHexString(magic) + " vs " + Integer.toHexString(Utils.CTF_MAGIC)); //$NON-NLS-1$//$NON-NLS-2$
+            }
+        }
+        if (fUuidOffsetBits >= 0) {
+            byte[] bytes = new byte[Utils.UUID_LEN];
+            input.position(fUuidOffsetBits);
+            input.get(bytes);
+            if (!Utils.makeUUID(bytes).equals(fUuid)) {
+                throw new CTFException("UUID mismatch"); //$NON-NLS-1$
+            }
+        }
+        Field streamIdField = fStreamId;
+        if (streamIdField != null && streamIdField.readLong(input) != fStreamIdValue) {
+            throw new CTFException("Stream ID changing within a StreamInput"); //$NON-NLS-1$
+        }
+
+        ImmutableMap.Builder<String, Object> attributes = ImmutableMap.builder();
+        for (Field field : fAttributes) {
+            switch (field.fKind) {
+            case KIND_INTEGER:
+                attributes.put(field.fName, field.readLong(input));
+                break;
+            case KIND_ENUM:
+                long value = field.readLong(input);
+                String label = ((EnumDeclaration) field.fDeclaration).query(value);
+                if (label == null) {
+                    return null;
+                }
+                attributes.put(field.fName, new AbstractMap.SimpleImmutableEntry<>(label, value));
+                break;
+            default:
+                attributes.put(field.fName, field.readDouble(input));
+                break;
+            }
+        }
+        input.setByteOrder(fByteOrder);
+        Map<String, Object> map = attributes.build();
+        return new StreamInputPacketIndexEntry(dataOffsetBits, map, fileSizeBytes, lostSoFar, fEndBits);
+    }
+}
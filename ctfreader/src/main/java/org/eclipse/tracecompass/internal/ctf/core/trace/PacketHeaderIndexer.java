@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EfficiOS Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.ctf.core.trace;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+import org.eclipse.tracecompass.ctf.core.CTFException;
+import org.eclipse.tracecompass.ctf.core.event.io.BitBuffer;
+import org.eclipse.tracecompass.ctf.core.trace.ICTFPacketDescriptor;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Reads the packet headers of a trace file to index it. The file is opened
+ * once for all the packets, and the headers are read into the same buffer and
+ * decoded by a {@link PacketHeaderDecoder}, instead of mapping each packet and
+ * decoding its header with definitions.
+ * <p>
+ * Not thread-safe, an indexer is used by one thread and then closed.
+ */
+public final class PacketHeaderIndexer implements Closeable {
+
+    // ------------------------------------------------------------------------
+    // Attributes
+    // ------------------------------------------------------------------------
+
+    private final FileChannel fChannel;
+    private final @Nullable PacketHeaderDecoder fDecoder;
+    private final ByteBuffer fBuffer;
+    private final BitBuffer fBitBuffer;
+
+    // ------------------------------------------------------------------------
+    // Constructors
+    // ------------------------------------------------------------------------
+
+    /**
+     * Constructor, opens the trace file
+     *
+     * @param file
+     *            the trace file
+     * @param decoder
+     *            the decoder of the packet headers of the file, null if they
+     *            must be read with definitions
+     * @throws IOException
+     *             if the file cannot be opened
+     */
+    public PacketHeaderIndexer(File file, @Nullable PacketHeaderDecoder decoder) throws IOException {
+        fChannel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        fDecoder = decoder;
+        fBuffer = ByteBuffer.allocate(decoder != null ? decoder.getSizeBytes() : 0);
+        fBitBuffer = new BitBuffer(fBuffer);
+    }
+
+    // ------------------------------------------------------------------------
+    // Operations
+    // ------------------------------------------------------------------------
+
+    /**
+     * Get the channel of the trace file
+     *
+     * @return the channel, to read the packets the decoder cannot
+     */
+    public FileChannel getChannel() {
+        return fChannel;
+    }
+
+    /**
+     * Get the current size of the trace file
+     *
+     * @return the size, in bytes
+     * @throws IOException
+     *             if the size cannot be read
+     */
+    public long size() throws IOException {
+        return fChannel.size();
+    }
+
+    /**
+     * Read the index entry of a packet
+     *
+     * @param dataOffsetBits
+     *            the offset of the packet in the file, in bits
+     * @param fileSizeBytes
+     *            the size of the file
+     * @param lostSoFar
+     *            the number of events lost in the previous packets
+     * @return the index entry, or null if the packet header must be read with
+     *         definitions
+     * @throws CTFException
+     *             if the packet header is truncated or does not belong to the
+     *             trace file
+     * @throws IOException
+     *             if the file cannot be read
+     */
+    public @Nullable ICTFPacketDescriptor read(long dataOffsetBits, long fileSizeBytes, long lostSoFar) throws CTFException, IOException {
+        PacketHeaderDecoder decoder = fDecoder;
+        if (decoder == null) {
+            return null;
+        }
+        fBuffer.clear();
+        long position = dataOffsetBits / Byte.SIZE;
+        while (fBuffer.hasRemaining()) {
+            int read = fChannel.read(fBuffer, position + fBuffer.position());
+            if (read < 0) {
+                throw new CTFException("Not enough data remaining in the file for the packet header"); //$NON-NLS-1$
+            }
+        }
+        return decoder.decode(fBitBuffer, dataOffsetBits, fileSizeBytes, lostSoFar);
+    }
+
+    @Override
+    public void close() throws IOException {
+        fChannel.close();
+    }
+}
@@ -0,0 +1,237 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EfficiOS Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.ctf.core.trace;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.logging.Logger;
+
+import org.eclipse.tracecompass.ctf.core.trace.ICTFPacketDescriptor;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Read-ahead of the next packets of a trace file, so their data is in memory
+ * when the reader gets to them instead of faulting it in on the reader
+ * thread.
+ * <p>
+ * When the reader moves to a packet, the next packets of the index are loaded
+ * on an I/O executor, up to the current depth. The depth adapts to the
+ * consumption rate: it doubles when the reader reaches a packet that is not
+ * loaded yet, and shrinks by one when the farthest packet is already loaded
+ * as the reader moves on, up to the maximum depth.
+ * <p>
+ * The read-ahead is driven by the thread decoding the trace file, it is not
+ * thread-safe.
+ */
+public final class PacketReadAhead {
+
+    private static final Logger LOGGER = Logger.getLogger(PacketReadAhead.class.getName());
+
+    /**
+     * Brings packets in memory
+     */
+    public interface IPacketLoader {
+        /**
+         * Load a packet, on an I/O thread
+         *
+         * @param packet
+         *            the packet
+         * @return a buffer holding the content of the packet, or null if the
+         *         packet is only made resident and has to be read as usual
+         * @throws IOException
+         *             if the packet cannot be read
+         */
+        @Nullable ByteBuffer load(ICTFPacketDescriptor packet) throws IOException;
+
+        /**
+         * Give back the buffer of a packet that was loaded and not used
+         *
+         * @param buffer
+         *            the buffer returned by {@link #load}
+         */
+        void release(ByteBuffer buffer);
+    }
+
+    /**
+     * A packet being loaded
+     */
+    private final class Request {
+        private final int fPacket;
+        private final FutureTask<Void> fTask;
+        private @Nullable ByteBuffer fBuffer = null;
+        private boolean fDropped = false;
+
+        Request(int packet, ICTFPacketDescriptor descriptor) {
+            fPacket = packet;
+            fTask = new FutureTask<>(() -> {
+                ByteBuffer buffer = fLoader.load(descriptor);
+                if (buffer != null) {
+                    synchronized (this) {
+                        if (fDropped) {
+                            fLoader.release(buffer);
+                        } else {
+                            fBuffer = buffer;
+                        }
+                    }
+                }
+                return null;
+            });
+        }
+
+        /**
+         * Take the buffer out of the request, or release it
+         */
+        synchronized @Nullable ByteBuffer drop(boolean take) {
+            fDropped = true;
+            ByteBuffer buffer = fBuffer;
+            fBuffer = null;
+            if (buffer != null && !take) {
+                fLoader.release(buffer);
+                return null;
+            }
+            return buffer;
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // Attributes
+    // ------------------------------------------------------------------------
+
+    private final Executor fExecutor;
+    private final IPacketLoader fLoader;
+    private final int fMaxDepth;
+    private int fDepth = 1;
+
+    /**
+     * The packets being loaded, in index order
+     */
+    private final Deque<Request> fRequests = new ArrayDeque<>();
+
+    // ------------------------------------------------------------------------
+    // Constructors
+    // ------------------------------------------------------------------------
+
+    /**
+     * Constructor
+     *
+     * @param executor
+     *            the executor running the loads
+     * @param loader
+     *            the loader of the packets
+     * @param maxDepth
+     *            the maximum number of packets loaded ahead
+     */
+    public PacketReadAhead(Executor executor, IPacketLoader loader, int maxDepth) {
+        if (maxDepth <= 0) {
+            throw new IllegalArgumentException("Read-ahead depth must be positive: " + maxDepth); //$NON-NLS-1$
+        }
+        fExecutor = executor;
+        fLoader = loader;
+        fMaxDepth = maxDepth;
+    }
+
+    // ------------------------------------------------------------------------
+    // Operations
+    // ------------------------------------------------------------------------
+
+    /**
+     * Get the current number of packets loaded ahead
+     *
+     * @return the depth
+     */
+    public int getDepth() {
+        return fDepth;
+    }
+
+    /**
+     * The reader moves to a packet: get its loaded buffer and load the next
+     * packets
+     *
+     * @param packet
+     *            the index of the packet
+     * @param index
+     *            the packet index of the trace file
+     * @return the buffer holding the packet, or null if it has to be read as
+     *         usual
+     */
+    public @Nullable ByteBuffer moveTo(int packet, StreamInputPacketIndex index) {
+        /* Drop the packets skipped by a seek */
+        Request first = fRequests.peekFirst();
+        while (first != null && first.fPacket < packet) {
+            fRequests.removeFirst().drop(false);
+            first = fRequests.peekFirst();
+        }
+        ByteBuffer buffer = null;
+        if (first != null && first.fPacket == packet) {
+            fRequests.removeFirst();
+            buffer = take(first);
+        } else if (first != null) {
+            /* Seeked backwards */
+            clear();
+        }
+        int next = fRequests.isEmpty() ? packet + 1 : fRequests.peekLast().fPacket + 1;
+        int size = index.size();
+        for (; next <= packet + fDepth && next < size; next++) {
+            Request request = new Request(next, index.getElement(next));
+            try {
+                fExecutor.execute(request.fTask);
+            } catch (RejectedExecutionException e) {
+                /* Shutting down, the reader loads the packet itself */
+                break;
+            }
+            fRequests.addLast(request);
+        }
+        return buffer;
+    }
+
+    /**
+     * Drop the packets being loaded
+     */
+    public void clear() {
+        for (Request request : fRequests) {
+            request.fTask.cancel(false);
+            request.drop(false);
+        }
+        fRequests.clear();
+    }
+
+    private @Nullable ByteBuffer take(Request request) {
+        if (request.fTask.isDone()) {
+            Request last = fRequests.peekLast();
+            if (last != null && last.fTask.isDone() && fDepth > 1) {
+                /* Loading is far ahead of the reader */
+                fDepth--;
+            }
+        } else {
+            /* The reader caught up with the loading */
+            fDepth = Math.min(fDepth * 2, fMaxDepth);
+            /* Load it here if no I/O thread picked it up yet */
+            request.fTask.run();
+        }
+        try {
+            request.fTask.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            request.drop(false);
+            return null;
+        } catch (ExecutionException e) {
+            LOGGER.fine(() -> "Packet read-ahead failed: " + e.getCause()); //$NON-NLS-1$
+            request.drop(false);
+            return null;
+        }
+        return request.drop(true);
+    }
+}
@@ -16,8 +16,10 @@ package org.eclipse.tracecompass.internal.ctf.core.trace;
 
 import org.eclipse.tracecompass.ctf.core.trace.ICTFPacketDescriptor;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import com.google.common.collect.ImmutableMap;
 
-import java.io.Serializable;
 import java.util.*;
 import java.util.logging.Logger;
 
@@ -27,21 +29,79 @@ import static java.util.Objects.requireNonNull;
  * <b><u>StreamInputPacketIndex</u></b>
  * <p>
  * This is a data structure containing entries, you may append to this and read
- * it. It is not thread safe.
+ * it.
+ * <p>
+ * The entries are not kept as objects: their fields are stored in parallel
+ * primitive columns, and the packet context attributes in one column per
+ * attribute name. The descriptors returned by {@link #getElement(int)} are
+ * views created on demand, whose attribute map is only built if it is asked
+ * for.
  */
 public class StreamInputPacketIndex {
 
     private static final Logger LOGGER = Logger.getLogger(StreamInputPacketIndex.class.getName());
 
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** Estimated size of an object header, in bytes */
+    private static final long OBJECT_HEADER_BYTES = 16;
+
+    /** Estimated size of a reference, in bytes */
+    private static final long REFERENCE_BYTES = 8;
+
     // ------------------------------------------------------------------------
     // Attributes
     // ------------------------------------------------------------------------
 
     /**
-     * Entries of the index. They are sorted by increasing begin timestamp.
-     * index builder.
+     * Number of entries of the index. They are sorted by increasing begin
+     * timestamp.
+     */
+    private int fSize = 0;
+
+    private long[] fOffsetBits = new long[INITIAL_CAPACITY];
+    private long[] fPacketSizeBits = new long[INITIAL_CAPACITY];
+    private long[] fContentSizeBits = new long[INITIAL_CAPACITY];
+    private long[] fPayloadStartBits = new long[INITIAL_CAPACITY];
+    private long[] fTimestampBegin = new long[INITIAL_CAPACITY];
+    private long[] fTimestampEnd = new long[INITIAL_CAPACITY];
+    private long[] fLostEvents = new long[INITIAL_CAPACITY];
+    private long[] fTargetId = new long[INITIAL_CAPACITY];
+
+    /**
+     * Index of the target of each entry in {@link #fTargets}, -1 for none
      */
-    private final List<ICTFPacketDescriptor> fEntries = new ArrayList<>();
+    private int[] fTargetRefs = new int[INITIAL_CAPACITY];
+
+    /**
+     * The distinct targets, usually one per trace file
+     */
+    private final List<String> fTargets = new ArrayList<>();
+    private final Map<String, Integer> fTargetIndexes = new HashMap<>();
+
+    /**
+     * Names of the attributes stored in columns, in the order of the attribute
+     * maps. All the packets of a trace file have the same packet context, so
+     * their attributes have the same names. Null until the first entry with
+     * attributes is added.
+     */
+    private @Nullable String[] fAttributeNames = null;
+
+    /**
+     * Attribute columns holding only longs, null for the others
+     */
+    private @Nullable long[][] fLongAttributes = null;
+
+    /**
+     * Attribute columns holding other values, null for the long ones
+     */
+    private @Nullable Object[][] fObjectAttributes = null;
+
+    /**
+     * Attribute maps of the entries whose attribute names differ from
+     * {@link #fAttributeNames}, by entry position
+     */
+    private final Map<Integer, Map<String, Object>> fOtherAttributes = new HashMap<>();
 
     // ------------------------------------------------------------------------
     // Operations
@@ -54,8 +114,8 @@ public class StreamInputPacketIndex {
      *
      * @return the number of elements in this data structure
      */
-    public int size() {
-        return fEntries.size();
+    public synchronized int size() {
+        return fSize;
     }
 
     /**
@@ -63,8 +123,8 @@ public class StreamInputPacketIndex {
      *
      * @return {@code true} if this data structure contains no elements
      */
-    public boolean isEmpty() {
-        return fEntries.isEmpty();
+    public synchronized boolean isEmpty() {
+        return fSize == 0;
     }
 
     /**
@@ -73,7 +133,8 @@ public class StreamInputPacketIndex {
      * @param preParsedIndex
      *            the pre-parsed index file
      */
-    public void appendAll(Collection<ICTFPacketDescriptor> preParsedIndex) {
+    public synchronized void appendAll(Collection<ICTFPacketDescriptor> preParsedIndex) {
+        ensureCapacity(fSize + preParsedIndex.size());
         for (ICTFPacketDescriptor sipie : preParsedIndex) {
             append(requireNonNull(sipie));
         }
@@ -87,26 +148,151 @@ public class StreamInputPacketIndex {
      * @return {@code true} (as specified by {@link Collection#add})
      */
     public synchronized boolean append(@NotNull ICTFPacketDescriptor entry) {
-        ICTFPacketDescriptor entryToAdd = entry;
+        long timestampEnd = entry.getTimestampEnd();
         /* Validate consistent entry. */
-        if (entryToAdd.getTimestampBegin() > entryToAdd.getTimestampEnd()) {
+        if (entry.getTimestampBegin() > timestampEnd) {
             LOGGER.warning(() -> "Packet at offset " + entry.getOffsetBytes() + //$NON-NLS-1$
                           " begin timestamp is after end timestamp"); //$NON-NLS-1$
-            entryToAdd = new StreamInputPacketIndexEntry(entryToAdd, Long.MAX_VALUE);
+            timestampEnd = Long.MAX_VALUE;
         }
 
         /*
          * Validate entries are inserted in monotonic increasing timestamp
          * order.
          */
-        if (!fEntries.isEmpty() && (entryToAdd.getTimestampBegin() < lastElement().getTimestampBegin())) {
+        if (fSize > 0 && (entry.getTimestampBegin() < fTimestampBegin[fSize - 1])) {
             return false;
         }
 
-        fEntries.add(entryToAdd);
+        ensureCapacity(fSize + 1);
+        int i = fSize;
+        fOffsetBits[i] = entry.getOffsetBits();
+        fPacketSizeBits[i] = entry.getPacketSizeBits();
+        fContentSizeBits[i] = entry.getContentSizeBits();
+        fPayloadStartBits[i] = entry.getPayloadStartBits();
+        fTimestampBegin[i] = entry.getTimestampBegin();
+        fTimestampEnd[i] = timestampEnd;
+        fLostEvents[i] = entry.getLostEvents();
+        fTargetId[i] = entry.getTargetId();
+        fTargetRefs[i] = getTargetRef(entry.getTarget());
+        storeAttributes(i, entry.getAttributes());
+        fSize++;
+        return true;
+    }
+
+    private int getTargetRef(@Nullable String target) {
+        if (target == null) {
+            return -1;
+        }
+        Integer ref = fTargetIndexes.get(target);
+        if (ref == null) {
+            ref = fTargets.size();
+            fTargets.add(target);
+            fTargetIndexes.put(target, ref);
+        }
+        return ref;
+    }
+
+    private void storeAttributes(int position, Map<String, Object> attributes) {
+        String[] names = fAttributeNames;
+        if (names == null && !attributes.isEmpty()) {
+            names = attributes.keySet().toArray(new String[attributes.size()]);
+            fAttributeNames = names;
+            fLongAttributes = new long[names.length][];
+            fObjectAttributes = new Object[names.length][];
+            for (int column = 0; column < names.length; column++) {
+                requireNonNull(fLongAttributes)[column] = new long[fOffsetBits.length];
+            }
+        }
+        if (names == null || !hasAttributeNames(attributes, names)) {
+            fOtherAttributes.put(position, attributes);
+            return;
+        }
+        long[][] longColumns = requireNonNull(fLongAttributes);
+        Object[][] objectColumns = requireNonNull(fObjectAttributes);
+        int column = 0;
+        for (Object value : attributes.values()) {
+            long[] longColumn = longColumns[column];
+            if (longColumn != null && value instanceof Long) {
+                longColumn[position] = (Long) value;
+            } else {
+                if (longColumn != null) {
+                    /* First value that is not a long, box the column */
+                    Object[] objectColumn = new Object[longColumn.length];
+                    for (int i = 0; i < position; i++) {
+                        objectColumn[i] = longColumn[i];
+                    }
+                    longColumns[column] = null;
+                    objectColumns[column] = objectColumn;
+                }
+                requireNonNull(objectColumns[column])[position] = value;
+            }
+            column++;
+        }
+    }
+
+    private static boolean hasAttributeNames(Map<String, Object> attributes, String[] names) {
+        if (attributes.size() != names.length) {
+            return false;
+        }
+        int column = 0;
+        for (String name : attributes.keySet()) {
+            if (!names[column].equals(name)) {
+                return false;
+            }
+            column++;
+        }
         return true;
     }
 
+    private synchronized Map<String, Object> getAttributes(int position) {
+        Map<String, Object> attributes = fOtherAttributes.get(position);
+        if (attributes != null) {
+            return attributes;
+        }
+        String[] names = requireNonNull(fAttributeNames);
+        long[][] longColumns = requireNonNull(fLongAttributes);
+        Object[][] objectColumns = requireNonNull(fObjectAttributes);
+        ImmutableMap.Builder<String, Object> builder = ImmutableMap.builder();
+        for (int column = 0; column < names.length; column++) {
+            long[] longColumn = longColumns[column];
+            if (longColumn != null) {
+                builder.put(names[column], longColumn[position]);
+            } else {
+                builder.put(names[column], requireNonNull(requireNonNull(objectColumns[column])[position]));
+            }
+        }
+        return builder.build();
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= fOffsetBits.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, fOffsetBits.length * 2);
+        fOffsetBits = Arrays.copyOf(fOffsetBits, newCapacity);
+        fPacketSizeBits = Arrays.copyOf(fPacketSizeBits, newCapacity);
+        fContentSizeBits = Arrays.copyOf(fContentSizeBits, newCapacity);
+        fPayloadStartBits = Arrays.copyOf(fPayloadStartBits, newCapacity);
+        fTimestampBegin = Arrays.copyOf(fTimestampBegin, newCapacity);
+        fTimestampEnd = Arrays.copyOf(fTimestampEnd, newCapacity);
+        fLostEvents = Arrays.copyOf(fLostEvents, newCapacity);
+        fTargetId = Arrays.copyOf(fTargetId, newCapacity);
+        fTargetRefs = Arrays.copyOf(fTargetRefs, newCapacity);
+        long[][] longColumns = fLongAttributes;
+        Object[][] objectColumns = fObjectAttributes;
+        if (longColumns != null && objectColumns != null) {
+            for (int column = 0; column < longColumns.length; column++) {
+                long[] longColumn = longColumns[column];
+                if (longColumn != null) {
+                    longColumns[column] = Arrays.copyOf(longColumn, newCapacity);
+                } else {
+                    objectColumns[column] = Arrays.copyOf(requireNonNull(objectColumns[column]), newCapacity);
+                }
+            }
+        }
+    }
+
     /**
      * Returns the first packet that could include the timestamp, that is the
      * last packet with a begin timestamp smaller than the given timestamp.
@@ -115,19 +301,26 @@ public class StreamInputPacketIndex {
      *            The timestamp to look for.
      * @return The index of the desired packet
      */
-    public int search(final long timestamp) {
+    public synchronized int search(final long timestamp) {
         /*
-         * Search using binary search.
-         *
-         * As the entries in fEntries are IndexEntries, the key to search for
-         * needs to be one too. We are looking for a timestamp though, so we use
-         * the dataOffset which is a long and use it as a timestamp holder.
+         * Binary search on the timestamp columns. A packet that includes the
+         * timestamp is a match, otherwise the begin timestamps tell on which
+         * side to look.
          */
-        int index = Collections.binarySearch(fEntries, new StreamInputPacketIndexEntry(timestamp, 0), new FindTimestamp());
-        if (index < 0) {
-            index = -index - 1;
+        int low = 0;
+        int high = fSize - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (timestamp >= fTimestampBegin[mid] && timestamp <= fTimestampEnd[mid]) {
+                return mid;
+            }
+            if (fTimestampBegin[mid] < timestamp) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
         }
-        return index;
+        return low;
     }
 
     /**
@@ -135,8 +328,8 @@ public class StreamInputPacketIndex {
      *
      * @return the last element in the index
      */
-    public ICTFPacketDescriptor lastElement() {
-        return fEntries.get(fEntries.size() - 1);
+    public synchronized ICTFPacketDescriptor lastElement() {
+        return getElement(fSize - 1);
     }
 
     /**
@@ -149,8 +342,14 @@ public class StreamInputPacketIndex {
      *             if the index is out of range (
      *             {@code index < 0 || index >= size()})
      */
-    public ICTFPacketDescriptor getElement(int index) {
-        return fEntries.get(index);
+    public synchronized ICTFPacketDescriptor getElement(int index) {
+        if (index < 0 || index >= fSize) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + fSize); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        int targetRef = fTargetRefs[index];
+        return new PacketDescriptor(this, index, fOffsetBits[index], fPacketSizeBits[index], fContentSizeBits[index],
+                fPayloadStartBits[index], fTimestampBegin[index], fTimestampEnd[index], fLostEvents[index],
+                (targetRef < 0) ? null : fTargets.get(targetRef), fTargetId[index]);
     }
 
     /**
@@ -176,71 +375,166 @@ public class StreamInputPacketIndex {
      *             not permit null elements (
      *             <a href="Collection.html#optional-restrictions">optional</a>)
      */
-    public int indexOf(ICTFPacketDescriptor element) {
-        int indexOf = -1;
-        if (element != null) {
-            indexOf = Collections.binarySearch(fEntries, element, new MonotonicComparator());
+    public synchronized int indexOf(ICTFPacketDescriptor element) {
+        if (element == null) {
+            return -1;
         }
-        return (indexOf < 0) ? -1 : indexOf;
+        /* Binary search ordered by begin, then end timestamp */
+        long begin = element.getTimestampBegin();
+        long end = element.getTimestampEnd();
+        int low = 0;
+        int high = fSize - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = Long.compare(fTimestampBegin[mid], begin);
+            if (cmp == 0) {
+                cmp = Long.compare(fTimestampEnd[mid], end);
+            }
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
     }
 
     /**
-     * Ordering comparator for entering entries into a data structure sorted by
-     * timestamp.
+     * Get the estimated heap size of the index, to monitor the cost of
+     * indexing large traces
+     *
+     * @return the estimated size, in bytes
      */
-    private static class MonotonicComparator implements Comparator<ICTFPacketDescriptor>, Serializable {
-        /**
-         * For {@link Serializable}, that way if we migrate to a {@link TreeSet}
-         * the comparator is serializable too.
-         */
-        private static final long serialVersionUID = -5693064068367242076L;
-
-        @Override
-        public int compare(ICTFPacketDescriptor left, ICTFPacketDescriptor right) {
-            if (left.getTimestampBegin() > right.getTimestampBegin()) {
-                return 1;
-            }
-            if (left.getTimestampBegin() < right.getTimestampBegin()) {
-                return -1;
-            }
-            if (left.getTimestampEnd() > right.getTimestampEnd()) {
-                return 1;
-            }
-            if (left.getTimestampEnd() < right.getTimestampEnd()) {
-                return -1;
+    public synchronized long getMemoryFootprint() {
+        int capacity = fOffsetBits.length;
+        /* Eight long columns and the target references */
+        long bytes = 8 * (OBJECT_HEADER_BYTES + (long) capacity * Long.BYTES) + OBJECT_HEADER_BYTES + (long) capacity * Integer.BYTES;
+        for (String target : fTargets) {
+            bytes += 2 * REFERENCE_BYTES + OBJECT_HEADER_BYTES + (long) target.length() * Character.BYTES;
+        }
+        long[][] longColumns = fLongAttributes;
+        Object[][] objectColumns = fObjectAttributes;
+        if (longColumns != null && objectColumns != null) {
+            for (int column = 0; column < longColumns.length; column++) {
+                if (longColumns[column] != null) {
+                    bytes += OBJECT_HEADER_BYTES + (long) capacity * Long.BYTES;
+                } else {
+                    /* Boxed or shared values, count the references only */
+                    bytes += OBJECT_HEADER_BYTES + capacity * REFERENCE_BYTES;
+                }
             }
-            return 0;
         }
+        /* The maps of the odd entries are shared with their descriptors */
+        bytes += fOtherAttributes.size() * (OBJECT_HEADER_BYTES + 3 * REFERENCE_BYTES);
+        return bytes;
     }
 
     /**
-     * Used for search, assumes that the second argument in the comparison is
-     * always the key
+     * Descriptor of a packet of the index, its attributes are read from the
+     * index columns when they are first asked for
      */
-    private static class FindTimestamp implements Comparator<ICTFPacketDescriptor>, Serializable {
+    private static final class PacketDescriptor implements ICTFPacketDescriptor {
 
-        /**
-         * UID
-         */
-        private static final long serialVersionUID = 7235997205945550341L;
+        private final StreamInputPacketIndex fIndex;
+        private final int fPosition;
+        private final long fOffsetBits;
+        private final long fPacketSizeBits;
+        private final long fContentSizeBits;
+        private final long fPayloadStartBits;
+        private final long fTimestampBegin;
+        private final long fTimestampEnd;
+        private final long fLostEvents;
+        private final @Nullable String fTarget;
+        private final long fTargetId;
+        private @Nullable Map<String, Object> fAttributes = null;
+
+        PacketDescriptor(StreamInputPacketIndex index, int position, long offsetBits, long packetSizeBits, long contentSizeBits,
+                long payloadStartBits, long timestampBegin, long timestampEnd, long lostEvents, @Nullable String target, long targetId) {
+            fIndex = index;
+            fPosition = position;
+            fOffsetBits = offsetBits;
+            fPacketSizeBits = packetSizeBits;
+            fContentSizeBits = contentSizeBits;
+            fPayloadStartBits = payloadStartBits;
+            fTimestampBegin = timestampBegin;
+            fTimestampEnd = timestampEnd;
+            fLostEvents = lostEvents;
+            fTarget = target;
+            fTargetId = targetId;
+        }
 
         @Override
-        public int compare(ICTFPacketDescriptor value, ICTFPacketDescriptor key) {
-            /*
-             * It is assumed that the second packet descriptor is the key, a
-             * wrapped timestamp in a PacketDescriptor. So we need to extract
-             * the timestamp. Then we have 3 choices, the if the timestamp is in
-             * the interval, we return 0 or found. If the timestamp is before or
-             * after, we just need to compare it to a value in the segment (like
-             * start) to know if it is greater or lesser to the current packet.
-             */
-            long ts = key.getOffsetBits();
-            if (value.includes(ts)) {
-                return 0;
+        public boolean includes(long ts) {
+            return (ts >= fTimestampBegin) && (ts <= fTimestampEnd);
+        }
+
+        @Override
+        public long getOffsetBits() {
+            return fOffsetBits;
+        }
+
+        @Override
+        public long getPacketSizeBits() {
+            return fPacketSizeBits;
+        }
+
+        @Override
+        public long getContentSizeBits() {
+            return fContentSizeBits;
+        }
+
+        @Override
+        public long getTimestampBegin() {
+            return fTimestampBegin;
+        }
+
+        @Override
+        public long getTimestampEnd() {
+            return fTimestampEnd;
+        }
+
+        @Override
+        public long getLostEvents() {
+            return fLostEvents;
+        }
+
+        @Override
+        public Map<String, Object> getAttributes() {
+            Map<String, Object> attributes = fAttributes;
+            if (attributes == null) {
+                attributes = fIndex.getAttributes(fPosition);
+                fAttributes = attributes;
             }
-            return Long.compare(value.getTimestampBegin(), ts);
+            return attributes;
         }
 
-    }
+        @Override
+        public String getTarget() {
+            return fTarget;
+        }
+
+        @Override
+        public long getTargetId() {
+            return fTargetId;
+        }
+
+        @Override
+        public long getOffsetBytes() {
+            return fOffsetBits / Byte.SIZE;
+        }
 
+        @Override
+        public long getPayloadStartBits() {
+            return fPayloadStartBits;
+        }
+
+        @Override
+        public String toString() {
+            return "PacketDescriptor [offsetBits=" + fOffsetBits //$NON-NLS-1$
+                    + ", timestampBegin=" + fTimestampBegin + ", timestampEnd=" //$NON-NLS-1$ //$NON-NLS-2$
+                    + fTimestampEnd + "]"; //$NON-NLS-1$
+        }
+    }
 }
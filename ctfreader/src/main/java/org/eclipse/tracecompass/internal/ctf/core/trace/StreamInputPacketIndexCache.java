@@ -0,0 +1,333 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EfficiOS Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.ctf.core.trace;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import org.eclipse.tracecompass.ctf.core.trace.ICTFPacketDescriptor;
+import org.jetbrains.annotations.Nullable;
+
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Binary cache of the packet index of a trace file, so reopening a trace does
+ * not read all the packet headers again.
+ * <p>
+ * Caching is disabled by default, it is enabled by setting the
+ * {@value #ENABLED_PROPERTY} system property to true. The cache files are
+ * saved in the directory set by the {@value #DIRECTORY_PROPERTY} system
+ * property, by default the {@code tracecompass/ctfindex} directory of the
+ * user cache directory ({@code $XDG_CACHE_HOME}, or {@code ~/.cache}). Nothing
+ * is written in the trace directory. Each trace directory has its own
+ * subdirectory, named after a hash of its path, holding the cache files of its
+ * trace files.
+ * <p>
+ * The cache of a trace file is valid if its path, the trace UUID and stream id
+ * match, and the trace file has the same size and modification time, or has
+ * grown. CTF trace files are only appended to, so the cached packets of a
+ * grown file are still valid and the index is extended from the last one.
+ */
+public final class StreamInputPacketIndexCache {
+
+    private static final Logger LOGGER = Logger.getLogger(StreamInputPacketIndexCache.class.getName());
+
+    /**
+     * Suffix of the cache files
+     */
+    public static final String CACHE_SUFFIX = ".pidx"; //$NON-NLS-1$
+
+    /**
+     * System property to enable the cache
+     */
+    public static final String ENABLED_PROPERTY = "org.eclipse.tracecompass.ctf.core.indexcache"; //$NON-NLS-1$
+
+    /**
+     * System property to set the directory of the cache files
+     */
+    public static final String DIRECTORY_PROPERTY = "org.eclipse.tracecompass.ctf.core.indexcache.dir"; //$NON-NLS-1$
+
+    /** "CTFI" */
+    private static final int MAGIC = 0x43544649;
+    private static final int VERSION = 2;
+
+    private static final byte TYPE_LONG = 0;
+    private static final byte TYPE_DOUBLE = 1;
+    private static final byte TYPE_STRING = 2;
+    private static final byte TYPE_ENUM = 3;
+
+    private StreamInputPacketIndexCache() {
+    }
+
+    /**
+     * Is the cache enabled
+     *
+     * @return true if enabled by the {@value #ENABLED_PROPERTY} system
+     *         property
+     */
+    public static boolean isEnabled() {
+        return Boolean.getBoolean(ENABLED_PROPERTY);
+    }
+
+    /**
+     * Get the directory of the cache files
+     *
+     * @return the directory set by the {@value #DIRECTORY_PROPERTY} system
+     *         property, or the default one in the user cache directory
+     */
+    public static File getCacheDirectory() {
+        String directory = System.getProperty(DIRECTORY_PROPERTY);
+        if (directory != null && !directory.isEmpty()) {
+            return new File(directory);
+        }
+        String cacheHome = System.getenv("XDG_CACHE_HOME"); //$NON-NLS-1$
+        File base = (cacheHome != null && !cacheHome.isEmpty()) ? new File(cacheHome) : new File(System.getProperty("user.home"), ".cache"); //$NON-NLS-1$ //$NON-NLS-2$
+        return new File(new File(base, "tracecompass"), "ctfindex"); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    /**
+     * Get the cache file of a trace file, in the cache directory
+     *
+     * @param streamFile
+     *            the trace file
+     * @return the cache file, which may not exist
+     */
+    public static File getCacheFile(File streamFile) {
+        return getCacheFile(getCacheDirectory(), streamFile);
+    }
+
+    /**
+     * Get the cache file of a trace file
+     *
+     * @param cacheDirectory
+     *            the directory of the cache files
+     * @param streamFile
+     *            the trace file
+     * @return the cache file, which may not exist
+     */
+    public static File getCacheFile(File cacheDirectory, File streamFile) {
+        File traceDirectory = streamFile.getAbsoluteFile().getParentFile();
+        String key = UUID.nameUUIDFromBytes(String.valueOf(traceDirectory).getBytes(StandardCharsets.UTF_8)).toString();
+        return new File(new File(cacheDirectory, key), streamFile.getName() + CACHE_SUFFIX);
+    }
+
+    /**
+     * Load the cached index of a trace file
+     *
+     * @param cacheFile
+     *            the cache file
+     * @param streamFile
+     *            the trace file
+     * @param uuid
+     *            the trace UUID, if any
+     * @param streamId
+     *            the id of the stream of the trace file
+     * @return the cached entries, in file order, or null if there is no valid
+     *         cache. If the trace file has grown, the last entries may have
+     *         to be checked by the caller.
+     */
+    public static @Nullable List<ICTFPacketDescriptor> load(File cacheFile, File streamFile, @Nullable UUID uuid, long streamId) {
+        if (!cacheFile.isFile()) {
+            return null;
+        }
+        long fileSize = streamFile.length();
+        long lastModified = streamFile.lastModified();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(cacheFile.toPath())))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return null;
+            }
+            if (!streamFile.getAbsolutePath().equals(in.readUTF())) {
+                /* Another trace file with the same key */
+                return null;
+            }
+            long cachedSize = in.readLong();
+            long cachedModified = in.readLong();
+            if (fileSize < cachedSize || (fileSize == cachedSize && lastModified != cachedModified)) {
+                /* Rewritten since */
+                return null;
+            }
+            UUID cachedUuid = in.readBoolean() ? new UUID(in.readLong(), in.readLong()) : null;
+            if ((uuid == null) ? (cachedUuid != null) : !uuid.equals(cachedUuid)) {
+                return null;
+            }
+            if (in.readLong() != streamId) {
+                return null;
+            }
+            int count = in.readInt();
+            List<ICTFPacketDescriptor> entries = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                entries.add(readEntry(in));
+            }
+            return entries;
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warning(() -> "Ignoring invalid packet index cache " + cacheFile + ": " + e.getMessage()); //$NON-NLS-1$ //$NON-NLS-2$
+            return null;
+        }
+    }
+
+    /**
+     * Save the index of a trace file. The cache is written to a temporary file
+     * which replaces the previous one, so concurrent readers never see a
+     * partial cache.
+     *
+     * @param cacheFile
+     *            the cache file
+     * @param streamFile
+     *            the trace file
+     * @param fileSize
+     *            the size of the trace file when the index was completed
+     * @param lastModified
+     *            the modification time of the trace file
+     * @param uuid
+     *            the trace UUID, if any
+     * @param streamId
+     *            the id of the stream of the trace file
+     * @param entries
+     *            the entries of the index, in file order
+     * @return true if the cache was saved
+     */
+    public static boolean save(File cacheFile, File streamFile, long fileSize, long lastModified, @Nullable UUID uuid, long streamId, List<ICTFPacketDescriptor> entries) {
+        File directory = cacheFile.getParentFile();
+        Path temp = null;
+        try {
+            Files.createDirectories(directory.toPath());
+            temp = Files.createTempFile(directory.toPath(), cacheFile.getName(), ".tmp"); //$NON-NLS-1$
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeUTF(streamFile.getAbsolutePath());
+                out.writeLong(fileSize);
+                out.writeLong(lastModified);
+                out.writeBoolean(uuid != null);
+                if (uuid != null) {
+                    out.writeLong(uuid.getMostSignificantBits());
+                    out.writeLong(uuid.getLeastSignificantBits());
+                }
+                out.writeLong(streamId);
+                out.writeInt(entries.size());
+                for (ICTFPacketDescriptor entry : entries) {
+                    writeEntry(out, entry);
+                }
+            }
+            try {
+                Files.move(temp, cacheFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            return true;
+        } catch (IOException | IllegalArgumentException e) {
+            /* Read-only cache directory or unsupported attribute */
+            LOGGER.fine(() -> "Could not save packet index cache " + cacheFile + ": " + e.getMessage()); //$NON-NLS-1$ //$NON-NLS-2$
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException e1) {
+                    // Ignore
+                }
+            }
+            return false;
+        }
+    }
+
+    private static void writeEntry(DataOutputStream out, ICTFPacketDescriptor entry) throws IOException {
+        out.writeLong(entry.getOffsetBits());
+        out.writeLong(entry.getPacketSizeBits());
+        out.writeLong(entry.getContentSizeBits());
+        out.writeLong(entry.getPayloadStartBits());
+        out.writeLong(entry.getTimestampBegin());
+        out.writeLong(entry.getTimestampEnd());
+        out.writeLong(entry.getLostEvents());
+        String target = entry.getTarget();
+        out.writeBoolean(target != null);
+        if (target != null) {
+            out.writeUTF(target);
+        }
+        out.writeLong(entry.getTargetId());
+        Map<String, Object> attributes = entry.getAttributes();
+        out.writeInt(attributes.size());
+        for (Entry<String, Object> attribute : attributes.entrySet()) {
+            out.writeUTF(attribute.getKey());
+            Object value = attribute.getValue();
+            if (value instanceof Long) {
+                out.writeByte(TYPE_LONG);
+                out.writeLong((Long) value);
+            } else if (value instanceof Double) {
+                out.writeByte(TYPE_DOUBLE);
+                out.writeDouble((Double) value);
+            } else if (value instanceof String) {
+                out.writeByte(TYPE_STRING);
+                out.writeUTF((String) value);
+            } else if (value instanceof Entry && ((Entry<?, ?>) value).getKey() instanceof String && ((Entry<?, ?>) value).getValue() instanceof Long) {
+                out.writeByte(TYPE_ENUM);
+                out.writeUTF((String) ((Entry<?, ?>) value).getKey());
+                out.writeLong((Long) ((Entry<?, ?>) value).getValue());
+            } else {
+                throw new IllegalArgumentException("Cannot save attribute " + attribute.getKey()); //$NON-NLS-1$
+            }
+        }
+    }
+
+    private static ICTFPacketDescriptor readEntry(DataInputStream in) throws IOException {
+        long offsetBits = in.readLong();
+        long packetSizeBits = in.readLong();
+        long contentSizeBits = in.readLong();
+        long payloadStartBits = in.readLong();
+        long timestampBegin = in.readLong();
+        long timestampEnd = in.readLong();
+        long lostEvents = in.readLong();
+        String target = in.readBoolean() ? in.readUTF() : null;
+        long targetId = in.readLong();
+        int attributeCount = in.readInt();
+        Map<String, Object> attributes = Collections.emptyMap();
+        if (attributeCount > 0) {
+            ImmutableMap.Builder<String, Object> builder = ImmutableMap.builder();
+            for (int i = 0; i < attributeCount; i++) {
+                String name = in.readUTF();
+                byte type = in.readByte();
+                switch (type) {
+                case TYPE_LONG:
+                    builder.put(name, in.readLong());
+                    break;
+                case TYPE_DOUBLE:
+                    builder.put(name, in.readDouble());
+                    break;
+                case TYPE_STRING:
+                    builder.put(name, in.readUTF());
+                    break;
+                case TYPE_ENUM:
+                    builder.put(name, new AbstractMap.SimpleImmutableEntry<>(in.readUTF(), in.readLong()));
+                    break;
+                default:
+                    throw new IOException("Unknown attribute type " + type); //$NON-NLS-1$
+                }
+            }
+            attributes = builder.build();
+        }
+        return new StreamInputPacketIndexEntry(offsetBits, packetSizeBits, contentSizeBits, payloadStartBits,
+                timestampBegin, timestampEnd, lostEvents, target, targetId, attributes);
+    }
+}
@@ -19,6 +19,7 @@ import org.eclipse.tracecompass.ctf.core.event.types.*;
 import org.eclipse.tracecompass.ctf.core.trace.ICTFPacketDescriptor;
 import org.eclipse.tracecompass.ctf.core.trace.IPacketReader;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.AbstractMap;
 import java.util.Collections;
@@ -151,8 +152,21 @@ public class StreamInputPacketIndexEntry implements ICTFPacketDescriptor {
      *            end of packet headers
      */
     public StreamInputPacketIndexEntry(long dataOffsetBits, StructDefinition streamPacketContextDef, long fileSizeBytes, long lostSoFar, long endPacketHeaderBits) {
+        this(dataOffsetBits, computeAttributeMap(streamPacketContextDef), streamPacketContextDef, fileSizeBytes, lostSoFar, endPacketHeaderBits);
+    }
+
+    /**
+     * Constructor from the attributes of the packet context, used by
+     * {@link PacketHeaderDecoder}. The context must not have a device field.
+     */
+    StreamInputPacketIndexEntry(long dataOffsetBits, @NotNull Map<String, Object> attributes, long fileSizeBytes, long lostSoFar, long endPacketHeaderBits) {
+        this(dataOffsetBits, attributes, null, fileSizeBytes, lostSoFar, endPacketHeaderBits);
+    }
+
+    private StreamInputPacketIndexEntry(long dataOffsetBits, @NotNull Map<String, Object> attributes, @Nullable StructDefinition streamPacketContextDef,
+            long fileSizeBytes, long lostSoFar, long endPacketHeaderBits) {
         fEndPacketHeaderBits = endPacketHeaderBits;
-        fAttributes = computeAttributeMap(streamPacketContextDef);
+        fAttributes = attributes;
         fContentSizeBits = computeContentSize(fileSizeBytes);
         fPacketSizeBits = computePacketSize(fileSizeBytes);
         fTimestampBegin = computeTsBegin();
@@ -194,6 +208,25 @@ public class StreamInputPacketIndexEntry implements ICTFPacketDescriptor {
         fLostEvents = entryToAdd.getLostEvents();
     }
 
+    /**
+     * Constructor from the fields of an entry, used to restore an index saved
+     * by {@link StreamInputPacketIndexCache}
+     */
+    StreamInputPacketIndexEntry(long offsetBits, long packetSizeBits, long contentSizeBits, long endPacketHeaderBits,
+            long timestampBegin, long timestampEnd, long lostEvents, String target, long targetId, @NotNull Map<String, Object> attributes) {
+        fOffsetBits = offsetBits;
+        fOffsetBytes = offsetBits / Byte.SIZE;
+        fPacketSizeBits = packetSizeBits;
+        fContentSizeBits = contentSizeBits;
+        fEndPacketHeaderBits = endPacketHeaderBits;
+        fTimestampBegin = timestampBegin;
+        fTimestampEnd = timestampEnd;
+        fLostEvents = lostEvents;
+        fTarget = target;
+        fTargetID = targetId;
+        fAttributes = attributes;
+    }
+
     private static @NotNull Map<String, Object> computeAttributeMap(StructDefinition streamPacketContextDef) {
         Builder<String, Object> attributeBuilder = ImmutableMap.<String, Object> builder();
         for (String field : streamPacketContextDef.getDeclaration().getFieldsList()) {
@@ -284,10 +317,13 @@ public class StreamInputPacketIndexEntry implements ICTFPacketDescriptor {
         }
     }
 
-    private Target lookupTarget(StructDefinition streamPacketContextDef) {
+    private Target lookupTarget(@Nullable StructDefinition streamPacketContextDef) {
         Target ret = new Target();
         boolean hasDevice = fAttributes.containsKey(CTFStrings.DEVICE);
         if (hasDevice) {
+            if (streamPacketContextDef == null) {
+                return ret;
+            }
             IDefinition def = streamPacketContextDef.lookupDefinition(CTFStrings.DEVICE);
             if (def instanceof SimpleDatatypeDefinition) {
                 SimpleDatatypeDefinition simpleDefinition = (SimpleDatatypeDefinition) def;
@@ -0,0 +1,83 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EfficiOS Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.ctf.core.trace;
+
+import java.util.Iterator;
+import java.util.PriorityQueue;
+
+import org.eclipse.tracecompass.ctf.core.trace.CTFStreamInputReader;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Binary heap implementation of {@link IStreamInputReaderQueue}, backed by a
+ * {@link PriorityQueue}. Every update of the top reader costs a poll and an
+ * add.
+ */
+public class StreamInputReaderHeap implements IStreamInputReaderQueue {
+
+    private final PriorityQueue<CTFStreamInputReader> fPrio;
+
+    /**
+     * Constructor
+     *
+     * @param initialCapacity
+     *            the initial capacity of the heap
+     */
+    public StreamInputReaderHeap(int initialCapacity) {
+        fPrio = new PriorityQueue<>(initialCapacity, new StreamInputReaderTimestampComparator());
+    }
+
+    /**
+     * Get the underlying priority queue.
+     *
+     * @return the priority queue
+     */
+    public PriorityQueue<CTFStreamInputReader> getPriorityQueue() {
+        return fPrio;
+    }
+
+    @Override
+    public void add(CTFStreamInputReader reader) {
+        fPrio.add(reader);
+    }
+
+    @Override
+    public @Nullable CTFStreamInputReader peek() {
+        return fPrio.peek();
+    }
+
+    @Override
+    public void topUpdated() {
+        CTFStreamInputReader top = fPrio.poll();
+        if (top != null) {
+            fPrio.add(top);
+        }
+    }
+
+    @Override
+    public @Nullable CTFStreamInputReader removeTop() {
+        return fPrio.poll();
+    }
+
+    @Override
+    public void clear() {
+        fPrio.clear();
+    }
+
+    @Override
+    public int size() {
+        return fPrio.size();
+    }
+
+    @Override
+    public Iterator<CTFStreamInputReader> iterator() {
+        return fPrio.iterator();
+    }
+}
@@ -0,0 +1,303 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EfficiOS Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.ctf.core.trace;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.eclipse.tracecompass.ctf.core.event.IEventDefinition;
+import org.eclipse.tracecompass.ctf.core.trace.CTFStreamInputReader;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Loser tree (tournament tree) implementation of
+ * {@link IStreamInputReaderQueue}.
+ * <p>
+ * Each reader occupies a leaf of a complete binary tree, every internal node
+ * holds the loser of the match played at that node and slot 0 holds the
+ * overall winner. When the current event of the winner changes, a single
+ * leaf-to-root replay of about log2(n) comparisons puts the tree back in
+ * order, with no removal or insertion. The timestamps are cached per leaf so
+ * the replay does not go back to the event definitions.
+ * <p>
+ * Adding readers invalidates the tree, which is rebuilt in linear time on the
+ * next access. This fits the trace reader, which adds readers in bulk when
+ * seeking and removes them one at a time as they finish.
+ * <p>
+ * Readers that are waiting for live data (no current event) are ordered after
+ * all the others. Equal timestamps are ordered by leaf, so the merge order is
+ * deterministic. This class is not thread safe.
+ */
+public class StreamInputReaderLoserTree implements IStreamInputReaderQueue {
+
+    // ------------------------------------------------------------------------
+    // Constants
+    // ------------------------------------------------------------------------
+
+    /** The leaf has a current event */
+    private static final byte READY = 0;
+    /** The leaf has a reader but no current event */
+    private static final byte WAITING = 1;
+    /** The leaf is empty */
+    private static final byte EMPTY = 2;
+
+    // ------------------------------------------------------------------------
+    // Attributes
+    // ------------------------------------------------------------------------
+
+    private CTFStreamInputReader[] fLeaves;
+    private long[] fKeys;
+    private byte[] fStates;
+
+    /**
+     * Slot 0 is the winner leaf, slots 1 to capacity-1 are the losers of each
+     * internal node
+     */
+    private int[] fTree;
+    private int[] fWinners;
+
+    /** Stack of the free leaves, the next free leaf is at the top */
+    private int[] fFree;
+    private int fFreeCount;
+
+    private int fSize = 0;
+    private boolean fDirty = false;
+
+    // ------------------------------------------------------------------------
+    // Constructors
+    // ------------------------------------------------------------------------
+
+    /**
+     * Constructor
+     *
+     * @param initialCapacity
+     *            the initial number of leaves, grown as needed
+     */
+    public StreamInputReaderLoserTree(int initialCapacity) {
+        allocate(Math.max(1, initialCapacity));
+    }
+
+    // ------------------------------------------------------------------------
+    // Operations
+    // ------------------------------------------------------------------------
+
+    @Override
+    public void add(CTFStreamInputReader reader) {
+        if (fFreeCount == 0) {
+            grow();
+        }
+        int leaf = fFree[--fFreeCount];
+        fLeaves[leaf] = reader;
+        refreshKey(leaf);
+        fSize++;
+        fDirty = true;
+    }
+
+    @Override
+    public @Nullable CTFStreamInputReader peek() {
+        if (fSize == 0) {
+            return null;
+        }
+        if (fDirty) {
+            rebuild();
+        }
+        return fLeaves[fTree[0]];
+    }
+
+    @Override
+    public void topUpdated() {
+        if (fSize == 0) {
+            return;
+        }
+        if (fDirty) {
+            /* The top is unknown, so is the reader that changed. Start over. */
+            for (int leaf = 0; leaf < fLeaves.length; leaf++) {
+                if (fStates[leaf] != EMPTY) {
+                    refreshKey(leaf);
+                }
+            }
+            rebuild();
+            return;
+        }
+        int winner = fTree[0];
+        refreshKey(winner);
+        replay(winner);
+    }
+
+    @Override
+    public @Nullable CTFStreamInputReader removeTop() {
+        CTFStreamInputReader top = peek();
+        if (top == null) {
+            return null;
+        }
+        int winner = fTree[0];
+        fLeaves[winner] = null;
+        fStates[winner] = EMPTY;
+        fFree[fFreeCount++] = winner;
+        fSize--;
+        replay(winner);
+        return top;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(fLeaves, null);
+        Arrays.fill(fStates, EMPTY);
+        resetFreeList();
+        fSize = 0;
+        fDirty = true;
+    }
+
+    @Override
+    public int size() {
+        return fSize;
+    }
+
+    @Override
+    public Iterator<CTFStreamInputReader> iterator() {
+        return new Iterator<CTFStreamInputReader>() {
+            private int fNext = advanceFrom(0);
+
+            private int advanceFrom(int start) {
+                int leaf = start;
+                while (leaf < fLeaves.length && fLeaves[leaf] == null) {
+                    leaf++;
+                }
+                return leaf;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return fNext < fLeaves.length;
+            }
+
+            @Override
+            public CTFStreamInputReader next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                CTFStreamInputReader reader = fLeaves[fNext];
+                fNext = advanceFrom(fNext + 1);
+                return reader;
+            }
+        };
+    }
+
+    // ------------------------------------------------------------------------
+    // Helpers
+    // ------------------------------------------------------------------------
+
+    private void allocate(int capacity) {
+        fLeaves = new CTFStreamInputReader[capacity];
+        fKeys = new long[capacity];
+        fStates = new byte[capacity];
+        Arrays.fill(fStates, EMPTY);
+        fTree = new int[capacity];
+        fWinners = new int[capacity];
+        fFree = new int[capacity];
+        resetFreeList();
+    }
+
+    private void resetFreeList() {
+        /* Hand out the leaves in increasing order */
+        int capacity = fFree.length;
+        for (int i = 0; i < capacity; i++) {
+            fFree[i] = capacity - 1 - i;
+        }
+        fFreeCount = capacity;
+    }
+
+    private void grow() {
+        CTFStreamInputReader[] leaves = fLeaves;
+        long[] keys = fKeys;
+        byte[] states = fStates;
+        int oldCapacity = leaves.length;
+        allocate(oldCapacity * 2);
+        System.arraycopy(leaves, 0, fLeaves, 0, oldCapacity);
+        System.arraycopy(keys, 0, fKeys, 0, oldCapacity);
+        System.arraycopy(states, 0, fStates, 0, oldCapacity);
+        /* The old leaves are all in use, only the new ones are free */
+        fFreeCount = fLeaves.length - oldCapacity;
+        fDirty = true;
+    }
+
+    private void refreshKey(int leaf) {
+        CTFStreamInputReader reader = fLeaves[leaf];
+        IEventDefinition event = (reader == null) ? null : reader.getCurrentEvent();
+        if (reader == null) {
+            fStates[leaf] = EMPTY;
+        } else if (event == null) {
+            fStates[leaf] = WAITING;
+        } else {
+            fStates[leaf] = READY;
+            fKeys[leaf] = event.getTimestamp();
+        }
+    }
+
+    /**
+     * Is leaf a ordered before leaf b
+     */
+    private boolean before(int a, int b) {
+        byte stateA = fStates[a];
+        byte stateB = fStates[b];
+        if (stateA != stateB) {
+            return stateA < stateB;
+        }
+        if (stateA == READY) {
+            int cmp = Utils.unsignedCompare(fKeys[a], fKeys[b]);
+            if (cmp != 0) {
+                return cmp < 0;
+            }
+        }
+        return a < b;
+    }
+
+    /**
+     * Replay the matches from a leaf to the root. Only valid for the leaf of
+     * the current winner.
+     */
+    private void replay(int leaf) {
+        int winner = leaf;
+        int[] tree = fTree;
+        for (int node = (leaf + tree.length) >>> 1; node > 0; node >>>= 1) {
+            int loser = tree[node];
+            if (before(loser, winner)) {
+                tree[node] = winner;
+                winner = loser;
+            }
+        }
+        tree[0] = winner;
+    }
+
+    /**
+     * Play all the matches, bottom-up. Leaf i sits at node capacity + i.
+     */
+    private void rebuild() {
+        int[] tree = fTree;
+        int[] winners = fWinners;
+        int capacity = tree.length;
+        for (int node = capacity - 1; node > 0; node--) {
+            int left = node << 1;
+            int right = left + 1;
+            int a = (left >= capacity) ? left - capacity : winners[left];
+            int b = (right >= capacity) ? right - capacity : winners[right];
+            if (before(a, b)) {
+                winners[node] = a;
+                tree[node] = b;
+            } else {
+                winners[node] = b;
+                tree[node] = a;
+            }
+        }
+        tree[0] = (capacity > 1) ? winners[1] : 0;
+        fDirty = false;
+    }
+}
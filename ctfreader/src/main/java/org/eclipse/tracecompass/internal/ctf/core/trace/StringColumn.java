@@ -0,0 +1,175 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EfficiOS Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.ctf.core.trace;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.tracecompass.ctf.core.CTFException;
+import org.eclipse.tracecompass.ctf.core.event.io.BitBuffer;
+import org.eclipse.tracecompass.internal.ctf.core.event.types.StringReader;
+
+/**
+ * Dictionary encoded column of a string field. Each row holds the code of its
+ * value in the dictionary, a value only being decoded into a {@link String}
+ * the first time it is seen.
+ * <p>
+ * The dictionary is kept when the batch is cleared, so the codes of a column
+ * stay the same across the batches it is reused for.
+ */
+public final class StringColumn {
+
+    private static final int BITS_PER_BYTE = Byte.SIZE;
+    private static final int INITIAL_TABLE_SIZE = 64;
+
+    private final Charset fCharset;
+    private int[] fCodes;
+
+    private final List<String> fDictionary = new ArrayList<>();
+    private final List<byte[]> fKeys = new ArrayList<>();
+
+    /**
+     * Open addressing table of the codes plus one, indexed by the hash of
+     * their bytes, 0 for a free slot
+     */
+    private int[] fTable = new int[INITIAL_TABLE_SIZE];
+
+    private byte[] fScratch = new byte[64];
+
+    StringColumn(int capacity, Charset charset) {
+        fCodes = new int[capacity];
+        fCharset = charset;
+    }
+
+    /**
+     * Get the codes of the values of the column, valid up to the number of
+     * events of the table
+     *
+     * @return the codes, indexes in the dictionary
+     */
+    public int[] getCodes() {
+        return fCodes;
+    }
+
+    /**
+     * Get the distinct values of the column, in the order they were first
+     * seen
+     *
+     * @return the dictionary
+     */
+    public List<String> getDictionary() {
+        return Collections.unmodifiableList(fDictionary);
+    }
+
+    /**
+     * Get the value of a row
+     *
+     * @param row
+     *            the row, less than the number of events of the table
+     * @return the value
+     */
+    public String get(int row) {
+        return fDictionary.get(fCodes[row]);
+    }
+
+    void grow(int capacity) {
+        fCodes = Arrays.copyOf(fCodes, capacity);
+    }
+
+    /**
+     * Read a null terminated string of the input into a row
+     */
+    void read(int row, BitBuffer input) throws CTFException {
+        long pos = input.position();
+        long aligned = (pos + BITS_PER_BYTE - 1) & ~(long) (BITS_PER_BYTE - 1);
+        if (aligned != pos) {
+            input.position(aligned);
+        }
+        int length = StringReader.length(input);
+        byte[] scratch = fScratch;
+        if (length > scratch.length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+            fScratch = scratch;
+        }
+        ByteBuffer source = input.getByteBuffer().duplicate();
+        source.position((int) (aligned / BITS_PER_BYTE));
+        source.get(scratch, 0, length);
+        input.position(aligned + (long) (length + 1) * BITS_PER_BYTE);
+        fCodes[row] = encode(scratch, length);
+    }
+
+    /**
+     * Set the value of a row from a decoded string
+     */
+    void set(int row, String value) {
+        byte[] bytes = value.getBytes(fCharset);
+        fCodes[row] = encode(bytes, bytes.length);
+    }
+
+    private int encode(byte[] bytes, int length) {
+        int hash = 1;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + bytes[i];
+        }
+        int mask = fTable.length - 1;
+        int slot = mix(hash) & mask;
+        while (fTable[slot] != 0) {
+            int code = fTable[slot] - 1;
+            byte[] key = fKeys.get(code);
+            if (equals(key, bytes, length)) {
+                return code;
+            }
+            slot = (slot + 1) & mask;
+        }
+        int code = fDictionary.size();
+        byte[] key = Arrays.copyOf(bytes, length);
+        fKeys.add(key);
+        fDictionary.add(new String(key, fCharset));
+        fTable[slot] = code + 1;
+        if (fDictionary.size() * 2 > fTable.length) {
+            rehash();
+        }
+        return code;
+    }
+
+    private void rehash() {
+        int[] table = new int[fTable.length * 2];
+        int mask = table.length - 1;
+        for (int code = 0; code < fKeys.size(); code++) {
+            byte[] key = fKeys.get(code);
+            int slot = mix(Arrays.hashCode(key)) & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = code + 1;
+        }
+        fTable = table;
+    }
+
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean equals(byte[] key, byte[] bytes, int length) {
+        if (key.length != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (key[i] != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,134 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EfficiOS Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.ctf.core.tests.event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.nio.ByteOrder;
+
+import org.eclipse.tracecompass.ctf.core.event.FieldHandle;
+import org.eclipse.tracecompass.ctf.core.event.IEventDefinition;
+import org.eclipse.tracecompass.ctf.core.event.scope.ILexicalScope;
+import org.eclipse.tracecompass.ctf.core.event.types.Definition;
+import org.eclipse.tracecompass.ctf.core.event.types.Encoding;
+import org.eclipse.tracecompass.ctf.core.event.types.EnumDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.EnumDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.FloatDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.FloatDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.IntegerDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.IntegerDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.StringDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.StringDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.StructDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.StructDefinition;
+import org.eclipse.tracecompass.internal.ctf.core.event.EventDeclaration;
+import org.eclipse.tracecompass.internal.ctf.core.event.EventDefinition;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The class <code>FieldHandleTest</code> contains tests for the class
+ * <code>{@link FieldHandle}</code>.
+ */
+@SuppressWarnings("javadoc")
+public class FieldHandleTest {
+
+    private static final IntegerDeclaration UINT32 = IntegerDeclaration.createDeclaration(32, false, 10, ByteOrder.LITTLE_ENDIAN, Encoding.NONE, "", 8);
+
+    private EventDeclaration fDeclaration;
+    private IEventDefinition fEvent;
+
+    @Before
+    public void setUp() {
+        EnumDeclaration stateDec = new EnumDeclaration(UINT32);
+        stateDec.add(0, 0, "RUNNING");
+        FloatDeclaration loadDec = new FloatDeclaration(11, 53, ByteOrder.LITTLE_ENDIAN, 8);
+        StringDeclaration commDec = StringDeclaration.getStringDeclaration(Encoding.UTF8);
+
+        StructDeclaration fieldsDec = new StructDeclaration(8);
+        fieldsDec.addField("_tid", UINT32);
+        fieldsDec.addField("comm", commDec);
+        fieldsDec.addField("state", stateDec);
+        fieldsDec.addField("load", loadDec);
+        StructDeclaration contextDec = new StructDeclaration(8);
+        contextDec.addField("cpu", UINT32);
+
+        fDeclaration = new EventDeclaration();
+        fDeclaration.setName("sched");
+        fDeclaration.setFields(fieldsDec);
+        fDeclaration.setContext(contextDec);
+
+        Definition[] fields = {
+                new IntegerDefinition(UINT32, null, "_tid", 42),
+                new StringDefinition(commDec, null, "comm", "bash"),
+                new EnumDefinition(stateDec, null, "state", new IntegerDefinition(UINT32, null, "state", 0)),
+                new FloatDefinition(loadDec, null, "load", 0.5)
+        };
+        Definition[] context = { new IntegerDefinition(UINT32, null, "cpu", 3) };
+        fEvent = new EventDefinition(fDeclaration, 3, 100, null, null,
+                new StructDefinition(contextDec, null, ILexicalScope.CONTEXT.getPath(), context), null,
+                new StructDefinition(fieldsDec, null, ILexicalScope.FIELDS.getPath(), fields), null);
+    }
+
+    private FieldHandle resolve(String name) {
+        FieldHandle handle = FieldHandle.resolve(fDeclaration, name);
+        assertNotNull(handle);
+        return handle;
+    }
+
+    @Test
+    public void testGetLong() {
+        assertEquals(42, fEvent.getLong(resolve("tid")));
+        assertEquals(42, fEvent.getLong(resolve("_tid")));
+        assertEquals(0, fEvent.getLong(resolve("state")));
+    }
+
+    @Test
+    public void testGetDouble() {
+        assertEquals(0.5, fEvent.getDouble(resolve("load")), 0);
+        assertEquals(42, fEvent.getDouble(resolve("tid")), 0);
+    }
+
+    @Test
+    public void testGetString() {
+        assertEquals("bash", fEvent.getString(resolve("comm")));
+        assertEquals("RUNNING", fEvent.getString(resolve("state")));
+    }
+
+    @Test
+    public void testContext() {
+        FieldHandle handle = FieldHandle.resolveContext(fDeclaration, "cpu");
+        assertNotNull(handle);
+        assertEquals(3, fEvent.getLong(handle));
+        assertNull(FieldHandle.resolve(fDeclaration, "cpu"));
+    }
+
+    @Test
+    public void testUnknownField() {
+        assertNull(FieldHandle.resolve(fDeclaration, "pid"));
+        assertNull(FieldHandle.resolveContext(new EventDeclaration(), "cpu"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrongType() {
+        fEvent.getLong(resolve("comm"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOtherEvent() {
+        EventDeclaration other = new EventDeclaration();
+        other.setFields(fDeclaration.getFields());
+        FieldHandle handle = FieldHandle.resolve(other, "tid");
+        assertNotNull(handle);
+        fEvent.getLong(handle);
+    }
+}
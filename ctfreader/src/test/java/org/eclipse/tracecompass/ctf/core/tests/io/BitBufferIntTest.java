@@ -563,4 +563,54 @@ public class BitBufferIntTest {
         /* This will try writing past the buffer's end */
         fixture2.putInt(32, 1);
     }
+
+    /**
+     * Test {@link BitBuffer#get} against a bit by bit decoding, for every
+     * length, bit offset and byte order, up to the end of the buffer.
+     *
+     * @throws CTFException
+     *             Not expected
+     */
+    @Test
+    public void testGet_allLengths() throws CTFException {
+        final byte[] bytes = new byte[12];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (0x9d * (i + 1) + 0x35);
+        }
+        for (ByteOrder order : new ByteOrder[] { ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN }) {
+            BitBuffer buffer = new BitBuffer(ByteBuffer.wrap(bytes), order);
+            for (int length = 1; length <= 64; length++) {
+                for (long position = 0; position + length <= bytes.length * 8; position++) {
+                    buffer.position(position);
+                    assertEquals(order + " " + length + "@" + position, readBits(bytes, position, length, order, false), buffer.get(length, false));
+                    buffer.position(position);
+                    assertEquals(order + " signed " + length + "@" + position, readBits(bytes, position, length, order, true), buffer.get(length, true));
+                    assertEquals(position + length, buffer.position());
+                }
+            }
+        }
+    }
+
+    /**
+     * Decode a field one bit at a time, the bits of a big-endian field being
+     * numbered from the most significant bit of each byte and those of a
+     * little-endian field from the least significant one
+     */
+    private static long readBits(byte[] bytes, long position, int length, ByteOrder order, boolean signed) {
+        long value = 0;
+        for (int i = 0; i < length; i++) {
+            long bitIndex = position + i;
+            int b = bytes[(int) (bitIndex / 8)] & 0xff;
+            int bitInByte = (int) (bitIndex % 8);
+            if (order == ByteOrder.BIG_ENDIAN) {
+                value = (value << 1) | ((b >>> (7 - bitInByte)) & 1);
+            } else {
+                value |= (long) ((b >>> bitInByte) & 1) << i;
+            }
+        }
+        if (signed && length < 64) {
+            value = (value << (64 - length)) >> (64 - length);
+        }
+        return value;
+    }
 }
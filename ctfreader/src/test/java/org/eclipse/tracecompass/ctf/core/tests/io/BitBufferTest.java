@@ -21,6 +21,7 @@ import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 
 /**
@@ -88,6 +89,40 @@ public class BitBufferTest {
         fixture.clear();
     }
 
+    /**
+     * Run the void align(long) method test.
+     *
+     * @throws CTFException
+     *             out of bounds, won't happen
+     */
+    @Test
+    public void testAlign() throws CTFException {
+        fixture = new BitBuffer(Util.testMemory(ByteBuffer.allocate(8)));
+        fixture.position(1);
+        fixture.align(8);
+        assertEquals(8, fixture.position());
+        fixture.align(8);
+        assertEquals(8, fixture.position());
+        fixture.align(1);
+        assertEquals(8, fixture.position());
+        fixture.position(33);
+        fixture.align(32);
+        assertEquals(64, fixture.position());
+    }
+
+    /**
+     * Run the void align(long) method test, past the end of the buffer.
+     *
+     * @throws CTFException
+     *             expected
+     */
+    @Test(expected = CTFException.class)
+    public void testAlign_outOfBounds() throws CTFException {
+        fixture = new BitBuffer(Util.testMemory(ByteBuffer.allocate(8)));
+        fixture.position(33);
+        fixture.align(128);
+    }
+
     /**
      * Run the ByteBuffer getByteBuffer() method test.
      */
@@ -207,4 +242,21 @@ public class BitBufferTest {
         String actual = new String(data);
         assertEquals("world", actual);
     }
-}
\ No newline at end of file
+
+    /**
+     * Test reading another buffer with the same bit buffer
+     *
+     * @throws CTFException
+     *             won't happen
+     */
+    @Test
+    public void testReset() throws CTFException {
+        fixture = new BitBuffer(ByteBuffer.wrap(new byte[] { 1, 2 }), ByteOrder.LITTLE_ENDIAN);
+        fixture.position(8);
+        fixture.reset(ByteBuffer.wrap(new byte[] { 1, 2, 3, 4 }));
+        assertEquals(0, fixture.position());
+        assertEquals(ByteOrder.LITTLE_ENDIAN, fixture.getByteBuffer().order());
+        assertEquals(0x04030201, fixture.getInt());
+        assertFalse(fixture.canRead(1));
+    }
+}
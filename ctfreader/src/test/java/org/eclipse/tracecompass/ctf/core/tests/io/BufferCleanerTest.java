@@ -0,0 +1,57 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EfficiOS Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.ctf.core.tests.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+
+import org.eclipse.tracecompass.internal.ctf.core.BufferCleaner;
+import org.junit.Test;
+
+/**
+ * The class <code>BufferCleanerTest</code> contains tests for the class
+ * <code>{@link BufferCleaner}</code>.
+ */
+@SuppressWarnings("javadoc")
+public class BufferCleanerTest {
+
+    @Test
+    public void testHeapBuffer() {
+        assertFalse(BufferCleaner.clean(ByteBuffer.allocate(16)));
+    }
+
+    @Test
+    public void testDirectBuffer() {
+        assertEquals(BufferCleaner.isSupported(), BufferCleaner.clean(ByteBuffer.allocateDirect(16)));
+    }
+
+    @Test
+    public void testMappedBuffer() throws IOException {
+        File file = File.createTempFile("channel0_", null);
+        try {
+            Files.write(file.toPath(), new byte[4096]);
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                ByteBuffer mapping = channel.map(MapMode.READ_ONLY, 0, 4096);
+                assertEquals(0, mapping.get(100));
+                assertEquals(BufferCleaner.isSupported(), BufferCleaner.clean(mapping));
+            }
+        } finally {
+            Files.delete(file.toPath());
+        }
+    }
+}
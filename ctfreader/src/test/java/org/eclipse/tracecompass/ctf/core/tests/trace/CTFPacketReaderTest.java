@@ -16,19 +16,33 @@ import org.eclipse.tracecompass.ctf.core.CTFStrings;
 import org.eclipse.tracecompass.ctf.core.event.IEventDeclaration;
 import org.eclipse.tracecompass.ctf.core.event.io.BitBuffer;
 import org.eclipse.tracecompass.ctf.core.event.scope.ILexicalScope;
+import org.eclipse.tracecompass.ctf.core.event.types.AbstractArrayDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.Encoding;
+import org.eclipse.tracecompass.ctf.core.event.types.IDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.FloatDeclaration;
 import org.eclipse.tracecompass.ctf.core.event.types.IntegerDeclaration;
 import org.eclipse.tracecompass.ctf.core.event.types.IntegerDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.SequenceDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.StringDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.StringDefinition;
 import org.eclipse.tracecompass.ctf.core.event.types.StructDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.StructDefinition;
 import org.eclipse.tracecompass.ctf.core.trace.CTFTrace;
 import org.eclipse.tracecompass.ctf.core.trace.ICTFPacketDescriptor;
 import org.eclipse.tracecompass.internal.ctf.core.event.EventDeclaration;
 import org.eclipse.tracecompass.internal.ctf.core.event.EventDefinition;
 import org.eclipse.tracecompass.internal.ctf.core.trace.CTFPacketReader;
+import org.eclipse.tracecompass.internal.ctf.core.trace.EventBatch;
+import org.eclipse.tracecompass.internal.ctf.core.trace.EventFilter;
+import org.eclipse.tracecompass.internal.ctf.core.trace.EventTable;
 import org.eclipse.tracecompass.internal.ctf.core.trace.StreamInputPacketIndexEntry;
+import org.eclipse.tracecompass.internal.ctf.core.trace.StringColumn;
 import org.jetbrains.annotations.NotNull;
 import org.junit.Test;
 
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -91,6 +105,235 @@ public class CTFPacketReaderTest {
         assertFalse(cpr.hasMoreEvents());
     }
 
+    /**
+     * Test a packet reader reset onto another packet after being detached
+     *
+     * @throws CTFException
+     *             won't happen
+     */
+    @Test
+    public void testReset() throws CTFException {
+        byte[] first = { (byte) 0x00, (byte) 0x00, (byte) 0x00, (byte) 0x00, (byte) 0x01, (byte) 0xff, (byte) 0xff, (byte) 0xa5 };
+        byte[] second = { (byte) 0x02, (byte) 0x01, (byte) 0x00, (byte) 0x5a };
+        ICTFPacketDescriptor firstContext = new StreamInputPacketIndexEntry(0, EMPTY_STRUCT.createDefinition(null, ILexicalScope.TRACE, new BitBuffer()), 8, 0, 0);
+        ICTFPacketDescriptor secondContext = new StreamInputPacketIndexEntry(0, EMPTY_STRUCT.createDefinition(null, ILexicalScope.TRACE, new BitBuffer()), 4, 0, 0);
+        StructDeclaration eventHeaderDeclaration = new StructDeclaration(8);
+        eventHeaderDeclaration.addField("timestamp", IntegerDeclaration.INT_8_DECL);
+        final EventDeclaration eventDec = new EventDeclaration();
+        eventDec.setName("Hello");
+        StructDeclaration fields = new StructDeclaration(8);
+        fields.addField("field1", IntegerDeclaration.UINT_16L_DECL);
+        fields.addField("field2", IntegerDeclaration.UINT_8_DECL);
+        eventDec.setFields(fields);
+        List<IEventDeclaration> declarations = Collections.singletonList(eventDec);
+        CTFTrace trace = new CTFTrace();
+        CTFPacketReader cpr = new CTFPacketReader(createBitBuffer(first), firstContext, declarations, eventHeaderDeclaration, null, null, trace);
+        cpr.readNextEvent();
+        assertTrue(cpr.hasMoreEvents());
+        cpr.detach();
+        assertFalse(cpr.hasMoreEvents());
+
+        cpr.reset(ByteBuffer.wrap(second), secondContext);
+        assertSame(secondContext, cpr.getCurrentPacket());
+        assertNull(cpr.getCurrentPacketEventHeader());
+        assertTrue(cpr.hasMoreEvents());
+        EventDefinition event = cpr.readNextEvent();
+        assertEquals(2L, event.getTimestamp());
+        assertEquals(1L, ((IntegerDefinition) event.getFields().getDefinition("field1")).getValue());
+        assertEquals(0x5a, ((IntegerDefinition) event.getFields().getDefinition("field2")).getValue());
+        assertFalse(cpr.hasMoreEvents());
+    }
+
+    /**
+     * Test a packet read with lazy decoding, the payload being decoded after
+     * the buffer of the packet was released
+     *
+     * @throws CTFException
+     *             won't happen
+     */
+    @Test
+    public void testLazyDecoding() throws CTFException {
+        byte[] bytes = { 0x00, 0x02, 'h', 'i', 0x00, 0x00, 0x07, 0x01, 0x00, 0x00 };
+        ICTFPacketDescriptor packetContext = new StreamInputPacketIndexEntry(0, EMPTY_STRUCT.createDefinition(null, ILexicalScope.TRACE, new BitBuffer()), bytes.length, 0, 0);
+        StructDeclaration eventHeaderDeclaration = new StructDeclaration(8);
+        eventHeaderDeclaration.addField("timestamp", IntegerDeclaration.INT_8_DECL);
+        final EventDeclaration eventDec = new EventDeclaration();
+        eventDec.setName("Hello");
+        StructDeclaration fields = new StructDeclaration(8);
+        fields.addField("len", IntegerDeclaration.UINT_8_DECL);
+        fields.addField("str", StringDeclaration.getStringDeclaration(Encoding.UTF8));
+        fields.addField("seq", new SequenceDeclaration("len", IntegerDeclaration.UINT_8_DECL));
+        eventDec.setFields(fields);
+        List<IEventDeclaration> declarations = Collections.singletonList(eventDec);
+        CTFTrace trace = new CTFTrace();
+        CTFPacketReader cpr = new CTFPacketReader(createBitBuffer(bytes), packetContext, declarations, eventHeaderDeclaration, null, null, trace);
+        cpr.setLazyDecoding(true);
+        EventDefinition first = cpr.readNextEvent();
+        assertEquals(0L, first.getTimestamp());
+        EventDefinition second = cpr.readNextEvent();
+        assertEquals(1L, second.getTimestamp());
+        assertFalse(cpr.hasMoreEvents());
+        cpr.detach();
+
+        assertEquals(2L, ((IntegerDefinition) first.getFields().getDefinition("len")).getValue());
+        assertEquals("hi", ((StringDefinition) first.getFields().getDefinition("str")).getValue());
+        assertEquals(7L, ((IntegerDefinition) ((AbstractArrayDefinition) first.getFields().getDefinition("seq")).getDefinitions().get(1)).getValue());
+        assertSame(first.getFields(), first.getFields());
+        assertEquals(0L, ((IntegerDefinition) second.getFields().getDefinition("len")).getValue());
+        assertEquals("", ((StringDefinition) second.getFields().getDefinition("str")).getValue());
+        assertNull(second.getContext());
+    }
+
+    /**
+     * Test that the sections of a lazy event are decoded in the same scopes
+     * as when the event is decoded when read
+     *
+     * @throws CTFException
+     *             won't happen
+     */
+    @Test
+    public void testLazyDecodingScope() throws CTFException {
+        byte[] bytes = { 0x05, 0x03, 0x2a };
+        ICTFPacketDescriptor packetContext = new StreamInputPacketIndexEntry(0, EMPTY_STRUCT.createDefinition(null, ILexicalScope.TRACE, new BitBuffer()), bytes.length, 0, 0);
+        StructDeclaration eventHeaderDeclaration = new StructDeclaration(8);
+        eventHeaderDeclaration.addField("timestamp", IntegerDeclaration.INT_8_DECL);
+        final EventDeclaration eventDec = new EventDeclaration();
+        eventDec.setName("Hello");
+        StructDeclaration context = new StructDeclaration(8);
+        context.addField("count", IntegerDeclaration.UINT_8_DECL);
+        eventDec.setContext(context);
+        StructDeclaration fields = new StructDeclaration(8);
+        fields.addField("value", IntegerDeclaration.UINT_8_DECL);
+        eventDec.setFields(fields);
+        List<IEventDeclaration> declarations = Collections.singletonList(eventDec);
+        CTFPacketReader eagerReader = new CTFPacketReader(createBitBuffer(bytes), packetContext, declarations, eventHeaderDeclaration, null, null, new CTFTrace());
+        EventDefinition eager = eagerReader.readNextEvent();
+        CTFPacketReader lazyReader = new CTFPacketReader(createBitBuffer(bytes), packetContext, declarations, eventHeaderDeclaration, null, null, new CTFTrace());
+        lazyReader.setLazyDecoding(true);
+        EventDefinition lazy = lazyReader.readNextEvent();
+        lazyReader.detach();
+
+        /* The payload is looked at first, the context is still in its scope */
+        for (String path : new String[] { "event.context.count", "stream.event.header.timestamp", "event.fields.value" }) {
+            IDefinition expected = ((StructDefinition) eager.getFields()).lookupDefinition(path);
+            IDefinition actual = ((StructDefinition) lazy.getFields()).lookupDefinition(path);
+            assertNotNull(path, expected);
+            assertNotNull(path, actual);
+            assertEquals(path, expected.toString(), actual.toString());
+        }
+        assertEquals(3L, ((IntegerDefinition) lazy.getEventContext().getDefinition("count")).getValue());
+    }
+
+    /**
+     * Test that lazily decoded fields keep their alignment in the packet
+     *
+     * @throws CTFException
+     *             won't happen
+     */
+    @Test
+    public void testLazyDecodingAligned() throws CTFException {
+        byte[] bytes = { 0x00, 0x00, 0x00, 0x00, 0x12, 0x34, 0x56, 0x78, 0x01, 0x00, 0x00, 0x00, (byte) 0x9a, (byte) 0xbc, (byte) 0xde, (byte) 0xf0 };
+        ICTFPacketDescriptor packetContext = new StreamInputPacketIndexEntry(0, EMPTY_STRUCT.createDefinition(null, ILexicalScope.TRACE, new BitBuffer()), bytes.length, 0, 0);
+        StructDeclaration eventHeaderDeclaration = new StructDeclaration(8);
+        eventHeaderDeclaration.addField("timestamp", IntegerDeclaration.INT_8_DECL);
+        final EventDeclaration eventDec = new EventDeclaration();
+        eventDec.setName("Hello");
+        StructDeclaration fields = new StructDeclaration(8);
+        fields.addField("value", IntegerDeclaration.createDeclaration(32, false, 16, ByteOrder.BIG_ENDIAN, Encoding.NONE, "", 32));
+        eventDec.setFields(fields);
+        CTFPacketReader cpr = new CTFPacketReader(createBitBuffer(bytes), packetContext, Collections.singletonList(eventDec), eventHeaderDeclaration, null, null, new CTFTrace());
+        cpr.setLazyDecoding(true);
+        EventDefinition first = cpr.readNextEvent();
+        EventDefinition second = cpr.readNextEvent();
+        assertFalse(cpr.hasMoreEvents());
+        assertEquals(0x12345678L, ((IntegerDefinition) first.getFields().getDefinition("value")).getValue());
+        assertEquals(0x9abcdef0L, ((IntegerDefinition) second.getFields().getDefinition("value")).getValue());
+    }
+
+    /**
+     * Test decoding a packet into columns
+     *
+     * @throws CTFException
+     *             won't happen
+     */
+    @Test
+    public void testReadBatch() throws CTFException {
+        ByteBuffer data = ByteBuffer.allocate(32);
+        data.put((byte) 0).put((byte) 5).put("ab".getBytes()).put((byte) 0).putFloat(0.5f);
+        data.put((byte) 1).put((byte) 6).put("ab".getBytes()).put((byte) 0).putFloat(1.5f);
+        data.put((byte) 2).put((byte) 7).put("c".getBytes()).put((byte) 0).putFloat(3.0f);
+        byte[] bytes = Arrays.copyOf(data.array(), data.position());
+        ICTFPacketDescriptor packetContext = new StreamInputPacketIndexEntry(0, EMPTY_STRUCT.createDefinition(null, ILexicalScope.TRACE, new BitBuffer()), bytes.length, 0, 0);
+        StructDeclaration eventHeaderDeclaration = new StructDeclaration(8);
+        eventHeaderDeclaration.addField("timestamp", IntegerDeclaration.INT_8_DECL);
+        final EventDeclaration eventDec = new EventDeclaration();
+        eventDec.setName("Hello");
+        StructDeclaration fields = new StructDeclaration(8);
+        fields.addField("id", IntegerDeclaration.UINT_8_DECL);
+        fields.addField("comm", StringDeclaration.getStringDeclaration(Encoding.UTF8));
+        fields.addField("load", new FloatDeclaration(8, 24, ByteOrder.BIG_ENDIAN, 8));
+        eventDec.setFields(fields);
+        CTFPacketReader cpr = new CTFPacketReader(createBitBuffer(bytes), packetContext, Collections.singletonList(eventDec), eventHeaderDeclaration, null, null, new CTFTrace());
+        EventBatch batch = new EventBatch();
+        assertEquals(2, cpr.readBatch(batch, 2));
+        assertEquals(1, cpr.readBatch(batch, 10));
+        assertEquals(0, cpr.readBatch(batch, 10));
+        assertFalse(cpr.hasMoreEvents());
+
+        assertEquals(3, batch.getEventCount());
+        assertArrayEquals(new int[] { 0, 0, 0 }, Arrays.copyOf(batch.getEventIds(), 3));
+        EventTable table = batch.getTable(0);
+        assertNotNull(table);
+        assertEquals(3, table.getEventCount());
+        assertArrayEquals(new long[] { 0, 1, 2 }, Arrays.copyOf(table.getTimestamps(), 3));
+        assertArrayEquals(new long[] { 5, 6, 7 }, Arrays.copyOf(table.getLongColumn("id"), 3));
+        assertArrayEquals(new double[] { 0.5, 1.5, 3.0 }, Arrays.copyOf(table.getDoubleColumn("load"), 3), 0);
+        StringColumn comm = table.getStringColumn("comm");
+        assertNotNull(comm);
+        assertEquals(Arrays.asList("ab", "c"), comm.getDictionary());
+        assertArrayEquals(new int[] { 0, 0, 1 }, Arrays.copyOf(comm.getCodes(), 3));
+        assertEquals("c", comm.get(2));
+
+        batch.clear();
+        assertEquals(0, batch.getEventCount());
+        assertEquals(0, table.getEventCount());
+    }
+
+    /**
+     * Test decoding events whose payload cannot be read directly into
+     * columns
+     *
+     * @throws CTFException
+     *             won't happen
+     */
+    @Test
+    public void testReadBatchDecoded() throws CTFException {
+        byte[] bytes = { 0x00, 0x02, 'h', 'i', 0x00, 0x00, 0x07, 0x01, 0x00, 0x00 };
+        ICTFPacketDescriptor packetContext = new StreamInputPacketIndexEntry(0, EMPTY_STRUCT.createDefinition(null, ILexicalScope.TRACE, new BitBuffer()), bytes.length, 0, 0);
+        StructDeclaration eventHeaderDeclaration = new StructDeclaration(8);
+        eventHeaderDeclaration.addField("timestamp", IntegerDeclaration.INT_8_DECL);
+        final EventDeclaration eventDec = new EventDeclaration();
+        eventDec.setName("Hello");
+        StructDeclaration fields = new StructDeclaration(8);
+        fields.addField("len", IntegerDeclaration.UINT_8_DECL);
+        fields.addField("str", StringDeclaration.getStringDeclaration(Encoding.UTF8));
+        fields.addField("seq", new SequenceDeclaration("len", IntegerDeclaration.UINT_8_DECL));
+        eventDec.setFields(fields);
+        CTFPacketReader cpr = new CTFPacketReader(createBitBuffer(bytes), packetContext, Collections.singletonList(eventDec), eventHeaderDeclaration, null, null, new CTFTrace());
+        EventBatch batch = new EventBatch();
+        assertEquals(2, cpr.readBatch(batch, Integer.MAX_VALUE));
+        EventTable table = batch.getTable(0);
+        assertNotNull(table);
+        assertArrayEquals(new long[] { 0, 1 }, Arrays.copyOf(table.getTimestamps(), 2));
+        assertArrayEquals(new long[] { 2, 0 }, Arrays.copyOf(table.getLongColumn("len"), 2));
+        StringColumn str = table.getStringColumn("str");
+        assertNotNull(str);
+        assertEquals("hi", str.get(0));
+        assertEquals("", str.get(1));
+        assertNull(table.getLongColumn("seq"));
+        assertNull(table.getLongColumn("other"));
+    }
+
     /**
      * Test a packet with fields, a context and a header (a mostly normal
      * packet)
@@ -222,4 +465,52 @@ public class CTFPacketReaderTest {
         assertFalse(cpr.hasMoreEvents());
     }
 
+
+    /**
+     * Test a packet read with an event filter, the rejected events being
+     * skipped
+     *
+     * @throws CTFException
+     *             won't happen
+     */
+    @Test
+    public void testPacketWithFilter() throws CTFException {
+        byte[] bytes = { 0x00, 0x00, 0x11, 0x11, 0x01, 0x01, 0x5a, 0x00, 0x02, 0x22, 0x22, 0x01, 0x03, (byte) 0xa5 };
+        BitBuffer input = createBitBuffer(bytes);
+        ICTFPacketDescriptor packetContext = new StreamInputPacketIndexEntry(0, EMPTY_STRUCT.createDefinition(null, ILexicalScope.TRACE, new BitBuffer()), bytes.length, 0, 0);
+        StructDeclaration eventHeaderDeclaration = new StructDeclaration(8);
+        eventHeaderDeclaration.addField("id", IntegerDeclaration.UINT_8_DECL);
+        eventHeaderDeclaration.addField("timestamp", IntegerDeclaration.INT_8_DECL);
+        final EventDeclaration rejected = new EventDeclaration();
+        rejected.setName("Rejected");
+        rejected.setId(0);
+        StructDeclaration rejectedFields = new StructDeclaration(8);
+        rejectedFields.addField("field1", IntegerDeclaration.UINT_16L_DECL);
+        rejected.setFields(rejectedFields);
+        final EventDeclaration accepted = new EventDeclaration();
+        accepted.setName("Accepted");
+        accepted.setId(1);
+        StructDeclaration acceptedFields = new StructDeclaration(8);
+        acceptedFields.addField("field2", IntegerDeclaration.UINT_8_DECL);
+        accepted.setFields(acceptedFields);
+        List<IEventDeclaration> declarations = Arrays.asList(rejected, accepted);
+        EventFilter filter = new EventFilter(declarations, null, declaration -> "Accepted".equals(declaration.getName()));
+        assertFalse(filter.accept(0));
+        assertTrue(filter.canSkip(0, true));
+        assertTrue(filter.accept(1));
+
+        CTFTrace trace = new CTFTrace();
+        CTFPacketReader cpr = new CTFPacketReader(input, packetContext, declarations, eventHeaderDeclaration, null, null, trace, filter);
+        assertTrue(cpr.hasMoreEvents());
+        EventDefinition event = cpr.readNextEvent();
+        assertEquals("Accepted", event.getDeclaration().getName());
+        assertEquals(1L, event.getTimestamp());
+        assertEquals(0x5a, ((IntegerDefinition) event.getFields().getDefinition("field2")).getValue());
+        assertTrue(cpr.hasMoreEvents());
+        event = cpr.readNextEvent();
+        assertEquals("Accepted", event.getDeclaration().getName());
+        assertEquals(3L, event.getTimestamp());
+        assertEquals(0xa5, ((IntegerDefinition) event.getFields().getDefinition("field2")).getValue());
+        assertFalse(cpr.hasMoreEvents());
+    }
 }
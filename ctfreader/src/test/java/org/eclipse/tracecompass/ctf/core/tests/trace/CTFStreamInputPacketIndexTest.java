@@ -11,9 +11,24 @@
 
 package org.eclipse.tracecompass.ctf.core.tests.trace;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.eclipse.tracecompass.ctf.core.CTFException;
+import org.eclipse.tracecompass.ctf.core.event.io.BitBuffer;
+import org.eclipse.tracecompass.ctf.core.event.scope.ILexicalScope;
+import org.eclipse.tracecompass.ctf.core.event.types.Encoding;
+import org.eclipse.tracecompass.ctf.core.event.types.EnumDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.IntegerDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.StringDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.StructDeclaration;
+import org.eclipse.tracecompass.ctf.core.trace.ICTFPacketDescriptor;
 import org.eclipse.tracecompass.internal.ctf.core.trace.StreamInputPacketIndex;
 import org.eclipse.tracecompass.internal.ctf.core.trace.StreamInputPacketIndexEntry;
 import org.junit.Before;
@@ -50,4 +65,108 @@ public class CTFStreamInputPacketIndexTest {
         assertNotNull(fixture.getElement(0));
     }
 
-}
\ No newline at end of file
+
+    private static List<ICTFPacketDescriptor> createEntries(int count) throws CTFException {
+        StructDeclaration sd = new StructDeclaration(8);
+        sd.addField("timestamp_begin", IntegerDeclaration.INT_32B_DECL);
+        sd.addField("timestamp_end", IntegerDeclaration.INT_32B_DECL);
+        sd.addField("packet_size", IntegerDeclaration.INT_32B_DECL);
+        sd.addField("cpu_id", IntegerDeclaration.INT_8_DECL);
+        sd.addField("hostname", StringDeclaration.getStringDeclaration(Encoding.ASCII));
+        final EnumDeclaration declaration = new EnumDeclaration(IntegerDeclaration.INT_8_DECL);
+        declaration.add(0, 10, "mode");
+        sd.addField("Enum", declaration);
+        List<ICTFPacketDescriptor> entries = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ByteBuffer bb = ByteBuffer.allocate(32);
+            bb.putInt(100 * (i + 1));
+            bb.putInt(100 * (i + 1) + 50);
+            bb.putInt(1024);
+            bb.put((byte) (i % 4));
+            bb.put("host".getBytes());
+            bb.put((byte) 0);
+            bb.put((byte) 2);
+            bb.flip();
+            entries.add(new StreamInputPacketIndexEntry(1024L * i, sd.createDefinition(null, ILexicalScope.STREAM_PACKET_CONTEXT, new BitBuffer(bb)), 4096, 0, 1024L * i + 104));
+        }
+        return entries;
+    }
+
+    @Test
+    public void testColumns() throws CTFException {
+        List<ICTFPacketDescriptor> entries = createEntries(100);
+        StreamInputPacketIndex index = new StreamInputPacketIndex();
+        index.appendAll(entries);
+        assertEquals(entries.size(), index.size());
+        for (int i = 0; i < entries.size(); i++) {
+            ICTFPacketDescriptor expected = entries.get(i);
+            ICTFPacketDescriptor actual = index.getElement(i);
+            assertEquals(expected.getOffsetBits(), actual.getOffsetBits());
+            assertEquals(expected.getOffsetBytes(), actual.getOffsetBytes());
+            assertEquals(expected.getPacketSizeBits(), actual.getPacketSizeBits());
+            assertEquals(expected.getContentSizeBits(), actual.getContentSizeBits());
+            assertEquals(expected.getPayloadStartBits(), actual.getPayloadStartBits());
+            assertEquals(expected.getTimestampBegin(), actual.getTimestampBegin());
+            assertEquals(expected.getTimestampEnd(), actual.getTimestampEnd());
+            assertEquals(expected.getLostEvents(), actual.getLostEvents());
+            assertEquals(expected.getTarget(), actual.getTarget());
+            assertEquals(expected.getTargetId(), actual.getTargetId());
+            assertEquals(expected.getAttributes(), actual.getAttributes());
+        }
+        assertEquals(entries.get(99).getTimestampBegin(), index.lastElement().getTimestampBegin());
+    }
+
+    @Test
+    public void testOtherAttributes() throws CTFException {
+        StreamInputPacketIndex index = new StreamInputPacketIndex();
+        index.append(new StreamInputPacketIndexEntry(0L, 0L));
+        index.appendAll(createEntries(2));
+        assertTrue(index.getElement(0).getAttributes().isEmpty());
+        assertEquals(6, index.getElement(2).getAttributes().size());
+    }
+
+    @Test
+    public void testSearch() throws CTFException {
+        StreamInputPacketIndex index = new StreamInputPacketIndex();
+        assertEquals(0, index.search(100));
+        index.appendAll(createEntries(3));
+        assertEquals(0, index.search(50));
+        assertEquals(0, index.search(120));
+        assertEquals(1, index.search(175));
+        assertEquals(1, index.search(200));
+        assertEquals(2, index.search(350));
+        assertEquals(3, index.search(400));
+    }
+
+    @Test
+    public void testIndexOf() throws CTFException {
+        List<ICTFPacketDescriptor> entries = createEntries(10);
+        StreamInputPacketIndex index = new StreamInputPacketIndex();
+        index.appendAll(entries);
+        for (int i = 0; i < entries.size(); i++) {
+            assertEquals(i, index.indexOf(entries.get(i)));
+        }
+        assertEquals(-1, index.indexOf(new StreamInputPacketIndexEntry(0L, 0L)));
+    }
+
+    @Test
+    public void testNotMonotonic() throws CTFException {
+        List<ICTFPacketDescriptor> entries = createEntries(2);
+        StreamInputPacketIndex index = new StreamInputPacketIndex();
+        assertTrue(index.append(entries.get(1)));
+        assertFalse(index.append(entries.get(0)));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    public void testMemoryFootprint() throws CTFException {
+        StreamInputPacketIndex index = new StreamInputPacketIndex();
+        long empty = index.getMemoryFootprint();
+        assertTrue(empty > 0);
+        index.appendAll(createEntries(1000));
+        long full = index.getMemoryFootprint();
+        assertTrue(full > empty);
+        /* Primitive columns, not one object graph per entry */
+        assertTrue(full < 1000 * 200);
+    }
+}
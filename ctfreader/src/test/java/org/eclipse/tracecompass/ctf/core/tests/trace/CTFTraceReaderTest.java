@@ -13,15 +13,25 @@ package org.eclipse.tracecompass.ctf.core.tests.trace;
 
 import org.eclipse.tracecompass.ctf.core.CTFException;
 import org.eclipse.tracecompass.ctf.core.event.IEventDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.Definition;
+import org.eclipse.tracecompass.ctf.core.event.types.ICompositeDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.StructDefinition;
 import org.eclipse.tracecompass.ctf.core.tests.shared.CtfTestTraceExtractor;
 import org.eclipse.tracecompass.ctf.core.trace.CTFTrace;
 import org.eclipse.tracecompass.ctf.core.trace.CTFTraceReader;
+import org.eclipse.tracecompass.ctf.core.trace.CTFTraceReader.MergeStrategy;
+import org.eclipse.tracecompass.ctf.core.trace.ICTFPacketDescriptor;
 import org.junit.AfterClass;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.lttng.scope.ttt.ctf.CtfTestTrace;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
 import static org.junit.Assert.*;
 
 /**
@@ -308,6 +318,403 @@ public class CTFTraceReaderTest {
         assertTrue(result);
     }
 
+    /**
+     * Test that the loser tree merge returns the events in the same timestamp
+     * order as the heap merge.
+     *
+     * @throws CTFException
+     *             error
+     */
+    @Test
+    public void testLoserTree_sameOrder() throws CTFException {
+        CTFTrace trace = testTraceWrapper.getTrace();
+        try (CTFTraceReader heap = new CTFTraceReader(trace, MergeStrategy.HEAP);
+                CTFTraceReader tree = new CTFTraceReader(trace, MergeStrategy.LOSER_TREE);) {
+            assertEquals(MergeStrategy.LOSER_TREE, tree.getMergeStrategy());
+            assertEquals(heap.getStartTime(), tree.getStartTime());
+            long count = 0;
+            long prev = Long.MIN_VALUE;
+            while (heap.hasMoreEvents()) {
+                assertTrue(tree.hasMoreEvents());
+                long ts = tree.getCurrentEventDef().getTimestamp();
+                assertEquals(heap.getCurrentEventDef().getTimestamp(), ts);
+                assertTrue(prev <= ts);
+                prev = ts;
+                heap.advance();
+                tree.advance();
+                count++;
+            }
+            assertFalse(tree.hasMoreEvents());
+            assertTrue(count > 0);
+            assertEquals(heap.getEndTime(), tree.getEndTime());
+        }
+    }
+
+    /**
+     * Test seeking with the loser tree merge.
+     *
+     * @throws CTFException
+     *             error
+     */
+    @Test
+    public void testLoserTree_seek() throws CTFException {
+        CTFTrace trace = testTraceWrapper.getTrace();
+        try (CTFTraceReader heap = new CTFTraceReader(trace, MergeStrategy.HEAP);
+                CTFTraceReader tree = new CTFTraceReader(trace, MergeStrategy.LOSER_TREE);) {
+            for (int i = 0; i < 1000; i++) {
+                heap.advance();
+            }
+            long timestamp = heap.getCurrentEventDef().getTimestamp();
+            assertTrue(heap.seek(timestamp));
+            assertTrue(tree.seek(timestamp));
+            assertEquals(heap.getCurrentEventDef().getTimestamp(), tree.getCurrentEventDef().getTimestamp());
+            for (int i = 0; i < 1000; i++) {
+                assertEquals(heap.advance(), tree.advance());
+                assertEquals(heap.getCurrentEventDef().getTimestamp(), tree.getCurrentEventDef().getTimestamp());
+            }
+            tree.goToLastEvent();
+            heap.goToLastEvent();
+            assertEquals(heap.getCurrentEventDef().getTimestamp(), tree.getCurrentEventDef().getTimestamp());
+        }
+    }
+
+    /**
+     * Run the copy constructor test with the loser tree merge.
+     *
+     * @throws CTFException
+     *             error
+     */
+    @Test
+    public void testLoserTree_copyFrom() throws CTFException {
+        try (CTFTraceReader tree = new CTFTraceReader(testTraceWrapper.getTrace(), MergeStrategy.LOSER_TREE);
+                CTFTraceReader result = tree.copyFrom();) {
+            assertEquals(MergeStrategy.LOSER_TREE, result.getMergeStrategy());
+            assertEquals(tree.getStartTime(), result.getStartTime());
+        }
+    }
+
+    /**
+     * Test that pipelined decoding returns the same events, in the same order,
+     * as decoding on the caller thread.
+     *
+     * @throws CTFException
+     *             error
+     */
+    @Test
+    public void testPipelinedDecoding_sameOrder() throws CTFException {
+        CTFTrace trace = testTraceWrapper.getTrace();
+        try (CTFTraceReader sequential = new CTFTraceReader(trace, MergeStrategy.LOSER_TREE);
+                CTFTraceReader pipelined = new CTFTraceReader(trace, MergeStrategy.LOSER_TREE);) {
+            pipelined.setPipelinedDecoding(2, 16);
+            assertEquals(2, pipelined.getDecodeWorkerCount());
+            assertEquals(16, pipelined.getDecodeQueueDepth());
+            while (sequential.hasMoreEvents()) {
+                assertTrue(pipelined.hasMoreEvents());
+                IEventDefinition expected = sequential.getCurrentEventDef();
+                IEventDefinition actual = pipelined.getCurrentEventDef();
+                assertEquals(expected.getTimestamp(), actual.getTimestamp());
+                assertEquals(expected.getCPU(), actual.getCPU());
+                assertEquals(expected.getDeclaration().getName(), actual.getDeclaration().getName());
+                sequential.advance();
+                pipelined.advance();
+            }
+            assertFalse(pipelined.hasMoreEvents());
+        }
+    }
+
+    /**
+     * Test seeking and switching back to sequential decoding while pipelined.
+     *
+     * @throws CTFException
+     *             error
+     */
+    @Test
+    public void testPipelinedDecoding_seek() throws CTFException {
+        CTFTrace trace = testTraceWrapper.getTrace();
+        try (CTFTraceReader sequential = new CTFTraceReader(trace);
+                CTFTraceReader pipelined = new CTFTraceReader(trace);) {
+            pipelined.setPipelinedDecoding(4, 8);
+            for (int i = 0; i < 1000; i++) {
+                sequential.advance();
+                pipelined.advance();
+            }
+            long timestamp = sequential.getCurrentEventDef().getTimestamp();
+            assertTrue(sequential.seek(timestamp));
+            assertTrue(pipelined.seek(timestamp));
+            for (int i = 0; i < 1000; i++) {
+                assertEquals(sequential.getCurrentEventDef().getTimestamp(), pipelined.getCurrentEventDef().getTimestamp());
+                sequential.advance();
+                pipelined.advance();
+            }
+            pipelined.setPipelinedDecoding(0, 0);
+            assertEquals(0, pipelined.getDecodeWorkerCount());
+            for (int i = 0; i < 1000; i++) {
+                assertEquals(sequential.getCurrentEventDef().getTimestamp(), pipelined.getCurrentEventDef().getTimestamp());
+                sequential.advance();
+                pipelined.advance();
+            }
+        }
+    }
+
+    /**
+     * Test that a time window bounded reader returns exactly the events of the
+     * window, and does not map packets that begin after it.
+     *
+     * @throws CTFException
+     *             error
+     */
+    @Test
+    public void testTimeWindow() throws CTFException {
+        CTFTrace trace = testTraceWrapper.getTrace();
+        try (CTFTraceReader full = new CTFTraceReader(trace);
+                CTFTraceReader bounded = new CTFTraceReader(trace);) {
+            for (int i = 0; i < 1000; i++) {
+                full.advance();
+            }
+            long start = full.getCurrentEventDef().getTimestamp();
+            for (int i = 0; i < 5000; i++) {
+                full.advance();
+            }
+            long end = full.getCurrentEventDef().getTimestamp();
+
+            long expected = 0;
+            full.seek(start);
+            while (full.hasMoreEvents() && full.getCurrentEventDef().getTimestamp() <= end) {
+                expected++;
+                full.advance();
+            }
+
+            assertTrue(bounded.setTimeWindow(start, end));
+            assertEquals(start, bounded.getWindowStart());
+            assertEquals(end, bounded.getWindowEnd());
+            long count = 0;
+            while (bounded.hasMoreEvents()) {
+                long ts = bounded.getCurrentEventDef().getTimestamp();
+                assertTrue(ts >= start);
+                assertTrue(ts <= end);
+                for (ICTFPacketDescriptor packet : bounded.getCurrentPacketDescriptors()) {
+                    assertTrue(packet.getTimestampBegin() <= end);
+                }
+                count++;
+                bounded.advance();
+            }
+            assertEquals(expected, count);
+
+            /* Seeking again restarts the window */
+            assertTrue(bounded.seek(start));
+            assertEquals(start, bounded.getCurrentEventDef().getTimestamp());
+            assertFalse(bounded.seek(end + 1));
+        }
+    }
+
+    /**
+     * Test an empty time window.
+     *
+     * @throws CTFException
+     *             error
+     */
+    @Test
+    public void testTimeWindow_empty() throws CTFException {
+        long end = fixture.getCurrentEventDef().getTimestamp() - 1;
+        assertFalse(fixture.setTimeWindow(0, end));
+        assertNull(fixture.getCurrentEventDef());
+    }
+
+    /**
+     * Check that two structs read by different readers have the same fields
+     * and values. Definitions do not implement equals(), so the values are
+     * compared instead of the definitions.
+     */
+    private static void assertSameValues(ICompositeDefinition expected, ICompositeDefinition actual) {
+        if (expected == null || actual == null) {
+            assertSame(expected, actual);
+            return;
+        }
+        assertEquals(expected.getFieldNames(), actual.getFieldNames());
+        for (String name : expected.getFieldNames()) {
+            Definition expectedField = expected.getDefinition(name);
+            Definition actualField = actual.getDefinition(name);
+            if (expectedField instanceof StructDefinition && actualField instanceof StructDefinition) {
+                assertSameValues((StructDefinition) expectedField, (StructDefinition) actualField);
+            } else {
+                assertEquals(name, String.valueOf(expectedField), String.valueOf(actualField));
+            }
+        }
+    }
+
+    /**
+     * Test that filtering by event name returns the same events, in the same
+     * order, as reading everything and dropping the others.
+     *
+     * @throws CTFException
+     *             error
+     */
+    @Test
+    public void testEventFilter() throws CTFException {
+        CTFTrace trace = testTraceWrapper.getTrace();
+        try (CTFTraceReader full = new CTFTraceReader(trace);
+                CTFTraceReader filtered = new CTFTraceReader(trace);) {
+            String name = full.getCurrentEventDef().getDeclaration().getName();
+            Set<String> names = Collections.singleton(name);
+            assertTrue(filtered.setEventFilter(names, null));
+            assertEquals(names, filtered.getEventFilterNames());
+            assertNull(filtered.getEventFilterIds());
+
+            for (int i = 0; i < 10000 && full.hasMoreEvents(); i++) {
+                IEventDefinition event = full.getCurrentEventDef();
+                if (name.equals(event.getDeclaration().getName())) {
+                    IEventDefinition other = filtered.getCurrentEventDef();
+                    assertNotNull(other);
+                    assertEquals(event.getTimestamp(), other.getTimestamp());
+                    assertSameValues(event.getFields(), other.getFields());
+                    filtered.advance();
+                }
+                full.advance();
+            }
+
+            /* Removing the filter reads everything again */
+            assertTrue(filtered.setEventFilter(null, null));
+            assertTrue(filtered.seek(0));
+            assertTrue(full.seek(0));
+            for (int i = 0; i < 1000; i++) {
+                assertEquals(full.getCurrentEventDef().getTimestamp(), filtered.getCurrentEventDef().getTimestamp());
+                full.advance();
+                filtered.advance();
+            }
+        }
+    }
+
+    /**
+     * Test that reading the packets into pooled buffers gives the same events
+     * as mapping them.
+     *
+     * @throws CTFException
+     *             error
+     */
+    @Test
+    public void testPositionalRead() throws CTFException {
+        CTFTrace trace = testTraceWrapper.getTrace();
+        List<IEventDefinition> mapped = new ArrayList<>();
+        try (CTFTraceReader reader = new CTFTraceReader(trace);) {
+            for (int i = 0; i < 10000 && reader.hasMoreEvents(); i++) {
+                mapped.add(reader.getCurrentEventDef());
+                reader.advance();
+            }
+        }
+        trace.setIOStrategy(CTFTrace.IOStrategy.POSITIONAL_READ);
+        try (CTFTraceReader reader = new CTFTraceReader(trace);) {
+            assertEquals(CTFTrace.IOStrategy.POSITIONAL_READ, trace.getIOStrategy());
+            for (IEventDefinition expected : mapped) {
+                IEventDefinition actual = reader.getCurrentEventDef();
+                assertEquals(expected.getTimestamp(), actual.getTimestamp());
+                assertSameValues(expected.getFields(), actual.getFields());
+                reader.advance();
+            }
+        } finally {
+            trace.setIOStrategy(CTFTrace.IOStrategy.MAPPED);
+        }
+    }
+
+    /**
+     * Test that mapping the trace files whole reads the same events as
+     * mapping their packets
+     *
+     * @throws CTFException
+     *             error
+     */
+    @Test
+    public void testMappedFile() throws CTFException {
+        CTFTrace trace = testTraceWrapper.getTrace();
+        List<IEventDefinition> mapped = new ArrayList<>();
+        try (CTFTraceReader reader = new CTFTraceReader(trace);) {
+            for (int i = 0; i < 10000 && reader.hasMoreEvents(); i++) {
+                mapped.add(reader.getCurrentEventDef());
+                reader.advance();
+            }
+        }
+        trace.setIOStrategy(CTFTrace.IOStrategy.MAPPED_FILE);
+        try (CTFTraceReader reader = new CTFTraceReader(trace);) {
+            for (IEventDefinition expected : mapped) {
+                IEventDefinition actual = reader.getCurrentEventDef();
+                assertEquals(expected.getTimestamp(), actual.getTimestamp());
+                assertSameValues(expected.getFields(), actual.getFields());
+                reader.advance();
+            }
+        } finally {
+            trace.setIOStrategy(CTFTrace.IOStrategy.MAPPED);
+        }
+    }
+
+    /**
+     * Test that the events decoded lazily have the same contexts and payload
+     * as the events decoded when read
+     *
+     * @throws CTFException
+     *             error
+     */
+    @Test
+    public void testLazyDecoding() throws CTFException {
+        CTFTrace trace = testTraceWrapper.getTrace();
+        List<IEventDefinition> eager = new ArrayList<>();
+        try (CTFTraceReader reader = new CTFTraceReader(trace);) {
+            for (int i = 0; i < 10000 && reader.hasMoreEvents(); i++) {
+                eager.add(reader.getCurrentEventDef());
+                reader.advance();
+            }
+        }
+        List<IEventDefinition> lazy = new ArrayList<>();
+        try (CTFTraceReader reader = new CTFTraceReader(trace);) {
+            reader.setLazyDecoding(true);
+            assertTrue(reader.isLazyDecoding());
+            for (int i = 0; i < eager.size(); i++) {
+                lazy.add(reader.getCurrentEventDef());
+                reader.advance();
+            }
+        }
+        /* Decoded after the reader and its buffers are gone */
+        for (int i = 0; i < eager.size(); i++) {
+            IEventDefinition expected = eager.get(i);
+            IEventDefinition actual = lazy.get(i);
+            assertEquals(expected.getTimestamp(), actual.getTimestamp());
+            assertSameValues(expected.getFields(), actual.getFields());
+            assertSameValues(expected.getContext(), actual.getContext());
+        }
+    }
+
+    /**
+     * Test that seeking to a rank with checkpoints gives the same events as
+     * reading from the start, and that seeking to a timestamp resumes from
+     * the checkpoints.
+     *
+     * @throws CTFException
+     *             error
+     */
+    @Test
+    public void testSeekRank() throws CTFException {
+        CTFTrace trace = testTraceWrapper.getTrace();
+        try (CTFTraceReader reader = new CTFTraceReader(trace);) {
+            reader.setCheckpointInterval(100);
+            assertEquals(100, reader.getCheckpointInterval());
+            assertTrue(reader.seek(Long.MIN_VALUE));
+            List<Long> events = new ArrayList<>();
+            while (reader.hasMoreEvents()) {
+                events.add(reader.getCurrentEventDef().getTimestamp());
+                reader.advance();
+            }
+
+            int[] ranks = { events.size() - 1, 0, 12345 % events.size(), 99, 100, 101, events.size() / 2 };
+            for (int rank : ranks) {
+                assertTrue(reader.seekRank(rank));
+                assertEquals(events.get(rank).longValue(), reader.getCurrentEventDef().getTimestamp());
+            }
+            assertFalse(reader.seekRank(events.size()));
+
+            long middle = events.get(events.size() / 2);
+            assertTrue(reader.seek(middle));
+            assertEquals(middle, reader.getCurrentEventDef().getTimestamp());
+        }
+    }
+
     /**
      * @return
      */
@@ -20,7 +20,9 @@ import org.eclipse.tracecompass.ctf.core.event.metadata.ParseException;
 import org.eclipse.tracecompass.ctf.core.event.types.IDefinition;
 import org.eclipse.tracecompass.ctf.core.event.types.StructDeclaration;
 import org.eclipse.tracecompass.ctf.core.tests.shared.CtfTestTraceExtractor;
+import org.eclipse.tracecompass.ctf.core.trace.CTFStreamInput;
 import org.eclipse.tracecompass.ctf.core.trace.CTFTrace;
+import org.eclipse.tracecompass.ctf.core.trace.CTFTraceReader;
 import org.eclipse.tracecompass.ctf.core.trace.ICTFStream;
 import org.eclipse.tracecompass.internal.ctf.core.trace.CTFStream;
 import org.junit.AfterClass;
@@ -31,7 +33,10 @@ import org.lttng.scope.ttt.ctf.CtfTestTrace;
 
 import java.io.File;
 import java.nio.ByteOrder;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.junit.Assert.*;
 
@@ -81,6 +86,51 @@ public class CTFTraceTest {
         assertNotNull(result.getUUID());
     }
 
+    /**
+     * Run the CTFTrace(File, Executor) constructor test, the trace must be the
+     * same as one opened sequentially.
+     *
+     * @throws CTFException
+     *             should not happen
+     */
+    @Test
+    public void testOpen_parallel() throws CTFException {
+        File path = new File(testTraceWrapper.getTrace().getPath());
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            CTFTrace sequential = new CTFTrace(path);
+            CTFTrace parallel = new CTFTrace(path, pool);
+            assertEquals(sequential.getUUID(), parallel.getUUID());
+            assertEquals(sequential.nbStreams(), parallel.nbStreams());
+            for (ICTFStream stream : sequential.getStreams()) {
+                ICTFStream other = parallel.getStream(stream.getId());
+                assertNotNull(other);
+                Set<String> expected = new TreeSet<>();
+                for (CTFStreamInput input : stream.getStreamInputs()) {
+                    expected.add(input.getFilename());
+                }
+                Set<String> actual = new TreeSet<>();
+                for (CTFStreamInput input : other.getStreamInputs()) {
+                    actual.add(input.getFilename());
+                    /* The index was built at open */
+                    assertTrue(input.getIndexMemoryFootprint() > 0);
+                }
+                assertEquals(expected, actual);
+            }
+            try (CTFTraceReader expectedReader = new CTFTraceReader(sequential);
+                    CTFTraceReader actualReader = new CTFTraceReader(parallel);) {
+                assertEquals(expectedReader.getStartTime(), actualReader.getStartTime());
+                for (int i = 0; i < 1000 && expectedReader.hasMoreEvents(); i++) {
+                    assertEquals(expectedReader.getCurrentEventDef().getTimestamp(), actualReader.getCurrentEventDef().getTimestamp());
+                    expectedReader.advance();
+                    actualReader.advance();
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
     /**
      * Run the CTFTrace(File) constructor test with an invalid path.
      *
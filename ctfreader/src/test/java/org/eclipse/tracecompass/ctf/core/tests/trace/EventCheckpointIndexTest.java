@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EfficiOS Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.ctf.core.tests.trace;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.eclipse.tracecompass.internal.ctf.core.trace.EventCheckpointIndex;
+import org.eclipse.tracecompass.internal.ctf.core.trace.EventCheckpointIndex.Checkpoint;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The class <code>EventCheckpointIndexTest</code> contains tests for the
+ * class <code>{@link EventCheckpointIndex}</code>.
+ */
+@SuppressWarnings("javadoc")
+public class EventCheckpointIndexTest {
+
+    private EventCheckpointIndex fFixture;
+
+    /**
+     * Two packets of 10 events, timestamps 100 to 190 then 200 to 290, with
+     * a checkpoint every 4 events
+     */
+    @Before
+    public void setUp() {
+        fFixture = new EventCheckpointIndex(4);
+        for (int rank = 0; rank < 20; rank++) {
+            int packet = rank / 10;
+            boolean packetStart = (rank % 10 == 0);
+            if (fFixture.isCheckpoint(rank, packetStart)) {
+                assertTrue(fFixture.add(0, rank, packet, 1000 + rank * 64, 100 + rank * 10 - 10, 100 + rank * 10));
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidInterval() {
+        new EventCheckpointIndex(0);
+    }
+
+    @Test
+    public void testCheckpoints() {
+        /* 0, 4, 8, 10, 12, 16 */
+        assertEquals(6, fFixture.size());
+        assertEquals(100, fFixture.getTimestamp(0));
+        assertEquals(260, fFixture.getTimestamp(5));
+    }
+
+    @Test
+    public void testAddGap() {
+        /* Already covered */
+        assertFalse(fFixture.add(0, 16, 1, 0, 0, 0));
+        /* A reader that did not read the events since the last checkpoint */
+        assertFalse(fFixture.add(18, 20, 2, 0, 0, 0));
+        assertTrue(fFixture.add(12, 20, 2, 0, 0, 0));
+        assertEquals(7, fFixture.size());
+    }
+
+    @Test
+    public void testFind() {
+        Checkpoint checkpoint = fFixture.find(0, 175);
+        assertNotNull(checkpoint);
+        assertEquals(4, checkpoint.getRank());
+        assertEquals(0, checkpoint.getPacket());
+        assertEquals(1000 + 4 * 64, checkpoint.getPosition());
+        assertEquals(130, checkpoint.getPreviousTimestamp());
+        assertEquals(140, checkpoint.getTimestamp());
+
+        /* At a checkpoint, resume from the previous one */
+        checkpoint = fFixture.find(0, 180);
+        assertNotNull(checkpoint);
+        assertEquals(4, checkpoint.getRank());
+
+        checkpoint = fFixture.find(1, 1000);
+        assertNotNull(checkpoint);
+        assertEquals(16, checkpoint.getRank());
+    }
+
+    @Test
+    public void testFindPacketStart() {
+        Checkpoint checkpoint = fFixture.find(1, Long.MIN_VALUE);
+        assertNotNull(checkpoint);
+        assertEquals(10, checkpoint.getRank());
+        assertEquals(1000 + 10 * 64, checkpoint.getPosition());
+        assertNull(fFixture.find(2, Long.MIN_VALUE));
+    }
+
+    @Test
+    public void testMaxRankBefore() {
+        assertEquals(0, fFixture.getMaxRankBefore(Long.MIN_VALUE));
+        assertEquals(0, fFixture.getMaxRankBefore(100));
+        assertEquals(4, fFixture.getMaxRankBefore(101));
+        assertEquals(16, fFixture.getMaxRankBefore(260));
+        assertEquals(Long.MAX_VALUE, fFixture.getMaxRankBefore(261));
+        assertEquals(-1, fFixture.getEventCount());
+        fFixture.setEventCount(20);
+        assertEquals(20, fFixture.getMaxRankBefore(261));
+    }
+}
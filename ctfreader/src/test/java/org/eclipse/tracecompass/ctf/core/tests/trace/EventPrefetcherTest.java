@@ -0,0 +1,252 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EfficiOS Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.ctf.core.tests.trace;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.tracecompass.ctf.core.CTFException;
+import org.eclipse.tracecompass.ctf.core.event.IEventDefinition;
+import org.eclipse.tracecompass.ctf.core.trace.CTFResponse;
+import org.eclipse.tracecompass.ctf.core.trace.IPacketReader;
+import org.eclipse.tracecompass.internal.ctf.core.event.EventDeclaration;
+import org.eclipse.tracecompass.internal.ctf.core.event.EventDefinition;
+import org.eclipse.tracecompass.internal.ctf.core.trace.EventPrefetcher;
+import org.eclipse.tracecompass.internal.ctf.core.trace.EventPrefetcher.Item;
+import org.eclipse.tracecompass.internal.ctf.core.trace.NullPacketReader;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link EventPrefetcher}
+ */
+@SuppressWarnings("javadoc")
+public class EventPrefetcherTest {
+
+    /**
+     * Source of events with timestamps 0 to count - 1
+     */
+    private static class CountingSource implements EventPrefetcher.IEventSource {
+        private final EventDeclaration fDeclaration = new EventDeclaration();
+        private final int fFailAt;
+        private volatile int fCount;
+        private volatile boolean fLive;
+        protected int fNext = 0;
+        private IEventDefinition fCurrent = null;
+
+        public CountingSource(int count, int failAt) {
+            fCount = count;
+            fFailAt = failAt;
+        }
+
+        @Override
+        public CTFResponse read() throws CTFException {
+            if (fNext == fFailAt) {
+                fNext++;
+                throw new CTFException("Bad event");
+            }
+            if (fNext >= fCount) {
+                fCurrent = null;
+                return fLive ? CTFResponse.WAIT : CTFResponse.FINISH;
+            }
+            fCurrent = new EventDefinition(fDeclaration, 0, fNext++, null, null, null, null, null, null);
+            return CTFResponse.OK;
+        }
+
+        @Override
+        public IEventDefinition getCurrentEvent() {
+            return fCurrent;
+        }
+
+        @Override
+        public IPacketReader getPacketReader() {
+            return NullPacketReader.INSTANCE;
+        }
+    }
+
+    /**
+     * Source that records any read running while the consumer seeks it
+     */
+    private static class SeekableSource extends CountingSource {
+        private final AtomicInteger fUsers = new AtomicInteger();
+        private final AtomicBoolean fShared = new AtomicBoolean();
+
+        public SeekableSource(int count) {
+            super(count, -1);
+        }
+
+        @Override
+        public CTFResponse read() throws CTFException {
+            enter();
+            try {
+                return super.read();
+            } finally {
+                fUsers.decrementAndGet();
+            }
+        }
+
+        public void seek(int position) {
+            enter();
+            try {
+                /* Leave time to a stray decoding task */
+                Thread.yield();
+                fNext = position;
+            } finally {
+                fUsers.decrementAndGet();
+            }
+        }
+
+        private void enter() {
+            if (fUsers.incrementAndGet() != 1) {
+                fShared.set(true);
+            }
+        }
+    }
+
+    private ExecutorService fExecutor;
+
+    @Before
+    public void setUp() {
+        fExecutor = Executors.newFixedThreadPool(2);
+    }
+
+    @After
+    public void tearDown() {
+        fExecutor.shutdown();
+    }
+
+    private static void assertEvent(long expected, Item item) {
+        assertEquals(CTFResponse.OK, item.getResponse());
+        IEventDefinition event = item.getEvent();
+        assertNotNull(event);
+        assertEquals(expected, event.getTimestamp());
+        assertSame(NullPacketReader.INSTANCE, item.getPacketReader());
+    }
+
+    @Test
+    public void testReadAll() {
+        EventPrefetcher fixture = new EventPrefetcher(new CountingSource(10000, -1), fExecutor, 16);
+        for (int i = 0; i < 10000; i++) {
+            assertEvent(i, fixture.next());
+        }
+        assertEquals(CTFResponse.FINISH, fixture.next().getResponse());
+        assertEquals(CTFResponse.FINISH, fixture.next().getResponse());
+    }
+
+    @Test
+    public void testDepthOne() {
+        EventPrefetcher fixture = new EventPrefetcher(new CountingSource(100, -1), fExecutor, 1);
+        for (int i = 0; i < 100; i++) {
+            assertEvent(i, fixture.next());
+        }
+        assertEquals(CTFResponse.FINISH, fixture.next().getResponse());
+    }
+
+    @Test
+    public void testManyStreamsFewWorkers() {
+        int streams = 50;
+        EventPrefetcher[] fixtures = new EventPrefetcher[streams];
+        for (int s = 0; s < streams; s++) {
+            fixtures[s] = new EventPrefetcher(new CountingSource(1000, -1), fExecutor, 8);
+        }
+        for (int i = 0; i < 1000; i++) {
+            for (EventPrefetcher fixture : fixtures) {
+                assertEvent(i, fixture.next());
+            }
+        }
+        for (EventPrefetcher fixture : fixtures) {
+            assertEquals(CTFResponse.FINISH, fixture.next().getResponse());
+        }
+    }
+
+    @Test
+    public void testStopKeepsDecodedEvents() {
+        EventPrefetcher fixture = new EventPrefetcher(new CountingSource(1000, -1), fExecutor, 64);
+        for (int i = 0; i < 10; i++) {
+            assertEvent(i, fixture.next());
+        }
+        List<Item> pending = fixture.stop();
+        long next = 10;
+        for (Item item : pending) {
+            if (item.getResponse() == CTFResponse.OK) {
+                assertEvent(next++, item);
+            }
+        }
+        for (long i = next; i < 1000; i++) {
+            assertEvent(i, fixture.next());
+        }
+        assertEquals(CTFResponse.FINISH, fixture.next().getResponse());
+        assertTrue(fixture.stop().isEmpty());
+    }
+
+    @Test
+    public void testStopAndSeek() {
+        SeekableSource source = new SeekableSource(100000);
+        /* A small queue, so the runs end and reschedule all the time */
+        EventPrefetcher fixture = new EventPrefetcher(source, fExecutor, 4);
+        int position = 0;
+        for (int i = 0; i < 2000; i++) {
+            for (int j = 0; j < 3; j++) {
+                assertEvent(position + j, fixture.next());
+            }
+            fixture.stop();
+            position = (position * 31 + 7) % 90000;
+            source.seek(position);
+        }
+        assertFalse(source.fShared.get());
+    }
+
+    @Test
+    public void testError() {
+        EventPrefetcher fixture = new EventPrefetcher(new CountingSource(100, 50), fExecutor, 16);
+        for (int i = 0; i < 50; i++) {
+            assertEvent(i, fixture.next());
+        }
+        Item item = fixture.next();
+        assertEquals(CTFResponse.ERROR, item.getResponse());
+        assertNotNull(item.getError());
+        assertNull(item.getEvent());
+        /* Decoding resumes after the bad event */
+        assertEvent(51, fixture.next());
+    }
+
+    @Test
+    public void testLive() {
+        CountingSource source = new CountingSource(10, -1);
+        source.fLive = true;
+        EventPrefetcher fixture = new EventPrefetcher(source, fExecutor, 4);
+        for (int i = 0; i < 10; i++) {
+            assertEvent(i, fixture.next());
+        }
+        assertEquals(CTFResponse.WAIT, fixture.next().getResponse());
+        source.fCount = 20;
+        for (int i = 10; i < 20; i++) {
+            assertEvent(i, fixture.next());
+        }
+        source.fLive = false;
+        Item item = fixture.next();
+        if (item.getResponse() == CTFResponse.WAIT) {
+            /* Decoded ahead before the end of the live session */
+            item = fixture.next();
+        }
+        assertEquals(CTFResponse.FINISH, item.getResponse());
+    }
+}
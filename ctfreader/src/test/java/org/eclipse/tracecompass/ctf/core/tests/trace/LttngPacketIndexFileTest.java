@@ -0,0 +1,194 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EfficiOS Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.ctf.core.tests.trace;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.tracecompass.ctf.core.CTFException;
+import org.eclipse.tracecompass.ctf.core.event.io.BitBuffer;
+import org.eclipse.tracecompass.ctf.core.event.scope.ILexicalScope;
+import org.eclipse.tracecompass.ctf.core.event.types.IntegerDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.StructDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.StructDefinition;
+import org.eclipse.tracecompass.ctf.core.trace.ICTFPacketDescriptor;
+import org.eclipse.tracecompass.internal.ctf.core.trace.LttngPacketIndexFile;
+import org.eclipse.tracecompass.internal.ctf.core.trace.StreamInputPacketIndexEntry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The class <code>LttngPacketIndexFileTest</code> contains tests for the class
+ * <code>{@link LttngPacketIndexFile}</code>.
+ */
+@SuppressWarnings("javadoc")
+public class LttngPacketIndexFileTest {
+
+    private static final long STREAM_ID = 2;
+    private static final int PACKET_SIZE = 1024;
+    private static final int PACKET_COUNT = 4;
+    private static final long PAYLOAD_START = 352;
+
+    private File fDirectory;
+    private File fStreamFile;
+    private File fIndexFile;
+    private StructDeclaration fContext;
+    private List<ICTFPacketDescriptor> fEntries;
+
+    @Before
+    public void setUp() throws IOException, CTFException {
+        fDirectory = Files.createTempDirectory("lttngindex").toFile();
+        fStreamFile = new File(fDirectory, "channel0_1");
+        Files.write(fStreamFile.toPath(), new byte[PACKET_SIZE * PACKET_COUNT]);
+        fIndexFile = LttngPacketIndexFile.getIndexFile(fStreamFile);
+        Files.createDirectories(fIndexFile.getParentFile().toPath());
+
+        fContext = new StructDeclaration(8);
+        fContext.addField("timestamp_begin", IntegerDeclaration.UINT_64B_DECL);
+        fContext.addField("timestamp_end", IntegerDeclaration.UINT_64B_DECL);
+        fContext.addField("content_size", IntegerDeclaration.UINT_64B_DECL);
+        fContext.addField("packet_size", IntegerDeclaration.UINT_64B_DECL);
+        fContext.addField("packet_seq_num", IntegerDeclaration.UINT_64B_DECL);
+        fContext.addField("events_discarded", IntegerDeclaration.UINT_64B_DECL);
+        fContext.addField("cpu_id", IntegerDeclaration.UINT_32B_DECL);
+
+        fEntries = new ArrayList<>();
+        long lostSoFar = 0;
+        for (int i = 0; i < PACKET_COUNT; i++) {
+            ByteBuffer bb = ByteBuffer.allocate(64);
+            bb.putLong(100L * i);
+            bb.putLong(100L * i + 99);
+            bb.putLong(PACKET_SIZE * 4);
+            bb.putLong(PACKET_SIZE * 8);
+            bb.putLong(i);
+            bb.putLong(2L * i);
+            bb.putInt(1);
+            bb.flip();
+            StructDefinition def = fContext.createDefinition(null, ILexicalScope.STREAM_PACKET_CONTEXT, new BitBuffer(bb));
+            ICTFPacketDescriptor entry = new StreamInputPacketIndexEntry((long) PACKET_SIZE * Byte.SIZE * i, def, PACKET_SIZE * PACKET_COUNT, lostSoFar, PAYLOAD_START);
+            lostSoFar += entry.getLostEvents();
+            fEntries.add(entry);
+        }
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(fIndexFile.toPath());
+        Files.deleteIfExists(fIndexFile.getParentFile().toPath());
+        Files.deleteIfExists(fStreamFile.toPath());
+        Files.deleteIfExists(fDirectory.toPath());
+    }
+
+    private void writeIndex(int magic, int minor, List<ICTFPacketDescriptor> entries) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(magic);
+            out.writeInt(1);
+            out.writeInt(minor);
+            out.writeInt(minor == 0 ? 56 : 72);
+            for (ICTFPacketDescriptor entry : entries) {
+                out.writeLong(entry.getOffsetBytes());
+                out.writeLong(entry.getPacketSizeBits());
+                out.writeLong(entry.getContentSizeBits());
+                out.writeLong(entry.getTimestampBegin());
+                out.writeLong(entry.getTimestampEnd());
+                out.writeLong((Long) entry.getAttributes().get("events_discarded"));
+                out.writeLong(STREAM_ID);
+                if (minor > 0) {
+                    out.writeLong(0);
+                    out.writeLong((Long) entry.getAttributes().get("packet_seq_num"));
+                }
+            }
+        }
+        Files.write(fIndexFile.toPath(), bytes.toByteArray());
+    }
+
+    private List<ICTFPacketDescriptor> load() {
+        return LttngPacketIndexFile.load(fIndexFile, fStreamFile.length(), STREAM_ID, fContext, fEntries.get(0));
+    }
+
+    @Test
+    public void testLoad() throws IOException {
+        writeIndex(0xC1F1DCC1, 1, fEntries);
+        List<ICTFPacketDescriptor> loaded = load();
+        assertNotNull(loaded);
+        assertEquals(fEntries.size(), loaded.size());
+        for (int i = 0; i < fEntries.size(); i++) {
+            ICTFPacketDescriptor expected = fEntries.get(i);
+            ICTFPacketDescriptor actual = loaded.get(i);
+            assertEquals(expected.getOffsetBits(), actual.getOffsetBits());
+            assertEquals(expected.getPacketSizeBits(), actual.getPacketSizeBits());
+            assertEquals(expected.getContentSizeBits(), actual.getContentSizeBits());
+            assertEquals(expected.getPayloadStartBits(), actual.getPayloadStartBits());
+            assertEquals(expected.getTimestampBegin(), actual.getTimestampBegin());
+            assertEquals(expected.getTimestampEnd(), actual.getTimestampEnd());
+            assertEquals(expected.getLostEvents(), actual.getLostEvents());
+            assertEquals(expected.getTarget(), actual.getTarget());
+            assertEquals(expected.getTargetId(), actual.getTargetId());
+            assertEquals(expected.getAttributes(), actual.getAttributes());
+        }
+        assertEquals(2, loaded.get(3).getLostEvents());
+    }
+
+    @Test
+    public void testNoSequenceNumber() throws IOException {
+        writeIndex(0xC1F1DCC1, 0, fEntries);
+        assertNull(load());
+    }
+
+    @Test
+    public void testBadMagic() throws IOException {
+        writeIndex(0xC1FC1FC1, 1, fEntries);
+        assertNull(load());
+    }
+
+    @Test
+    public void testMissingPacket() throws IOException {
+        List<ICTFPacketDescriptor> entries = new ArrayList<>(fEntries);
+        entries.remove(1);
+        writeIndex(0xC1F1DCC1, 1, entries);
+        assertNull(load());
+    }
+
+    @Test
+    public void testPastEndOfFile() throws IOException {
+        writeIndex(0xC1F1DCC1, 1, fEntries);
+        Files.write(fStreamFile.toPath(), new byte[PACKET_SIZE * (PACKET_COUNT - 1)]);
+        assertNull(load());
+    }
+
+    @Test
+    public void testUnknownContextField() throws IOException {
+        fContext.addField("other", IntegerDeclaration.UINT_32B_DECL);
+        writeIndex(0xC1F1DCC1, 1, fEntries);
+        assertNull(load());
+    }
+
+    @Test
+    public void testTruncated() throws IOException {
+        writeIndex(0xC1F1DCC1, 1, fEntries);
+        byte[] content = Files.readAllBytes(fIndexFile.toPath());
+        byte[] truncated = new byte[content.length - 10];
+        System.arraycopy(content, 0, truncated, 0, truncated.length);
+        Files.write(fIndexFile.toPath(), truncated);
+        assertNull(load());
+    }
+}
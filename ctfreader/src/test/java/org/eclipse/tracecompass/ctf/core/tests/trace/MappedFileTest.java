@@ -0,0 +1,128 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EfficiOS Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.ctf.core.tests.trace;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+
+import org.eclipse.tracecompass.internal.ctf.core.trace.MappedFile;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The class <code>MappedFileTest</code> contains tests for the class
+ * <code>{@link MappedFile}</code>.
+ */
+@SuppressWarnings("javadoc")
+public class MappedFileTest {
+
+    private static final int CHUNK_SIZE = 4096;
+    private static final int WINDOW_SIZE = CHUNK_SIZE + CHUNK_SIZE / 4;
+
+    private File fFile;
+    private FileChannel fChannel;
+    private MappedFile fFixture;
+
+    @Before
+    public void setUp() throws IOException {
+        fFile = File.createTempFile("channel0_", null);
+        writeBytes(0, 4 * CHUNK_SIZE);
+        fChannel = FileChannel.open(fFile.toPath(), StandardOpenOption.READ);
+        fFixture = new MappedFile(fChannel, CHUNK_SIZE);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        fFixture.close();
+        fChannel.close();
+        Files.deleteIfExists(fFile.toPath());
+    }
+
+    private void writeBytes(int from, int to) throws IOException {
+        byte[] content = new byte[to - from];
+        for (int i = from; i < to; i++) {
+            content[i - from] = (byte) i;
+        }
+        Files.write(fFile.toPath(), content, StandardOpenOption.APPEND);
+    }
+
+    private static void assertSlice(ByteBuffer buffer, long offset, int size) {
+        assertEquals(0, buffer.position());
+        assertEquals(size, buffer.capacity());
+        for (int i = 0; i < size; i++) {
+            assertEquals((byte) (offset + i), buffer.get(i));
+        }
+    }
+
+    @Test
+    public void testSlice() throws IOException {
+        assertSlice(fFixture.slice(100, 200), 100, 200);
+        assertSlice(fFixture.slice(4000, 1000), 4000, 1000);
+        /* Both in the first chunk */
+        assertEquals(WINDOW_SIZE, fFixture.getMappedBytes());
+        assertEquals(1, fFixture.getMappingCount());
+        assertSlice(fFixture.slice(3 * CHUNK_SIZE + 10, 50), 3 * CHUNK_SIZE + 10, 50);
+        /* The last chunk ends with the file */
+        assertEquals(WINDOW_SIZE + CHUNK_SIZE, fFixture.getMappedBytes());
+        assertEquals(2, fFixture.getMappingCount());
+    }
+
+    @Test
+    public void testLargeOffset() throws IOException {
+        MappedFile fixture = new MappedFile(fChannel, 1024);
+        try {
+            assertSlice(fixture.slice(3 * CHUNK_SIZE + 100, 200), 3 * CHUNK_SIZE + 100, 200);
+            assertEquals(1, fixture.getMappingCount());
+        } finally {
+            fixture.close();
+        }
+    }
+
+    @Test
+    public void testOutsideChunk() throws IOException {
+        assertSlice(fFixture.slice(4000, 2000), 4000, 2000);
+        assertEquals(2000, fFixture.getMappedBytes());
+        /* Mapped once */
+        assertSlice(fFixture.slice(4000, 2000), 4000, 2000);
+        assertEquals(1, fFixture.getMappingCount());
+    }
+
+    @Test
+    public void testFileGrows() throws IOException {
+        assertSlice(fFixture.slice(3 * CHUNK_SIZE, 100), 3 * CHUNK_SIZE, 100);
+        writeBytes(4 * CHUNK_SIZE, 5 * CHUNK_SIZE);
+        assertSlice(fFixture.slice(4 * CHUNK_SIZE - 100, 200), 4 * CHUNK_SIZE - 100, 200);
+        /* The older mapping stays until the file is closed */
+        assertEquals(2, fFixture.getMappingCount());
+    }
+
+    @Test
+    public void testClose() throws IOException {
+        fFixture.slice(0, 100);
+        fFixture.slice(4000, 2000);
+        fFixture.close();
+        assertEquals(0, fFixture.getMappedBytes());
+        assertEquals(0, fFixture.getMappingCount());
+    }
+
+    @Test(expected = ClosedChannelException.class)
+    public void testSliceAfterClose() throws IOException {
+        fFixture.close();
+        fFixture.slice(0, 100);
+    }
+}
@@ -0,0 +1,166 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EfficiOS Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.ctf.core.tests.trace;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+
+import org.eclipse.tracecompass.internal.ctf.core.trace.MappedRegionCache;
+import org.eclipse.tracecompass.internal.ctf.core.trace.MappedRegionCache.Region;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The class <code>MappedRegionCacheTest</code> contains tests for the class
+ * <code>{@link MappedRegionCache}</code>.
+ */
+@SuppressWarnings("javadoc")
+public class MappedRegionCacheTest {
+
+    private static final int CHUNK_SIZE = 4096;
+    private static final int WINDOW_SIZE = CHUNK_SIZE + CHUNK_SIZE / 4;
+
+    private File fFile;
+    private FileChannel fChannel;
+    private MappedRegionCache fFixture;
+
+    @Before
+    public void setUp() throws IOException {
+        fFile = File.createTempFile("channel0_", null);
+        writeBytes(0, 4 * CHUNK_SIZE);
+        fChannel = FileChannel.open(fFile.toPath(), StandardOpenOption.READ);
+        fFixture = new MappedRegionCache(CHUNK_SIZE, 3 * WINDOW_SIZE);
+        fFixture.acquire(fFile);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        fChannel.close();
+        Files.deleteIfExists(fFile.toPath());
+    }
+
+    private void writeBytes(int from, int to) throws IOException {
+        byte[] content = new byte[to - from];
+        for (int i = from; i < to; i++) {
+            content[i - from] = (byte) i;
+        }
+        Files.write(fFile.toPath(), content, StandardOpenOption.APPEND);
+    }
+
+    private static void assertRegion(Region region, long offset, int size) {
+        ByteBuffer buffer = region.getBuffer();
+        assertEquals(0, buffer.position());
+        assertEquals(size, buffer.remaining());
+        for (int i = 0; i < size; i++) {
+            assertEquals((byte) (offset + i), buffer.get(i));
+        }
+        region.release();
+    }
+
+    @Test
+    public void testRegion() throws IOException {
+        assertRegion(fFixture.getRegion(fFile, fChannel, 100, 200), 100, 200);
+        assertRegion(fFixture.getRegion(fFile, fChannel, 4000, 1000), 4000, 1000);
+        /* Both in the window of the first chunk */
+        assertEquals(WINDOW_SIZE, fFixture.getMappedBytes());
+        assertEquals(1, fFixture.getMappingCount());
+    }
+
+    @Test
+    public void testOutsideWindow() throws IOException {
+        Region region = fFixture.getRegion(fFile, fChannel, 4000, 2000);
+        assertEquals(2000, fFixture.getMappedBytes());
+        assertRegion(region, 4000, 2000);
+        /* Unmapped when released */
+        assertEquals(0, fFixture.getMappedBytes());
+        assertEquals(0, fFixture.getMappingCount());
+    }
+
+    @Test
+    public void testLastChunk() throws IOException {
+        assertRegion(fFixture.getRegion(fFile, fChannel, 3 * CHUNK_SIZE, CHUNK_SIZE), 3 * CHUNK_SIZE, CHUNK_SIZE);
+        /* Clipped to the end of the file */
+        assertEquals(CHUNK_SIZE, fFixture.getMappedBytes());
+    }
+
+    @Test
+    public void testGrown() throws IOException {
+        assertRegion(fFixture.getRegion(fFile, fChannel, 3 * CHUNK_SIZE, 100), 3 * CHUNK_SIZE, 100);
+        writeBytes(4 * CHUNK_SIZE, 5 * CHUNK_SIZE);
+        assertRegion(fFixture.getRegion(fFile, fChannel, 3 * CHUNK_SIZE + 100, CHUNK_SIZE), 3 * CHUNK_SIZE + 100, CHUNK_SIZE);
+        assertEquals(WINDOW_SIZE, fFixture.getMappedBytes());
+        assertEquals(1, fFixture.getMappingCount());
+    }
+
+    @Test
+    public void testGrownInUse() throws IOException {
+        Region old = fFixture.getRegion(fFile, fChannel, 3 * CHUNK_SIZE, 100);
+        writeBytes(4 * CHUNK_SIZE, 5 * CHUNK_SIZE);
+        Region grown = fFixture.getRegion(fFile, fChannel, 3 * CHUNK_SIZE + 100, CHUNK_SIZE);
+        /* The old window stays mapped while in use */
+        assertEquals(2, fFixture.getMappingCount());
+        assertRegion(old, 3 * CHUNK_SIZE, 100);
+        assertEquals(1, fFixture.getMappingCount());
+        assertRegion(grown, 3 * CHUNK_SIZE + 100, CHUNK_SIZE);
+    }
+
+    @Test
+    public void testEvict() throws IOException {
+        for (int chunk = 0; chunk < 3; chunk++) {
+            fFixture.getRegion(fFile, fChannel, chunk * CHUNK_SIZE, 10).release();
+        }
+        assertEquals(3 * WINDOW_SIZE, fFixture.getMappedBytes());
+        fFixture.getRegion(fFile, fChannel, 3 * CHUNK_SIZE, 10).release();
+        assertEquals(2 * WINDOW_SIZE + CHUNK_SIZE, fFixture.getMappedBytes());
+        fFixture.setBudget(WINDOW_SIZE);
+        assertEquals(CHUNK_SIZE, fFixture.getMappedBytes());
+        fFixture.setBudget(0);
+        assertEquals(0, fFixture.getMappedBytes());
+        assertEquals(0, fFixture.getMappingCount());
+        assertRegion(fFixture.getRegion(fFile, fChannel, 100, 10), 100, 10);
+        assertEquals(0, fFixture.getMappedBytes());
+    }
+
+    @Test
+    public void testEvictInUse() throws IOException {
+        fFixture.setBudget(WINDOW_SIZE);
+        Region first = fFixture.getRegion(fFile, fChannel, 0, 10);
+        Region second = fFixture.getRegion(fFile, fChannel, CHUNK_SIZE, 10);
+        /* Over budget, but both windows are in use */
+        assertEquals(2, fFixture.getMappingCount());
+        assertRegion(first, 0, 10);
+        assertRegion(second, CHUNK_SIZE, 10);
+        fFixture.getRegion(fFile, fChannel, 2 * CHUNK_SIZE, 10).release();
+        assertEquals(1, fFixture.getMappingCount());
+    }
+
+    @Test
+    public void testRelease() throws IOException {
+        fFixture.acquire(fFile);
+        Region region = fFixture.getRegion(fFile, fChannel, 0, 10);
+        fFixture.release(fFile);
+        assertEquals(WINDOW_SIZE, fFixture.getMappedBytes());
+        fFixture.release(fFile);
+        /* Still in use */
+        assertEquals(WINDOW_SIZE, fFixture.getMappedBytes());
+        assertRegion(region, 0, 10);
+        assertEquals(0, fFixture.getMappedBytes());
+        /* Releasing twice is harmless */
+        region.release();
+        assertEquals(0, fFixture.getMappingCount());
+    }
+}
@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EfficiOS Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.ctf.core.tests.trace;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+
+import org.eclipse.tracecompass.internal.ctf.core.trace.PacketBufferPool;
+import org.junit.Test;
+
+/**
+ * The class <code>PacketBufferPoolTest</code> contains tests for the class
+ * <code>{@link PacketBufferPool}</code>.
+ */
+@SuppressWarnings("javadoc")
+public class PacketBufferPoolTest {
+
+    @Test
+    public void testReuse() {
+        PacketBufferPool pool = new PacketBufferPool(2);
+        ByteBuffer buffer = pool.acquire(1000);
+        assertTrue(buffer.isDirect());
+        assertTrue(buffer.capacity() >= 1000);
+        buffer.position(10);
+        pool.release(buffer);
+        assertEquals(1, pool.getIdleCount());
+        ByteBuffer other = pool.acquire(10);
+        assertSame(buffer, other);
+        assertEquals(0, other.position());
+        assertEquals(other.capacity(), other.limit());
+    }
+
+    @Test
+    public void testGrow() {
+        PacketBufferPool pool = new PacketBufferPool(2);
+        ByteBuffer small = pool.acquire(10);
+        pool.release(small);
+        int size = small.capacity() + 1;
+        ByteBuffer large = pool.acquire(size);
+        assertNotSame(small, large);
+        assertEquals(size, large.capacity());
+        assertEquals(size, pool.getBufferSize());
+        /* Too small for the largest packet */
+        pool.release(small);
+        assertEquals(0, pool.getIdleCount());
+        pool.release(large);
+        assertEquals(1, pool.getIdleCount());
+    }
+
+    @Test
+    public void testMaxIdle() {
+        PacketBufferPool pool = new PacketBufferPool(1);
+        ByteBuffer first = pool.acquire(10);
+        ByteBuffer second = pool.acquire(10);
+        pool.release(first);
+        pool.release(second);
+        assertEquals(1, pool.getIdleCount());
+    }
+
+    @Test
+    public void testReadFully() throws IOException {
+        File file = File.createTempFile("channel0_", null);
+        try {
+            byte[] content = new byte[256];
+            for (int i = 0; i < content.length; i++) {
+                content[i] = (byte) i;
+            }
+            Files.write(file.toPath(), content);
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                ByteBuffer buffer = ByteBuffer.allocateDirect(100);
+                PacketBufferPool.readFully(channel, buffer, 100);
+                buffer.flip();
+                assertEquals(100, buffer.remaining());
+                assertEquals((byte) 100, buffer.get(0));
+                assertEquals((byte) 199, buffer.get(99));
+
+                buffer.clear();
+                try {
+                    PacketBufferPool.readFully(channel, buffer, 200);
+                    throw new AssertionError("Read past the end of the file");
+                } catch (EOFException e) {
+                    assertEquals(56, buffer.position());
+                }
+            }
+        } finally {
+            Files.delete(file.toPath());
+        }
+    }
+}
@@ -0,0 +1,222 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EfficiOS Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.ctf.core.tests.trace;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.util.UUID;
+
+import org.eclipse.tracecompass.ctf.core.CTFException;
+import org.eclipse.tracecompass.ctf.core.event.io.BitBuffer;
+import org.eclipse.tracecompass.ctf.core.event.scope.ILexicalScope;
+import org.eclipse.tracecompass.ctf.core.event.types.ArrayDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.Encoding;
+import org.eclipse.tracecompass.ctf.core.event.types.EnumDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.FloatDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.IntegerDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.StringDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.StructDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.StructDefinition;
+import org.eclipse.tracecompass.ctf.core.trace.ICTFPacketDescriptor;
+import org.eclipse.tracecompass.internal.ctf.core.trace.PacketHeaderDecoder;
+import org.eclipse.tracecompass.internal.ctf.core.trace.PacketHeaderIndexer;
+import org.eclipse.tracecompass.internal.ctf.core.trace.StreamInputPacketIndexEntry;
+import org.eclipse.tracecompass.internal.ctf.core.trace.Utils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The class <code>PacketHeaderDecoderTest</code> checks that the compiled
+ * packet header decoder builds the same index entries as the definitions.
+ */
+@SuppressWarnings("javadoc")
+public class PacketHeaderDecoderTest {
+
+    private static final UUID TRACE_UUID = UUID.fromString("2a6422d0-6cee-11e0-8c08-cb07d7b3a564");
+    private static final long STREAM_ID = 1;
+    private static final int PACKET_SIZE = 256;
+    private static final int PACKET_COUNT = 3;
+
+    private static final IntegerDeclaration UINT8 = IntegerDeclaration.createDeclaration(8, false, 10, ByteOrder.LITTLE_ENDIAN, Encoding.NONE, "", 8);
+    private static final IntegerDeclaration UINT16 = IntegerDeclaration.createDeclaration(16, false, 10, ByteOrder.LITTLE_ENDIAN, Encoding.NONE, "", 64);
+    private static final IntegerDeclaration UINT32 = IntegerDeclaration.createDeclaration(32, false, 10, ByteOrder.LITTLE_ENDIAN, Encoding.NONE, "", 32);
+    private static final IntegerDeclaration UINT64 = IntegerDeclaration.createDeclaration(64, false, 10, ByteOrder.LITTLE_ENDIAN, Encoding.NONE, "", 64);
+    private static final IntegerDeclaration UINT5 = IntegerDeclaration.createDeclaration(5, false, 10, ByteOrder.LITTLE_ENDIAN, Encoding.NONE, "", 1);
+
+    private StructDeclaration fHeader;
+    private StructDeclaration fContext;
+    private File fFile;
+
+    @Before
+    public void setUp() throws IOException {
+        fHeader = new StructDeclaration(8);
+        fHeader.addField("magic", UINT32);
+        fHeader.addField("uuid", new ArrayDeclaration(Utils.UUID_LEN, UINT8));
+        fHeader.addField("stream_id", UINT32);
+
+        EnumDeclaration mode = new EnumDeclaration(UINT8);
+        mode.add(0, 1, "normal");
+        mode.add(2, 2, "overwrite");
+        StructDeclaration nested = new StructDeclaration(8);
+        nested.addField("bits", UINT5);
+        nested.addField("wide", UINT16);
+
+        fContext = new StructDeclaration(8);
+        fContext.addField("timestamp_begin", UINT64);
+        fContext.addField("timestamp_end", UINT64);
+        fContext.addField("content_size", UINT64);
+        fContext.addField("packet_size", UINT64);
+        fContext.addField("events_discarded", UINT32);
+        fContext.addField("mode", mode);
+        fContext.addField("nested", nested);
+        fContext.addField("load", new FloatDeclaration(8, 24, ByteOrder.LITTLE_ENDIAN, 32));
+        fContext.addField("cpu_id", UINT32);
+
+        fFile = File.createTempFile("channel", "_0");
+        ByteBuffer content = ByteBuffer.allocate(PACKET_SIZE * PACKET_COUNT).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < PACKET_COUNT; i++) {
+            writePacket(content, i, Utils.CTF_MAGIC, TRACE_UUID);
+        }
+        Files.write(fFile.toPath(), content.array());
+    }
+
+    private static void writePacket(ByteBuffer content, int i, int magic, UUID uuid) {
+        content.position(i * PACKET_SIZE);
+        content.putInt(magic);
+        content.order(ByteOrder.BIG_ENDIAN);
+        content.putLong(uuid.getMostSignificantBits());
+        content.putLong(uuid.getLeastSignificantBits());
+        content.order(ByteOrder.LITTLE_ENDIAN);
+        content.putInt((int) STREAM_ID);
+        content.putLong(1000L * i);
+        content.putLong(i == PACKET_COUNT - 1 ? -1L : 1000L * i + 999);
+        content.putLong(PACKET_SIZE * 6);
+        content.putLong(PACKET_SIZE * 8);
+        content.putInt(3 * i);
+        content.put((byte) (i % 3));
+        content.position(i * PACKET_SIZE + 64);
+        content.put((byte) 0x1b);
+        content.position(i * PACKET_SIZE + 72);
+        content.putShort((short) (0x1234 + i));
+        content.position(i * PACKET_SIZE + 76);
+        content.putFloat(0.5f * i);
+        content.putInt(i);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(fFile.toPath());
+    }
+
+    private PacketHeaderDecoder createDecoder() {
+        PacketHeaderDecoder decoder = PacketHeaderDecoder.create(fHeader, fContext, ByteOrder.LITTLE_ENDIAN, TRACE_UUID, STREAM_ID);
+        assertNotNull(decoder);
+        return decoder;
+    }
+
+    private ICTFPacketDescriptor readWithDefinitions(long offsetBits, long lostSoFar) throws IOException, CTFException {
+        byte[] content = Files.readAllBytes(fFile.toPath());
+        ByteBuffer packet = ByteBuffer.wrap(content, (int) (offsetBits / Byte.SIZE), PACKET_SIZE).slice();
+        BitBuffer input = new BitBuffer(packet, ByteOrder.LITTLE_ENDIAN);
+        fHeader.createDefinition(null, ILexicalScope.TRACE_PACKET_HEADER, input);
+        StructDefinition context = fContext.createDefinition(null, ILexicalScope.STREAM_PACKET_CONTEXT, input);
+        return new StreamInputPacketIndexEntry(offsetBits, context, content.length, lostSoFar, input.position());
+    }
+
+    @Test
+    public void testSameAsDefinitions() throws IOException, CTFException {
+        long lostSoFar = 0;
+        try (PacketHeaderIndexer indexer = new PacketHeaderIndexer(fFile, createDecoder())) {
+            for (int i = 0; i < PACKET_COUNT; i++) {
+                long offsetBits = (long) i * PACKET_SIZE * Byte.SIZE;
+                ICTFPacketDescriptor expected = readWithDefinitions(offsetBits, lostSoFar);
+                ICTFPacketDescriptor actual = indexer.read(offsetBits, indexer.size(), lostSoFar);
+                assertNotNull(actual);
+                assertEquals(expected.getOffsetBits(), actual.getOffsetBits());
+                assertEquals(expected.getPacketSizeBits(), actual.getPacketSizeBits());
+                assertEquals(expected.getContentSizeBits(), actual.getContentSizeBits());
+                assertEquals(expected.getPayloadStartBits(), actual.getPayloadStartBits());
+                assertEquals(expected.getTimestampBegin(), actual.getTimestampBegin());
+                assertEquals(expected.getTimestampEnd(), actual.getTimestampEnd());
+                assertEquals(expected.getLostEvents(), actual.getLostEvents());
+                assertEquals(expected.getTarget(), actual.getTarget());
+                assertEquals(expected.getTargetId(), actual.getTargetId());
+                assertEquals(expected.getAttributes(), actual.getAttributes());
+                assertEquals("CPU" + i, actual.getTarget());
+                assertEquals(0.5 * i, (Double) actual.getAttributes().get("load"), 1e-6);
+                lostSoFar += actual.getLostEvents();
+            }
+        }
+        assertEquals(3 * (PACKET_COUNT - 1), lostSoFar);
+    }
+
+    @Test
+    public void testSize() {
+        /* The nested struct is aligned on 64 bits, cpu_id ends at 84 */
+        assertEquals(84, createDecoder().getSizeBytes());
+    }
+
+    @Test
+    public void testVariableSize() {
+        fContext.addField("hostname", StringDeclaration.getStringDeclaration(Encoding.UTF8));
+        assertNull(PacketHeaderDecoder.create(fHeader, fContext, ByteOrder.LITTLE_ENDIAN, TRACE_UUID, STREAM_ID));
+    }
+
+    @Test
+    public void testDevice() {
+        fContext.addField("device", UINT32);
+        assertNull(PacketHeaderDecoder.create(fHeader, fContext, ByteOrder.LITTLE_ENDIAN, TRACE_UUID, STREAM_ID));
+    }
+
+    @Test
+    public void testUnknownEnumValue() throws IOException, CTFException {
+        ByteBuffer content = ByteBuffer.wrap(Files.readAllBytes(fFile.toPath())).order(ByteOrder.LITTLE_ENDIAN);
+        content.put(60, (byte) 7);
+        Files.write(fFile.toPath(), content.array());
+        try (PacketHeaderIndexer indexer = new PacketHeaderIndexer(fFile, createDecoder())) {
+            assertNull(indexer.read(0, indexer.size(), 0));
+        }
+    }
+
+    @Test(expected = CTFException.class)
+    public void testBadMagic() throws IOException, CTFException {
+        ByteBuffer content = ByteBuffer.wrap(Files.readAllBytes(fFile.toPath())).order(ByteOrder.LITTLE_ENDIAN);
+        writePacket(content, 1, 0xdeadbeef, TRACE_UUID);
+        Files.write(fFile.toPath(), content.array());
+        try (PacketHeaderIndexer indexer = new PacketHeaderIndexer(fFile, createDecoder())) {
+            indexer.read(PACKET_SIZE * Byte.SIZE, indexer.size(), 0);
+        }
+    }
+
+    @Test(expected = CTFException.class)
+    public void testOtherTrace() throws IOException, CTFException {
+        ByteBuffer content = ByteBuffer.wrap(Files.readAllBytes(fFile.toPath())).order(ByteOrder.LITTLE_ENDIAN);
+        writePacket(content, 1, Utils.CTF_MAGIC, UUID.randomUUID());
+        Files.write(fFile.toPath(), content.array());
+        try (PacketHeaderIndexer indexer = new PacketHeaderIndexer(fFile, createDecoder())) {
+            indexer.read(PACKET_SIZE * Byte.SIZE, indexer.size(), 0);
+        }
+    }
+
+    @Test(expected = CTFException.class)
+    public void testTruncated() throws IOException, CTFException {
+        try (PacketHeaderIndexer indexer = new PacketHeaderIndexer(fFile, createDecoder())) {
+            indexer.read((PACKET_SIZE * PACKET_COUNT - 16) * Byte.SIZE, indexer.size(), 0);
+        }
+    }
+}
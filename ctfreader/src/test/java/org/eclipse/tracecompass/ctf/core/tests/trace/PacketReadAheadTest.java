@@ -0,0 +1,171 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EfficiOS Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.ctf.core.tests.trace;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.eclipse.tracecompass.ctf.core.CTFException;
+import org.eclipse.tracecompass.ctf.core.event.io.BitBuffer;
+import org.eclipse.tracecompass.ctf.core.event.scope.ILexicalScope;
+import org.eclipse.tracecompass.ctf.core.event.types.IntegerDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.StructDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.StructDefinition;
+import org.eclipse.tracecompass.ctf.core.trace.ICTFPacketDescriptor;
+import org.eclipse.tracecompass.internal.ctf.core.trace.PacketReadAhead;
+import org.eclipse.tracecompass.internal.ctf.core.trace.StreamInputPacketIndex;
+import org.eclipse.tracecompass.internal.ctf.core.trace.StreamInputPacketIndexEntry;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The class <code>PacketReadAheadTest</code> contains tests for the class
+ * <code>{@link PacketReadAhead}</code>.
+ */
+@SuppressWarnings("javadoc")
+public class PacketReadAheadTest {
+
+    private static final int PACKET_COUNT = 10;
+
+    private StreamInputPacketIndex fIndex;
+
+    /** Loads queued on the executor, run by the test */
+    private final List<Runnable> fQueued = new ArrayList<>();
+    private final Executor fExecutor = fQueued::add;
+
+    private final List<Long> fLoaded = Collections.synchronizedList(new ArrayList<>());
+    private final List<ByteBuffer> fReleased = Collections.synchronizedList(new ArrayList<>());
+
+    private final PacketReadAhead.IPacketLoader fLoader = new PacketReadAhead.IPacketLoader() {
+        @Override
+        public ByteBuffer load(ICTFPacketDescriptor packet) throws IOException {
+            fLoaded.add(packet.getOffsetBytes());
+            ByteBuffer buffer = ByteBuffer.allocate(8);
+            buffer.putLong(0, packet.getOffsetBytes());
+            return buffer;
+        }
+
+        @Override
+        public void release(ByteBuffer buffer) {
+            fReleased.add(buffer);
+        }
+    };
+
+    @Before
+    public void setUp() throws CTFException {
+        StructDeclaration sd = new StructDeclaration(8);
+        sd.addField("timestamp_begin", IntegerDeclaration.INT_32B_DECL);
+        sd.addField("timestamp_end", IntegerDeclaration.INT_32B_DECL);
+        sd.addField("content_size", IntegerDeclaration.INT_32B_DECL);
+        sd.addField("packet_size", IntegerDeclaration.INT_32B_DECL);
+        fIndex = new StreamInputPacketIndex();
+        for (int i = 0; i < PACKET_COUNT; i++) {
+            ByteBuffer bb = ByteBuffer.allocate(16);
+            bb.putInt(100 * i);
+            bb.putInt(100 * i + 50);
+            bb.putInt(800);
+            bb.putInt(1024);
+            bb.flip();
+            StructDefinition sdef = sd.createDefinition(null, ILexicalScope.STREAM_PACKET_CONTEXT, new BitBuffer(bb));
+            assertTrue(fIndex.append(new StreamInputPacketIndexEntry(1024L * i, sdef, 1024 * PACKET_COUNT, 0, 1024L * i + 128)));
+        }
+    }
+
+    private void runQueued() {
+        for (Runnable runnable : fQueued) {
+            runnable.run();
+        }
+        fQueued.clear();
+    }
+
+    private static long offsetOf(ByteBuffer buffer) {
+        return buffer.getLong(0);
+    }
+
+    @Test
+    public void testSequential() {
+        PacketReadAhead readAhead = new PacketReadAhead(fExecutor, fLoader, 4);
+        assertNull(readAhead.moveTo(0, fIndex));
+        assertEquals(1, fQueued.size());
+        runQueued();
+        ByteBuffer buffer = readAhead.moveTo(1, fIndex);
+        assertNotNull(buffer);
+        assertEquals(128, offsetOf(buffer));
+        assertEquals(1, readAhead.getDepth());
+    }
+
+    @Test
+    public void testAdaptiveDepth() {
+        PacketReadAhead readAhead = new PacketReadAhead(fExecutor, fLoader, 4);
+        readAhead.moveTo(0, fIndex);
+        /* The loads do not keep up, the reader loads the packets itself */
+        for (int packet = 1; packet < 4; packet++) {
+            ByteBuffer buffer = readAhead.moveTo(packet, fIndex);
+            assertNotNull(buffer);
+            assertEquals(128 * packet, offsetOf(buffer));
+        }
+        assertEquals(4, readAhead.getDepth());
+        /* The loads are far ahead, the depth shrinks */
+        runQueued();
+        readAhead.moveTo(4, fIndex);
+        assertEquals(3, readAhead.getDepth());
+    }
+
+    @Test
+    public void testEndOfIndex() {
+        PacketReadAhead readAhead = new PacketReadAhead(fExecutor, fLoader, 4);
+        readAhead.moveTo(PACKET_COUNT - 1, fIndex);
+        assertTrue(fQueued.isEmpty());
+    }
+
+    @Test
+    public void testSeek() {
+        PacketReadAhead readAhead = new PacketReadAhead(fExecutor, fLoader, 4);
+        readAhead.moveTo(0, fIndex);
+        readAhead.moveTo(1, fIndex);
+        readAhead.moveTo(2, fIndex);
+        runQueued();
+        /* Packets 1 and 2 were loaded by the reader, 3 to 6 ahead */
+        assertEquals(6, fLoaded.size());
+        ByteBuffer buffer = readAhead.moveTo(5, fIndex);
+        assertNotNull(buffer);
+        assertEquals(128 * 5, offsetOf(buffer));
+        assertEquals(2, fReleased.size());
+
+        /* Backwards, the loaded packets are dropped */
+        fReleased.clear();
+        runQueued();
+        assertNull(readAhead.moveTo(0, fIndex));
+        assertTrue(fReleased.size() > 0);
+    }
+
+    @Test
+    public void testClear() {
+        PacketReadAhead readAhead = new PacketReadAhead(fExecutor, fLoader, 4);
+        readAhead.moveTo(0, fIndex);
+        runQueued();
+        readAhead.clear();
+        assertEquals(1, fReleased.size());
+        readAhead.moveTo(2, fIndex);
+        fQueued.clear();
+        /* Loads that were not started are cancelled */
+        readAhead.clear();
+        assertEquals(1, fReleased.size());
+    }
+}
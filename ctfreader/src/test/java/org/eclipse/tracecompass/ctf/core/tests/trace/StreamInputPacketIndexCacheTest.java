@@ -0,0 +1,220 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EfficiOS Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.ctf.core.tests.trace;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.eclipse.tracecompass.ctf.core.CTFException;
+import org.eclipse.tracecompass.ctf.core.event.io.BitBuffer;
+import org.eclipse.tracecompass.ctf.core.event.scope.ILexicalScope;
+import org.eclipse.tracecompass.ctf.core.event.types.Encoding;
+import org.eclipse.tracecompass.ctf.core.event.types.EnumDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.IntegerDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.StringDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.StructDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.StructDefinition;
+import org.eclipse.tracecompass.ctf.core.trace.ICTFPacketDescriptor;
+import org.eclipse.tracecompass.internal.ctf.core.trace.StreamInputPacketIndexCache;
+import org.eclipse.tracecompass.internal.ctf.core.trace.StreamInputPacketIndexEntry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The class <code>StreamInputPacketIndexCacheTest</code> contains tests for
+ * the class <code>{@link StreamInputPacketIndexCache}</code>.
+ */
+@SuppressWarnings("javadoc")
+public class StreamInputPacketIndexCacheTest {
+
+    private static final UUID TRACE_UUID = UUID.fromString("2a6422d0-6cee-11e0-8c08-cb07d7b3a564");
+    private static final long STREAM_ID = 3;
+
+    private File fDirectory;
+    private File fCacheDirectory;
+    private File fStreamFile;
+    private File fCacheFile;
+    private List<ICTFPacketDescriptor> fEntries;
+
+    @Before
+    public void setUp() throws IOException, CTFException {
+        fDirectory = Files.createTempDirectory("ctfindex").toFile();
+        fStreamFile = new File(fDirectory, "channel0_0");
+        Files.write(fStreamFile.toPath(), new byte[256]);
+        fCacheDirectory = Files.createTempDirectory("ctfindexcache").toFile();
+        fCacheFile = StreamInputPacketIndexCache.getCacheFile(fCacheDirectory, fStreamFile);
+
+        StructDeclaration sd = new StructDeclaration(8);
+        sd.addField("timestamp_begin", IntegerDeclaration.INT_32B_DECL);
+        sd.addField("timestamp_end", IntegerDeclaration.INT_32B_DECL);
+        sd.addField("content_size", IntegerDeclaration.INT_32B_DECL);
+        sd.addField("packet_size", IntegerDeclaration.INT_32B_DECL);
+        sd.addField("events_discarded", IntegerDeclaration.INT_32B_DECL);
+        sd.addField("cpu_id", IntegerDeclaration.INT_8_DECL);
+        sd.addField("hostname", StringDeclaration.getStringDeclaration(Encoding.ASCII));
+        final EnumDeclaration declaration = new EnumDeclaration(IntegerDeclaration.INT_8_DECL);
+        declaration.add(0, 10, "mode");
+        sd.addField("Enum", declaration);
+
+        fEntries = new ArrayList<>();
+        long lostSoFar = 0;
+        for (int i = 0; i < 2; i++) {
+            ByteBuffer bb = ByteBuffer.allocate(64);
+            bb.putInt(100 * (i + 1));
+            bb.putInt(100 * (i + 1) + 50);
+            bb.putInt(800);
+            bb.putInt(1024);
+            bb.putInt(5 * i);
+            bb.put((byte) 1);
+            bb.put("host".getBytes());
+            bb.put((byte) 0);
+            bb.put((byte) 2);
+            bb.flip();
+            StructDefinition sdef = sd.createDefinition(null, ILexicalScope.STREAM_PACKET_CONTEXT, new BitBuffer(bb));
+            ICTFPacketDescriptor entry = new StreamInputPacketIndexEntry(1024L * i, sdef, 256, lostSoFar, 1024L * i + 160);
+            lostSoFar += entry.getLostEvents();
+            fEntries.add(entry);
+        }
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        File[] cacheFiles = fCacheFile.getParentFile().listFiles();
+        if (cacheFiles != null) {
+            for (File file : cacheFiles) {
+                Files.delete(file.toPath());
+            }
+        }
+        Files.deleteIfExists(fCacheFile.getParentFile().toPath());
+        Files.deleteIfExists(fStreamFile.toPath());
+        Files.deleteIfExists(fDirectory.toPath());
+        Files.deleteIfExists(fCacheDirectory.toPath());
+    }
+
+    private boolean save() {
+        return StreamInputPacketIndexCache.save(fCacheFile, fStreamFile, fStreamFile.length(), fStreamFile.lastModified(), TRACE_UUID, STREAM_ID, fEntries);
+    }
+
+    @Test
+    public void testRoundTrip() {
+        assertTrue(save());
+        List<ICTFPacketDescriptor> loaded = StreamInputPacketIndexCache.load(fCacheFile, fStreamFile, TRACE_UUID, STREAM_ID);
+        assertNotNull(loaded);
+        assertEquals(fEntries.size(), loaded.size());
+        for (int i = 0; i < fEntries.size(); i++) {
+            ICTFPacketDescriptor expected = fEntries.get(i);
+            ICTFPacketDescriptor actual = loaded.get(i);
+            assertEquals(expected.getOffsetBits(), actual.getOffsetBits());
+            assertEquals(expected.getOffsetBytes(), actual.getOffsetBytes());
+            assertEquals(expected.getPacketSizeBits(), actual.getPacketSizeBits());
+            assertEquals(expected.getContentSizeBits(), actual.getContentSizeBits());
+            assertEquals(expected.getPayloadStartBits(), actual.getPayloadStartBits());
+            assertEquals(expected.getTimestampBegin(), actual.getTimestampBegin());
+            assertEquals(expected.getTimestampEnd(), actual.getTimestampEnd());
+            assertEquals(expected.getLostEvents(), actual.getLostEvents());
+            assertEquals(expected.getTarget(), actual.getTarget());
+            assertEquals(expected.getTargetId(), actual.getTargetId());
+            assertEquals(expected.getAttributes(), actual.getAttributes());
+        }
+        assertEquals(5, loaded.get(1).getLostEvents());
+        assertEquals("CPU1", loaded.get(1).getTarget());
+    }
+
+    @Test
+    public void testDisabledByDefault() {
+        assertNull(System.getProperty(StreamInputPacketIndexCache.ENABLED_PROPERTY));
+        assertFalse(StreamInputPacketIndexCache.isEnabled());
+    }
+
+    @Test
+    public void testCacheLocation() {
+        assertTrue(save());
+        /* Nothing is written in the trace directory */
+        assertArrayEquals(new String[] { fStreamFile.getName() }, fDirectory.list());
+        assertEquals(fCacheDirectory, fCacheFile.getParentFile().getParentFile());
+        File otherStreamFile = new File(new File(fDirectory, "other"), fStreamFile.getName());
+        assertNotEquals(fCacheFile, StreamInputPacketIndexCache.getCacheFile(fCacheDirectory, otherStreamFile));
+        assertEquals(fCacheFile, StreamInputPacketIndexCache.getCacheFile(fCacheDirectory, new File(fDirectory, "channel0_0")));
+    }
+
+    @Test
+    public void testOtherStreamFile() throws IOException {
+        assertTrue(save());
+        File otherStreamFile = new File(fDirectory, "channel0_1");
+        Files.copy(fStreamFile.toPath(), otherStreamFile.toPath());
+        try {
+            assertTrue(otherStreamFile.setLastModified(fStreamFile.lastModified()));
+            assertNull(StreamInputPacketIndexCache.load(fCacheFile, otherStreamFile, TRACE_UUID, STREAM_ID));
+        } finally {
+            Files.delete(otherStreamFile.toPath());
+        }
+    }
+
+    @Test
+    public void testNoCache() {
+        assertNull(StreamInputPacketIndexCache.load(fCacheFile, fStreamFile, TRACE_UUID, STREAM_ID));
+    }
+
+    @Test
+    public void testOtherTrace() {
+        assertTrue(save());
+        assertNull(StreamInputPacketIndexCache.load(fCacheFile, fStreamFile, UUID.randomUUID(), STREAM_ID));
+        assertNull(StreamInputPacketIndexCache.load(fCacheFile, fStreamFile, null, STREAM_ID));
+        assertNull(StreamInputPacketIndexCache.load(fCacheFile, fStreamFile, TRACE_UUID, STREAM_ID + 1));
+    }
+
+    @Test
+    public void testRewritten() throws IOException {
+        assertTrue(save());
+        Files.write(fStreamFile.toPath(), new byte[128]);
+        assertNull(StreamInputPacketIndexCache.load(fCacheFile, fStreamFile, TRACE_UUID, STREAM_ID));
+    }
+
+    @Test
+    public void testModified() {
+        assertTrue(save());
+        assertTrue(fStreamFile.setLastModified(fStreamFile.lastModified() - 10000));
+        assertNull(StreamInputPacketIndexCache.load(fCacheFile, fStreamFile, TRACE_UUID, STREAM_ID));
+    }
+
+    @Test
+    public void testGrown() throws IOException {
+        assertTrue(save());
+        Files.write(fStreamFile.toPath(), new byte[128], StandardOpenOption.APPEND);
+        List<ICTFPacketDescriptor> loaded = StreamInputPacketIndexCache.load(fCacheFile, fStreamFile, TRACE_UUID, STREAM_ID);
+        assertNotNull(loaded);
+        assertEquals(fEntries.size(), loaded.size());
+    }
+
+    @Test
+    public void testCorrupted() throws IOException {
+        assertTrue(save());
+        byte[] content = Files.readAllBytes(fCacheFile.toPath());
+        byte[] truncated = new byte[content.length - 10];
+        System.arraycopy(content, 0, truncated, 0, truncated.length);
+        Files.write(fCacheFile.toPath(), truncated);
+        assertNull(StreamInputPacketIndexCache.load(fCacheFile, fStreamFile, TRACE_UUID, STREAM_ID));
+    }
+}
@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EfficiOS Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.ctf.core.tests.types;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+import org.eclipse.tracecompass.ctf.core.CTFException;
+import org.eclipse.tracecompass.ctf.core.event.io.BitBuffer;
+import org.eclipse.tracecompass.ctf.core.event.types.ArrayDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.Encoding;
+import org.eclipse.tracecompass.ctf.core.event.types.EnumDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.IntegerDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.SequenceDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.StringDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.StructDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.VariantDeclaration;
+import org.eclipse.tracecompass.internal.ctf.core.event.types.DeclarationSkipper;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The class <code>DeclarationSkipperTest</code> checks that skipping a struct
+ * moves the input exactly where decoding it does.
+ */
+@SuppressWarnings("javadoc")
+public class DeclarationSkipperTest {
+
+    private static final IntegerDeclaration UINT8 = IntegerDeclaration.createDeclaration(8, false, 10, ByteOrder.LITTLE_ENDIAN, Encoding.NONE, "", 8);
+    private static final IntegerDeclaration UINT16 = IntegerDeclaration.createDeclaration(16, false, 10, ByteOrder.LITTLE_ENDIAN, Encoding.NONE, "", 16);
+    private static final IntegerDeclaration UINT32 = IntegerDeclaration.createDeclaration(32, false, 10, ByteOrder.LITTLE_ENDIAN, Encoding.NONE, "", 32);
+    private static final IntegerDeclaration UINT64 = IntegerDeclaration.createDeclaration(64, false, 10, ByteOrder.LITTLE_ENDIAN, Encoding.NONE, "", 64);
+    private static final IntegerDeclaration UINT5 = IntegerDeclaration.createDeclaration(5, false, 10, ByteOrder.LITTLE_ENDIAN, Encoding.NONE, "", 1);
+
+    private StructDeclaration fFixture;
+
+    @Before
+    public void setUp() {
+        EnumDeclaration tag = new EnumDeclaration(UINT8);
+        tag.add(0, 0, "A");
+        tag.add(1, 1, "B");
+        VariantDeclaration variant = new VariantDeclaration();
+        variant.setTag("tag");
+        variant.addField("A", UINT64);
+        variant.addField("B", StringDeclaration.getStringDeclaration(Encoding.UTF8));
+
+        fFixture = new StructDeclaration(8);
+        fFixture.addField("a", UINT8);
+        fFixture.addField("_len", UINT32);
+        fFixture.addField("seq", new SequenceDeclaration("len", UINT16));
+        fFixture.addField("str", StringDeclaration.getStringDeclaration(Encoding.UTF8));
+        fFixture.addField("tag", tag);
+        fFixture.addField("v", variant);
+        fFixture.addField("arr", new ArrayDeclaration(3, UINT8));
+        fFixture.addField("bits", UINT5);
+        fFixture.addField("end", UINT32);
+    }
+
+    private static ByteBuffer createPayload(int tag) {
+        ByteBuffer bb = ByteBuffer.allocate(128).order(ByteOrder.LITTLE_ENDIAN);
+        bb.put((byte) 7);
+        bb.position(4);
+        bb.putInt(3);
+        bb.putShort((short) 1).putShort((short) 2).putShort((short) 3);
+        bb.put("hello".getBytes(StandardCharsets.UTF_8)).put((byte) 0);
+        bb.put((byte) tag);
+        if (tag == 0) {
+            bb.position((bb.position() + 7) & ~7);
+            bb.putLong(42);
+        } else {
+            bb.put("world".getBytes(StandardCharsets.UTF_8)).put((byte) 0);
+        }
+        bb.put((byte) 1).put((byte) 2).put((byte) 3);
+        bb.put((byte) 0x1f);
+        bb.position((bb.position() + 3) & ~3);
+        bb.putInt(0xcafe);
+        bb.flip();
+        return bb;
+    }
+
+    private void assertSkipsLikeDecode(int tag) throws CTFException {
+        DeclarationSkipper skipper = DeclarationSkipper.create(fFixture);
+        assertNotNull(skipper);
+
+        BitBuffer decoded = new BitBuffer(createPayload(tag));
+        fFixture.createDefinition(null, "fields", decoded);
+
+        BitBuffer skipped = new BitBuffer(createPayload(tag));
+        skipper.skip(skipped);
+        assertEquals(decoded.position(), skipped.position());
+    }
+
+    @Test
+    public void testSkipVariantInteger() throws CTFException {
+        assertSkipsLikeDecode(0);
+    }
+
+    @Test
+    public void testSkipVariantString() throws CTFException {
+        assertSkipsLikeDecode(1);
+    }
+
+    @Test
+    public void testSkipUnaligned() throws CTFException {
+        StructDeclaration struct = new StructDeclaration(1);
+        struct.addField("x", UINT5);
+        struct.addField("y", UINT5);
+        DeclarationSkipper skipper = DeclarationSkipper.create(struct);
+        assertNotNull(skipper);
+        BitBuffer input = new BitBuffer(ByteBuffer.allocate(8));
+        input.position(3);
+        skipper.skip(input);
+        assertEquals(13, input.position());
+    }
+
+    @Test
+    public void testOuterScopeLength() {
+        StructDeclaration struct = new StructDeclaration(8);
+        struct.addField("seq", new SequenceDeclaration("stream.event.context.len", UINT8));
+        assertNull(DeclarationSkipper.create(struct));
+    }
+
+    @Test(expected = CTFException.class)
+    public void testSkipTooShort() throws CTFException {
+        DeclarationSkipper skipper = DeclarationSkipper.create(fFixture);
+        assertNotNull(skipper);
+        byte[] truncated = new byte[10];
+        createPayload(0).get(truncated);
+        skipper.skip(new BitBuffer(ByteBuffer.wrap(truncated)));
+    }
+}
@@ -157,6 +157,55 @@ public class EnumDeclarationTest {
         assertFalse(fixture.add(00, 02, "zork"));
     }
 
+    /**
+     * Tests adding a range containing one added before, the first one added
+     * wins
+     */
+    @Test
+    public void testContainedRange() {
+        assertTrue(fixture.add(01, 02, "fork"));
+        assertTrue(fixture.add(00, 03, "zork"));
+        assertEquals("zork", fixture.query(0));
+        assertEquals("fork", fixture.query(1));
+        assertEquals("fork", fixture.query(2));
+        assertEquals("zork", fixture.query(3));
+        assertNull(fixture.query(4));
+    }
+
+    /**
+     * Tests querying ranges too far apart to be indexed directly
+     */
+    @Test
+    public void testQuerySparse() {
+        for (int i = 0; i < 500; i++) {
+            assertTrue(fixture.add(i * 1000L, i * 1000L + 9, "label" + i));
+        }
+        assertTrue(fixture.add(Long.MIN_VALUE, -1, "negative"));
+        assertTrue(fixture.add(Long.MAX_VALUE, Long.MAX_VALUE, "max"));
+        assertEquals("label0", fixture.query(0));
+        assertEquals("label250", fixture.query(250009));
+        assertEquals("label499", fixture.query(499000));
+        assertNull(fixture.query(250010));
+        assertNull(fixture.query(500000));
+        assertEquals("negative", fixture.query(Long.MIN_VALUE));
+        assertEquals("negative", fixture.query(-1));
+        assertEquals("max", fixture.query(Long.MAX_VALUE));
+    }
+
+    /**
+     * Tests adding a range after the table is queried
+     */
+    @Test
+    public void testAddAfterQuery() {
+        assertTrue(fixture.add(00, 01, "fork"));
+        assertNull(fixture.query(5));
+        assertTrue(fixture.add(05, 05, "zork"));
+        assertTrue(fixture.add("bork"));
+        assertEquals("zork", fixture.query(5));
+        assertEquals("bork", fixture.query(6));
+        assertEquals("fork", fixture.query(1));
+    }
+
     /**
      * Run the EnumDefinition createDefinition(DefinitionScope,String) method
      * test.
@@ -0,0 +1,137 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EfficiOS Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.ctf.core.tests.types;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.eclipse.tracecompass.ctf.core.CTFException;
+import org.eclipse.tracecompass.ctf.core.event.io.BitBuffer;
+import org.eclipse.tracecompass.ctf.core.event.scope.ILexicalScope;
+import org.eclipse.tracecompass.ctf.core.event.types.AbstractArrayDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.Encoding;
+import org.eclipse.tracecompass.ctf.core.event.types.EnumDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.IntegerDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.IntegerDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.SequenceDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.StructDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.StructDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.VariantDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.VariantDefinition;
+import org.eclipse.tracecompass.internal.ctf.core.event.types.EventScope;
+import org.eclipse.tracecompass.internal.ctf.core.event.types.FieldReference;
+import org.junit.Test;
+
+/**
+ * The class <code>FieldReferenceTest</code> contains tests for the class
+ * <code>{@link FieldReference}</code> and the variants and sequences read
+ * with it.
+ */
+@SuppressWarnings("javadoc")
+public class FieldReferenceTest {
+
+    private static final IntegerDeclaration UINT8 = IntegerDeclaration.createDeclaration(8, false, 10, ByteOrder.LITTLE_ENDIAN, Encoding.NONE, "", 8);
+
+    private static VariantDeclaration createVariant(String tag) {
+        VariantDeclaration variant = new VariantDeclaration();
+        variant.setTag(tag);
+        variant.addField("small", UINT8);
+        variant.addField("pair", new SequenceDeclaration("len", UINT8));
+        return variant;
+    }
+
+    private static EnumDeclaration createTag() {
+        EnumDeclaration tag = new EnumDeclaration(UINT8);
+        tag.add(0, 0, "small");
+        tag.add(1, 1, "pair");
+        return tag;
+    }
+
+    private static BitBuffer input(int... bytes) {
+        ByteBuffer data = ByteBuffer.allocate(bytes.length);
+        for (int b : bytes) {
+            data.put((byte) b);
+        }
+        data.flip();
+        return new BitBuffer(data, ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Test
+    public void testResolveSibling() {
+        StructDeclaration struct = new StructDeclaration(8);
+        struct.addField("_len", UINT8);
+        struct.addField("seq", new SequenceDeclaration("len", UINT8));
+        struct.addField("next", UINT8);
+        FieldReference reference = FieldReference.resolve("len", struct, 1);
+        assertNotNull(reference);
+        assertFalse(reference.isAbsolute());
+        /* Not read yet */
+        assertNull(FieldReference.resolve("next", struct, 1));
+        assertNull(FieldReference.resolve("missing", struct, 1));
+    }
+
+    @Test
+    public void testParse() {
+        FieldReference reference = FieldReference.parse("event.fields.len");
+        assertNotNull(reference);
+        assertTrue(reference.isAbsolute());
+        assertNotNull(FieldReference.parse("stream.event.header.id"));
+        assertNotNull(FieldReference.parse("trace.packet.header.stream_id"));
+        /* The packet context is not one of the scopes of the event */
+        assertNull(FieldReference.parse("stream.packet.context.len"));
+        assertNull(FieldReference.parse("event.fields."));
+        assertNull(FieldReference.parse("len"));
+    }
+
+    @Test
+    public void testSiblingReferences() throws CTFException {
+        StructDeclaration struct = new StructDeclaration(8);
+        struct.addField("len", UINT8);
+        struct.addField("tag", createTag());
+        struct.addField("seq", new SequenceDeclaration("len", UINT8));
+        struct.addField("value", createVariant("tag"));
+        StructDefinition result = struct.createDefinition(null, ILexicalScope.FIELDS, input(2, 1, 7, 8, 3, 4));
+        AbstractArrayDefinition seq = (AbstractArrayDefinition) result.getDefinition("seq");
+        assertEquals(2, seq.getLength());
+        VariantDefinition value = (VariantDefinition) result.getDefinition("value");
+        assertEquals("pair", value.getCurrentFieldName());
+        assertEquals(2, ((AbstractArrayDefinition) value.getCurrentField()).getLength());
+    }
+
+    @Test
+    public void testEventScopes() throws CTFException {
+        StructDeclaration header = new StructDeclaration(8);
+        header.addField("kind", createTag());
+        StructDeclaration context = new StructDeclaration(8);
+        context.addField("count", UINT8);
+        StructDeclaration fields = new StructDeclaration(8);
+        fields.addField("values", new SequenceDeclaration("event.context.count", UINT8));
+        fields.addField("value", createVariant("stream.event.header.kind"));
+
+        StructDefinition headerDef = header.createDefinition(null, ILexicalScope.EVENT_HEADER, input(0));
+        EventScope scope = new EventScope(null, null, headerDef);
+        StructDefinition contextDef = context.createFieldDefinition(headerDef, scope, ILexicalScope.CONTEXT, input(3));
+        StructDefinition fieldsDef = fields.createFieldDefinition(headerDef, scope, ILexicalScope.FIELDS, input(5, 6, 7, 42));
+
+        assertEquals(3, ((AbstractArrayDefinition) fieldsDef.getDefinition("values")).getLength());
+        VariantDefinition value = (VariantDefinition) fieldsDef.getDefinition("value");
+        assertEquals("small", value.getCurrentFieldName());
+        assertEquals(42, ((IntegerDefinition) value.getCurrentField()).getValue());
+        assertSame(contextDef.getDefinition("count"), scope.lookupDefinition("event.context.count"));
+        assertSame(fieldsDef.getDefinition("values"), fieldsDef.lookupDefinition("event.fields.values"));
+    }
+}
@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EfficiOS Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.ctf.core.tests.types;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+
+import org.eclipse.tracecompass.ctf.core.CTFException;
+import org.eclipse.tracecompass.ctf.core.event.io.BitBuffer;
+import org.eclipse.tracecompass.ctf.core.event.scope.ILexicalScope;
+import org.eclipse.tracecompass.ctf.core.event.types.AbstractArrayDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.ArrayDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.Definition;
+import org.eclipse.tracecompass.ctf.core.event.types.Encoding;
+import org.eclipse.tracecompass.ctf.core.event.types.IntegerArrayDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.IntegerDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.IntegerDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.SequenceDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.StructDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.StructDefinition;
+import org.junit.Test;
+
+/**
+ * The class <code>IntegerArrayDefinitionTest</code> contains tests for the
+ * class <code>{@link IntegerArrayDefinition}</code>.
+ */
+@SuppressWarnings("javadoc")
+public class IntegerArrayDefinitionTest {
+
+    private static IntegerDeclaration integer(int length, boolean signed, ByteOrder order, int alignment) {
+        return IntegerDeclaration.createDeclaration(length, signed, 10, order, Encoding.NONE, "", alignment);
+    }
+
+    @Test
+    public void testShorts() throws CTFException {
+        ArrayDeclaration declaration = new ArrayDeclaration(3, integer(16, false, ByteOrder.LITTLE_ENDIAN, 16));
+        ByteBuffer data = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+        data.putShort((short) 1).putShort((short) 0xFFFF).putShort((short) 0x8000);
+        data.clear();
+        AbstractArrayDefinition result = declaration.createDefinition(null, "args", new BitBuffer(data, ByteOrder.LITTLE_ENDIAN));
+        assertTrue(result instanceof IntegerArrayDefinition);
+        assertArrayEquals(new long[] { 1, 0xFFFF, 0x8000 }, ((IntegerArrayDefinition) result).getValues());
+    }
+
+    @Test
+    public void testSignedBitFields() throws CTFException {
+        /* Packed 5-bit elements, not byte aligned */
+        ArrayDeclaration declaration = new ArrayDeclaration(4, integer(5, true, ByteOrder.BIG_ENDIAN, 1));
+        BitBuffer input = new BitBuffer(ByteBuffer.allocate(8));
+        input.putInt(5, 3);
+        input.putInt(5, -1);
+        input.putInt(5, -16);
+        input.putInt(5, 15);
+        input.position(0);
+        IntegerArrayDefinition result = (IntegerArrayDefinition) declaration.createDefinition(null, "bits", input);
+        assertArrayEquals(new long[] { 3, -1, -16, 15 }, result.getValues());
+        assertEquals(20, input.position());
+    }
+
+    @Test
+    public void testByteOrder() throws CTFException {
+        ArrayDeclaration declaration = new ArrayDeclaration(2, integer(32, false, ByteOrder.BIG_ENDIAN, 32));
+        ByteBuffer data = ByteBuffer.allocate(8);
+        data.putInt(0xDEADBEEF).putInt(2);
+        data.clear();
+        BitBuffer input = new BitBuffer(data, ByteOrder.LITTLE_ENDIAN);
+        IntegerArrayDefinition result = (IntegerArrayDefinition) declaration.createDefinition(null, "words", input);
+        assertEquals(0xDEADBEEFL, result.getValue(0));
+        assertEquals(2, result.getValue(1));
+        assertEquals(ByteOrder.LITTLE_ENDIAN, input.getByteOrder());
+    }
+
+    @Test
+    public void testSequence() throws CTFException {
+        StructDeclaration struct = new StructDeclaration(8);
+        struct.addField("len", integer(8, false, ByteOrder.LITTLE_ENDIAN, 8));
+        struct.addField("counters", new SequenceDeclaration("len", integer(64, true, ByteOrder.LITTLE_ENDIAN, 64)));
+        ByteBuffer data = ByteBuffer.allocate(32).order(ByteOrder.LITTLE_ENDIAN);
+        data.put((byte) 2);
+        data.position(8);
+        data.putLong(-5).putLong(Long.MAX_VALUE);
+        data.clear();
+        StructDefinition result = struct.createDefinition(null, ILexicalScope.FIELDS, new BitBuffer(data, ByteOrder.LITTLE_ENDIAN));
+        IntegerArrayDefinition counters = (IntegerArrayDefinition) result.getDefinition("counters");
+        assertArrayEquals(new long[] { -5, Long.MAX_VALUE }, counters.getValues());
+    }
+
+    @Test
+    public void testGetDefinitions() throws CTFException {
+        ArrayDeclaration declaration = new ArrayDeclaration(2, integer(32, true, ByteOrder.LITTLE_ENDIAN, 32));
+        ByteBuffer data = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+        data.putInt(-7).putInt(42);
+        data.clear();
+        IntegerArrayDefinition result = (IntegerArrayDefinition) declaration.createDefinition(null, "args", new BitBuffer(data, ByteOrder.LITTLE_ENDIAN));
+        List<Definition> definitions = result.getDefinitions();
+        assertEquals(2, definitions.size());
+        assertEquals(-7, ((IntegerDefinition) definitions.get(0)).getValue());
+        assertSame(declaration.getElementType(), definitions.get(1).getDeclaration());
+        assertSame(definitions, result.getDefinitions());
+        assertEquals("[-7, 42]", result.toString());
+    }
+}
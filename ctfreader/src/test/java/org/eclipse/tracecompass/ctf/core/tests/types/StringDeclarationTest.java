@@ -14,8 +14,12 @@ package org.eclipse.tracecompass.ctf.core.tests.types;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
 
 import org.eclipse.tracecompass.ctf.core.CTFException;
 import org.eclipse.tracecompass.ctf.core.event.io.BitBuffer;
@@ -23,6 +27,7 @@ import org.eclipse.tracecompass.ctf.core.event.scope.IDefinitionScope;
 import org.eclipse.tracecompass.ctf.core.event.types.Encoding;
 import org.eclipse.tracecompass.ctf.core.event.types.StringDeclaration;
 import org.eclipse.tracecompass.ctf.core.event.types.StringDefinition;
+import org.eclipse.tracecompass.internal.ctf.core.event.types.StringCache;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -148,4 +153,90 @@ public class StringDeclarationTest {
         assertEquals(d, a);
         assertEquals(a, a);
     }
-}
\ No newline at end of file
+
+    private static ByteBuffer createStrings(ByteBuffer buffer, String... values) {
+        for (String value : values) {
+            buffer.put(value.getBytes(StandardCharsets.UTF_8)).put((byte) 0);
+        }
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * Test reading strings of all lengths before and after the terminator
+     * search crosses an 8 byte word, in heap and direct buffers of both byte
+     * orders
+     *
+     * @throws CTFException
+     *             out of buffer exception
+     */
+    @Test
+    public void testRead() throws CTFException {
+        StringBuilder value = new StringBuilder();
+        for (int length = 0; length < 20; length++) {
+            for (ByteOrder order : new ByteOrder[] { ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN }) {
+                for (ByteBuffer buffer : new ByteBuffer[] { ByteBuffer.allocate(64), ByteBuffer.allocateDirect(64) }) {
+                    BitBuffer bb = new BitBuffer(createStrings(buffer, value.toString(), "next"), order);
+                    assertEquals(value.toString(), fixture.createDefinition(null, "id", bb).getValue());
+                    assertEquals((length + 1) * Byte.SIZE, bb.position());
+                    assertEquals("next", fixture.createDefinition(null, "id", bb).getValue());
+                }
+            }
+            value.append((char) ('a' + length));
+        }
+    }
+
+    /**
+     * Test that UTF-8 strings are decoded as such, and the other strings with
+     * a char per byte
+     *
+     * @throws CTFException
+     *             out of buffer exception
+     */
+    @Test
+    public void testReadUtf8() throws CTFException {
+        String value = "caf\u00e9 \u2603";
+        StringDeclaration utf8 = StringDeclaration.getStringDeclaration(Encoding.UTF8);
+        BitBuffer bb = new BitBuffer(createStrings(ByteBuffer.allocateDirect(32), value));
+        assertEquals(value, utf8.createDefinition(null, "id", bb).getValue());
+        bb.position(0);
+        assertEquals(new String(value.getBytes(StandardCharsets.UTF_8), StandardCharsets.ISO_8859_1), fixture.createDefinition(null, "id", bb).getValue());
+    }
+
+    /**
+     * Test that a string without a terminator is not read
+     *
+     * @throws CTFException
+     *             expected
+     */
+    @Test(expected = CTFException.class)
+    public void testReadUnterminated() throws CTFException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(12);
+        buffer.put("unterminated".getBytes(StandardCharsets.US_ASCII));
+        buffer.clear();
+        fixture.createDefinition(null, "id", new BitBuffer(buffer));
+    }
+
+    /**
+     * Test that the strings read again are shared
+     *
+     * @throws CTFException
+     *             out of buffer exception
+     */
+    @Test
+    public void testStringCache() throws CTFException {
+        BitBuffer bb = new BitBuffer(createStrings(ByteBuffer.allocateDirect(32), "lttng-sessiond", "lttng-sessiond"));
+        String first = fixture.createDefinition(null, "id", bb).getValue();
+        assertSame(first, fixture.createDefinition(null, "id", bb).getValue());
+
+        StringCache cache = new StringCache(1);
+        ByteBuffer buffer = createStrings(ByteBuffer.allocate(32), "ls", "cat", "ls");
+        String ls = cache.get(buffer, 0, 2, StandardCharsets.UTF_8);
+        assertSame(ls, cache.get(buffer, 7, 2, StandardCharsets.UTF_8));
+        assertEquals("cat", cache.get(buffer, 3, 3, StandardCharsets.UTF_8));
+        /* Replaced in the only slot */
+        String again = cache.get(buffer, 7, 2, StandardCharsets.UTF_8);
+        assertEquals(ls, again);
+        assertNotSame(ls, again);
+    }
+}
@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EfficiOS Inc.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.ctf.core.tests.types;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.eclipse.tracecompass.ctf.core.CTFException;
+import org.eclipse.tracecompass.ctf.core.event.io.BitBuffer;
+import org.eclipse.tracecompass.ctf.core.event.scope.ILexicalScope;
+import org.eclipse.tracecompass.ctf.core.event.types.AbstractArrayDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.Encoding;
+import org.eclipse.tracecompass.ctf.core.event.types.EnumDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.EnumDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.FloatDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.FloatDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.IntegerDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.IntegerDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.SequenceDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.StringDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.StringDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.StructDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.StructDefinition;
+import org.eclipse.tracecompass.internal.ctf.core.event.types.StructDecoder;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The class <code>StructDecoderTest</code> checks that the specialized
+ * decoders of {@link StructDecoder} read the fields of a struct like their
+ * declarations do.
+ */
+@SuppressWarnings("javadoc")
+public class StructDecoderTest {
+
+    private static final IntegerDeclaration INT8 = IntegerDeclaration.createDeclaration(8, true, 10, ByteOrder.LITTLE_ENDIAN, Encoding.NONE, "", 8);
+    private static final IntegerDeclaration UINT8 = IntegerDeclaration.createDeclaration(8, false, 10, ByteOrder.LITTLE_ENDIAN, Encoding.NONE, "", 8);
+    private static final IntegerDeclaration UINT3 = IntegerDeclaration.createDeclaration(3, false, 10, ByteOrder.LITTLE_ENDIAN, Encoding.NONE, "", 1);
+    private static final IntegerDeclaration UINT32_BE = IntegerDeclaration.createDeclaration(32, false, 16, ByteOrder.BIG_ENDIAN, Encoding.NONE, "", 32);
+    private static final IntegerDeclaration UINT16_LE = IntegerDeclaration.createDeclaration(16, false, 10, ByteOrder.LITTLE_ENDIAN, Encoding.NONE, "", 16);
+
+    private StructDeclaration fFixture;
+
+    @Before
+    public void setUp() {
+        EnumDeclaration state = new EnumDeclaration(UINT16_LE);
+        state.add(1, 1, "RUNNING");
+        fFixture = new StructDeclaration(8);
+        fFixture.addField("small", INT8);
+        fFixture.addField("bits", UINT3);
+        fFixture.addField("big", UINT32_BE);
+        fFixture.addField("state", state);
+        fFixture.addField("load", new FloatDeclaration(11, 53, ByteOrder.LITTLE_ENDIAN, 64));
+        fFixture.addField("comm", StringDeclaration.getStringDeclaration(Encoding.UTF8));
+        fFixture.addField("len", UINT8);
+        fFixture.addField("seq", new SequenceDeclaration("len", UINT16_LE));
+    }
+
+    private static ByteBuffer createData() {
+        ByteBuffer data = ByteBuffer.allocate(64).order(ByteOrder.LITTLE_ENDIAN);
+        data.put((byte) -3);
+        data.put((byte) 5);
+        data.position(4);
+        data.order(ByteOrder.BIG_ENDIAN).putInt(0x12345678).order(ByteOrder.LITTLE_ENDIAN);
+        data.putShort((short) 1);
+        data.position(16);
+        data.putDouble(2.5);
+        data.put("ls".getBytes()).put((byte) 0);
+        data.put((byte) 2);
+        data.putShort((short) 7).putShort((short) 9);
+        data.flip();
+        return data;
+    }
+
+    @Test
+    public void testCreateDefinition() throws CTFException {
+        BitBuffer input = new BitBuffer(createData(), ByteOrder.LITTLE_ENDIAN);
+        StructDefinition result = fFixture.createDefinition(null, ILexicalScope.FIELDS, input);
+        assertEquals(-3, ((IntegerDefinition) result.getDefinition("small")).getValue());
+        assertEquals(5, ((IntegerDefinition) result.getDefinition("bits")).getValue());
+        assertEquals(0x12345678, ((IntegerDefinition) result.getDefinition("big")).getValue());
+        assertEquals("RUNNING", ((EnumDefinition) result.getDefinition("state")).getValue());
+        assertEquals(2.5, ((FloatDefinition) result.getDefinition("load")).getValue(), 0);
+        assertEquals("ls", ((StringDefinition) result.getDefinition("comm")).getValue());
+        AbstractArrayDefinition seq = (AbstractArrayDefinition) result.getDefinition("seq");
+        assertEquals(2, seq.getLength());
+        assertEquals(9, ((IntegerDefinition) seq.getDefinitions().get(1)).getValue());
+        assertEquals(ByteOrder.LITTLE_ENDIAN, input.getByteOrder());
+        assertEquals(32 * Byte.SIZE, input.position());
+    }
+
+    @Test
+    public void testAddField() throws CTFException {
+        fFixture.createDefinition(null, ILexicalScope.FIELDS, new BitBuffer(createData(), ByteOrder.LITTLE_ENDIAN));
+        fFixture.addField("last", INT8);
+        ByteBuffer data = createData();
+        data.limit(data.limit() + 1);
+        data.put(data.limit() - 1, (byte) 42);
+        StructDefinition result = fFixture.createDefinition(null, ILexicalScope.FIELDS, new BitBuffer(data, ByteOrder.LITTLE_ENDIAN));
+        assertEquals(42, ((IntegerDefinition) result.getDefinition("last")).getValue());
+    }
+}